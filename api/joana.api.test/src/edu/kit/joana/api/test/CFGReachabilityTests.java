@@ -0,0 +1,197 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.BuildSDG;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFG;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFGReachability;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.wala.core.SDGBuilder.PointsToPrecision;
+
+/**
+ * Checks the answers of {@link CFGReachability} against the traversals it replaces, on random graphs and on the
+ * icfgs of some concurrent test programs.
+ */
+public class CFGReachabilityTests {
+
+	static final int seed = 5;
+	static final int nrOfTests = 400;
+	static final int maxSize = 300;
+	/** number of sources of the queries on the icfgs of real programs */
+	static final int nrOfSources = 300;
+
+	/** control flow is drawn more often than the other kinds, the last two kinds are never followed by SLICE */
+	private static final SDGEdge.Kind[] KINDS = {
+		SDGEdge.Kind.CONTROL_FLOW, SDGEdge.Kind.CONTROL_FLOW, SDGEdge.Kind.CONTROL_FLOW,
+		SDGEdge.Kind.CALL, SDGEdge.Kind.RETURN, SDGEdge.Kind.FORK, SDGEdge.Kind.JOIN,
+		SDGEdge.Kind.NO_FLOW, SDGEdge.Kind.JUMP_FLOW
+	};
+
+	private static CFG randomCFG(Random random) {
+		final int n = 2 + random.nextInt(maxSize);
+		final CFG cfg = new CFG();
+		final SDGNode[] nodes = new SDGNode[n];
+		for (int i = 0; i < n; i++) {
+			nodes[i] = new SDGNode(SDGNode.Kind.EXPRESSION, i + 1, 0, "n" + i);
+			cfg.addVertex(nodes[i]);
+		}
+		final int m = random.nextInt(3 * n);
+		for (int i = 0; i < m; i++) {
+			final SDGNode source = nodes[random.nextInt(n)];
+			final SDGNode target = nodes[random.nextInt(n)];
+			cfg.addEdge(KINDS[random.nextInt(KINDS.length)].newEdge(source, target));
+		}
+
+		return cfg;
+	}
+
+	/**
+	 * The two-phase traversal described by {@link CFGReachability.Mode#THREAD_REGIONS}, with separate markings for
+	 * both phases: all edges are followed, call and fork edges lead to phase 2, in which return edges are not followed.
+	 */
+	private static Set<SDGNode> threadRegionsReached(CFG cfg, SDGNode source) {
+		final Set<SDGNode> marked1 = new HashSet<SDGNode>();
+		final Set<SDGNode> marked2 = new HashSet<SDGNode>();
+		final Deque<SDGNode> w1 = new ArrayDeque<SDGNode>();
+		final Deque<SDGNode> w2 = new ArrayDeque<SDGNode>();
+		marked1.add(source);
+		w1.add(source);
+		while (!w1.isEmpty()) {
+			final SDGNode next = w1.poll();
+			for (SDGEdge e : cfg.outgoingEdgesOf(next)) {
+				if (e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.FORK) {
+					if (marked2.add(e.getTarget())) {
+						w2.add(e.getTarget());
+					}
+				} else if (marked1.add(e.getTarget())) {
+					w1.add(e.getTarget());
+				}
+			}
+		}
+		while (!w2.isEmpty()) {
+			final SDGNode next = w2.poll();
+			for (SDGEdge e : cfg.outgoingEdgesOf(next)) {
+				if (e.getKind() != SDGEdge.Kind.RETURN && marked2.add(e.getTarget())) {
+					w2.add(e.getTarget());
+				}
+			}
+		}
+
+		final Set<SDGNode> reached = new HashSet<SDGNode>(marked1);
+		reached.addAll(marked2);
+		return reached;
+	}
+
+	/**
+	 * Compares the index in both modes for the given sources with all nodes of the cfg as targets.
+	 * @return number of queries that were answered positively
+	 */
+	private static int compare(CFG cfg, List<SDGNode> sources) {
+		final CFGReachability slice = new CFGReachability(cfg, CFGReachability.Mode.SLICE);
+		final CFGReachability threadRegions = new CFGReachability(cfg, CFGReachability.Mode.THREAD_REGIONS);
+		final CFGForward forward = new CFGForward(cfg);
+		int positive = 0;
+		for (SDGNode source : sources) {
+			final Set<SDGNode> sliceReached = new HashSet<SDGNode>(forward.slice(source));
+			final Set<SDGNode> threadRegionsReached = threadRegionsReached(cfg, source);
+			for (SDGNode target : cfg.vertexSet()) {
+				final boolean reaches = sliceReached.contains(target);
+				assertEquals("slice " + source + " -> " + target, reaches, slice.reaches(source, target));
+				assertEquals("thread regions " + source + " -> " + target, threadRegionsReached.contains(target),
+						threadRegions.reaches(source, target));
+				if (reaches) {
+					positive++;
+				}
+			}
+		}
+
+		return positive;
+	}
+
+	@Test
+	public void testRandomCFGs() {
+		final Random random = new Random(seed);
+		long queries = 0;
+		long positive = 0;
+		for (int t = 0; t < nrOfTests; t++) {
+			final CFG cfg = randomCFG(random);
+			positive += compare(cfg, new ArrayList<SDGNode>(cfg.vertexSet()));
+			queries += (long) cfg.vertexSet().size() * cfg.vertexSet().size();
+		}
+
+		// make sure the random graphs are neither trivially connected nor trivially disconnected
+		assertTrue(positive > queries / 20);
+		assertTrue(positive < queries / 2);
+	}
+
+	@Test
+	public void testNodesOutsideOfTheCFG() {
+		final CFG cfg = randomCFG(new Random(seed));
+		final SDGNode outside = new SDGNode(SDGNode.Kind.EXPRESSION, 0, 0, "outside");
+		final SDGNode inside = cfg.vertexSet().iterator().next();
+		for (CFGReachability.Mode mode : CFGReachability.Mode.values()) {
+			final CFGReachability index = new CFGReachability(cfg, mode);
+			assertFalse(index.contains(outside));
+			assertTrue(index.contains(inside));
+			assertTrue(index.reaches(inside, inside));
+			assertFalse(index.reaches(outside, outside));
+			assertFalse(index.reaches(outside, inside));
+			assertFalse(index.reaches(inside, outside));
+		}
+	}
+
+	private static void testProgram(Class<?> clazz) {
+		final SDGProgram p = BuildSDG.standardConcBuild(
+				JoanaPath.JOANA_MANY_SMALL_PROGRAMS_CLASSPATH,
+				JavaMethodSignature.mainMethodOfClass(clazz.getCanonicalName()),
+				clazz.getCanonicalName() + ".CFGReachabilityTests.pdg",
+				PointsToPrecision.INSTANCE_BASED
+				);
+		final CFG icfg = ICFGBuilder.extractICFGIncludingJoins(p.getSDG());
+
+		final List<SDGNode> sources = new ArrayList<SDGNode>(icfg.vertexSet());
+		Collections.shuffle(sources, new Random(seed));
+		assertTrue(compare(icfg, sources.subList(0, Math.min(nrOfSources, sources.size()))) > 0);
+	}
+
+	@Test
+	public void testKnapsack5() {
+		testProgram(conc.kn.Knapsack5.class);
+	}
+
+	@Test
+	public void testDaisy() {
+		testProgram(conc.daisy.DaisyTest.class);
+	}
+
+	@Test
+	public void testMutualRecursive() {
+		testProgram(tests.MutualRecursive.class);
+	}
+}
@@ -0,0 +1,217 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.chopper.CompactIntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.IntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.slicer.CompactContextInsensitiveBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.CompactContextInsensitiveForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.CompactSummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.CompactSummarySlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerForward;
+
+/**
+ * Checks that the slicers and the chopper on a {@link CompactSDG} compute the same results as the corresponding
+ * slicers and chopper on the {@link SDG}.
+ */
+public class CompactSlicingRandomizedTests {
+
+	static final int seed = 42;
+	static final int maxSize = 300;
+	static final int maxCriteria = 10;
+	static final int nrOfTests = 200;
+
+	private static final SDGEdge.Kind[] kinds = {
+		SDGEdge.Kind.CONTROL_DEP_EXPR, SDGEdge.Kind.DATA_DEP, SDGEdge.Kind.DATA_HEAP, SDGEdge.Kind.DATA_ALIAS,
+		SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.PARAMETER_OUT, SDGEdge.Kind.CALL, SDGEdge.Kind.SUMMARY,
+		SDGEdge.Kind.INTERFERENCE, SDGEdge.Kind.FORK, SDGEdge.Kind.HELP
+	};
+
+	private static SDG randomSDG(Random random, List<SDGNode> nodes) {
+		final SDG sdg = new SDG();
+		final int n = 1 + random.nextInt(maxSize);
+		for (int i = 0; i < n; i++) {
+			// ids are neither dense nor added in order
+			final int id = 1 + random.nextInt(3 * maxSize);
+			if (sdg.getNode(id) != null) {
+				continue;
+			}
+			final SDGNode node = new SDGNode(SDGNode.Kind.EXPRESSION, id, random.nextInt(5), null);
+			sdg.addVertex(node);
+			nodes.add(node);
+		}
+
+		final int m = random.nextInt(3 * nodes.size());
+		for (int i = 0; i < m; i++) {
+			final SDGNode source = nodes.get(random.nextInt(nodes.size()));
+			final SDGNode target = nodes.get(random.nextInt(nodes.size()));
+			sdg.addEdge(kinds[random.nextInt(kinds.length)].newEdge(source, target));
+		}
+
+		return sdg;
+	}
+
+	private static List<SDGNode> randomNodes(Random random, List<SDGNode> nodes) {
+		final List<SDGNode> result = new ArrayList<SDGNode>();
+		final int k = 1 + random.nextInt(maxCriteria);
+		for (int i = 0; i < k; i++) {
+			result.add(nodes.get(random.nextInt(nodes.size())));
+		}
+		return result;
+	}
+
+	private static void assertSameSlices(Slicer expected, Slicer actual, List<SDGNode> criteria) {
+		assertSame(expected.slice(criteria), actual.slice(criteria));
+		assertSame(expected.slice(criteria.get(0)), actual.slice(criteria.get(0)));
+	}
+
+	private static void assertSame(Collection<SDGNode> expected, Collection<SDGNode> actual) {
+		final Set<SDGNode> expectedSet = new HashSet<SDGNode>(expected);
+		assertEquals(expectedSet, new HashSet<SDGNode>(actual));
+		assertEquals(expectedSet.size(), actual.size());
+	}
+
+	@Test
+	public void testSameSlices() {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final List<SDGNode> nodes = new ArrayList<SDGNode>();
+			final SDG sdg = randomSDG(random, nodes);
+			final CompactSDG compact = CompactSDG.build(sdg);
+			final List<SDGNode> criteria = randomNodes(random, nodes);
+			final Set<SDGNode> sub = new HashSet<SDGNode>(new ContextInsensitiveForward(sdg).slice(randomNodes(random, nodes)));
+
+			assertSameSlices(new ContextInsensitiveBackward(sdg), new CompactContextInsensitiveBackward(compact), criteria);
+			assertSameSlices(new ContextInsensitiveForward(sdg), new CompactContextInsensitiveForward(compact), criteria);
+			assertSameSlices(new SummarySlicerBackward(sdg), new CompactSummarySlicerBackward(compact), criteria);
+			assertSameSlices(new SummarySlicerForward(sdg), new CompactSummarySlicerForward(compact), criteria);
+
+			assertSame(new SummarySlicerBackward(sdg).subgraphSlice(criteria, sub),
+					new CompactSummarySlicerBackward(compact).subgraphSlice(criteria, sub));
+			assertSame(new SummarySlicerForward(sdg).subgraphSlice(criteria, sub),
+					new CompactSummarySlicerForward(compact).subgraphSlice(criteria, sub));
+		}
+	}
+
+	@Test
+	public void testSameChops() {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final List<SDGNode> nodes = new ArrayList<SDGNode>();
+			final SDG sdg = randomSDG(random, nodes);
+			final List<SDGNode> sources = randomNodes(random, nodes);
+			final List<SDGNode> sinks = randomNodes(random, nodes);
+
+			assertSame(new IntersectionChopper(sdg).chop(sources, sinks), new CompactIntersectionChopper(sdg).chop(sources, sinks));
+		}
+	}
+
+	/**
+	 * The edges of each kind form a range, which holds the edges of the kind in the order of the {@link SDG}.
+	 */
+	@Test
+	public void testEdgesOfKind() {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final List<SDGNode> nodes = new ArrayList<SDGNode>();
+			final SDG sdg = randomSDG(random, nodes);
+			final CompactSDG compact = CompactSDG.build(sdg, false);
+
+			for (SDGNode node : nodes) {
+				final int idx = compact.indexOf(node);
+				int outEdges = 0;
+				int inEdges = 0;
+				for (SDGEdge.Kind kind : SDGEdge.Kind.values()) {
+					final List<Integer> outgoing = new ArrayList<Integer>();
+					for (SDGEdge e : sdg.outgoingEdgesOf(node)) {
+						if (e.getKind() == kind) {
+							outgoing.add(compact.indexOf(e.getTarget()));
+						}
+					}
+					final List<Integer> compactOutgoing = new ArrayList<Integer>();
+					for (int e = compact.outStart(idx, kind); e < compact.outEnd(idx, kind); e++) {
+						assertEquals(kind, compact.outKind(e));
+						compactOutgoing.add(compact.outTarget(e));
+					}
+					assertEquals(outgoing, compactOutgoing);
+					outEdges += outgoing.size();
+
+					final List<Integer> incoming = new ArrayList<Integer>();
+					for (SDGEdge e : sdg.incomingEdgesOf(node)) {
+						if (e.getKind() == kind) {
+							incoming.add(compact.indexOf(e.getSource()));
+						}
+					}
+					final List<Integer> compactIncoming = new ArrayList<Integer>();
+					for (int e = compact.inStart(idx, kind); e < compact.inEnd(idx, kind); e++) {
+						assertEquals(kind, compact.inKind(e));
+						compactIncoming.add(compact.inSource(e));
+					}
+					assertEquals(incoming, compactIncoming);
+					inEdges += incoming.size();
+				}
+				assertEquals(outEdges, compact.outEnd(idx) - compact.outStart(idx));
+				assertEquals(inEdges, compact.inEnd(idx) - compact.inStart(idx));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSlicerNeedsNodes() {
+		final List<SDGNode> nodes = new ArrayList<SDGNode>();
+		final SDG sdg = randomSDG(new Random(seed), nodes);
+		new CompactSummarySlicerBackward(CompactSDG.build(sdg, false));
+	}
+
+	@Test
+	public void testAttributesAreCopied() {
+		final Random random = new Random(seed);
+		final List<SDGNode> nodes = new ArrayList<SDGNode>();
+		final SDG sdg = randomSDG(random, nodes);
+		final CompactSDG compact = CompactSDG.build(sdg);
+		assertEquals(nodes.size(), compact.numberOfNodes());
+
+		for (SDGNode node : nodes) {
+			final int idx = compact.indexOf(node);
+			assertEquals(node, compact.node(idx));
+			assertEquals(node.getId(), compact.id(idx));
+			assertEquals(node.getKind(), compact.kind(idx));
+			assertEquals(node.getProc(), compact.proc(idx));
+			assertEquals(node.getOperation(), compact.operation(idx));
+			assertEquals(node.getBytecodeIndex(), compact.bytecodeIndex(idx));
+			assertEquals(node.getSr(), compact.sourceRow(idx));
+			assertEquals(node.getLabel(), compact.label(idx));
+		}
+
+		// the view does not depend on the graph it has been built from
+		final SDGNode node = nodes.get(0);
+		sdg.removeVertex(node);
+		final int idx = compact.indexOf(node);
+		assertEquals(node, compact.node(idx));
+		assertEquals(node.getLabel(), compact.label(idx));
+	}
+}
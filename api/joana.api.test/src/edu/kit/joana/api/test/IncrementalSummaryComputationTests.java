@@ -0,0 +1,320 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.wala.summary.IncrementalSummaryComputation;
+import edu.kit.joana.wala.summary.SummaryComputation3;
+import edu.kit.joana.wala.summary.WorkPackage;
+import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Checks that the summary edges updated by {@link IncrementalSummaryComputation} after a change of a single procedure
+ * are the same as the ones {@link SummaryComputation3} computes for the changed SDG from scratch.
+ */
+public class IncrementalSummaryComputationTests {
+
+	static final int seed = 42;
+	static final int nrOfTests = 200;
+	static final int maxProcs = 30;
+	static final int maxChanges = 4;
+
+	private static final SDGEdge.Kind[] intraKinds = {
+		SDGEdge.Kind.DATA_DEP, SDGEdge.Kind.DATA_HEAP, SDGEdge.Kind.CONTROL_DEP_COND
+	};
+
+	/**
+	 * A random SDG of procedures with formal parameters and call sites, including recursive calls and call sites with
+	 * more than one target. Each call of this method with the same seed builds the same SDG.
+	 */
+	private static SDG randomSDG(long seed, int procs, Set<EntryPoint> entryPoints) {
+		final Random random = new Random(seed);
+		final SDG sdg = new SDG();
+		final int[] nextId = { 1 };
+		final SDGNode[] entry = new SDGNode[procs];
+		final List<List<SDGNode>> formalIns = new ArrayList<List<SDGNode>>();
+		final List<List<SDGNode>> formalOuts = new ArrayList<List<SDGNode>>();
+		for (int p = 0; p < procs; p++) {
+			entry[p] = addNode(sdg, nextId, SDGNode.Kind.ENTRY, p);
+			final List<SDGNode> fis = new ArrayList<SDGNode>();
+			for (int i = 1 + random.nextInt(3); i > 0; i--) {
+				fis.add(addNode(sdg, nextId, SDGNode.Kind.FORMAL_IN, p));
+			}
+			final List<SDGNode> fos = new ArrayList<SDGNode>();
+			for (int i = random.nextInt(3); i > 0; i--) {
+				fos.add(addNode(sdg, nextId, SDGNode.Kind.FORMAL_OUT, p));
+			}
+			fos.add(addNode(sdg, nextId, SDGNode.Kind.EXIT, p));
+			for (SDGNode n : fis) {
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(entry[p], n));
+			}
+			for (SDGNode n : fos) {
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(entry[p], n));
+			}
+			formalIns.add(fis);
+			formalOuts.add(fos);
+		}
+
+		for (int p = 0; p < procs; p++) {
+			final List<SDGNode> sources = new ArrayList<SDGNode>(formalIns.get(p));
+			final List<SDGNode> targets = new ArrayList<SDGNode>(formalOuts.get(p));
+			final List<SDGNode> expressions = new ArrayList<SDGNode>();
+			for (int i = 2 + random.nextInt(6); i > 0; i--) {
+				final SDGNode n = addNode(sdg, nextId, SDGNode.Kind.EXPRESSION, p);
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(entry[p], n));
+				expressions.add(n);
+			}
+			sources.addAll(expressions);
+			targets.addAll(expressions);
+
+			for (int c = random.nextInt(4); c > 0; c--) {
+				final SDGNode call = addNode(sdg, nextId, SDGNode.Kind.CALL, p);
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(entry[p], call));
+				final List<SDGNode> actualIns = new ArrayList<SDGNode>();
+				final List<SDGNode> actualOuts = new ArrayList<SDGNode>();
+				// mostly calls to procedures with higher numbers, some to arbitrary ones to get recursion
+				for (int t = random.nextInt(4) == 0 ? 2 : 1; t > 0; t--) {
+					final int callee = random.nextInt(5) == 0 ? random.nextInt(procs)
+							: Math.min(procs - 1, p + 1 + random.nextInt(Math.max(1, procs - p)));
+					sdg.addEdge(SDGEdge.Kind.CALL.newEdge(call, entry[callee]));
+					final List<SDGNode> fis = formalIns.get(callee);
+					for (int i = 0; i < fis.size(); i++) {
+						if (actualIns.size() <= i) {
+							final SDGNode ai = addNode(sdg, nextId, SDGNode.Kind.ACTUAL_IN, p);
+							sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(call, ai));
+							actualIns.add(ai);
+							targets.add(ai);
+						}
+						sdg.addEdge(SDGEdge.Kind.PARAMETER_IN.newEdge(actualIns.get(i), fis.get(i)));
+					}
+					final List<SDGNode> fos = formalOuts.get(callee);
+					for (int i = 0; i < fos.size(); i++) {
+						if (actualOuts.size() <= i) {
+							final SDGNode ao = addNode(sdg, nextId, SDGNode.Kind.ACTUAL_OUT, p);
+							sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(call, ao));
+							actualOuts.add(ao);
+							sources.add(ao);
+						}
+						sdg.addEdge(SDGEdge.Kind.PARAMETER_OUT.newEdge(fos.get(i), actualOuts.get(i)));
+					}
+				}
+			}
+
+			for (int i = 2 * sources.size(); i > 0; i--) {
+				final SDGNode source = sources.get(random.nextInt(sources.size()));
+				final SDGNode target = targets.get(random.nextInt(targets.size()));
+				if (source != target) {
+					sdg.addEdge(intraKinds[random.nextInt(intraKinds.length)].newEdge(source, target));
+				}
+			}
+
+			final TIntArrayList fis = new TIntArrayList();
+			for (SDGNode n : formalIns.get(p)) {
+				fis.add(n.getId());
+			}
+			final TIntArrayList fos = new TIntArrayList();
+			for (SDGNode n : formalOuts.get(p)) {
+				fos.add(n.getId());
+			}
+			entryPoints.add(new EntryPoint(entry[p].getId(), fis, fos));
+		}
+
+		return sdg;
+	}
+
+	private static SDGNode addNode(SDG sdg, int[] nextId, SDGNode.Kind kind, int proc) {
+		final SDGNode n = new SDGNode(kind, nextId[0]++, proc, null);
+		sdg.addVertex(n);
+		return n;
+	}
+
+	/**
+	 * Random changes of the intraprocedural edges of the given procedure, as edges between node ids.
+	 */
+	private static void randomChanges(Random random, SDG sdg, int proc, List<int[]> added, List<int[]> removed) {
+		final List<SDGEdge> edges = new ArrayList<SDGEdge>();
+		final List<SDGNode> sources = new ArrayList<SDGNode>();
+		final List<SDGNode> targets = new ArrayList<SDGNode>();
+		for (SDGNode n : sdg.vertexSet()) {
+			if (n.getProc() != proc) {
+				continue;
+			}
+			// as in the SDGs built by JOANA, no dependencies leave formal-outs or lead to formal-ins
+			switch (n.getKind()) {
+			case FORMAL_OUT:
+			case EXIT:
+				targets.add(n);
+				break;
+			case FORMAL_IN:
+			case ACTUAL_OUT:
+				sources.add(n);
+				break;
+			case ACTUAL_IN:
+				targets.add(n);
+				break;
+			case EXPRESSION:
+				sources.add(n);
+				targets.add(n);
+				break;
+			default:
+				break;
+			}
+			for (SDGEdge e : sdg.outgoingEdgesOf(n)) {
+				if (e.getTarget().getProc() == proc && isIntraKind(e.getKind())) {
+					edges.add(e);
+				}
+			}
+		}
+		edges.sort((e1, e2) -> e1.toString().compareTo(e2.toString()));
+		sources.sort((n1, n2) -> Integer.compare(n1.getId(), n2.getId()));
+		targets.sort((n1, n2) -> Integer.compare(n1.getId(), n2.getId()));
+
+		for (int i = 1 + random.nextInt(maxChanges); i > 0; i--) {
+			if (random.nextBoolean() && !edges.isEmpty()) {
+				final SDGEdge e = edges.remove(random.nextInt(edges.size()));
+				removed.add(new int[] { e.getKind().ordinal(), e.getSource().getId(), e.getTarget().getId() });
+			} else {
+				final SDGNode source = sources.get(random.nextInt(sources.size()));
+				final SDGNode target = targets.get(random.nextInt(targets.size()));
+				if (source != target) {
+					added.add(new int[] { SDGEdge.Kind.DATA_DEP.ordinal(), source.getId(), target.getId() });
+				}
+			}
+		}
+	}
+
+	private static boolean isIntraKind(SDGEdge.Kind kind) {
+		for (SDGEdge.Kind k : intraKinds) {
+			if (k == kind) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<SDGEdge> edgesOf(SDG sdg, List<int[]> edges) {
+		final List<SDGEdge> result = new ArrayList<SDGEdge>();
+		for (int[] e : edges) {
+			result.add(SDGEdge.Kind.values()[e[0]].newEdge(sdg.getNode(e[1]), sdg.getNode(e[2])));
+		}
+		return result;
+	}
+
+	private static Set<String> summaryEdges(SDG sdg, SDGEdge.Kind sumEdgeKind) {
+		final Set<String> result = new TreeSet<String>();
+		int count = 0;
+		for (SDGEdge e : sdg.edgeSet()) {
+			if (e.getKind() == sumEdgeKind) {
+				result.add(e.getSource().getId() + " -> " + e.getTarget().getId());
+				count++;
+			}
+		}
+		// no summary edge has been added twice
+		assertEquals(result.size(), count);
+		return result;
+	}
+
+	private static TreeMap<String, Set<Integer>> summaryDeps(Set<EntryPoint> entryPoints) {
+		final TreeMap<String, Set<Integer>> result = new TreeMap<String, Set<Integer>>();
+		for (EntryPoint ep : entryPoints) {
+			for (TIntIterator it = ep.iterateFormalIns(); it.hasNext(); ) {
+				final int formIn = it.next();
+				final Set<Integer> formOuts = new TreeSet<Integer>();
+				final TIntList influenced = ep.getInfluencedFormOuts(formIn);
+				if (influenced != null) {
+					for (TIntIterator outs = influenced.iterator(); outs.hasNext(); ) {
+						formOuts.add(outs.next());
+					}
+				}
+				result.put(ep.getEntryId() + ":" + formIn, formOuts);
+			}
+		}
+		return result;
+	}
+
+	private interface FullComputation {
+		int compute(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException;
+	}
+
+	private interface IncrementalComputation {
+		int compute(WorkPackage<SDG> pack, Collection<SDGEdge> added, Collection<SDGEdge> removed,
+				IProgressMonitor progress) throws CancelException;
+	}
+
+	@Test
+	public void testChangeOfOneProcedure() throws CancelException {
+		checkChangeOfOneProcedure(SDGEdge.Kind.SUMMARY, SummaryComputation3::compute,
+				IncrementalSummaryComputation::compute);
+	}
+
+	/**
+	 * The summary edges of this computation are not among its relevant edges, so the kept ones are only followed
+	 * because the incremental update asks for it.
+	 */
+	@Test
+	public void testChangeOfOneProcedureAdjustedAliasDep() throws CancelException {
+		checkChangeOfOneProcedure(SDGEdge.Kind.SUMMARY_DATA, SummaryComputation3::computeAdjustedAliasDep,
+				IncrementalSummaryComputation::computeAdjustedAliasDep);
+	}
+
+	private static void checkChangeOfOneProcedure(SDGEdge.Kind sumEdgeKind, FullComputation fullComputation,
+			IncrementalComputation incrementalComputation) throws CancelException {
+		final Random random = new Random(seed);
+		boolean someChanged = false;
+		for (int test = 0; test < nrOfTests; test++) {
+			final long sdgSeed = random.nextLong();
+			final int procs = 1 + random.nextInt(maxProcs);
+
+			final Set<EntryPoint> incrementalEntries = new HashSet<EntryPoint>();
+			final SDG incremental = randomSDG(sdgSeed, procs, incrementalEntries);
+			final WorkPackage<SDG> pack = WorkPackage.create(incremental, incrementalEntries, "incremental");
+			fullComputation.compute(pack, null);
+			final Set<String> before = summaryEdges(incremental, sumEdgeKind);
+
+			final List<int[]> added = new ArrayList<int[]>();
+			final List<int[]> removed = new ArrayList<int[]>();
+			randomChanges(random, incremental, random.nextInt(procs), added, removed);
+			incrementalComputation.compute(pack, edgesOf(incremental, added), edgesOf(incremental, removed), null);
+
+			final Set<EntryPoint> fullEntries = new HashSet<EntryPoint>();
+			final SDG full = randomSDG(sdgSeed, procs, fullEntries);
+			full.removeAllEdges(edgesOf(full, removed));
+			full.addAllEdges(edgesOf(full, added));
+			fullComputation.compute(WorkPackage.create(full, fullEntries, "full"), null);
+
+			final Set<String> after = summaryEdges(full, sumEdgeKind);
+			assertEquals(after, summaryEdges(incremental, sumEdgeKind));
+			assertEquals(summaryDeps(fullEntries), summaryDeps(incrementalEntries));
+			someChanged |= !before.equals(after);
+		}
+		// the changes are not all irrelevant for the summary edges
+		assertTrue(someChanged);
+	}
+}
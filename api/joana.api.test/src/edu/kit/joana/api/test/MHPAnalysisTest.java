@@ -9,8 +9,11 @@ package edu.kit.joana.api.test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -637,6 +640,27 @@ public class MHPAnalysisTest {
 		return p;
 	}
 
+	@Test
+	public void testBulkQueries() {
+		for (String key : new String[] { "dynamic-spawn", "fork-join-chain", "other-thread-joins-indirect" }) {
+			final SDG sdg = buildOrLoad(key);
+			final List<SDGNode> nodes = new ArrayList<SDGNode>(sdg.vertexSet());
+			for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), SimpleMHPAnalysis.analyze(sdg) }) {
+				for (int i = 0; i < nodes.size(); i += 7) {
+					final SDGNode m = nodes.get(i);
+					final List<SDGNode> expected = new ArrayList<SDGNode>();
+					for (SDGNode n : nodes) {
+						if (mhp.isParallel(m, n)) {
+							expected.add(n);
+						}
+					}
+					Assert.assertEquals(expected, mhp.parallelTo(m, nodes));
+					Assert.assertEquals(!expected.isEmpty(), mhp.isAnyParallel(Collections.singleton(m), nodes));
+				}
+			}
+		}
+	}
+
 	private SDGNode getAssignmentInMethod(SDGAnalyzer ana,
 										String shortMethodName, String shortVarName) {
 		String varName = TEST_CLASSNAME + shortVarName;
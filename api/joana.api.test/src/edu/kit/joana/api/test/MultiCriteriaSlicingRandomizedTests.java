@@ -0,0 +1,173 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import edu.kit.joana.api.lattice.BuiltinLattices;
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.core.SlicingBasedIFC;
+import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlice;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PForward;
+
+/**
+ * Checks that {@link MultiCriteriaSlicer#sliceEach(List)} computes the same slices as slicing each criterion on its own,
+ * and that {@link SlicingBasedIFC} reports the same violations in the same order with and without multi-criteria slicing.
+ */
+public class MultiCriteriaSlicingRandomizedTests {
+
+	static final int seed = 42;
+	static final int maxSize = 300;
+	static final int maxCriteria = 150;
+	static final int nrOfTests = 200;
+
+	private static final SDGEdge.Kind[] kinds = {
+		SDGEdge.Kind.CONTROL_DEP_EXPR, SDGEdge.Kind.DATA_DEP, SDGEdge.Kind.DATA_HEAP,
+		SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.PARAMETER_OUT, SDGEdge.Kind.CALL, SDGEdge.Kind.SUMMARY,
+		SDGEdge.Kind.INTERFERENCE, SDGEdge.Kind.FORK, SDGEdge.Kind.HELP
+	};
+
+	private static SDG randomSDG(Random random, List<SDGNode> nodes) {
+		return randomSDG(random, nodes, false);
+	}
+
+	private static SDG randomSDG(Random random, List<SDGNode> nodes, boolean securityNodes) {
+		final SDG sdg = new SDG();
+		final int n = 1 + random.nextInt(maxSize);
+		for (int id = 1; id <= n; id++) {
+			final SDGNode plain = new SDGNode(SDGNode.Kind.EXPRESSION, id, random.nextInt(5), null);
+			final SDGNode node = securityNodes ? new SecurityNode(plain) : plain;
+			sdg.addVertex(node);
+			nodes.add(node);
+		}
+
+		final int m = random.nextInt(3 * n);
+		for (int i = 0; i < m; i++) {
+			final SDGNode source = nodes.get(random.nextInt(n));
+			final SDGNode target = nodes.get(random.nextInt(n));
+			sdg.addEdge(kinds[random.nextInt(kinds.length)].newEdge(source, target));
+		}
+
+		return sdg;
+	}
+
+	private static void assertSameSlices(MultiCriteriaSlicer slicer, List<SDGNode> nodes, List<SDGNode> criteria) {
+		final MultiCriteriaSlice slices = slicer.sliceEach(criteria);
+		for (int i = 0; i < criteria.size(); i++) {
+			final Set<SDGNode> expected = new HashSet<SDGNode>(slicer.slice(criteria.get(i)));
+			assertEquals(expected, new HashSet<SDGNode>(slices.getSlice(i)));
+			assertEquals(expected.size(), slices.getSlice(i).size());
+			for (SDGNode node : nodes) {
+				assertEquals(expected.contains(node), slices.contains(i, node));
+			}
+		}
+	}
+
+	@Test
+	public void testSameSlicesAsSingleCriteria() {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final List<SDGNode> nodes = new ArrayList<SDGNode>();
+			final SDG sdg = randomSDG(random, nodes);
+
+			final List<SDGNode> criteria = new ArrayList<SDGNode>();
+			final int k = 1 + random.nextInt(maxCriteria);
+			for (int i = 0; i < k; i++) {
+				criteria.add(nodes.get(random.nextInt(nodes.size())));
+			}
+
+			assertSameSlices(new ContextInsensitiveBackward(sdg), nodes, criteria);
+			assertSameSlices(new ContextInsensitiveForward(sdg), nodes, criteria);
+			assertSameSlices(new I2PBackward(sdg), nodes, criteria);
+			assertSameSlices(new I2PForward(sdg), nodes, criteria);
+			assertSameSlices(new SummarySlicerBackward(sdg), nodes, criteria);
+			assertSameSlices(new SummarySlicerForward(sdg), nodes, criteria);
+		}
+	}
+
+	private static List<String> checkIFlow(SDG sdg, boolean multiCriteriaSlicing, ForkJoinPool pool) {
+		final SlicingBasedIFC ifc = new SlicingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(),
+				() -> new SummarySlicerForward(sdg), () -> new SummarySlicerBackward(sdg));
+		ifc.setMultiCriteriaSlicing(multiCriteriaSlicing);
+		ifc.setForkJoinPool(pool);
+		final List<String> flows = new ArrayList<String>();
+		for (ClassifiedViolation v : ifc.checkIFlow()) {
+			flows.add(v.getSource().getId() + " -> " + v.getSink().getId());
+		}
+		return flows;
+	}
+
+	@Test
+	public void testSameViolationsInSameOrder() {
+		final Random random = new Random(seed);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int test = 0; test < nrOfTests / 10; test++) {
+				final List<SDGNode> nodes = new ArrayList<SDGNode>();
+				final SDG sdg = randomSDG(random, nodes, true);
+				for (SDGNode node : nodes) {
+					switch (random.nextInt(8)) {
+					case 0:
+						((SecurityNode) node).setProvided(BuiltinLattices.STD_SECLEVEL_HIGH);
+						break;
+					case 1:
+						((SecurityNode) node).setRequired(BuiltinLattices.STD_SECLEVEL_LOW);
+						break;
+					default:
+						break;
+					}
+				}
+
+				final List<String> expected = checkIFlow(sdg, false, null);
+				assertEquals(expected, checkIFlow(sdg, true, null));
+				assertEquals(expected, checkIFlow(sdg, false, pool));
+				assertEquals(expected, checkIFlow(sdg, true, pool));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testCriteriaOfAllBatchesAreReported() {
+		final List<SDGNode> nodes = new ArrayList<SDGNode>();
+		final SDG sdg = randomSDG(new Random(seed), nodes);
+		final List<SDGNode> criteria = new ArrayList<SDGNode>();
+		for (int i = 0; i < 3 * MultiCriteriaSlice.BATCH_SIZE + 1; i++) {
+			criteria.add(nodes.get(0));
+		}
+
+		final MultiCriteriaSlice slices = new I2PBackward(sdg).sliceEach(criteria);
+		final List<Integer> containing = new ArrayList<Integer>();
+		slices.forEachCriterionContaining(nodes.get(0), containing::add);
+		assertEquals(criteria.size(), containing.size());
+		for (int i = 0; i < criteria.size(); i++) {
+			assertTrue(containing.get(i) == i);
+		}
+	}
+}
@@ -0,0 +1,520 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.JoanaGraph;
+import edu.kit.joana.ifc.sdg.graph.LabeledSDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGBinaryParser;
+import edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.ifc.sdg.graph.StreamingSDGSerializer;
+import edu.kit.joana.ifc.sdg.graph.StreamingSDGSerializer.Compression;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import edu.kit.joana.util.SourceLocation;
+import gnu.trove.iterator.TIntIterator;
+
+/**
+ * Writes random SDGs with all node attributes, edge labels and thread information in the binary format of
+ * {@link SDGBinarySerializer} and checks that {@link SDGBinaryParser} reads back the same SDGs, by comparing the
+ * textual .pdg format of the original and the read SDG. The SDGs read back from the textual format have to be the
+ * same as well.
+ * <p>
+ * The output of {@link StreamingSDGSerializer} is compared with the one of the previous implementation of
+ * {@link SDGSerializer}, which is kept here.
+ */
+public class SDGSerializationRandomizedTests {
+
+	static final int seed = 42;
+	static final int maxSize = 200;
+	static final int nrOfTests = 100;
+
+	private static final SDGNode.Operation[] operations = SDGNode.Operation.values();
+	/** the edge kinds of the textual format */
+	private static final SDGEdge.Kind[] edgeKinds = {
+		SDGEdge.Kind.DATA_DEP, SDGEdge.Kind.DATA_HEAP, SDGEdge.Kind.DATA_ALIAS, SDGEdge.Kind.DATA_DEP_EXPR_VALUE,
+		SDGEdge.Kind.DATA_DEP_EXPR_REFERENCE, SDGEdge.Kind.CONTROL_DEP_COND, SDGEdge.Kind.CONTROL_DEP_EXPR,
+		SDGEdge.Kind.CONTROL_DEP_UNCOND, SDGEdge.Kind.CONTROL_DEP_CALL, SDGEdge.Kind.CONTROL_FLOW, SDGEdge.Kind.NO_FLOW,
+		SDGEdge.Kind.RETURN, SDGEdge.Kind.JUMP_FLOW, SDGEdge.Kind.JUMP_DEP, SDGEdge.Kind.CALL, SDGEdge.Kind.PARAMETER_IN,
+		SDGEdge.Kind.PARAMETER_OUT, SDGEdge.Kind.SUMMARY, SDGEdge.Kind.SUMMARY_NO_ALIAS, SDGEdge.Kind.SUMMARY_DATA,
+		SDGEdge.Kind.PARAMETER_STRUCTURE, SDGEdge.Kind.PARAMETER_EQUIVALENCE, SDGEdge.Kind.FORK, SDGEdge.Kind.FORK_IN,
+		SDGEdge.Kind.FORK_OUT, SDGEdge.Kind.JOIN, SDGEdge.Kind.INTERFERENCE, SDGEdge.Kind.INTERFERENCE_WRITE,
+		SDGEdge.Kind.SYNCHRONIZATION, SDGEdge.Kind.READY_DEP, SDGEdge.Kind.HELP, SDGEdge.Kind.FOLDED,
+		SDGEdge.Kind.FOLD_INCLUDE
+	};
+	private static final String characters = "abcXYZ019 _.,:;$<>()[]/-+*#äöüß";
+
+	private static String randomString(Random random) {
+		final StringBuilder result = new StringBuilder();
+		for (int i = 1 + random.nextInt(12); i > 0; i--) {
+			result.append(characters.charAt(random.nextInt(characters.length())));
+		}
+		return result.toString();
+	}
+
+	/**
+	 * @return a random string, which is null with probability 1/3
+	 */
+	private static String randomStringOrNull(Random random) {
+		return random.nextInt(3) == 0 ? null : randomString(random);
+	}
+
+	private static String[] randomStrings(Random random) {
+		if (random.nextInt(3) == 0) {
+			return null;
+		}
+		final String[] result = new String[1 + random.nextInt(3)];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = randomString(random);
+		}
+		return result;
+	}
+
+	/**
+	 * @return null with probability 1/3, or else sorted ints, which can be used as thread numbers
+	 */
+	private static int[] randomInts(Random random) {
+		if (random.nextInt(3) == 0) {
+			return null;
+		}
+		final int[] result = new int[1 + random.nextInt(3)];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = (i == 0 ? 0 : result[i - 1] + 1) + random.nextInt(300);
+		}
+		return result;
+	}
+
+	/**
+	 * @return a random SDG, whose node attributes, edge labels and thread information all may be set
+	 */
+	static SDG randomSDG(Random random) {
+		final SDG sdg = new SDG(random.nextBoolean() ? randomString(random) : null);
+		sdg.setJoanaCompiler(random.nextBoolean());
+
+		final List<SourceLocation> locations = new ArrayList<SourceLocation>();
+		for (int i = 1 + random.nextInt(5); i > 0; i--) {
+			final int startRow = random.nextInt(100);
+			locations.add(SourceLocation.getLocation(randomString(random) + ".java", startRow, random.nextInt(80),
+					startRow + random.nextInt(3), random.nextInt(80)));
+		}
+
+		final List<SDGNode> nodes = new ArrayList<SDGNode>();
+		final Set<String> entriesAndExits = new HashSet<String>();
+		final int n = 1 + random.nextInt(maxSize);
+		for (int i = 0; i < n; i++) {
+			// ids are neither dense nor added in order
+			final int id = 1 + random.nextInt(3 * maxSize);
+			if (sdg.getNode(id) != null) {
+				continue;
+			}
+			final SDGNode.Operation operation = operations[random.nextInt(operations.length)];
+			final int proc = random.nextInt(10);
+			// a procedure has at most one entry and one exit node
+			final SDGNode.Kind kind = operation.getKind(0);
+			// the textual format has no node kind for summary nodes
+			if (kind == SDGNode.Kind.SUMMARY) {
+				continue;
+			}
+			if ((kind == SDGNode.Kind.ENTRY || kind == SDGNode.Kind.EXIT) && !entriesAndExits.add(kind + " " + proc)) {
+				continue;
+			}
+			// as in the SDGs built by JOANA, each node has a source location and a bytecode name, since the parser
+			// of the textual format uses the ones of the previous node for nodes without them
+			final SourceLocation location = locations.get(random.nextInt(locations.size()));
+			final SDGNode node = new SDGNode(id, operation,
+					randomStringOrNull(random), proc, randomStringOrNull(random), location,
+					randomString(random), random.nextInt(100) - 1, randomStrings(random), randomStrings(random),
+					randomStringOrNull(random), randomInts(random), randomStringOrNull(random));
+			final int[] threadNumbers = randomInts(random);
+			if (threadNumbers != null) {
+				node.setThreadNumbers(threadNumbers);
+			}
+			if (random.nextInt(3) == 0) {
+				for (int j = random.nextInt(3); j >= 0; j--) {
+					node.addAliasDataSource(random.nextInt(1000));
+				}
+			}
+			sdg.addVertex(node);
+			nodes.add(node);
+		}
+		final SDGNode root = nodes.get(random.nextInt(nodes.size()));
+		if (root.getKind() == SDGNode.Kind.ENTRY) {
+			sdg.setRoot(root);
+		}
+
+		final int m = random.nextInt(3 * nodes.size());
+		for (int i = 0; i < m; i++) {
+			final SDGNode source = nodes.get(random.nextInt(nodes.size()));
+			final SDGNode target = nodes.get(random.nextInt(nodes.size()));
+			final SDGEdge.Kind kind = edgeKinds[random.nextInt(edgeKinds.length)];
+			sdg.addEdge(random.nextInt(4) == 0
+					? new LabeledSDGEdge(source, target, kind, randomString(random))
+					: kind.newEdge(source, target));
+		}
+
+		if (random.nextBoolean()) {
+			// each thread gets a procedure of its own, started by a call of Thread.start()
+			final List<ThreadInstance> threads = new ArrayList<ThreadInstance>();
+			int nextId = 3 * maxSize + 1;
+			for (int t = random.nextInt(4); t >= 0; t--) {
+				final int proc = 10 + threads.size();
+				final SDGNode entry = new SDGNode(nextId++, SDGNode.Operation.ENTRY, randomString(random), proc,
+						null, locations.get(0), "run()V", -1, null, null, null, null, null);
+				final SDGNode exit = new SDGNode(nextId++, SDGNode.Operation.EXIT, randomString(random), proc,
+						null, locations.get(0), "run()V", -1, null, null, null, null, null);
+				sdg.addVertex(entry);
+				sdg.addVertex(exit);
+				SDGNode fork = null;
+				if (!threads.isEmpty()) {
+					fork = new SDGNode(nextId++, SDGNode.Operation.CALL, randomString(random), random.nextInt(10),
+							null, locations.get(0), "java.lang.Thread.start()V", random.nextInt(100), null, null,
+							null, randomInts(random), null);
+					sdg.addVertex(fork);
+					sdg.addEdge(SDGEdge.Kind.FORK.newEdge(fork, entry));
+				}
+				final List<SDGNode> joins = new ArrayList<SDGNode>();
+				for (int j = random.nextInt(3); j > 0; j--) {
+					joins.add(nodes.get(random.nextInt(nodes.size())));
+				}
+				final LinkedList<SDGNode> context = new LinkedList<SDGNode>();
+				for (int c = random.nextInt(3); c > 0; c--) {
+					context.add(nodes.get(random.nextInt(nodes.size())));
+				}
+				threads.add(new ThreadInstance(threads.size(), entry, exit, fork, joins, context, random.nextBoolean()));
+			}
+			sdg.setThreadsInfo(new ThreadsInformation(threads));
+		}
+
+		return sdg;
+	}
+
+	/**
+	 * @return the given graph in the textual format, where the allocation sites and alias data sources of each node
+	 * are sorted. The parsers keep them in hash sets, so their order depends on the order of insertion.
+	 */
+	static String toNormalizedPDGFormat(SDG sdg) {
+		final StringBuilder result = new StringBuilder();
+		for (String line : SDGSerializer.toPDGFormat(sdg).split("\n")) {
+			if ((line.startsWith("A ") || line.startsWith("D ")) && line.endsWith(";")) {
+				final String[] ids = line.substring(2, line.length() - 1).split(", ");
+				Arrays.sort(ids);
+				line = line.substring(0, 2) + String.join(", ", ids) + ";";
+			}
+			result.append(line).append('\n');
+		}
+		return result.toString();
+	}
+
+	@Test
+	public void testBinaryRoundTrip() throws IOException {
+		final Random random = new Random(seed);
+		final Path file = Files.createTempFile("joana-binary-sdg", ".bin");
+		try {
+			for (int test = 0; test < nrOfTests; test++) {
+				final SDG sdg = randomSDG(random);
+				final String expected = toNormalizedPDGFormat(sdg);
+
+				SDGBinarySerializer.toBinaryFormat(sdg, file);
+				assertTrue(SDGBinaryParser.isBinaryFormat(file));
+				final SDG fromBinary = SDGBinaryParser.parse(file, null);
+				assertEquals(expected, toNormalizedPDGFormat(fromBinary));
+				assertEquals(sdg.vertexSet().size(), fromBinary.vertexSet().size());
+				assertEquals(sdg.edgeSet().size(), fromBinary.edgeSet().size());
+
+				final String text = SDGSerializer.toPDGFormat(sdg);
+				final SDG fromText = SDG.readFrom(new StringReader(text));
+				assertEquals(expected, toNormalizedPDGFormat(fromText));
+				// this parser reads the default charset, in which SDGSerializer writes to streams
+				if (Charset.defaultCharset().newEncoder().canEncode(text)) {
+					final SDG fromTextWithLessHeap =
+							SDG.readFromAndUseLessHeap(new ByteArrayInputStream(text.getBytes(Charset.defaultCharset())));
+					assertEquals(expected, toNormalizedPDGFormat(fromTextWithLessHeap));
+				}
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * @return the given graph written by the given serializer
+	 */
+	private static byte[] write(StreamingSDGSerializer serializer, SDG sdg) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.write(sdg, out);
+		return out.toByteArray();
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[1024];
+		try {
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+			}
+		} catch (EOFException e) {
+			// a truncated stream, the bytes read so far are kept
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * The output of {@link StreamingSDGSerializer} is byte-identical to the one of {@link SDGSerializer} before it
+	 * delegated to {@link StreamingSDGSerializer}, for dense and sparse ids and in bounded memory mode.
+	 */
+	@Test
+	public void testStreamingSameAsReference() throws IOException {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final SDG sdg = randomSDG(random);
+			if (test % 2 == 0) {
+				// the ids are too sparse to walk the id range, unless in bounded memory mode
+				sdg.addVertex(new SDGNode(SDGNode.Kind.EXPRESSION, 1000 * maxSize, 0, "far"));
+			}
+
+			final ByteArrayOutputStream reference = new ByteArrayOutputStream();
+			referencePDGFormat(sdg, new PrintWriter(new OutputStreamWriter(reference)));
+			final byte[] expected = reference.toByteArray();
+
+			assertArrayEquals(expected, write(new StreamingSDGSerializer(), sdg));
+			assertArrayEquals(expected, write(new StreamingSDGSerializer(Compression.NONE, true, 1 + random.nextInt(512)), sdg));
+			final StringWriter referenceText = new StringWriter();
+			referencePDGFormat(sdg, new PrintWriter(referenceText));
+			assertEquals(referenceText.toString(), SDGSerializer.toPDGFormat(sdg));
+		}
+	}
+
+	/**
+	 * A compressed SDG decompresses to the uncompressed output and is read as the same SDG. Each block of a truncated
+	 * compressed SDG that is complete can be decompressed.
+	 */
+	@Test
+	public void testGzipRoundTrip() throws IOException {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final SDG sdg = randomSDG(random);
+			final int blockSize = 64 + random.nextInt(512);
+			final byte[] uncompressed = write(new StreamingSDGSerializer(), sdg);
+			final byte[] compressed = write(new StreamingSDGSerializer(Compression.GZIP, random.nextBoolean(), blockSize), sdg);
+
+			assertArrayEquals(uncompressed, readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+			final SDG fromCompressed = SDG.readFromAndUseLessHeap(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+			final SDG fromUncompressed = SDG.readFromAndUseLessHeap(new ByteArrayInputStream(uncompressed));
+			assertEquals(toNormalizedPDGFormat(fromUncompressed), toNormalizedPDGFormat(fromCompressed));
+
+			final byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+			final byte[] prefix = readAll(new GZIPInputStream(new ByteArrayInputStream(truncated)));
+			assertArrayEquals(Arrays.copyOf(uncompressed, prefix.length), prefix);
+			if (uncompressed.length >= 4 * blockSize) {
+				assertTrue(prefix.length >= blockSize);
+			}
+		}
+	}
+
+	/* SDGSerializer.toPDGFormat before it delegated to StreamingSDGSerializer */
+
+	private static void referencePDGFormat(JoanaGraph g, PrintWriter pw) {
+		pw.print("SDG ");
+
+		if (g.getName() != null) {
+			pw.print("\"");pw.print(g.getName());pw.print("\" ");
+		}
+
+		if (g.getRoot() != null) {
+			pw.print("root " + g.getRoot().getId() + " ");
+		}
+
+		pw.print("{\n");
+
+		if (g instanceof SDG && ((SDG)g).getJoanaCompiler()) {
+			pw.print("JComp\n");
+		}
+
+		final SortedSet<SDGNode> ordered = new TreeSet<SDGNode>(SDGNode.getIDComparator());
+		ordered.addAll(g.vertexSet());
+		for (Iterator<SDGNode> iter = ordered.iterator(); iter.hasNext();) {
+			SDGNode n = iter.next();
+
+			pw.print(n.getKind().toString());
+			pw.print(" ");
+			pw.print(n.getId());
+			pw.print(" {\n");
+			pw.print("O ");
+			pw.print(n.getOperation());
+			pw.print(";\n");
+
+			if (n.getLabel() != null) {
+				pw.print("V \"");pw.print(n.getLabel());pw.print("\";\n");
+			}
+
+			if (n.getType() != null) {
+				pw.print("T \"");pw.print(n.getType());pw.print("\";\n");
+			}
+
+			pw.print("P ");
+			pw.print(n.getProc());
+			pw.print(";\n");
+
+			if (n.getSource() != null) {
+				pw.print("S \"");pw.print(n.getSource());pw.print("\":");
+				pw.print(n.getSr());
+				pw.print(',');
+				pw.print(n.getSc());
+				pw.print('-');
+				pw.print(n.getEr());
+				pw.print(',');
+				pw.print(n.getEc());
+				pw.print(";\n");
+			}
+
+			if (n.getBytecodeName() != null) {
+				pw.print("B \""); pw.print(n.getBytecodeName()); pw.print("\":");
+				pw.print(n.getBytecodeIndex());
+				pw.print(";\n");
+			}
+
+			if (n.getThreadNumbers() != null && n.getThreadNumbers().length > 0) {
+				pw.print("Z ");
+				pw.print(n.getThreadNumbers()[0]);
+
+				for (int i = 1; i < n.getThreadNumbers().length; i++) {
+					pw.print(", "+ n.getThreadNumbers()[i]);
+				}
+
+				pw.print(";\n");
+			}
+
+			final int[] allocSites = n.getAllocationSites();
+			if (allocSites != null && allocSites.length > 0) {
+				pw.print("A ");
+				pw.print(allocSites[0]);
+
+				for (int i = 1; i < allocSites.length; i++) {
+					pw.print(", "+ allocSites[i]);
+				}
+
+				pw.print(";\n");
+			}
+
+			if (n.getAliasDataSources() != null) {
+				pw.print("D ");
+				final TIntIterator it = n.getAliasDataSources().iterator();
+				while (it.hasNext()) {
+					final int id = it.next();
+					pw.print(it.hasNext() ? id + ", " : id);
+				}
+				pw.print(";\n");
+			}
+
+			if (n.getClassLoader() != null) {
+				pw.print("C \"" + n.getClassLoader() + "\";\n");
+			}
+
+			if (n.getUnresolvedCallTarget() != null) {
+				pw.print("U \"" + n.getUnresolvedCallTarget() + "\";\n");
+			}
+
+			final String[] localDefNames = n.getLocalDefNames();
+			if (localDefNames != null && localDefNames.length > 0) {
+				pw.print("LD [");
+				pw.print("\""  + localDefNames[0] + "\"");
+
+				for (int i = 1; i < localDefNames.length; i++) {
+					assert (localDefNames[i] == null || !localDefNames[i].contains("\""));
+					pw.print(", \"" + localDefNames[i] + "\"");
+				}
+
+				pw.print("];\n");
+			}
+
+			final String[] localUseNames = n.getLocalUseNames();
+			if (localUseNames != null && localUseNames.length > 0) {
+				pw.print("LU [");
+				pw.print("\""  + localUseNames[0] + "\"");
+
+				for (int i = 1; i < localUseNames.length; i++) {
+					// until wala fixes its local variable name resolution, we have to deal with null names :/
+					assert (localUseNames[i] == null || !localUseNames[i].contains("\""));
+					pw.print(", \"" + localUseNames[i] + "\"");
+				}
+
+				pw.print("];\n");
+			}
+
+			referencePDGDependencies(g, n, pw);
+			pw.print("}\n");
+		}
+
+		if (g.getThreadsInfo() != null)
+			for (ThreadInstance ti : g.getThreadsInfo()) {
+				pw.print(ti);
+			}
+
+		pw.print("}\n");
+		pw.close();
+	}
+
+	private static void referencePDGDependencies(JoanaGraph g, SDGNode n, PrintWriter pw) {
+		final Set<SDGEdge> outgoing = g.outgoingEdgesOf(n);
+		final SDGEdge[] outgoingSorted = g.outgoingEdgesOf(n).toArray(new SDGEdge[outgoing.size()]);
+		final Comparator<SDGEdge> comparator = new Comparator<SDGEdge>() {
+			@Override
+			public int compare(SDGEdge o1, SDGEdge o2) {
+				final int byKind = o1.getKind().compareTo(o2.getKind());
+				if (byKind != 0) return byKind;
+
+				final int byTarget = Integer.compare(o1.getTarget().getId(), o2.getTarget().getId());
+				return byTarget;
+			}
+		};
+		Arrays.sort(outgoingSorted, comparator);
+		for (SDGEdge e : outgoingSorted) {
+			SDGNode node = e.getTarget();
+			String kind = e.getKind().toString();
+			pw.print(kind + " " + node.getId());
+			if (e.getLabel() != null) {
+				pw.print(": \"" + e.getLabel() + "\"");
+			}
+			pw.print(";\n");
+		}
+	}
+}
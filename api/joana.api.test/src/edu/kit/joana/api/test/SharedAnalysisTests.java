@@ -0,0 +1,134 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGBuildPreparation.SharedAnalysis;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+
+/**
+ * Tests the batch builds of several entry points of the same program, which share their class hierarchies via
+ * {@link SharedAnalysis}.
+ */
+public class SharedAnalysisTests {
+
+	private static final Class<?>[] PROGRAMS = {
+		joana.api.testdata.toy.simp.AssChain.class,
+		joana.api.testdata.toy.simp.MicroExample.class,
+		joana.api.testdata.toy.simp.Nested.class,
+		joana.api.testdata.toy.simp.Sick.class,
+		joana.api.testdata.toy.test.LeakByPrintingInt.class,
+		joana.api.testdata.toy.test.ObjSens.class,
+	};
+
+	private static SDGConfig config(Class<?> clazz, String classPath, SharedAnalysis shared) {
+		final SDGConfig config = new SDGConfig(classPath,
+				JavaMethodSignature.mainMethodOfClass(clazz.getName()).toBCString(), Stubs.JRE_15);
+		config.setSharedAnalysis(shared);
+		return config;
+	}
+
+	private static SDGProgram build(Class<?> clazz, SharedAnalysis shared)
+			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		return SDGProgram.createSDGProgram(config(clazz, JoanaPath.JOANA_API_TEST_DATA_CLASSPATH, shared));
+	}
+
+	private static List<Integer> size(SDG sdg) {
+		final List<Integer> size = new ArrayList<Integer>();
+		size.add(sdg.vertexSet().size());
+		size.add(sdg.edgeSet().size());
+		return size;
+	}
+
+	@Test
+	public void testClassHierarchyIsReusedOnceReleased()
+			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		final SharedAnalysis shared = new SharedAnalysis();
+		final SDGProgram first = build(PROGRAMS[0], shared);
+		final SDGProgram second = build(PROGRAMS[1], shared);
+		// the class hierarchy of the first program is still in use
+		assertNotSame(first.getClassHierarchy(), second.getClassHierarchy());
+
+		shared.release(first.getClassHierarchy());
+		final SDGProgram third = build(PROGRAMS[2], shared);
+		assertSame(first.getClassHierarchy(), third.getClassHierarchy());
+
+		shared.release(second.getClassHierarchy());
+		shared.release(third.getClassHierarchy());
+		shared.clear();
+		final SDGProgram fourth = build(PROGRAMS[3], shared);
+		assertNotSame(first.getClassHierarchy(), fourth.getClassHierarchy());
+		assertNotSame(second.getClassHierarchy(), fourth.getClassHierarchy());
+	}
+
+	@Test
+	public void testOtherClassPathGetsOtherClassHierarchy()
+			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		final SharedAnalysis shared = new SharedAnalysis();
+		final SDGProgram first = build(PROGRAMS[0], shared);
+		shared.release(first.getClassHierarchy());
+		final String otherClassPath = JoanaPath.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator
+				+ JoanaPath.ANNOTATIONS_PASSON_CLASSPATH;
+		final SDGProgram second = SDGProgram.createSDGProgram(config(PROGRAMS[0], otherClassPath, shared));
+		assertNotSame(first.getClassHierarchy(), second.getClassHierarchy());
+	}
+
+	@Test
+	public void testConcurrentBuildsMatchSeparateBuilds() throws ClassHierarchyException, IOException,
+			UnsoundGraphException, CancelException, InterruptedException, ExecutionException {
+		final List<List<Integer>> expected = new ArrayList<List<Integer>>();
+		for (final Class<?> clazz : PROGRAMS) {
+			expected.add(size(build(clazz, null).getSDG()));
+		}
+
+		final SharedAnalysis shared = new SharedAnalysis();
+		final ExecutorService pool = Executors.newFixedThreadPool(3);
+		try {
+			// each program is built twice, so that the later builds reuse the class hierarchies of the earlier ones
+			final List<Future<List<Integer>>> builds = new ArrayList<Future<List<Integer>>>();
+			for (int round = 0; round < 2; round++) {
+				for (final Class<?> clazz : PROGRAMS) {
+					builds.add(pool.submit(() -> {
+						final SDGProgram program = build(clazz, shared);
+						shared.release(program.getClassHierarchy());
+						return size(program.getSDG());
+					}));
+				}
+			}
+			for (int i = 0; i < builds.size(); i++) {
+				assertEquals(PROGRAMS[i % PROGRAMS.length].getName(), expected.get(i % PROGRAMS.length),
+						builds.get(i).get());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,321 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.FoldedCallGraph;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.StaticContextManager;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.StaticContextManager.StaticContext;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.CallGraphBuilder;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.GraphFolder;
+
+/**
+ * Checks the transitions of the {@link StaticContextManager} and the slices of the context-sensitive slicers with
+ * static contexts on random SDGs with recursive calls, which are folded, and calls of several procedures at one call
+ * site.
+ * <p>
+ * The reference follows call edges by comparing call strings, as the manager did before it numbered its call strings
+ * and looked up their transitions in tables.
+ */
+public class StaticContextSlicingRandomizedTests {
+
+	static final int seed = 42;
+	static final int maxProcs = 8;
+	static final int maxCriteria = 3;
+	static final int nrOfTests = 200;
+
+	private static SDGNode addNode(SDG sdg, SDGNode.Kind kind, int proc) {
+		final SDGNode node = new SDGNode(kind, sdg.lastId() + 1, proc, kind.toString());
+		node.setThreadNumbers(new int[] {0});
+		sdg.addVertex(node);
+		return node;
+	}
+
+	private static void addCallEdges(SDG sdg, SDGNode call, SDGNode actualIn, SDGNode actualOut,
+			SDGNode entry, SDGNode formalIn, SDGNode formalOut) {
+		sdg.addEdge(SDGEdge.Kind.CALL.newEdge(call, entry));
+		sdg.addEdge(SDGEdge.Kind.PARAMETER_IN.newEdge(actualIn, formalIn));
+		sdg.addEdge(SDGEdge.Kind.PARAMETER_OUT.newEdge(formalOut, actualOut));
+	}
+
+	/**
+	 * Procedure 0 is the root and procedure p calls p + 1, so every procedure is reachable. Further calls lead to
+	 * random procedures, which makes calls recursive, and some call sites call a second procedure.
+	 */
+	private static SDG randomSDG(Random random) {
+		final SDG sdg = new SDG();
+		final int procs = 2 + random.nextInt(maxProcs - 1);
+		final SDGNode[] entries = new SDGNode[procs];
+		final SDGNode[] formalIns = new SDGNode[procs];
+		final SDGNode[] formalOuts = new SDGNode[procs];
+		for (int p = 0; p < procs; p++) {
+			entries[p] = addNode(sdg, SDGNode.Kind.ENTRY, p);
+			formalIns[p] = addNode(sdg, SDGNode.Kind.FORMAL_IN, p);
+			formalOuts[p] = addNode(sdg, SDGNode.Kind.FORMAL_OUT, p);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(entries[p], formalIns[p]));
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(entries[p], formalOuts[p]));
+		}
+		sdg.setRoot(entries[0]);
+
+		for (int p = 0; p < procs; p++) {
+			final List<SDGNode> body = new ArrayList<SDGNode>();
+			body.add(formalIns[p]);
+			body.add(formalOuts[p]);
+			final int expressions = 1 + random.nextInt(5);
+			for (int i = 0; i < expressions; i++) {
+				final SDGNode expression = addNode(sdg, SDGNode.Kind.EXPRESSION, p);
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(entries[p], expression));
+				body.add(expression);
+			}
+
+			final int calls = (p < procs - 1 ? 1 : 0) + random.nextInt(3);
+			for (int i = 0; i < calls; i++) {
+				final int callee = (i == 0 && p < procs - 1) ? p + 1 : 1 + random.nextInt(procs - 1);
+				final SDGNode call = addNode(sdg, SDGNode.Kind.CALL, p);
+				final SDGNode actualIn = addNode(sdg, SDGNode.Kind.ACTUAL_IN, p);
+				final SDGNode actualOut = addNode(sdg, SDGNode.Kind.ACTUAL_OUT, p);
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(entries[p], call));
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(call, actualIn));
+				sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(call, actualOut));
+				addCallEdges(sdg, call, actualIn, actualOut, entries[callee], formalIns[callee], formalOuts[callee]);
+				if (random.nextInt(3) == 0) {
+					final int second = 1 + random.nextInt(procs - 1);
+					if (second != callee) {
+						addCallEdges(sdg, call, actualIn, actualOut, entries[second], formalIns[second], formalOuts[second]);
+					}
+				}
+				if (random.nextBoolean()) {
+					sdg.addEdge(SDGEdge.Kind.SUMMARY.newEdge(actualIn, actualOut));
+				}
+				body.add(call);
+				body.add(actualIn);
+				body.add(actualOut);
+			}
+
+			for (int i = 0; i < 2 * body.size(); i++) {
+				final SDGNode source = body.get(random.nextInt(body.size()));
+				final SDGNode target = body.get(random.nextInt(body.size()));
+				if (source.getKind() == SDGNode.Kind.FORMAL_OUT || source.getKind() == SDGNode.Kind.ACTUAL_IN
+						|| source.getKind() == SDGNode.Kind.CALL || target.getKind() == SDGNode.Kind.FORMAL_IN
+						|| target.getKind() == SDGNode.Kind.ACTUAL_OUT || target.getKind() == SDGNode.Kind.CALL) {
+					continue;
+				}
+				sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(source, target));
+			}
+		}
+
+		return sdg;
+	}
+
+	/**
+	 * Transitions between static contexts that look up the reached call string among the contexts of a node.
+	 */
+	private static final class ReferenceTransitions {
+		private final StaticContextManager manager;
+		private final FoldedCallGraph folded;
+
+		ReferenceTransitions(SDG sdg) {
+			this.folded = GraphFolder.foldCallGraph(CallGraphBuilder.buildCallGraph(sdg));
+			this.manager = StaticContextManager.create(sdg, CallGraphBuilder.buildCallGraph(sdg), folded);
+		}
+
+		/**
+		 * @return the context of the given node with the given call string, or null if the node has no such context
+		 */
+		private StaticContext contextOf(SDGNode node, int thread, List<SDGNode> callString) {
+			for (StaticContext context : manager.getContextsOf(node, thread)) {
+				if (context.getCallStack().equals(callString)) {
+					return context;
+				}
+			}
+			return null;
+		}
+
+		StaticContext descend(SDGNode reachedNode, SDGNode call, SDGNode entry, StaticContext oldContext) {
+			final SDGNode mapped = folded.map(call);
+			if (folded.isFolded(call) && oldContext.top() == mapped) {
+				return oldContext.level(reachedNode);
+			}
+
+			final LinkedList<SDGNode> called = new LinkedList<SDGNode>(oldContext.getCallStack());
+			called.push(mapped);
+			final StaticContext context = contextOf(entry, oldContext.getThread(), called);
+			return context == null ? null : context.level(reachedNode);
+		}
+
+		StaticContext[] ascend(SDGNode reachedNode, SDGNode call, SDGNode entry, StaticContext oldContext) {
+			final StaticContext[] result = {null, null};
+			if (!oldContext.isEmpty() && oldContext.top() != folded.map(call)) {
+				return result;
+			}
+
+			if (folded.isFolded(call)) {
+				result[0] = oldContext.level(reachedNode);
+			}
+
+			if (!oldContext.isEmpty() && contextOf(entry, oldContext.getThread(), oldContext.getCallStack()) != null) {
+				final LinkedList<SDGNode> caller = new LinkedList<SDGNode>(oldContext.getCallStack());
+				caller.pop();
+				final StaticContext context = contextOf(call, oldContext.getThread(), caller);
+				result[1] = context == null ? null : context.level(reachedNode);
+			}
+
+			return result;
+		}
+
+		/**
+		 * The two-phase slice of {@link ContextSlicerBackward} and {@link ContextSlicerForward} with these
+		 * transitions.
+		 */
+		Set<SDGNode> slice(SDG sdg, Collection<SDGNode> criteria, boolean backward) {
+			final Set<SDGNode> slice = new HashSet<SDGNode>();
+			final Set<StaticContext> visited = new HashSet<StaticContext>();
+			final LinkedList<StaticContext> worklist1 = new LinkedList<StaticContext>();
+			final LinkedList<StaticContext> worklist2 = new LinkedList<StaticContext>();
+			for (SDGNode criterion : criteria) {
+				worklist1.addAll(manager.getAllContextsOf(criterion));
+			}
+
+			for (int phase = 1; phase <= 2; phase++) {
+				final LinkedList<StaticContext> worklist = phase == 1 ? worklist1 : worklist2;
+				while (!worklist.isEmpty()) {
+					final StaticContext next = worklist.poll();
+					slice.add(next.getNode());
+					for (SDGEdge e : backward ? sdg.incomingEdgesOf(next.getNode()) : sdg.outgoingEdgesOf(next.getNode())) {
+						if (!e.getKind().isSDGEdge() || SDGEdge.Kind.threadEdges().contains(e.getKind())) {
+							continue;
+						}
+
+						final SDGNode n = backward ? e.getSource() : e.getTarget();
+						final boolean out = e.getKind() == SDGEdge.Kind.PARAMETER_OUT;
+						final boolean in = e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.PARAMETER_IN;
+						if (out || in) {
+							final SDGNode call = sdg.getCallSiteFor(out ? e.getTarget() : e.getSource());
+							final SDGNode entry = e.getKind() == SDGEdge.Kind.CALL ? e.getTarget()
+									: sdg.getEntry(out ? e.getSource() : e.getTarget());
+							if (out != backward) {
+								// ascend to the calling procedure
+								if (phase == 1 && next.isInCallingProcedure(n)) {
+									for (StaticContext context : ascend(n, call, entry, next)) {
+										if (context != null && visited.add(context)) {
+											worklist1.add(context);
+										}
+									}
+								}
+							} else {
+								final StaticContext context = descend(n, call, entry, next);
+								if (visited.add(context)) {
+									worklist2.add(context);
+								}
+							}
+						} else {
+							final StaticContext context = next.level(n);
+							if (visited.add(context)) {
+								worklist.add(context);
+							}
+						}
+					}
+				}
+			}
+
+			return slice;
+		}
+	}
+
+	private static List<SDGNode> randomNodes(Random random, List<SDGNode> nodes) {
+		final List<SDGNode> result = new ArrayList<SDGNode>();
+		final int k = 1 + random.nextInt(maxCriteria);
+		for (int i = 0; i < k; i++) {
+			result.add(nodes.get(random.nextInt(nodes.size())));
+		}
+		return result;
+	}
+
+	@Test
+	public void testSameTransitions() {
+		final Random random = new Random(seed);
+		int foldedCalls = 0;
+		int multiTargetCalls = 0;
+		for (int test = 0; test < nrOfTests; test++) {
+			final SDG sdg = randomSDG(random);
+			final ReferenceTransitions reference = new ReferenceTransitions(sdg);
+			final StaticContextManager manager = reference.manager;
+			for (SDGNode call : sdg.vertexSet()) {
+				if (call.getKind() != SDGNode.Kind.CALL) {
+					continue;
+				}
+				if (reference.folded.isFolded(call)) {
+					foldedCalls++;
+				}
+				if (sdg.getPossibleTargets(call).size() > 1) {
+					multiTargetCalls++;
+				}
+
+				for (SDGNode entry : sdg.getPossibleTargets(call)) {
+					for (StaticContext context : manager.getAllContextsOf(call)) {
+						final StaticContext expected = reference.descend(entry, call, entry, context);
+						if (expected == null) {
+							try {
+								manager.descend(entry, call, entry, context);
+								fail("descended from " + context + " to a missing call string");
+							} catch (RuntimeException e) {
+								// there is no call string to descend to
+							}
+						} else {
+							assertEquals(expected, manager.descend(entry, call, entry, context));
+						}
+					}
+					for (StaticContext context : manager.getAllContextsOf(entry)) {
+						assertArrayEquals(reference.ascend(call, call, entry, context), manager.ascend(call, call, entry, context));
+					}
+				}
+			}
+		}
+		assertTrue(foldedCalls > 0);
+		assertTrue(multiTargetCalls > 0);
+	}
+
+	@Test
+	public void testSameSlices() {
+		final Random random = new Random(seed);
+		for (int test = 0; test < nrOfTests; test++) {
+			final SDG sdg = randomSDG(random);
+			final List<SDGNode> nodes = new ArrayList<SDGNode>(sdg.vertexSet());
+			final ReferenceTransitions reference = new ReferenceTransitions(sdg);
+			final Slicer backward = ContextSlicerBackward.newStaticContextSlicerBackward(sdg);
+			final Slicer forward = ContextSlicerForward.newStaticContextSlicerForward(sdg);
+
+			for (SDGNode node : nodes) {
+				final List<SDGNode> criteria = randomNodes(random, nodes);
+				criteria.add(node);
+				assertEquals(reference.slice(sdg, criteria, true), new HashSet<SDGNode>(backward.slice(criteria)));
+				assertEquals(reference.slice(sdg, criteria, false), new HashSet<SDGNode>(forward.slice(criteria)));
+			}
+		}
+	}
+}
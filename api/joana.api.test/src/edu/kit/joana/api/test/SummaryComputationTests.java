@@ -83,7 +83,16 @@ public class SummaryComputationTests {
 		simonParallelScc.setSummaryComputationType(SummaryComputationType.SIMON_PARALLEL_SCC);
 	}
 	
-	public static final SDGConfig[] all = new SDGConfig[] { classic, classicScc, simonScc, simonParallelScc };
+	public static final SDGConfig classicParallelScc = new SDGConfig(
+			JoanaPath.JOANA_API_TEST_DATA_CLASSPATH,
+			null,
+			STUBS
+	); {
+		setDefaults(classicParallelScc);
+		classicParallelScc.setSummaryComputationType(SummaryComputationType.JOANA_PARALLEL_SCC);
+	}
+	
+	public static final SDGConfig[] all = new SDGConfig[] { classic, classicScc, simonScc, simonParallelScc, classicParallelScc };
 
 	
 	private static IFCAnalysis buildAnnotateDump(Class<?> clazz, SDGConfig config) throws ClassHierarchyException, ApiTestException,
@@ -0,0 +1,128 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerForward;
+
+/**
+ * Checks that a {@link SummarySlicer}, which keeps the marks of the nodes in a table that is reused by all slices,
+ * computes correct slices if nodes are added to the graph after the table has been created, in particular nodes
+ * with smaller ids than all nodes of the table.
+ */
+public class SummarySlicerGrowingGraphTests {
+
+	private static SDGNode addNode(SDG sdg, int id) {
+		final SDGNode node = new SDGNode(SDGNode.Kind.EXPRESSION, id, 0, null);
+		sdg.addVertex(node);
+		return node;
+	}
+
+	/**
+	 * Creates a chain of data dependencies between the nodes with the given ids, in this order.
+	 */
+	private static List<SDGNode> addChain(SDG sdg, int... ids) {
+		final List<SDGNode> chain = new ArrayList<SDGNode>();
+		for (int id : ids) {
+			final SDGNode node = addNode(sdg, id);
+			if (!chain.isEmpty()) {
+				sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(chain.get(chain.size() - 1), node));
+			}
+			chain.add(node);
+		}
+		return chain;
+	}
+
+	@Test
+	public void testTableGrowsTowardsSmallerIds() {
+		final SDG sdg = new SDG();
+		final List<SDGNode> chain = addChain(sdg, 10, 11, 12, 13);
+		final SummarySlicerBackward backward = new SummarySlicerBackward(sdg);
+		final SummarySlicerForward forward = new SummarySlicerForward(sdg);
+
+		// creates the tables for the ids 10 to 13
+		final Collection<SDGNode> first = backward.slice(chain.get(3));
+		assertEquals(new HashSet<SDGNode>(chain), new HashSet<SDGNode>(first));
+		assertEquals(new HashSet<SDGNode>(chain), new HashSet<SDGNode>(forward.slice(chain.get(0))));
+
+		// the slices reach nodes below the range of the tables only after nodes of the tables have been put
+		// into the worklists, so the tables grow towards smaller ids while the slices are computed
+		final List<SDGNode> below = addChain(sdg, 5, 3, 1);
+		sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(below.get(2), chain.get(0)));
+		final SDGNode end = addNode(sdg, 2);
+		sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(chain.get(3), end));
+
+		final Set<SDGNode> expectedBackward = new HashSet<SDGNode>(new ContextInsensitiveBackward(sdg).slice(chain.get(3)));
+		assertEquals(7, expectedBackward.size());
+		assertEquals(expectedBackward, new HashSet<SDGNode>(backward.slice(chain.get(3))));
+
+		final Set<SDGNode> expectedForward = new HashSet<SDGNode>(new ContextInsensitiveForward(sdg).slice(below.get(0)));
+		assertEquals(8, expectedForward.size());
+		assertEquals(expectedForward, new HashSet<SDGNode>(forward.slice(below.get(0))));
+
+		// slices computed before the table has grown stay valid
+		assertEquals(new HashSet<SDGNode>(chain), new HashSet<SDGNode>(first));
+		for (SDGNode node : below) {
+			assertFalse(first.contains(node));
+		}
+		for (SDGNode node : chain) {
+			assertTrue(first.contains(node));
+		}
+	}
+
+	@Test
+	public void testReplacedNodeKeepsEarlierSlices() {
+		final SDG sdg = new SDG();
+		final List<SDGNode> chain = addChain(sdg, 1, 2, 3);
+		final SummarySlicerBackward backward = new SummarySlicerBackward(sdg);
+		final Collection<SDGNode> first = backward.slice(chain.get(2));
+
+		// replace the middle node by a new node with the same id
+		final SDGNode old = chain.get(1);
+		sdg.removeVertex(old);
+		final SDGNode replacement = addNode(sdg, old.getId());
+		sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(chain.get(0), replacement));
+		sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(replacement, chain.get(2)));
+
+		final Collection<SDGNode> second = backward.slice(chain.get(2));
+		assertTrue(containsSame(second, replacement));
+		assertFalse(containsSame(second, old));
+
+		// the slice computed before still consists of the old node
+		assertTrue(containsSame(first, old));
+		assertFalse(containsSame(first, replacement));
+		assertEquals(3, first.size());
+	}
+
+	private static boolean containsSame(Collection<SDGNode> slice, SDGNode node) {
+		for (SDGNode n : slice) {
+			if (n == node) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
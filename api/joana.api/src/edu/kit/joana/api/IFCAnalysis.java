@@ -51,6 +51,7 @@ import gnu.trove.map.hash.TObjectIntHashMap;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 public class IFCAnalysis {
@@ -63,6 +64,7 @@ public class IFCAnalysis {
 	private IFC<String> ifc;
 	private boolean timeSensitiveAnalysis = false;
 	private boolean removeRedundantFlows = false;
+	private ForkJoinPool ifcPool = null;
 	/**
 	 * "" -> match all annotations that have no tags
 	 */
@@ -124,8 +126,11 @@ public class IFCAnalysis {
 		}
 
 		switch (this.ifcType) {
-		case CLASSICAL_NI:
-			this.ifc = new SlicingBasedIFC(this.program.getSDG(), secLattice, new I2PForward(this.program.getSDG()), new I2PBackward(this.program.getSDG()));
+		case CLASSICAL_NI: {
+			final SDG sdg = this.program.getSDG();
+			final SlicingBasedIFC slicingIFC = new SlicingBasedIFC(sdg, secLattice, () -> new I2PForward(sdg), () -> new I2PBackward(sdg));
+			slicingIFC.setForkJoinPool(ifcPool);
+			this.ifc = slicingIFC;
 			if (timeSensitiveAnalysis) {
 				if (this.program.getSDG().getThreadsInfo() == null) {
 					CSDGPreprocessor.preprocessSDG(this.program.getSDG());
@@ -136,6 +141,7 @@ public class IFCAnalysis {
 				}
 			}
 			break;
+		}
 		case LSOD:
 			ConflictScanner lsodScanner = LSODNISlicer.simpleCheck(this.program.getSDG(), secLattice, mhp,
 			this.timeSensitiveAnalysis);
@@ -176,6 +182,14 @@ public class IFCAnalysis {
 		this.timeSensitiveAnalysis = newTimeSens;
 	}
 
+	/**
+	 * Sets the pool on which the classical noninterference check examines the sources resp. sinks in parallel.
+	 * @param pool the pool to use, or {@code null} for a sequential check (the default)
+	 */
+	public void setIFCPool(ForkJoinPool pool) {
+		this.ifcPool = pool;
+	}
+
 	public void setLattice(IStaticLattice<String> secLattice) {
 		if (secLattice == null) {
 			throw new IllegalArgumentException();
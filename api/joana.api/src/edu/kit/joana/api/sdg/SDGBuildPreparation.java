@@ -283,19 +283,32 @@ public final class SDGBuildPreparation {
 		}
 		final long startTime = System.currentTimeMillis();
 
-		out.print("Setting up analysis scope... ");
-
-		AnalysisScope scope = setUpAnalysisScope(out, cfg);
-
-	    out.println("done.");
-
-	    out.print("Creating class hierarchy... ");
-
-	    // Klassenhierarchie berechnen
-		ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+		final AnalysisScope scope;
+		final ClassHierarchy cha;
+		final AnalysisCache cache;
+		if (cfg.sharedAnalysis != null) {
+			final SharedAnalysis.Artifacts shared = cfg.sharedAnalysis.acquire(out, cfg);
+			scope = shared.scope;
+			cha = shared.cha;
+			cache = shared.cache;
+		} else {
+			scope = setUpScopeAndPrint(out, cfg);
+			cha = makeClassHierarchyAndPrint(out, scope);
+			cache = new AnalysisCacheImpl();
+		}
 
+		try {
+			return prepareBuild(out, cfg, startTime, scope, cha, cache);
+		} catch (Throwable t) {
+			if (cfg.sharedAnalysis != null) {
+				cfg.sharedAnalysis.release(cha);
+			}
+			throw t;
+		}
+	}
 
-	    out.println("(" + cha.getNumberOfClasses() + " classes) done.");
+	private static Pair<Long, SDGBuilder.SDGBuilderConfig> prepareBuild(PrintStream out, Config cfg, long startTime,
+			AnalysisScope scope, ClassHierarchy cha, AnalysisCache cache) {
 
 	    if (cfg.extern != null) {
 	    	cfg.extern.setClassHierarchy(cha);
@@ -314,8 +327,6 @@ public final class SDGBuildPreparation {
 
 		out.println("done.");
 
-		AnalysisCache cache = new AnalysisCacheImpl();
-
 		ExternalCallCheck chk;
 		if (cfg.extern == null) {
 			final boolean reflectionPossible =
@@ -384,9 +395,34 @@ public final class SDGBuildPreparation {
 		scfg.doParallel = cfg.isParallel;
 		scfg.controlDependenceVariant = cfg.controlDependenceVariant;
 		scfg.fieldHelperOptions = cfg.fieldHelperOptions;
+		if (cfg.profileBuild) {
+			scfg.profile = new BuildProfile();
+		}
+		scfg.lowMemory = cfg.lowMemory;
 		return Pair.make(startTime, scfg);
 	}
 
+	private static AnalysisScope setUpScopeAndPrint(PrintStream out, Config cfg) throws IOException {
+		out.print("Setting up analysis scope... ");
+
+		AnalysisScope scope = setUpAnalysisScope(out, cfg);
+
+		out.println("done.");
+
+		return scope;
+	}
+
+	private static ClassHierarchy makeClassHierarchyAndPrint(PrintStream out, AnalysisScope scope) throws ClassHierarchyException {
+		out.print("Creating class hierarchy... ");
+
+		// Klassenhierarchie berechnen
+		ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+
+		out.println("(" + cha.getNumberOfClasses() + " classes) done.");
+
+		return cha;
+	}
+
 	private static void postpareBuild(long startTime, PrintStream out) {
 		out.println("\ndone.");
 		final long endTime = System.currentTimeMillis();
@@ -401,7 +437,14 @@ public final class SDGBuildPreparation {
 		long startTime = p.fst;
 		SDGBuilder.SDGBuilderConfig scfg = p.snd;
 		out.print("Building system dependence graph... ");
-		final SDG sdg = SDGBuilder.build(scfg, progress);
+		final SDG sdg;
+		try {
+			sdg = SDGBuilder.build(scfg, progress);
+		} finally {
+			if (cfg.sharedAnalysis != null) {
+				cfg.sharedAnalysis.release(scfg.cha);
+			}
+		}
 		postpareBuild(startTime, out);
 //		SDGVerifier.verify(sdg, false, true);
 
@@ -413,7 +456,13 @@ public final class SDGBuildPreparation {
 		long startTime = p.fst;
 		SDGBuilder.SDGBuilderConfig scfg = p.snd;
 		out.print("Building system dependence graph... ");
-		final Pair<SDG, SDGBuilder> ret = SDGBuilder.buildAndKeepBuilder(scfg, progress);
+		final Pair<SDG, SDGBuilder> ret;
+		try {
+			ret = SDGBuilder.buildAndKeepBuilder(scfg, progress);
+		} catch (Throwable t) {
+			releaseSharedAnalysis(cfg, scfg);
+			throw t;
+		}
 		postpareBuild(startTime, out);
 //		SDGVerifier.verify(sdg, false, true);
 
@@ -425,7 +474,13 @@ public final class SDGBuildPreparation {
 		long startTime = p.fst;
 		SDGBuilder.SDGBuilderConfig scfg = p.snd;
 		out.print("Building system dependence graph... ");
-		final Pair<SDG, SDGBuildArtifacts> ret = SDGBuilder.buildAndKeepBuildArtifacts(scfg, progress);
+		final Pair<SDG, SDGBuildArtifacts> ret;
+		try {
+			ret = SDGBuilder.buildAndKeepBuildArtifacts(scfg, progress);
+		} catch (Throwable t) {
+			releaseSharedAnalysis(cfg, scfg);
+			throw t;
+		}
 		postpareBuild(startTime, out);
 //		SDGVerifier.verify(sdg, false, true);
 
@@ -434,7 +489,22 @@ public final class SDGBuildPreparation {
 	
 	public static SDGBuilder createBuilder(PrintStream out, Config cfg, IProgressMonitor progress) throws UnsoundGraphException, CancelException, ClassHierarchyException, IOException {
 		Pair<Long, SDGBuilder.SDGBuilderConfig> p = prepareBuild(out, cfg, progress);
-		return SDGBuilder.onlyCreate(p.snd);
+		try {
+			return SDGBuilder.onlyCreate(p.snd);
+		} catch (Throwable t) {
+			releaseSharedAnalysis(cfg, p.snd);
+			throw t;
+		}
+	}
+
+	/**
+	 * Makes the class hierarchy of a build that has failed available to the next build. The builds that keep their
+	 * results hand the class hierarchy over to the caller only if they succeed.
+	 */
+	private static void releaseSharedAnalysis(Config cfg, SDGBuilder.SDGBuilderConfig scfg) {
+		if (cfg.sharedAnalysis != null) {
+			cfg.sharedAnalysis.release(scfg.cha);
+		}
 	}
 
 	public static boolean checkOrCreateOutputDir(String dir) {
@@ -489,6 +559,10 @@ public final class SDGBuildPreparation {
 		public boolean isParallel = true;
 		public ControlDependenceVariant controlDependenceVariant = SDGBuilder.defaultControlDependenceVariant;
 		public UninitializedFieldHelperOptions fieldHelperOptions = UninitializedFieldHelperOptions.createEmpty();
+		public boolean profileBuild = false;
+		public boolean lowMemory = false;
+		/** analysis scope, class hierarchy and ir cache shared with other builds, created for each build if null */
+		public SharedAnalysis sharedAnalysis = null;
 
 		public Config(String name) {
 			this(name, "<no entry defined>", FieldPropagation.OBJ_GRAPH);
@@ -555,5 +629,84 @@ public final class SDGBuildPreparation {
 		}
 	}
 
+	/**
+	 * Analysis scopes, class hierarchies and ir caches that are reused by the builds that share this object via
+	 * {@link Config#sharedAnalysis}, e.g. the builds for several entry points of the same program.
+	 * <p>
+	 * The class loaders of a class hierarchy are modified while it is used, so each class hierarchy is used by one
+	 * build at a time: a build gets an idle class hierarchy with the same class path, stubs and exclusions, or a new one
+	 * if there is none. The class hierarchy stays in use until it is passed to {@link #release(IClassHierarchy)}, which
+	 * {@link SDGBuildPreparation#compute(PrintStream, Config, IProgressMonitor)} does at the end of the build. Builds
+	 * whose results keep the class hierarchy, like an {@link edu.kit.joana.api.sdg.SDGProgram}, have to release it once
+	 * the result is no longer used. Until then, concurrent builds use their own class hierarchies. If such a build
+	 * fails, it releases the class hierarchy itself.
+	 */
+	public static final class SharedAnalysis {
+
+		private static final class Artifacts {
+			private final List<Object> key;
+			private final AnalysisScope scope;
+			private final ClassHierarchy cha;
+			private final AnalysisCache cache;
+
+			private Artifacts(List<Object> key, AnalysisScope scope, ClassHierarchy cha, AnalysisCache cache) {
+				this.key = key;
+				this.scope = scope;
+				this.cha = cha;
+				this.cache = cache;
+			}
+		}
+
+		private final List<Artifacts> idle = new LinkedList<Artifacts>();
+		private final List<Artifacts> inUse = new LinkedList<Artifacts>();
+
+		private synchronized Artifacts acquire(PrintStream out, Config cfg) throws IOException, ClassHierarchyException {
+			final List<Object> key = Arrays.asList(cfg.classpath, cfg.classpathAddEntriesFromMANIFEST,
+					cfg.thirdPartyLibPath, cfg.stubs, cfg.exclusions);
+			Artifacts artifacts = null;
+			for (final Iterator<Artifacts> it = idle.iterator(); it.hasNext();) {
+				final Artifacts a = it.next();
+				if (a.key.equals(key)) {
+					it.remove();
+					artifacts = a;
+					break;
+				}
+			}
+			if (artifacts == null) {
+				// the scope is set up while holding the lock, as it sets the native spec of wala
+				final AnalysisScope scope = setUpScopeAndPrint(out, cfg);
+				final ClassHierarchy cha = makeClassHierarchyAndPrint(out, scope);
+				artifacts = new Artifacts(key, scope, cha, new AnalysisCacheImpl());
+			} else {
+				out.println("Reusing class hierarchy (" + artifacts.cha.getNumberOfClasses() + " classes).");
+			}
+			inUse.add(artifacts);
+
+			return artifacts;
+		}
+
+		/**
+		 * Makes the class hierarchy available to the next build. Does nothing if the class hierarchy was not created by
+		 * this object or is already released.
+		 */
+		public synchronized void release(IClassHierarchy cha) {
+			for (final Iterator<Artifacts> it = inUse.iterator(); it.hasNext();) {
+				final Artifacts a = it.next();
+				if (a.cha == cha) {
+					it.remove();
+					idle.add(a);
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Forgets the idle class hierarchies and ir caches.
+		 */
+		public synchronized void clear() {
+			idle.clear();
+		}
+	}
+
 
 }
@@ -14,6 +14,7 @@ import com.ibm.wala.ipa.callgraph.pruned.ApplicationLoaderPolicy;
 import com.ibm.wala.ipa.callgraph.pruned.DoNotPrune;
 import com.ibm.wala.ipa.callgraph.pruned.PruningPolicy;
 
+import edu.kit.joana.ifc.sdg.graph.StreamingSDGSerializer;
 import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
 import edu.kit.joana.util.LogUtil;
 import edu.kit.joana.util.Stubs;
@@ -59,6 +60,11 @@ public class SDGConfig {
 	private ControlDependenceVariant controlDependenceVariant = SDGBuilder.defaultControlDependenceVariant;
 	private boolean isParallel = true;
 	private UninitializedFieldHelperOptions fieldHelperOptions = UninitializedFieldHelperOptions.createEmpty();
+	private StreamingSDGSerializer.Compression sdgFileCompression = StreamingSDGSerializer.Compression.NONE;
+	private boolean boundedMemorySDGFileOut = false;
+	private boolean profileBuild = false;
+	private boolean lowMemoryBuild = false;
+	private SDGBuildPreparation.SharedAnalysis sharedAnalysis = null;
 
 	public SDGConfig(String classPath, String entryMethod, Stubs stubsPath) {
 		this(classPath, true, entryMethod, stubsPath, ExceptionAnalysis.INTERPROC, FieldPropagation.OBJ_GRAPH, PointsToPrecision.INSTANCE_BASED, false, false, MHPType.NONE);
@@ -423,4 +429,63 @@ public class SDGConfig {
 	public void setFieldHelperOptions(UninitializedFieldHelperOptions fieldHelperOptions) {
 		this.fieldHelperOptions = fieldHelperOptions;
 	}
+
+	public StreamingSDGSerializer.Compression getSDGFileCompression() {
+		return sdgFileCompression;
+	}
+
+	/**
+	 * Sets the compression of the SDG written to the sdgFileOut stream of
+	 * {@link SDGProgram#createSDGProgram(SDGConfig, java.io.PrintStream, com.ibm.wala.util.MonitorUtil.IProgressMonitor, java.io.OutputStream)}.
+	 */
+	public void setSDGFileCompression(StreamingSDGSerializer.Compression sdgFileCompression) {
+		this.sdgFileCompression = sdgFileCompression;
+	}
+
+	public boolean isBoundedMemorySDGFileOut() {
+		return boundedMemorySDGFileOut;
+	}
+
+	/**
+	 * Whether the SDG is written to the sdgFileOut stream in the bounded memory mode of {@link StreamingSDGSerializer}.
+	 */
+	public void setBoundedMemorySDGFileOut(boolean boundedMemorySDGFileOut) {
+		this.boundedMemorySDGFileOut = boundedMemorySDGFileOut;
+	}
+
+	public boolean isProfileBuild() {
+		return profileBuild;
+	}
+
+	/**
+	 * Whether the phases of the SDG construction are profiled. The profile is available from
+	 * {@link SDGProgram#getBuildProfile()}.
+	 */
+	public void setProfileBuild(boolean profileBuild) {
+		this.profileBuild = profileBuild;
+	}
+
+	public boolean isLowMemoryBuild() {
+		return lowMemoryBuild;
+	}
+
+	/**
+	 * Whether the SDG is built in the low memory mode of the SDG builder, see
+	 * {@link edu.kit.joana.wala.core.SDGBuilder.SDGBuilderConfig#lowMemory}.
+	 */
+	public void setLowMemoryBuild(boolean lowMemoryBuild) {
+		this.lowMemoryBuild = lowMemoryBuild;
+	}
+
+	public SDGBuildPreparation.SharedAnalysis getSharedAnalysis() {
+		return sharedAnalysis;
+	}
+
+	/**
+	 * Sets the analysis scope, class hierarchy and ir cache that are shared with the builds of other SDGs of the same
+	 * program, see {@link SDGBuildPreparation.SharedAnalysis}. If null, they are created for this build only.
+	 */
+	public void setSharedAnalysis(SDGBuildPreparation.SharedAnalysis sharedAnalysis) {
+		this.sharedAnalysis = sharedAnalysis;
+	}
 }
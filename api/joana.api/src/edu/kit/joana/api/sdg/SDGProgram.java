@@ -35,7 +35,7 @@ import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.ifc.sdg.graph.StreamingSDGSerializer;
 import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
 import edu.kit.joana.ifc.sdg.graph.chopper.NonSameLevelChopper;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
@@ -52,6 +52,7 @@ import edu.kit.joana.util.Logger;
 import edu.kit.joana.util.Pair;
 import edu.kit.joana.util.Stubs;
 import edu.kit.joana.util.io.IOFactory;
+import edu.kit.joana.wala.core.BuildProfile;
 import edu.kit.joana.wala.core.NullProgressMonitor;
 import edu.kit.joana.wala.core.SDGBuildArtifacts;
 import edu.kit.joana.wala.core.SDGBuilder;
@@ -169,6 +170,7 @@ public class SDGProgram {
 
 	private final AnnotationTypeBasedNodeCollector coll;
 	private IClassHierarchy ch;
+	private BuildProfile buildProfile = null;
 	private final Optional<String> entryMethod;
 
 	private static Logger debug = Log.getLogger(Log.L_API_DEBUG);
@@ -258,47 +260,56 @@ public class SDGProgram {
 				SDGBuildPreparation.computeAndKeepBuildArtifacts(out, makeBuildPreparationConfig(config), monitor);
 		final SDG sdg = p.fst;
 		final SDGBuildArtifacts buildArtifacts = p.snd;
-
-		if (config.computeInterferences()) {
-			CSDGPreprocessor.preprocessSDG(sdg);
-		}
-		
-		final MHPAnalysis mhpAnalysis = config.getMhpType().getMhpAnalysisConstructor().apply(sdg);
-		assert (mhpAnalysis == null) == (config.getMhpType() == MHPType.NONE);
+		try {
+			if (config.computeInterferences()) {
+				CSDGPreprocessor.preprocessSDG(sdg);
+			}
 		
-		if (config.computeInterferences()) {
-			PruneInterferences.pruneInterferences(sdg, mhpAnalysis);
-		}
+			final MHPAnalysis mhpAnalysis = config.getMhpType().getMhpAnalysisConstructor().apply(sdg);
+			assert (mhpAnalysis == null) == (config.getMhpType() == MHPType.NONE);
 		
-		if (notifier != null) {
-			notifier.sdgFinished();
-			notifier.numberOfCGNodes(buildArtifacts.getNonPrunedWalaCallGraph().getNumberOfNodes(), buildArtifacts.getWalaCallGraph().getNumberOfNodes());
-		}
-		if (config.getIgnoreIndirectFlows()) {
-			if (notifier != null) {
-				notifier.stripControlDepsStarted();
+			if (config.computeInterferences()) {
+				PruneInterferences.pruneInterferences(sdg, mhpAnalysis);
 			}
-			throwAwayControlDeps(sdg);
+		
 			if (notifier != null) {
-				notifier.stripControlDepsFinished();
+				notifier.sdgFinished();
+				notifier.numberOfCGNodes(buildArtifacts.getNonPrunedWalaCallGraph().getNumberOfNodes(), buildArtifacts.getWalaCallGraph().getNumberOfNodes());
 			}
+			if (config.getIgnoreIndirectFlows()) {
+				if (notifier != null) {
+					notifier.stripControlDepsStarted();
+				}
+				throwAwayControlDeps(sdg);
+				if (notifier != null) {
+					notifier.stripControlDepsFinished();
+				}
 			
-		}
-		if (sdgFileOut != null) {
-			SDGSerializer.toPDGFormat(sdg, sdgFileOut);
-			sdgFileOut.flush();
-		}
-		final SDGProgram ret = new SDGProgram(sdg, mhpAnalysis, config.getEntryMethod());
-		ret.setClassHierarchy(buildArtifacts.getClassHierarchy());
-		if (config.isSkipSDGProgramPart()) {
-			return ret;
-		}
+			}
+			if (sdgFileOut != null) {
+				final StreamingSDGSerializer serializer =
+						new StreamingSDGSerializer(config.getSDGFileCompression(), config.isBoundedMemorySDGFileOut());
+				serializer.write(sdg, sdgFileOut);
+			}
+			final SDGProgram ret = new SDGProgram(sdg, mhpAnalysis, config.getEntryMethod());
+			ret.setClassHierarchy(buildArtifacts.getClassHierarchy());
+			ret.buildProfile = buildArtifacts.getBuildProfile();
+			if (config.isSkipSDGProgramPart()) {
+				return ret;
+			}
 		
 		
-		final IClassHierarchy ch  = buildArtifacts.getClassHierarchy();
-		final CallGraph callGraph = buildArtifacts.getWalaCallGraph(); 
-		ret.fillWithAnnotations(ch, findClassesRelevantForAnnotation(ch, callGraph));
-		return ret;
+			final IClassHierarchy ch  = buildArtifacts.getClassHierarchy();
+			final CallGraph callGraph = buildArtifacts.getWalaCallGraph(); 
+			ret.fillWithAnnotations(ch, findClassesRelevantForAnnotation(ch, callGraph));
+			return ret;
+		} catch (Throwable t) {
+			// the program is not handed out, so nothing keeps the class hierarchy
+			if (config.getSharedAnalysis() != null) {
+				config.getSharedAnalysis().release(buildArtifacts.getClassHierarchy());
+			}
+			throw t;
+		}
 	}
 	
 	private void setClassHierarchy(IClassHierarchy ch) {
@@ -309,6 +320,14 @@ public class SDGProgram {
 		return ch;
 	}
 
+	/**
+	 * @return the profile of the phases of the SDG construction, or null if the construction has not been profiled
+	 * (see {@link SDGConfig#setProfileBuild(boolean)}).
+	 */
+	public BuildProfile getBuildProfile() {
+		return buildProfile;
+	}
+
 	public static Set<IClass> findClassesRelevantForAnnotation(IClassHierarchy ch, CallGraph callGraph) {
 		final Set<IClass> classes = new HashSet<>();
 		SSAInstruction.Visitor collectReferencedClasses = new SSAInstruction.Visitor() {
@@ -503,6 +522,9 @@ public class SDGProgram {
 		cfg.isParallel = config.isParallel();
 		cfg.controlDependenceVariant = config.getControlDependenceVariant();
 		cfg.fieldHelperOptions = config.getFieldHelperOptions();
+		cfg.profileBuild = config.isProfileBuild();
+		cfg.lowMemory = config.isLowMemoryBuild();
+		cfg.sharedAnalysis = config.getSharedAnalysis();
 		debug.outln(cfg.stubs);
 		return cfg;
 	}
@@ -7,8 +7,11 @@
  */
 package edu.kit.joana.ifc.sdg.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 import edu.kit.joana.ifc.sdg.core.conc.ProbabilisticNIChecker;
 import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
@@ -27,12 +30,19 @@ import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
  * </ol>
  * If these two conditions are satisfied, a violation for (s,t) is reported.<p>
  * Note, that this class can only be used to check for possibilistic leaks. To check also for probabilistic leaks, use {@link ProbabilisticNIChecker}.<p>
- * Also, there is no support for declassification, unless the provided chopper is configured appropriately.
+ * Also, there is no support for declassification, unless the provided chopper is configured appropriately.<p>
+ * If this object has been created with a chopper factory, the sources can also be checked in parallel on a {@link ForkJoinPool},
+ * see {@link #setForkJoinPool(ForkJoinPool)}. Each worker thread then uses its own chopper, and the violations are reported in
+ * the same order as in the sequential case.
  * @author Martin Mohr
  */
 public class ChoppingBasedIFC extends IFC<String> {
 	
 	private final Chopper chopper;
+	private final Supplier<? extends Chopper> chopperFactory;
+	/** whether the chopper has been given as instance, which then would be shared by all worker threads */
+	private final boolean sharedChopper;
+	private ForkJoinPool pool = null;
 	
 	/**
 	 * Instantiates a new ChoppingBasedIFC object.
@@ -43,6 +53,40 @@ public class ChoppingBasedIFC extends IFC<String> {
 	public ChoppingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Chopper chopper) {
 		super(sdg, lattice);
 		this.chopper = chopper;
+		this.chopperFactory = () -> chopper;
+		this.sharedChopper = true;
+	}
+
+	/**
+	 * Instantiates a new ChoppingBasedIFC object, which creates its choppers with the given factory.
+	 * In contrast to {@link #ChoppingBasedIFC(SDG, IStaticLattice, Chopper)}, the choppers need not be thread-safe
+	 * if the sources are checked in parallel, since every worker thread creates its own chopper.
+	 * @param sdg SDG to perform IFC algorithm on
+	 * @param lattice security lattice to use for IFC algorithm
+	 * @param chopperFactory creates the choppers to be used to check for the existence of information flows between sources and sinks.
+	 */
+	public ChoppingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Supplier<? extends Chopper> chopperFactory) {
+		super(sdg, lattice);
+		this.chopper = chopperFactory.get();
+		this.chopperFactory = chopperFactory;
+		this.sharedChopper = false;
+	}
+
+	/**
+	 * Sets the pool on which the sources are checked in parallel. This needs an object that has been created with a chopper
+	 * factory, since the choppers are not thread-safe.
+	 * @param pool the pool to use, or {@code null} to check the sources sequentially
+	 * @throws IllegalStateException if a pool is given and this object has been created with a chopper instance
+	 */
+	public void setForkJoinPool(ForkJoinPool pool) {
+		if (pool != null && sharedChopper) {
+			throw new IllegalStateException("checking sources in parallel needs a chopper factory instead of a chopper instance");
+		}
+		this.pool = pool;
+	}
+
+	public ForkJoinPool getForkJoinPool() {
+		return pool;
 	}
 
 	/* (non-Javadoc)
@@ -53,16 +97,27 @@ public class ChoppingBasedIFC extends IFC<String> {
 		Collection<SecurityNode> srcs = collectSources();
 		Collection<SecurityNode> snks = collectSinks();
 		Collection<ClassifiedViolation> vios = new LinkedList<ClassifiedViolation>();
+		if (pool != null) {
+			final ParallelEndpointChecker<SecurityNode, Chopper> checker = new ParallelEndpointChecker<SecurityNode, Chopper>(
+					new ArrayList<SecurityNode>(srcs), chopperFactory, (src, c, found) -> {
+						for (SecurityNode snk : snks) {
+							addPossibleViolation(c, found, src, snk);
+						}
+					});
+			vios.addAll(checker.run(pool));
+			return vios;
+		}
+
 		for (SecurityNode src : srcs) {
 			for (SecurityNode snk : snks) {
-				addPossibleViolation(vios, src, snk);
+				addPossibleViolation(chopper, vios, src, snk);
 			}
 		}
 
 		return vios;
 	}
 	
-	private void addPossibleViolation(Collection<ClassifiedViolation> vios, SecurityNode src, SecurityNode snk) {
+	private void addPossibleViolation(Chopper chopper, Collection<ClassifiedViolation> vios, SecurityNode src, SecurityNode snk) {
 		String srcLevel = src.getProvided();
 		String snkLevel = snk.getRequired();
 		if (!l.leastUpperBound(srcLevel, snkLevel).equals(snkLevel)) {
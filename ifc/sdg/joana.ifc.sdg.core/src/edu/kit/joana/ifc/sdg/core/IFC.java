@@ -23,6 +23,7 @@ import edu.kit.joana.ifc.sdg.core.interfaces.ProgressListener;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 
 
@@ -45,6 +46,8 @@ public abstract class IFC<L> implements ProgressListener, ProgressAnnouncer {
 	protected SDG g;
     // der lattice
 	protected IStaticLattice<L> l;
+    // der lattice mit int-kodierten Elementen, wird bei Bedarf erzeugt
+	private IntLattice<L> intLattice;
 
 
     /** Berechnet, ob der SDG noninterferent ist und aktualisiert die Progressbar.
@@ -74,12 +77,24 @@ public abstract class IFC<L> implements ProgressListener, ProgressAnnouncer {
 		return l;
 	}
 
+    /** Liefert den lattice mit int-kodierten Elementen, fuer schnelle Verbandsoperationen.
+     *
+     * @return Ein {@link IntLattice} zum aktuellen lattice.
+     */
+	public IntLattice<L> getIntLattice() {
+		if (intLattice == null) {
+			intLattice = IntLattice.of(l);
+		}
+		return intLattice;
+	}
+
     /** Zur Wiederverwendung mit neuem Verband.
      *
      * @param lattice   Ein Verband.
      */
     public void setLattice(IStaticLattice<L> lattice) {
         this.l = lattice;
+        this.intLattice = null;
     }
 
     /** Zur Wiederverwendung mit einem neuen SDG.
@@ -0,0 +1,98 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
+
+/**
+ * Checks a list of end points in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * The list of end points is split recursively, so that idle workers can steal the checks of the remaining end points.
+ * Each worker thread uses its own worker object (e.g. a slicer or chopper), created by the given factory, so
+ * that no mutable state is shared between threads. The SDG itself is only read. The worker objects are only kept
+ * for one call of {@link #run(ForkJoinPool)}, so they do not keep the SDG alive in the threads of a long-lived pool.<br>
+ * The violations found for the single end points are concatenated in the order of the end points, hence the result
+ * does not depend on the scheduling of the tasks.
+ *
+ * @param <E> type of end points
+ * @param <W> type of the per-thread worker objects
+ */
+final class ParallelEndpointChecker<E, W> {
+
+	/**
+	 * The check of a single end point.
+	 */
+	interface EndpointCheck<E, W> {
+		void check(E endPoint, W worker, Collection<ClassifiedViolation> vios);
+	}
+
+	private final List<E> endPoints;
+	private final Supplier<? extends W> workerFactory;
+	private final EndpointCheck<E, W> check;
+
+	ParallelEndpointChecker(List<E> endPoints, Supplier<? extends W> workerFactory, EndpointCheck<E, W> check) {
+		this.endPoints = endPoints;
+		this.workerFactory = workerFactory;
+		this.check = check;
+	}
+
+	/**
+	 * Checks all end points on the given pool and waits for the result.
+	 * @return the violations of all end points, in the order of the end points
+	 */
+	List<ClassifiedViolation> run(ForkJoinPool pool) {
+		final Map<Thread, W> workers = new ConcurrentHashMap<Thread, W>();
+		return pool.invoke(new Range(workers, 0, endPoints.size()));
+	}
+
+	private final class Range extends RecursiveTask<List<ClassifiedViolation>> {
+
+		private static final long serialVersionUID = 1L;
+
+		/* the worker objects of this run, by thread */
+		private final Map<Thread, W> workers;
+		private final int from;
+		private final int to;
+
+		private Range(Map<Thread, W> workers, int from, int to) {
+			this.workers = workers;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<ClassifiedViolation> compute() {
+			if (to - from <= 1) {
+				final List<ClassifiedViolation> vios = new ArrayList<ClassifiedViolation>();
+				if (from < to) {
+					final W worker = workers.computeIfAbsent(Thread.currentThread(), t -> workerFactory.get());
+					check.check(endPoints.get(from), worker, vios);
+				}
+				return vios;
+			}
+
+			final int mid = (from + to) >>> 1;
+			final Range left = new Range(workers, from, mid);
+			final Range right = new Range(workers, mid, to);
+			left.fork();
+			final List<ClassifiedViolation> rightVios = right.compute();
+			final List<ClassifiedViolation> vios = left.join();
+			vios.addAll(rightVios);
+			return vios;
+		}
+	}
+}
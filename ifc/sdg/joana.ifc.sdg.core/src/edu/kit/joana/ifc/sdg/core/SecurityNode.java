@@ -8,6 +8,8 @@
 package edu.kit.joana.ifc.sdg.core;
 
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
+import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.SourceLocation;
 
 
@@ -18,7 +20,8 @@ import edu.kit.joana.util.SourceLocation;
  * level of a node controls the maximal security level which can enter the node through incoming edges and the provided level
  * controls the minimal security level which can leave the node through outgoing edges. The terms 'maximal' and 'minimal'
  * are given by the underlying security lattice which the security levels are assumed to be elements
- * of.
+ * of. For the information flow control algorithms, the levels are also available as ids of the elements of an
+ * {@link IntLattice}, see {@link #getRequiredId(IntLattice)} and {@link #getProvidedId(IntLattice)}.
  * @author giffhorn, hammer
  */
 public class SecurityNode extends SDGNode {
@@ -30,6 +33,9 @@ public class SecurityNode extends SDGNode {
     private String required = SecurityNode.UNDEFINED;
     private String provided = SecurityNode.UNDEFINED;
 
+    /** the levels of this node encoded as ids of the lattice they have been requested for last */
+    private EncodedLevels encodedLevels = null;
+
     public SecurityNode(int id, Operation op, String value, int proc,
             String type, SourceLocation sourceLocation, String bcName, int bcIndex,
             String[] localDefNames, String[] localUseNames,
@@ -76,6 +82,7 @@ public class SecurityNode extends SDGNode {
     public void setRequired(String iflow) {
       if (iflow == null) this.required = SecurityNode.UNDEFINED;
       else this.required = iflow.intern();
+      this.encodedLevels = null;
     }
 
     /**
@@ -114,6 +121,54 @@ public class SecurityNode extends SDGNode {
     public void setProvided(String iflow) {
       if (iflow == null) this.provided = SecurityNode.UNDEFINED;
       else this.provided = iflow.intern();
+      this.encodedLevels = null;
+    }
+
+    /**
+     * Returns the id of the required level of this security node in the given lattice, or {@link IntLattice#NO_ELEMENT}
+     * if the required level is {@link #UNDEFINED}.
+     * @param lattice the lattice which contains the levels of this node
+     * @return the id of the required level of this security node
+     * @throws NotInLatticeException if the required level is not an element of the given lattice
+     */
+    public int getRequiredId(IntLattice<String> lattice) throws NotInLatticeException {
+        return encodeLevels(lattice).required;
+    }
+
+    /**
+     * Returns the id of the provided level of this security node in the given lattice, or {@link IntLattice#NO_ELEMENT}
+     * if the provided level is {@link #UNDEFINED}.
+     * @param lattice the lattice which contains the levels of this node
+     * @return the id of the provided level of this security node
+     * @throws NotInLatticeException if the provided level is not an element of the given lattice
+     */
+    public int getProvidedId(IntLattice<String> lattice) throws NotInLatticeException {
+        return encodeLevels(lattice).provided;
+    }
+
+    /**
+     * Returns the id of the {@link #getLevel() level} of this security node in the given lattice.
+     * @param lattice the lattice which contains the levels of this node
+     * @return the id of the level of this security node, or {@link IntLattice#NO_ELEMENT} if the level is {@link #UNDEFINED}
+     * @throws NotInLatticeException if the level is not an element of the given lattice
+     */
+    public int getLevelId(IntLattice<String> lattice) throws NotInLatticeException {
+        if (isInformationSource()) {
+            return getProvidedId(lattice);
+        } else if (isInformationSink()) {
+            return getRequiredId(lattice);
+        } else {
+            return IntLattice.NO_ELEMENT;
+        }
+    }
+
+    private EncodedLevels encodeLevels(IntLattice<String> lattice) throws NotInLatticeException {
+        EncodedLevels levels = encodedLevels;
+        if (levels == null || levels.lattice != lattice) {
+            levels = new EncodedLevels(lattice, required, provided);
+            encodedLevels = levels;
+        }
+        return levels;
     }
 
     /**
@@ -164,6 +219,22 @@ public class SecurityNode extends SDGNode {
     }
 
 
+    /**
+     * The levels of a security node encoded as ids of a lattice. Instances are immutable, so they can be shared
+     * between threads without synchronization.
+     */
+    private static final class EncodedLevels {
+        private final IntLattice<String> lattice;
+        private final int required;
+        private final int provided;
+
+        private EncodedLevels(IntLattice<String> lattice, String required, String provided) throws NotInLatticeException {
+            this.lattice = lattice;
+            this.required = (required == UNDEFINED ? IntLattice.NO_ELEMENT : lattice.getId(required));
+            this.provided = (provided == UNDEFINED ? IntLattice.NO_ELEMENT : lattice.getId(provided));
+        }
+    }
+
     /**
      * Factory for security nodes
      * @see NodeFactory
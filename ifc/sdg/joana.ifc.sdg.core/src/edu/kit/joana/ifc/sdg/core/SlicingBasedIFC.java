@@ -7,9 +7,16 @@
  */
 package edu.kit.joana.ifc.sdg.core;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 import edu.kit.joana.ifc.sdg.core.DirectedSlicer.Direction;
 import edu.kit.joana.ifc.sdg.core.conc.BarrierIFCSlicer;
@@ -18,8 +25,11 @@ import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlice;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlicer;
 import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
@@ -36,7 +46,12 @@ import edu.kit.joana.util.Logger;
  * </ol>
  * For the forward variant, the forward slice of each source is computed and a malicious sink is searched for.<p>
  * Note, that this class can only be used to check for possibilistic leaks. To check also for probabilistic leaks, use {@link ProbabilisticNIChecker}.<br>
- * Also, there is no support for declassification, unless the provided chopper is configured appropriately.
+ * Also, there is no support for declassification, unless the provided chopper is configured appropriately.<p>
+ * If the used slicers are {@link MultiCriteriaSlicer}s, the slices of all end points can optionally be computed together,
+ * see {@link #setMultiCriteriaSlicing(boolean)}. This yields the same violations, but needs only one traversal of the graph
+ * per {@link MultiCriteriaSlice#BATCH_SIZE} end points.<p>
+ * The end points can also be checked in parallel on a {@link ForkJoinPool}, see {@link #setForkJoinPool(ForkJoinPool)}.
+ * Each worker thread then uses its own slicer. In all cases, the violations are reported ordered by their end point and then by the id of their start point.
  * @author Martin Mohr
  */
 public class SlicingBasedIFC extends IFC<String> {
@@ -46,6 +61,14 @@ public class SlicingBasedIFC extends IFC<String> {
 	private final DirectedSlicer slicerForw;
 	private final DirectedSlicer slicerBackw;
 	private DirectedSlicer slicer;
+	private final Supplier<? extends Slicer> slicerForwFactory;
+	private final Supplier<? extends Slicer> slicerBackwFactory;
+	private final MultiCriteriaSlicer multiSlicerForw;
+	private final MultiCriteriaSlicer multiSlicerBackw;
+	/** whether the slicers have been given as instances, which then would be shared by all worker threads */
+	private final boolean sharedSlicers;
+	private boolean multiCriteriaSlicing = false;
+	private ForkJoinPool pool = null;
 	
 	/**
 	 * Instantiates a new SlicingBasedIFC algorithm. 
@@ -58,9 +81,64 @@ public class SlicingBasedIFC extends IFC<String> {
 	 * produce wrong results if the given direction is not consistent with the given slicer.
 	 */
 	public SlicingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Slicer slicerForw, Slicer slicerBackw) {
+		this(sdg, lattice, slicerForw, slicerBackw, null, null);
+	}
+
+	/**
+	 * Instantiates a new SlicingBasedIFC algorithm, which creates its slicers with the given factories.
+	 * In contrast to {@link #SlicingBasedIFC(SDG, IStaticLattice, Slicer, Slicer)}, the slicers need not be thread-safe
+	 * if the end points are checked in parallel, since every worker thread creates its own slicers.
+	 * @param sdg the sdg to perform slicing-based IFC on
+	 * @param lattice the security lattice used for IFC
+	 * @param slicerForwFactory creates the forward slicers
+	 * @param slicerBackwFactory creates the backward slicers
+	 */
+	public SlicingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Supplier<? extends Slicer> slicerForwFactory,
+			Supplier<? extends Slicer> slicerBackwFactory) {
+		this(sdg, lattice, slicerForwFactory.get(), slicerBackwFactory.get(), slicerForwFactory, slicerBackwFactory);
+	}
+
+	private SlicingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Slicer slicerForw, Slicer slicerBackw,
+			Supplier<? extends Slicer> slicerForwFactory, Supplier<? extends Slicer> slicerBackwFactory) {
 		super(sdg, lattice);
+		this.sharedSlicers = slicerForwFactory == null;
+		this.slicerForwFactory = slicerForwFactory;
+		this.slicerBackwFactory = slicerBackwFactory;
 		this.slicerForw = DirectedSlicer.decorateWithDirection(slicerForw, Direction.FORWARD);
 		this.slicerBackw = DirectedSlicer.decorateWithDirection(slicerBackw, Direction.BACKWARD);
+		this.multiSlicerForw = (slicerForw instanceof MultiCriteriaSlicer) ? (MultiCriteriaSlicer) slicerForw : null;
+		this.multiSlicerBackw = (slicerBackw instanceof MultiCriteriaSlicer) ? (MultiCriteriaSlicer) slicerBackw : null;
+	}
+
+	/**
+	 * Sets whether the slices of all end points are computed together by a {@link MultiCriteriaSlicer}, instead of one after another.
+	 * This only has an effect if the slicer chosen for the direction of the analysis is a {@link MultiCriteriaSlicer}.
+	 * @param multiCriteriaSlicing whether to use multi-criteria slicing
+	 */
+	public void setMultiCriteriaSlicing(boolean multiCriteriaSlicing) {
+		this.multiCriteriaSlicing = multiCriteriaSlicing;
+	}
+
+	public boolean isMultiCriteriaSlicing() {
+		return multiCriteriaSlicing;
+	}
+
+	/**
+	 * Sets the pool on which the end points are checked in parallel. This is only possible if this object has been
+	 * created with slicer factories, since most slicers (e.g. {@link edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicer})
+	 * are not thread-safe and hence cannot be shared by the worker threads.
+	 * @param pool the pool to use, or {@code null} to check the end points sequentially
+	 * @throws IllegalStateException if a pool is given and this object has been created with slicer instances
+	 */
+	public void setForkJoinPool(ForkJoinPool pool) {
+		if (pool != null && sharedSlicers) {
+			throw new IllegalStateException("checking end points in parallel needs slicer factories instead of slicer instances");
+		}
+		this.pool = pool;
+	}
+
+	public ForkJoinPool getForkJoinPool() {
+		return pool;
 	}
 
 	/* (non-Javadoc)
@@ -69,6 +147,8 @@ public class SlicingBasedIFC extends IFC<String> {
 	@Override
 	public Collection<ClassifiedViolation> checkIFlow() throws NotInLatticeException {
 		this.slicer = slicerBackw;
+		// create the int lattice before the end points may be checked in parallel
+		getIntLattice();
 		Collection<SecurityNode> sources = collectStartpoints();
 		DEBUG.outln(String.format("[%s] Executing slicing-based IFC on a graph with %d nodes and %d edges.", Calendar.getInstance().getTime(), this.g.vertexSet().size(), this.g.edgeSet().size()));
 		DEBUG.outln(String.format("[%s] Collecting sinks...", Calendar.getInstance().getTime()));
@@ -77,32 +157,109 @@ public class SlicingBasedIFC extends IFC<String> {
 		DEBUG.outln(String.format("[%s] Collecting sources...", Calendar.getInstance().getTime()));
 		DEBUG.outln(String.format("[%s] done. Collected %d sources.", Calendar.getInstance().getTime(), sources.size()));
 		Collection<SecurityNode> endPoints;
+		Collection<SecurityNode> startPoints;
+		MultiCriteriaSlicer multiSlicer;
+		Supplier<? extends Slicer> slicerFactory;
 		String endpointsStr;
 		if (sources.size() < sinks.size()) {
 			this.slicer = slicerForw;
+			multiSlicer = multiSlicerForw;
+			slicerFactory = slicerForwFactory;
 			endPoints = sources;
+			startPoints = sinks;
 			endpointsStr = "sources";
 			DEBUG.outln(String.format("[%s] Using forward slicing.", Calendar.getInstance().getTime()));
 		} else {
 			this.slicer = slicerBackw;
+			multiSlicer = multiSlicerBackw;
+			slicerFactory = slicerBackwFactory;
 			endPoints = sinks;
+			startPoints = sources;
 			endpointsStr = "sinks";
 			DEBUG.outln(String.format("[%s] Using backward slicing.", Calendar.getInstance().getTime()));
 		}
 		Collection<ClassifiedViolation> vios = new LinkedList<ClassifiedViolation>();
-		DEBUG.outln(String.format("[%s] slicing each of the %d %s...", Calendar.getInstance().getTime(), endPoints.size(), endpointsStr));
-		int count = 0;
+		if (multiCriteriaSlicing && multiSlicer != null) {
+			if (pool != null) {
+				checkIFlowMultiCriteriaParallel(slicerFactory, endPoints, startPoints, vios);
+			} else {
+				checkIFlowMultiCriteria(multiSlicer, endPoints, startPoints, vios);
+			}
+		} else if (pool != null) {
+			checkIFlowParallel(slicerFactory, endPoints, vios);
+		} else {
+			DEBUG.outln(String.format("[%s] slicing each of the %d %s...", Calendar.getInstance().getTime(), endPoints.size(), endpointsStr));
+			int count = 0;
+			for (SecurityNode endPoint : endPoints) {
+				count++;
+				DEBUG.outln(String.format("[%s] %d of %d...", Calendar.getInstance().getTime(), count, endPoints.size()));
+				Collection<SDGNode> slice = slicer.slice(endPoint);
+				DEBUG.outln(String.format("[%s] done. Slice contains %d items", Calendar.getInstance().getTime(), slice.size()));
+				DEBUG.outln(String.format("[%s] scanning for sources...", Calendar.getInstance().getTime()));
+				addPossibleViolations(endPoint, slice, vios);
+				DEBUG.outln(String.format("[%s] done.", Calendar.getInstance().getTime()));
+			}
+			DEBUG.outln(String.format("[%s] done. Found %d violation(s).", Calendar.getInstance().getTime(), vios.size()));
+		}
+		return sortByEndPoints(endPoints, vios);
+	}
+
+	/**
+	 * Sorts the violations by the position of their end point in the given end points and then by the id of their start point,
+	 * so that all variants of the check report the violations in the same order.
+	 */
+	private Collection<ClassifiedViolation> sortByEndPoints(Collection<SecurityNode> endPoints, Collection<ClassifiedViolation> vios) {
+		final boolean forward = slicer.getDirection() == Direction.FORWARD;
+		final Map<SecurityNode, Integer> position = new HashMap<SecurityNode, Integer>();
 		for (SecurityNode endPoint : endPoints) {
-			count++;
-			DEBUG.outln(String.format("[%s] %d of %d...", Calendar.getInstance().getTime(), count, endPoints.size()));
-			Collection<SDGNode> slice = slicer.slice(endPoint);
-			DEBUG.outln(String.format("[%s] done. Slice contains %d items", Calendar.getInstance().getTime(), slice.size()));
-			DEBUG.outln(String.format("[%s] scanning for sources...", Calendar.getInstance().getTime()));
-			addPossibleViolations(endPoint, slice, vios);
-			DEBUG.outln(String.format("[%s] done.", Calendar.getInstance().getTime()));
+			position.putIfAbsent(endPoint, position.size());
+		}
+		final List<ClassifiedViolation> sorted = new ArrayList<ClassifiedViolation>(vios);
+		sorted.sort(Comparator
+				.comparingInt((ClassifiedViolation v) -> position.get(forward ? v.getSource() : v.getSink()))
+				.thenComparingInt(v -> (forward ? v.getSink() : v.getSource()).getId()));
+		return new LinkedList<ClassifiedViolation>(sorted);
+	}
+
+	private void checkIFlowMultiCriteria(MultiCriteriaSlicer multiSlicer, Collection<SecurityNode> endPoints,
+			Collection<SecurityNode> startPoints, final Collection<ClassifiedViolation> vios) {
+		DEBUG.outln(String.format("[%s] slicing the %d end points together...", Calendar.getInstance().getTime(), endPoints.size()));
+		final List<SecurityNode> criteria = new ArrayList<SecurityNode>(endPoints);
+		final MultiCriteriaSlice slices = multiSlicer.sliceEach(criteria);
+		DEBUG.outln(String.format("[%s] done. Scanning the slices for the %d start points...", Calendar.getInstance().getTime(), startPoints.size()));
+		for (final SecurityNode startPoint : startPoints) {
+			slices.forEachCriterionContaining(startPoint, i -> addPossibleViolation(criteria.get(i), startPoint, vios));
 		}
 		DEBUG.outln(String.format("[%s] done. Found %d violation(s).", Calendar.getInstance().getTime(), vios.size()));
-		return vios;
+	}
+
+	private void checkIFlowParallel(Supplier<? extends Slicer> slicerFactory, Collection<SecurityNode> endPoints,
+			Collection<ClassifiedViolation> vios) {
+		DEBUG.outln(String.format("[%s] slicing the %d end points on %d workers...", Calendar.getInstance().getTime(), endPoints.size(), pool.getParallelism()));
+		final ParallelEndpointChecker<SecurityNode, Slicer> checker = new ParallelEndpointChecker<SecurityNode, Slicer>(
+				new ArrayList<SecurityNode>(endPoints), slicerFactory,
+				(endPoint, s, found) -> addPossibleViolations(endPoint, s.slice(endPoint), found));
+		vios.addAll(checker.run(pool));
+		DEBUG.outln(String.format("[%s] done. Found %d violation(s).", Calendar.getInstance().getTime(), vios.size()));
+	}
+
+	private void checkIFlowMultiCriteriaParallel(Supplier<? extends Slicer> slicerFactory, Collection<SecurityNode> endPoints,
+			final Collection<SecurityNode> startPoints, Collection<ClassifiedViolation> vios) {
+		DEBUG.outln(String.format("[%s] slicing the %d end points in batches on %d workers...", Calendar.getInstance().getTime(), endPoints.size(), pool.getParallelism()));
+		final List<SecurityNode> criteria = new ArrayList<SecurityNode>(endPoints);
+		final List<List<SecurityNode>> batches = new ArrayList<List<SecurityNode>>();
+		for (int from = 0; from < criteria.size(); from += MultiCriteriaSlice.BATCH_SIZE) {
+			batches.add(criteria.subList(from, Math.min(from + MultiCriteriaSlice.BATCH_SIZE, criteria.size())));
+		}
+		final ParallelEndpointChecker<List<SecurityNode>, Slicer> checker = new ParallelEndpointChecker<List<SecurityNode>, Slicer>(
+				batches, slicerFactory, (batch, s, found) -> {
+					final MultiCriteriaSlice slices = ((MultiCriteriaSlicer) s).sliceEach(batch);
+					for (final SecurityNode startPoint : startPoints) {
+						slices.forEachCriterionContaining(startPoint, i -> addPossibleViolation(batch.get(i), startPoint, found));
+					}
+				});
+		vios.addAll(checker.run(pool));
+		DEBUG.outln(String.format("[%s] done. Found %d violation(s).", Calendar.getInstance().getTime(), vios.size()));
 	}
 
 	private Collection<SecurityNode> collectStartpoints() {
@@ -151,15 +308,18 @@ public class SlicingBasedIFC extends IFC<String> {
 
 	private void addPossibleViolations(SecurityNode endPoint, Collection<SDGNode> slice, Collection<ClassifiedViolation> vios) {
 		for (SDGNode n : slice) {
-			SecurityNode sNode = (SecurityNode) n;
-			String secLevelOfOtherEndpoint = getLevel(sNode);
-			String secLevelOfEndpoint = getLevel(endPoint);
-			if (isStartpoint(sNode) && secLevelOfOtherEndpoint != null && isLeakage(endPoint, sNode)) {
-				if (endPoint.isInformationSource() && sNode.isInformationSink()) {
-					vios.add(ClassifiedViolation.createViolation(sNode, endPoint, secLevelOfOtherEndpoint));
-				} else if (endPoint.isInformationSink() && sNode.isInformationSource()) {
-					vios.add(ClassifiedViolation.createViolation(endPoint, sNode, secLevelOfEndpoint));
-				}
+			addPossibleViolation(endPoint, (SecurityNode) n, vios);
+		}
+	}
+
+	private void addPossibleViolation(SecurityNode endPoint, SecurityNode sNode, Collection<ClassifiedViolation> vios) {
+		String secLevelOfOtherEndpoint = getLevel(sNode);
+		String secLevelOfEndpoint = getLevel(endPoint);
+		if (isStartpoint(sNode) && secLevelOfOtherEndpoint != null && isLeakage(endPoint, sNode)) {
+			if (endPoint.isInformationSource() && sNode.isInformationSink()) {
+				vios.add(ClassifiedViolation.createViolation(sNode, endPoint, secLevelOfOtherEndpoint));
+			} else if (endPoint.isInformationSink() && sNode.isInformationSource()) {
+				vios.add(ClassifiedViolation.createViolation(endPoint, sNode, secLevelOfEndpoint));
 			}
 		}
 	}
@@ -177,7 +337,8 @@ public class SlicingBasedIFC extends IFC<String> {
 			snk = n1;
 		}
 		
-		return !l.leastUpperBound(src.getProvided(), snk.getRequired()).equals(snk.getRequired());
+		final IntLattice<String> levels = getIntLattice();
+		return !levels.isLeq(src.getProvidedId(levels), snk.getRequiredId(levels));
 	}
 	
 	private static boolean xor(boolean b1, boolean b2) {
@@ -29,6 +29,7 @@ import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.NandaBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.PreciseMHPAnalysis;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.util.Maybe;
 import edu.kit.joana.util.Pair;
 
@@ -52,9 +53,9 @@ public class LSODNISlicer implements ConflictScanner {
 
 	/**
 	 * the lattice which provides the security levels which the SDG under
-	 * analysis is annotated with
+	 * analysis is annotated with, with int-encoded elements
 	 */
-	private IStaticLattice<String> l;
+	private IntLattice<String> levels;
 
 	/** the SDG under analysis */
 	private SDG g;
@@ -99,7 +100,7 @@ public class LSODNISlicer implements ConflictScanner {
 
 	public LSODNISlicer(SDG g, IStaticLattice<String> l, ConflictManager conf,
 			MHPAnalysis mhp, boolean timeSens, boolean useOptimization) {
-		this.l = l;
+		this.levels = IntLattice.of(l);
 		this.g = g;
 		this.conf = conf;
 		this.mhp = mhp;
@@ -157,7 +158,7 @@ public class LSODNISlicer implements ConflictScanner {
 	private void scanForConflicts(Element e) {
 		// HIGH nodes can only be seen by a HIGH attacker,
 		// and a HIGH attacker can already see every input
-		if (e.node.getLevel().equals(l.getTop())) {
+		if (e.node.getLevelId(levels) == levels.getTopId()) {
 			return;
 		}
 		DataConflictCollector confCollector = new DataConflictCollector();
@@ -182,7 +183,7 @@ public class LSODNISlicer implements ConflictScanner {
 			// possible probabilistic data channel
 			if (useOptimization) {
 				Collection<SecurityNode> secTriggers = collectSecretTriggers(inc,
-						e.node.getLevel());
+						e.node.getLevelId(levels));
 				for (SecurityNode secTrigger : secTriggers) {
 					conf.addTriggeredDataConflict(inc, secTrigger, e.node,
 							e.node.getLevel());
@@ -206,43 +207,46 @@ public class LSODNISlicer implements ConflictScanner {
 			// This is the least upper bounds of both levels since both conflicting parts must be seen.
 			// Note that CONFLICT_ORDER edges only exist between annotated nodes,
 			// so we do not have to check for null here.
-			String refLevel = l.leastUpperBound(((SecurityNode) oConf.getSource()).getLevel(),
-			                                    ((SecurityNode) oConf.getTarget()).getLevel());
+			final int refLevel = levels.leastUpperBound(((SecurityNode) oConf.getSource()).getLevelId(levels),
+			                                            ((SecurityNode) oConf.getTarget()).getLevelId(levels));
 			// If refLevel is HIGH, the conflict can only be seen by a HIGH attacker,
 			// and a HIGH attacker can already see every input, so the conflict does not cause a leak.
 			// In contrast, assume refLevel is not HIGH (i.e. lower).
 			// There might be a HIGH source that influences the conflict.
 			// Since a attacker of refLevel can see the conflict, he can learn something about HIGH input.
 			// This would be a leak, since refLevel is lower than HIGH.
-			if (!refLevel.equals(l.getTop())) {
+			if (refLevel != levels.getTopId()) {
 				// possible probabilistic order channel
 				if (useOptimization) {
 					Collection<SecurityNode> secTriggers = collectSecretTriggers(
 							oConf, refLevel);
 					for (SecurityNode secTrigger : secTriggers) {
 						conf.addTriggeredOrderConflict(oConf, secTrigger,
-								refLevel);
+								levels.getElement(refLevel));
 					}
 				} else {
-					conf.addPossiblyUntriggeredOrderConflict(oConf, refLevel);
+					conf.addPossiblyUntriggeredOrderConflict(oConf, levels.getElement(refLevel));
 				}
 			}
 		}
 	}
 
 	private Collection<SecurityNode> collectSecretTriggers(SDGEdge confEdge,
-			String refLevel) {
+			int refLevel) {
 		Collection<SecurityNode> ret = new LinkedList<SecurityNode>();
 		SDGNode a = confEdge.getSource();
 		SDGNode b = confEdge.getTarget();
 		CFGForward forw = new CFGForward(g);
+		// may happen in parallel is symmetric
+		final Set<SecurityNode> parallelToA = new HashSet<SecurityNode>(mhp.parallelTo(a, this.sources));
+		final Set<SecurityNode> parallelToB = new HashSet<SecurityNode>(mhp.parallelTo(b, this.sources));
 		for (SDGNode n : this.sources) {
 			SecurityNode secN = (SecurityNode) n;
 			if (secN.isInformationSource()
-					&& !l.isLeq( secN.getLevel(), refLevel)) {
+					&& !levels.isLeq(secN.getLevelId(levels), refLevel)) {
 				Collection<SDGNode> reachable = forw.slice(secN);
-				if ((reachable.contains(a) || mhp.isParallel(secN, a))
-						& (reachable.contains(b) || mhp.isParallel(secN, b))) {
+				if ((reachable.contains(a) || parallelToA.contains(secN))
+						& (reachable.contains(b) || parallelToB.contains(secN))) {
 					ret.add(secN);
 				}
 			}
@@ -326,11 +330,9 @@ public class LSODNISlicer implements ConflictScanner {
 			annotatedNodes.addAll(sinks);
 
 			for (SecurityNode m : annotatedNodes) {
-				for (SecurityNode n : annotatedNodes) {
-					if (mhp.isParallel(m, n)) {
-						SDGEdge edge = SDGEdge.Kind.CONFLICT_ORDER.newEdge(m, n);
-						orderConflictEdges.add(edge);
-					}
+				for (SecurityNode n : mhp.parallelTo(m, annotatedNodes)) {
+					SDGEdge edge = SDGEdge.Kind.CONFLICT_ORDER.newEdge(m, n);
+					orderConflictEdges.add(edge);
 				}
 			}
 		}
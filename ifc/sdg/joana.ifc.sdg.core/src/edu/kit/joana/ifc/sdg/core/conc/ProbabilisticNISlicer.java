@@ -34,6 +34,7 @@ import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.NandaBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.PreciseMHPAnalysis;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.util.Maybe;
 import edu.kit.joana.util.Pair;
 
@@ -206,36 +207,34 @@ public class ProbabilisticNISlicer implements ConflictScanner {
             annotatedNodes.addAll(sinks);
 
             for (SecurityNode m : annotatedNodes) {
-                for (SecurityNode n : annotatedNodes) {
-                    // falls m und n parallel sind, potentieller order-konflikt m -> n
-                    if (mhp.isParallel(m, n)) {
-                    	// teste, ob konflikt harmlos ist
-                    	HashSet<SecurityNode> triggers = trigger(m, n);
-                    	HashSet<SecurityNode> refined = new HashSet<SecurityNode>();
-
-                    	// ermittle mindest-angreifer
-                    	String mLevel = (m.isInformationSink()? m.getRequired() : m.getProvided());
-                    	String nLevel = (n.isInformationSink()? n.getRequired() : n.getProvided());
-                    	String attacker = l.leastUpperBound(mLevel, nLevel);
-
-                    	// jeder bzgl. des Konflikts geheime Trigger ist gefaehrlich (hier kann Information ueber die
-                    	// Ausfuehrungsreihenfolge der am Konflikt beteiligten Knoten fliessen)
-                    	for (SecurityNode t : triggers) {
-                    		// teste, ob t geheime infos hat bzgl. des attackers
-                    		if (!l.leastUpperBound(t.getProvided(), attacker).equals(attacker)) {
-                    			refined.add(t); // geheime Information beeinflusst den Order-Conflict
-                    		}
-                    	}
-
-                    	// wenn refined leer ist, ist der konflikt harmlos (es gibt keine geheimen trigger, also
-                    	// verraet die Ausfuehrungsreihenfolge nichts, was nicht verraten werden soll)
-                    	if (!refined.isEmpty()) {
-    	                	SDGEdge edge = SDGEdge.Kind.CONFLICT_ORDER.newEdge(m, n);
-    	                	orderConflictEdges.add(edge);
-    	                    orderConflicts2Triggers.put(edge, refined);
+                // falls m und n parallel sind, potentieller order-konflikt m -> n
+                for (SecurityNode n : mhp.parallelTo(m, annotatedNodes)) {
+                	// teste, ob konflikt harmlos ist
+                	HashSet<SecurityNode> triggers = trigger(m, n);
+                	HashSet<SecurityNode> refined = new HashSet<SecurityNode>();
+
+                	// ermittle mindest-angreifer
+                	int mLevel = (m.isInformationSink()? m.getRequiredId(levels) : m.getProvidedId(levels));
+                	int nLevel = (n.isInformationSink()? n.getRequiredId(levels) : n.getProvidedId(levels));
+                	int attacker = levels.leastUpperBound(mLevel, nLevel);
+
+                	// jeder bzgl. des Konflikts geheime Trigger ist gefaehrlich (hier kann Information ueber die
+                	// Ausfuehrungsreihenfolge der am Konflikt beteiligten Knoten fliessen)
+                	for (SecurityNode t : triggers) {
+                		// teste, ob t geheime infos hat bzgl. des attackers
+                		if (!levels.isLeq(t.getProvidedId(levels), attacker)) {
+                			refined.add(t); // geheime Information beeinflusst den Order-Conflict
+                		}
+                	}
+
+                	// wenn refined leer ist, ist der konflikt harmlos (es gibt keine geheimen trigger, also
+                	// verraet die Ausfuehrungsreihenfolge nichts, was nicht verraten werden soll)
+                	if (!refined.isEmpty()) {
+	                	SDGEdge edge = SDGEdge.Kind.CONFLICT_ORDER.newEdge(m, n);
+	                	orderConflictEdges.add(edge);
+	                    orderConflicts2Triggers.put(edge, refined);
 //    	                    System.out.println("ORDER CONFLICT: "+m+" <-> "+n);
-                    	}
-                    }
+                	}
                 }
             }
         }
@@ -301,14 +300,17 @@ public class ProbabilisticNISlicer implements ConflictScanner {
         	HashSet<SecurityNode> triggers = new HashSet<SecurityNode>();
 
             // jede quelle wird untersucht; sie muss entweder parallel zu a bzw b sein oder im CFG-slice von b bzw a liegen
+            // (MHP ist symmetrisch, daher genuegt je eine Abfrage fuer alle Quellen)
+            final Set<SecurityNode> parallelToA = new HashSet<SecurityNode>(mhp.parallelTo(a, sources));
+            final Set<SecurityNode> parallelToB = new HashSet<SecurityNode>(mhp.parallelTo(b, sources));
             for (SecurityNode n : sources) {
             	/**
             	 * n kann den Konflikt beeinflussen, wenn sowohl fuer x=a als auch fuer x=b entweder MHP(n,x) gilt, oder
             	 * x nach n im CFG ausgefuehrt werden kann (n beeinflusst also sowohl den einen als auch den anderen
             	 * Konfliktknoten).
             	 */
-            	if ((before.get(n).contains(a) || mhp.isParallel(n, a))
-            			&& (before.get(n).contains(b) || mhp.isParallel(n, b))) {
+            	if ((before.get(n).contains(a) || parallelToA.contains(n))
+            			&& (before.get(n).contains(b) || parallelToB.contains(n))) {
             		// kann den konflikt beeinflussen
             		triggers.add(n);
             	}
@@ -357,8 +359,8 @@ public class ProbabilisticNISlicer implements ConflictScanner {
 
     private final ArrayList<ProgressListener> pls = new ArrayList<ProgressListener>();
 
-    // der lattice
-    private final IStaticLattice<String> l;
+    // der lattice, mit int-kodierten Elementen
+    private final IntLattice<String> levels;
     // der SDG
     private final SDG g;
     // eine MHP-analyse
@@ -406,7 +408,7 @@ public class ProbabilisticNISlicer implements ConflictScanner {
     }
     
     public ProbabilisticNISlicer(SDG g, IStaticLattice<String> l, ConflictManager conf, MHPAnalysis mhp, boolean timeSens) {
-    	 this.l = l;
+         this.levels = IntLattice.of(l);
          this.g = g;
          this.conf = conf;
          this.mhp = mhp;
@@ -494,18 +496,18 @@ public class ProbabilisticNISlicer implements ConflictScanner {
         for (SDGEdge orderConflictEdge : g.getIncomingEdgesOfKind(element.node, SDGEdge.Kind.CONFLICT_ORDER)) {
 
         	// determine minimal attacker
-        	String elementLevel = (element.node.isInformationSource() ?
-        							element.node.getProvided() : element.node.getRequired());
+        	int elementLevel = (element.node.isInformationSource() ?
+        							element.node.getProvidedId(levels) : element.node.getRequiredId(levels));
         	SecurityNode conflictingNode = (SecurityNode) orderConflictEdge.getSource();
 
-        	String levelOfConflicting = (conflictingNode.isInformationSource() ? conflictingNode.getProvided() : conflictingNode.getRequired());
+        	int levelOfConflicting = (conflictingNode.isInformationSource() ? conflictingNode.getProvidedId(levels) : conflictingNode.getRequiredId(levels));
 
         	/**
         	 * NOTE: We know that both elementLevel and levelOfConflicting are not null, since order conflict edges exist
         	 * only between information endpoints where either getRequired() != null or getProvided() != null
         	 */
 
-        	String attacker = l.leastUpperBound(levelOfConflicting, elementLevel);
+        	String attacker = levels.getElement(levels.leastUpperBound(levelOfConflicting, elementLevel));
 
             // collect the triggers
         	Set<SecurityNode> trigger = orderConflicts2Triggers.get(orderConflictEdge);
@@ -553,10 +555,11 @@ public class ProbabilisticNISlicer implements ConflictScanner {
          * Now, check if one of these data conflicts is influenced by a secret (relative to the security
          * level of the given element) source.
          */
+        final int elementLevel = levels.getId(element.label);
         for (SecurityNode source : sources) {
 
 
-        	if (l.leastUpperBound(source.getProvided(), element.label).equals(element.label)) {
+        	if (levels.isLeq(source.getProvidedId(levels), elementLevel)) {
         		/**
             	 * All sources which are 'not secret enough' can safely be ignored.
             	 */
@@ -0,0 +1,281 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.lattice;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lattice whose elements are additionally identified by dense ids 0, ..., {@link #size()} - 1, so that the lattice
+ * operations can be computed on ints by table lookups.
+ * <p>
+ * The ids are a linear extension of the order of the lattice: if s &lt; t, then the id of s is smaller than the id
+ * of t. Hence the bottom element has the id 0 and the top element the id {@code size() - 1}. For each element, the
+ * sets of greater and lower elements are stored as rows of a bit matrix. The least upper bound of two elements is
+ * the common greater element with the smallest id, the greatest lower bound is the common lower element with the
+ * largest id. For lattices with at most {@link #MAX_TABLE_SIZE} elements, both operations are precomputed for all
+ * pairs of elements.
+ * <p>
+ * Instances are immutable and can be used by multiple threads.
+ *
+ * @param <ElementType>
+ *            the type of the elements contained in the lattice.
+ */
+public final class IntLattice<ElementType> implements IStaticLattice<ElementType> {
+
+	/** id of no element, e.g. of an undefined security level */
+	public static final int NO_ELEMENT = -1;
+
+	/** maximal number of elements for which the results of the lattice operations are precomputed */
+	public static final int MAX_TABLE_SIZE = 1 << 9;
+
+	private final IStaticLattice<ElementType> lattice;
+
+	/** the elements, indexed by their ids */
+	private final List<ElementType> elements;
+
+	private final Map<ElementType, Integer> ids;
+
+	/** number of longs of a row of the bit matrices */
+	private final int words;
+
+	/** the ids of the elements greater than or equal to each element */
+	private final long[] greater;
+
+	/** the ids of the elements lower than or equal to each element */
+	private final long[] lower;
+
+	private final int[] lub;
+	private final int[] glb;
+
+	private IntLattice(final IStaticLattice<ElementType> lattice) {
+		this.lattice = lattice;
+		final List<ElementType> original = new ArrayList<ElementType>(lattice.getElements());
+		final int size = original.size();
+		this.words = (size + 63) >>> 6;
+
+		// order the elements by the number of lower elements, which yields a linear extension of the order
+		final long[] leq = new long[size * words];
+		final int[] lowerCount = new int[size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				if (i == j || lattice.isLeq(original.get(i), original.get(j))) {
+					leq[i * words + (j >>> 6)] |= 1L << j;
+					lowerCount[j]++;
+				}
+			}
+		}
+		final List<Integer> order = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++) {
+			order.add(i);
+		}
+		Collections.sort(order, (i, j) -> Integer.compare(lowerCount[i], lowerCount[j]));
+
+		this.elements = new ArrayList<ElementType>(size);
+		this.ids = new HashMap<ElementType, Integer>();
+		for (final int i : order) {
+			ids.put(original.get(i), elements.size());
+			elements.add(original.get(i));
+		}
+		if (ids.size() != size) {
+			throw new IllegalArgumentException("Lattice elements are not unique");
+		}
+
+		this.greater = new long[size * words];
+		this.lower = new long[size * words];
+		for (int s = 0; s < size; s++) {
+			final int i = order.get(s);
+			for (int t = 0; t < size; t++) {
+				final int j = order.get(t);
+				if ((leq[i * words + (j >>> 6)] & (1L << j)) != 0) {
+					greater[s * words + (t >>> 6)] |= 1L << t;
+					lower[t * words + (s >>> 6)] |= 1L << s;
+				}
+			}
+		}
+
+		if (size <= MAX_TABLE_SIZE) {
+			this.lub = new int[size * size];
+			this.glb = new int[size * size];
+			for (int s = 0; s < size; s++) {
+				for (int t = 0; t <= s; t++) {
+					lub[s * size + t] = lub[t * size + s] = firstCommon(greater, s, t);
+					glb[s * size + t] = glb[t * size + s] = lastCommon(lower, s, t);
+				}
+			}
+		} else {
+			this.lub = null;
+			this.glb = null;
+		}
+	}
+
+	/**
+	 * Returns a lattice with dense element ids for the given lattice.
+	 * @param lattice a lattice, which must not change afterwards
+	 * @return the given lattice, if it already is an {@link IntLattice}, or a new {@link IntLattice} with the same
+	 * elements and order
+	 */
+	@SuppressWarnings("unchecked")
+	public static <ElementType> IntLattice<ElementType> of(final IStaticLattice<ElementType> lattice) {
+		if (lattice instanceof IntLattice) {
+			return (IntLattice<ElementType>) lattice;
+		}
+		return new IntLattice<ElementType>(lattice);
+	}
+
+	private int firstCommon(final long[] matrix, final int s, final int t) {
+		for (int k = 0; k < words; k++) {
+			final long common = matrix[s * words + k] & matrix[t * words + k];
+			if (common != 0) {
+				return (k << 6) + Long.numberOfTrailingZeros(common);
+			}
+		}
+		throw new InvalidLatticeException("No least upper bound of " + elements.get(s) + " and " + elements.get(t));
+	}
+
+	private int lastCommon(final long[] matrix, final int s, final int t) {
+		for (int k = words - 1; k >= 0; k--) {
+			final long common = matrix[s * words + k] & matrix[t * words + k];
+			if (common != 0) {
+				return (k << 6) + 63 - Long.numberOfLeadingZeros(common);
+			}
+		}
+		throw new InvalidLatticeException("No greatest lower bound of " + elements.get(s) + " and " + elements.get(t));
+	}
+
+	/**
+	 * Returns the lattice this lattice has been created from.
+	 */
+	public IStaticLattice<ElementType> getLattice() {
+		return lattice;
+	}
+
+	/**
+	 * Returns the number of elements of this lattice.
+	 */
+	public int size() {
+		return elements.size();
+	}
+
+	/**
+	 * Returns the id of the given element.
+	 * @throws NotInLatticeException if the given element is not in the lattice
+	 */
+	public int getId(final ElementType element) throws NotInLatticeException {
+		final Integer id = ids.get(element);
+		if (id == null) {
+			throw new NotInLatticeException("Element " + element + " is not in the lattice.");
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the element with the given id.
+	 */
+	public ElementType getElement(final int id) {
+		return elements.get(id);
+	}
+
+	public int getTopId() {
+		return elements.size() - 1;
+	}
+
+	public int getBottomId() {
+		return 0;
+	}
+
+	/**
+	 * Returns the id of the least upper bound of the elements with the given ids.
+	 */
+	public int leastUpperBound(final int s, final int t) {
+		if (s == t) {
+			return s;
+		} else if (lub != null) {
+			return lub[s * elements.size() + t];
+		} else {
+			return firstCommon(greater, s, t);
+		}
+	}
+
+	/**
+	 * Returns the id of the greatest lower bound of the elements with the given ids.
+	 */
+	public int greatestLowerBound(final int s, final int t) {
+		if (s == t) {
+			return s;
+		} else if (glb != null) {
+			return glb[s * elements.size() + t];
+		} else {
+			return lastCommon(lower, s, t);
+		}
+	}
+
+	/**
+	 * Returns whether the element with id s is lower than or equal to the element with id t.
+	 */
+	public boolean isLeq(final int s, final int t) {
+		return (greater[s * words + (t >>> 6)] & (1L << t)) != 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#greatestLowerBound(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public ElementType greatestLowerBound(final ElementType s, final ElementType t) throws NotInLatticeException {
+		return elements.get(greatestLowerBound(getId(s), getId(t)));
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#leastUpperBound(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public ElementType leastUpperBound(final ElementType s, final ElementType t) throws NotInLatticeException {
+		return elements.get(leastUpperBound(getId(s), getId(t)));
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#isLeq(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public boolean isLeq(final ElementType l1, final ElementType l2) {
+		return isLeq(getId(l1), getId(l2));
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#getTop()
+	 */
+	@Override
+	public ElementType getTop() throws InvalidLatticeException {
+		return elements.get(getTopId());
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#getBottom()
+	 */
+	@Override
+	public ElementType getBottom() throws InvalidLatticeException {
+		return elements.get(getBottomId());
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.kit.joana.ifc.sdg.lattice.IStaticLattice#getElements()
+	 */
+	@Override
+	public Collection<ElementType> getElements() {
+		return Collections.unmodifiableList(elements);
+	}
+
+	@Override
+	public String toString() {
+		return "IntLattice" + elements;
+	}
+}
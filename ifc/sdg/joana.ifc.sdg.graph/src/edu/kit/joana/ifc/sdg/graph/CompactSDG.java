@@ -0,0 +1,420 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * An immutable, array-based view of an {@link SDG} for read-only queries such as slicing and chopping.
+ * <p>
+ * The nodes are numbered densely from 0 to {@link #numberOfNodes()} - 1 in the order of their ids. The edges
+ * are stored in compressed sparse row format: the outgoing edges of node i are the entries
+ * {@link #outStart(int) outStart(i)} to {@link #outEnd(int) outEnd(i)} - 1 of an int array of target nodes and of a
+ * parallel byte array of edge kinds, and analogously for the incoming edges. The edges of a node are sorted by kind,
+ * and edges of the same kind keep the order of the {@link SDG}. Hence the edges of a single kind form a range, which
+ * {@link #outStart(int, SDGEdge.Kind)} and {@link #outEnd(int, SDGEdge.Kind)} (and their counterparts for incoming
+ * edges) find in constant time, from a bit set of the kinds of each node and the start positions of its kinds.<br>
+ * Edge labels are not kept.
+ * <p>
+ * The attributes of the nodes that queries need (kind, procedure, operation, bytecode index, source row and label)
+ * are copied into parallel arrays when the view is built, so later changes of the nodes are not reflected by the view.
+ * Unless built with {@link #build(SDG, boolean)} and keepNodes false, the view keeps the node objects to return them
+ * via {@link #node(int)}, but never the {@link SDG} itself.
+ * <p>
+ * Instances are immutable and hence thread-safe.
+ */
+public final class CompactSDG {
+
+	private static final SDGNode.Kind[] NODE_KINDS = SDGNode.Kind.values();
+	private static final SDGEdge.Kind[] EDGE_KINDS = SDGEdge.Kind.values();
+	private static final SDGNode.Operation[] OPERATIONS = SDGNode.Operation.values();
+
+	static {
+		// the kinds of the edges of a node are kept in a long
+		assert EDGE_KINDS.length <= Long.SIZE;
+	}
+
+	/**
+	 * The edges of all nodes in one direction.
+	 */
+	private static final class Adjacency {
+		/** the edges of node i are at the positions offsets[i] to offsets[i + 1] - 1 */
+		final int[] offsets;
+		/** the node reached by the edge at each position */
+		final int[] adjacent;
+		/** the ordinal of the kind of the edge at each position */
+		final byte[] kinds;
+		/** bit k of kindsOf[i] is set iff node i has an edge of the kind with ordinal k */
+		final long[] kindsOf;
+		/** the start positions of the kinds of node i, in the order of the kinds, are kindStarts[kindOffsets[i]] to
+		 *  kindStarts[kindOffsets[i + 1] - 1] */
+		final int[] kindOffsets;
+		final int[] kindStarts;
+
+		private Adjacency(int[] offsets, int[] adjacent, byte[] kinds, long[] kindsOf, int[] kindOffsets,
+				int[] kindStarts) {
+			this.offsets = offsets;
+			this.adjacent = adjacent;
+			this.kinds = kinds;
+			this.kindsOf = kindsOf;
+			this.kindOffsets = kindOffsets;
+			this.kindStarts = kindStarts;
+		}
+
+		static Adjacency build(SDG g, SDGNode[] sorted, int[] ids, boolean outgoing) {
+			final int n = sorted.length;
+			final int[] offsets = new int[n + 1];
+			final long[] kindsOf = new long[n];
+			final int[] kindOffsets = new int[n + 1];
+			for (int i = 0; i < n; i++) {
+				final Set<SDGEdge> edges = outgoing ? g.outgoingEdgesOf(sorted[i]) : g.incomingEdgesOf(sorted[i]);
+				long present = 0;
+				for (SDGEdge e : edges) {
+					present |= 1L << e.getKind().ordinal();
+				}
+				offsets[i + 1] = offsets[i] + edges.size();
+				kindsOf[i] = present;
+				kindOffsets[i + 1] = kindOffsets[i] + Long.bitCount(present);
+			}
+
+			final int[] adjacent = new int[offsets[n]];
+			final byte[] kinds = new byte[offsets[n]];
+			final int[] kindStarts = new int[kindOffsets[n]];
+			final int[] count = new int[EDGE_KINDS.length];
+			final int[] next = new int[EDGE_KINDS.length];
+			for (int i = 0; i < n; i++) {
+				final Set<SDGEdge> edges = outgoing ? g.outgoingEdgesOf(sorted[i]) : g.incomingEdgesOf(sorted[i]);
+				// counting sort by kind, which keeps the order of the edges of each kind
+				for (SDGEdge e : edges) {
+					count[e.getKind().ordinal()]++;
+				}
+				int pos = offsets[i];
+				int k = kindOffsets[i];
+				for (long present = kindsOf[i]; present != 0; present &= present - 1) {
+					final int kind = Long.numberOfTrailingZeros(present);
+					kindStarts[k++] = pos;
+					next[kind] = pos;
+					pos += count[kind];
+					count[kind] = 0;
+				}
+				for (SDGEdge e : edges) {
+					final int kind = e.getKind().ordinal();
+					final SDGNode other = outgoing ? e.getTarget() : e.getSource();
+					adjacent[next[kind]] = Arrays.binarySearch(ids, other.getId());
+					kinds[next[kind]] = (byte) kind;
+					next[kind]++;
+				}
+			}
+
+			return new Adjacency(offsets, adjacent, kinds, kindsOf, kindOffsets, kindStarts);
+		}
+
+		/**
+		 * @return the position of the start of the given kind among the kinds of the given node in kindStarts,
+		 * or -1 if the node has no edge of this kind
+		 */
+		private int kindIndex(int idx, int kind) {
+			final long present = kindsOf[idx];
+			final long bit = 1L << kind;
+			if ((present & bit) == 0) {
+				return -1;
+			}
+			return kindOffsets[idx] + Long.bitCount(present & (bit - 1));
+		}
+
+		int start(int idx, int kind) {
+			final int k = kindIndex(idx, kind);
+			return k < 0 ? offsets[idx + 1] : kindStarts[k];
+		}
+
+		int end(int idx, int kind) {
+			final int k = kindIndex(idx, kind);
+			if (k < 0) {
+				return offsets[idx + 1];
+			}
+			return k + 1 < kindOffsets[idx + 1] ? kindStarts[k + 1] : offsets[idx + 1];
+		}
+	}
+
+	private final String name;
+	/** null if the node objects are not kept */
+	private final SDGNode[] nodes;
+
+	private final int[] ids;
+	private final byte[] kinds;
+	private final int[] procs;
+	private final byte[] operations;
+	private final int[] bytecodeIndices;
+	private final int[] sourceRows;
+	private final String[] labels;
+
+	private final Adjacency out;
+	private final Adjacency in;
+
+	private CompactSDG(String name, SDGNode[] nodes, int[] ids, byte[] kinds, int[] procs, byte[] operations,
+			int[] bytecodeIndices, int[] sourceRows, String[] labels, Adjacency out, Adjacency in) {
+		this.name = name;
+		this.nodes = nodes;
+		this.ids = ids;
+		this.kinds = kinds;
+		this.procs = procs;
+		this.operations = operations;
+		this.bytecodeIndices = bytecodeIndices;
+		this.sourceRows = sourceRows;
+		this.labels = labels;
+		this.out = out;
+		this.in = in;
+	}
+
+	/**
+	 * Builds the compact view of g, which keeps the node objects. Later changes of g are not reflected by the view.
+	 * @param g a graph, whose node ids have to be unique
+	 * @return the compact view of g
+	 */
+	public static CompactSDG build(final SDG g) {
+		return build(g, true);
+	}
+
+	/**
+	 * Builds the compact view of g. Later changes of g are not reflected by the view.
+	 * @param g a graph, whose node ids have to be unique
+	 * @param keepNodes whether the view keeps the node objects. A view without them is smaller, but only supports
+	 * queries by index and id, so it cannot be used by slicers, which return node objects.
+	 * @return the compact view of g
+	 */
+	public static CompactSDG build(final SDG g, boolean keepNodes) {
+		final SDGNode[] sorted = g.vertexSet().toArray(new SDGNode[0]);
+		Arrays.sort(sorted, SDGNode.getIDComparator());
+		final int n = sorted.length;
+
+		final int[] ids = new int[n];
+		final byte[] kinds = new byte[n];
+		final int[] procs = new int[n];
+		final byte[] operations = new byte[n];
+		final int[] bytecodeIndices = new int[n];
+		final int[] sourceRows = new int[n];
+		final String[] labels = new String[n];
+		for (int i = 0; i < n; i++) {
+			final SDGNode node = sorted[i];
+			ids[i] = node.getId();
+			kinds[i] = (byte) node.getKind().ordinal();
+			procs[i] = node.getProc();
+			final SDGNode.Operation op = node.getOperation();
+			operations[i] = (byte) (op == null ? -1 : op.ordinal());
+			bytecodeIndices[i] = node.getBytecodeIndex();
+			sourceRows[i] = node.getSr();
+			labels[i] = node.getLabel();
+			if (i > 0 && ids[i] == ids[i - 1]) {
+				throw new IllegalArgumentException("node id " + ids[i] + " is not unique");
+			}
+		}
+
+		final Adjacency out = Adjacency.build(g, sorted, ids, true);
+		final Adjacency in = Adjacency.build(g, sorted, ids, false);
+
+		return new CompactSDG(g.getName(), keepNodes ? sorted : null, ids, kinds, procs, operations, bytecodeIndices,
+				sourceRows, labels, out, in);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int numberOfNodes() {
+		return ids.length;
+	}
+
+	public int numberOfEdges() {
+		return out.adjacent.length;
+	}
+
+	/**
+	 * @return the index of the node with the given id, or -1 if there is no such node
+	 */
+	public int indexOf(int id) {
+		final int idx = Arrays.binarySearch(ids, id);
+		return idx >= 0 ? idx : -1;
+	}
+
+	/**
+	 * @return the index of the given node, or -1 if the graph does not contain a node with the id of n
+	 */
+	public int indexOf(SDGNode n) {
+		return indexOf(n.getId());
+	}
+
+	/**
+	 * @return whether the view keeps the node objects, see {@link #build(SDG, boolean)}
+	 */
+	public boolean hasNodes() {
+		return nodes != null;
+	}
+
+	/**
+	 * @return the node object of the given index
+	 * @throws IllegalStateException if the view has been built without the node objects
+	 */
+	public SDGNode node(int idx) {
+		if (nodes == null) {
+			throw new IllegalStateException(this + " has been built without node objects");
+		}
+		return nodes[idx];
+	}
+
+	public int id(int idx) {
+		return ids[idx];
+	}
+
+	public SDGNode.Kind kind(int idx) {
+		return NODE_KINDS[kinds[idx]];
+	}
+
+	public int proc(int idx) {
+		return procs[idx];
+	}
+
+	/* ********* */
+	/*   edges   */
+	/* ********* */
+
+	/**
+	 * @return the position of the first outgoing edge of the given node
+	 */
+	public int outStart(int idx) {
+		return out.offsets[idx];
+	}
+
+	/**
+	 * @return the position after the last outgoing edge of the given node
+	 */
+	public int outEnd(int idx) {
+		return out.offsets[idx + 1];
+	}
+
+	/**
+	 * @return the target node of the outgoing edge at the given position
+	 */
+	public int outTarget(int edge) {
+		return out.adjacent[edge];
+	}
+
+	public SDGEdge.Kind outKind(int edge) {
+		return EDGE_KINDS[out.kinds[edge]];
+	}
+
+	/**
+	 * @return the position of the first incoming edge of the given node
+	 */
+	public int inStart(int idx) {
+		return in.offsets[idx];
+	}
+
+	/**
+	 * @return the position after the last incoming edge of the given node
+	 */
+	public int inEnd(int idx) {
+		return in.offsets[idx + 1];
+	}
+
+	/**
+	 * @return the source node of the incoming edge at the given position
+	 */
+	public int inSource(int edge) {
+		return in.adjacent[edge];
+	}
+
+	public SDGEdge.Kind inKind(int edge) {
+		return EDGE_KINDS[in.kinds[edge]];
+	}
+
+	/**
+	 * @return the position of the first outgoing edge of the given node with the given kind, or {@link #outEnd(int)}
+	 * if there is none. The edges of the kind end at {@link #outEnd(int, SDGEdge.Kind)}.
+	 */
+	public int outStart(int idx, SDGEdge.Kind kind) {
+		return out.start(idx, kind.ordinal());
+	}
+
+	/**
+	 * @return the position after the last outgoing edge of the given node with the given kind, or {@link #outEnd(int)}
+	 * if there is none
+	 */
+	public int outEnd(int idx, SDGEdge.Kind kind) {
+		return out.end(idx, kind.ordinal());
+	}
+
+	/**
+	 * @return the position of the first incoming edge of the given node with the given kind, or {@link #inEnd(int)}
+	 * if there is none. The edges of the kind end at {@link #inEnd(int, SDGEdge.Kind)}.
+	 */
+	public int inStart(int idx, SDGEdge.Kind kind) {
+		return in.start(idx, kind.ordinal());
+	}
+
+	/**
+	 * @return the position after the last incoming edge of the given node with the given kind, or {@link #inEnd(int)}
+	 * if there is none
+	 */
+	public int inEnd(int idx, SDGEdge.Kind kind) {
+		return in.end(idx, kind.ordinal());
+	}
+
+	/**
+	 * @return a table which tells for each edge kind (by ordinal) whether it is an SDG edge not contained in omit.
+	 */
+	public static boolean[] traversableKinds(Set<SDGEdge.Kind> omit) {
+		final boolean[] traversable = new boolean[EDGE_KINDS.length];
+		for (SDGEdge.Kind k : EDGE_KINDS) {
+			traversable[k.ordinal()] = k.isSDGEdge() && !omit.contains(k);
+		}
+		return traversable;
+	}
+
+	/**
+	 * @return the ordinal of the kind of the outgoing edge at the given position
+	 */
+	public int outKindOrdinal(int edge) {
+		return out.kinds[edge];
+	}
+
+	/**
+	 * @return the ordinal of the kind of the incoming edge at the given position
+	 */
+	public int inKindOrdinal(int edge) {
+		return in.kinds[edge];
+	}
+
+	/* ***************** */
+	/*  node attributes  */
+	/* ***************** */
+
+	public SDGNode.Operation operation(int idx) {
+		return operations[idx] < 0 ? null : OPERATIONS[operations[idx]];
+	}
+
+	public int bytecodeIndex(int idx) {
+		return bytecodeIndices[idx];
+	}
+
+	/**
+	 * @return the first source line of the node, see {@link SDGNode#getSr()}
+	 */
+	public int sourceRow(int idx) {
+		return sourceRows[idx];
+	}
+
+	public String label(int idx) {
+		return labels[idx];
+	}
+
+	@Override
+	public String toString() {
+		return "CompactSDG " + name + " (" + numberOfNodes() + " nodes, " + numberOfEdges() + " edges)";
+	}
+}
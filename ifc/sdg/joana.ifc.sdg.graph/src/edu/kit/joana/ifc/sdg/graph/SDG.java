@@ -15,6 +15,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -225,27 +226,33 @@ public class SDG extends JoanaGraph implements Cloneable {
      * @return  The first node in the tuple is the call node, the second the entry node.
      */
     public SDGNodeTuple getCallEntryFor(SDGEdge edge){ /* TODO: extend with JOIN edges */
+        return new SDGNodeTuple(getCallSiteFor(edge), getEntryFor(edge));
+    }
+
+    /**
+     * Returns the entry node of the procedure called at the call site of a given interprocedural edge.
+     *
+     * @param edge  An edge of the call site. Permitted are FORK-, CALL-
+     * PARAMETER_IN-, PARAMETER_OUT-, FORK_IN-, FORK_OUT-, and RETURN edges.
+     */
+    public SDGNode getEntryFor(SDGEdge edge){ /* TODO: extend with JOIN edges */
         // easiest case
         if(edge.getKind() == SDGEdge.Kind.CALL || edge.getKind() == SDGEdge.Kind.FORK){
-            return new SDGNodeTuple(edge.getSource(), edge.getTarget());
+            return edge.getTarget();
         }
 
-        boolean out = false;
-
         if (edge.getKind() == SDGEdge.Kind.PARAMETER_OUT
         		|| edge.getKind() == SDGEdge.Kind.FORK_OUT
         		|| edge.getKind() == SDGEdge.Kind.RETURN) {
 
-        	out = true;
+        	return getEntry(edge.getSource());
+
+        } else if (edge.getKind() == SDGEdge.Kind.PARAMETER_IN || edge.getKind() == SDGEdge.Kind.FORK_IN) {
+        	return getEntry(edge.getTarget());
 
-        } else if (edge.getKind() != SDGEdge.Kind.PARAMETER_IN && edge.getKind() != SDGEdge.Kind.FORK_IN) {
+        } else {
         	throw new IllegalArgumentException("Wrong kind of edge: "+edge.getKind()+" ! See the Javadoc description.");
         }
-
-        SDGNode call = (out ? getCallSiteFor(edge.getTarget()) : getCallSiteFor(edge.getSource()));
-        SDGNode entry = (out ? getEntry(edge.getSource()) : getEntry(edge.getTarget()));
-
-        return new SDGNodeTuple(call, entry);
     }
 
     /**
@@ -913,6 +920,34 @@ public class SDG extends JoanaGraph implements Cloneable {
     	return sdg;
     }
 
+    /**
+     * Read in a graph from a file in the binary format written by {@link SDGBinarySerializer}. The file is mapped
+     * into memory instead of being parsed, which is much faster than reading the textual .pdg format.
+     * @param sdgFile file which is read
+     * @throws IOException if file does not exist or is not in binary sdg format
+     * @return a SDG representation of the file
+     */
+    public static SDG readFromBinary(final String sdgFile) throws IOException {
+    	return readFromBinary(sdgFile, null);
+    }
+
+    /**
+     * Read in a graph from a file in the binary format written by {@link SDGBinarySerializer}. The file is mapped
+     * into memory instead of being parsed, which is much faster than reading the textual .pdg format.
+     * @param sdgFile file which is read
+     * @param nodeFactory factory that is used to create SDGNodes
+     * @throws IOException if file does not exist or is not in binary sdg format
+     * @return a SDG representation of the file
+     */
+    public static SDG readFromBinary(final String sdgFile, final SDGNode.NodeFactory nodeFactory) throws IOException {
+    	final SDG sdg = SDGBinaryParser.parse(Paths.get(sdgFile), nodeFactory);
+    	final int sepIndex = sdgFile.lastIndexOf(File.separator);
+    	final String fileName = (sepIndex > 0 ? sdgFile.substring(sepIndex) : sdgFile);
+    	sdg.setFileName(fileName);
+
+    	return sdg;
+    }
+
 	/**
 	 * Parses a graph, using the ANTLR grammar <code>SDG_.g</code>
 	 *
@@ -0,0 +1,368 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.EDGE_SECTION_ENTRY_SIZE;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.FLAG_HAS_ROOT;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.FLAG_JOANA_COMPILER;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.HEADER_FIELDS_SIZE;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.MAGIC;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.NONE;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.NUM_FIXED_SECTIONS;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.SECTION_LOCATIONS;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.SECTION_NODES;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.SECTION_STRINGS;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.SECTION_THREADS;
+import static edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer.VERSION;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode.NodeFactory;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.GraphFolder;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
+import edu.kit.joana.util.SourceLocation;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Reads SDGs written by {@link SDGBinarySerializer}. Each section of the file is mapped into memory via
+ * {@link FileChannel#map} and decoded directly from the mapping - there is no lexing or parsing and no
+ * intermediate representation of nodes or edges. Multiple processes that read the same file share
+ * the pages of the mapping through the operating system's file cache.
+ * <p>
+ * Each section has to be smaller than 2GB, which holds for SDGs with tens of millions of nodes.
+ *
+ * @see SDG#readFromBinary(String)
+ */
+public final class SDGBinaryParser {
+
+	private final FileChannel in;
+	private NodeFactory nodeFact = new SDGNode.SDGNodeFactory();
+
+	private String[] strings;
+	private SourceLocation[] locations;
+
+	private SDGBinaryParser(final FileChannel in) {
+		this.in = in;
+	}
+
+	public void setNodeFactory(final NodeFactory nodeFact) {
+		this.nodeFact = nodeFact;
+	}
+
+	/**
+	 * @return true iff the file at path starts with the magic number of the binary SDG format.
+	 */
+	public static boolean isBinaryFormat(final Path path) throws IOException {
+		try (final FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (ch.size() < 4) {
+				return false;
+			}
+
+			final ByteBuffer magic = ByteBuffer.allocate(4);
+			while (magic.hasRemaining() && ch.read(magic) >= 0);
+			magic.flip();
+
+			return magic.remaining() == 4 && magic.getInt() == MAGIC;
+		}
+	}
+
+	public static SDG parse(final String sdgFile) throws IOException {
+		return parse(Paths.get(sdgFile), null);
+	}
+
+	public static SDG parse(final Path path, final NodeFactory nodeFact) throws IOException {
+		try (final FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+			return parse(ch, nodeFact);
+		}
+	}
+
+	/**
+	 * Reads an SDG from the channel, starting at its current position. The channel is not closed.
+	 */
+	public static SDG parse(final FileChannel in, final NodeFactory nodeFact) throws IOException {
+		final SDGBinaryParser parser = new SDGBinaryParser(in);
+		if (nodeFact != null) {
+			parser.setNodeFactory(nodeFact);
+		}
+
+		SDG result;
+		try {
+			result = parser.run();
+		} finally {
+			SourceLocation.clearSourceLocationPool();
+		}
+
+		result.trimToSize();
+
+		return result;
+	}
+
+	public SDG run() throws IOException {
+		final Logger log = Log.getLogger(Log.L_SDG_GRAPH_PARSE_INFO);
+		final long startTime = System.currentTimeMillis();
+		final long start = in.position();
+
+		final ByteBuffer fields = map(start, HEADER_FIELDS_SIZE + NUM_FIXED_SECTIONS * 16 + 4);
+		if (fields.getInt() != MAGIC) {
+			throw new IOException("not a binary sdg file.");
+		}
+
+		final int version = fields.getInt();
+		if (version != VERSION) {
+			throw new IOException("unsupported binary sdg version " + version + " - expected " + VERSION);
+		}
+
+		final int flags = fields.getInt();
+		final int nameId = fields.getInt();
+		final int rootId = fields.getInt();
+		final int numNodes = fields.getInt();
+		final int numEdges = fields.getInt();
+		final int numThreads = fields.getInt();
+		final long[] fixedOffset = new long[NUM_FIXED_SECTIONS];
+		final long[] fixedLength = new long[NUM_FIXED_SECTIONS];
+		for (int i = 0; i < NUM_FIXED_SECTIONS; i++) {
+			fixedOffset[i] = start + fields.getLong();
+			fixedLength[i] = fields.getLong();
+		}
+		final int numEdgeSections = fields.getInt();
+		final ByteBuffer edgeSections = map(start + fields.position(), numEdgeSections * EDGE_SECTION_ENTRY_SIZE);
+
+		log.out("reading binary sdg ");
+		readStringPool(map(fixedOffset[SECTION_STRINGS], fixedLength[SECTION_STRINGS]));
+		readLocationTable(map(fixedOffset[SECTION_LOCATIONS], fixedLength[SECTION_LOCATIONS]));
+
+		final String name = string(nameId);
+		final SDG sdg = (name == null ? new SDG() : new SDG(name));
+		sdg.setJoanaCompiler((flags & FLAG_JOANA_COMPILER) != 0);
+
+		log.out("(nodes...");
+		final ByteBuffer nodes = map(fixedOffset[SECTION_NODES], fixedLength[SECTION_NODES]);
+		for (int i = 0; i < numNodes; i++) {
+			sdg.addVertex(readNode(nodes));
+		}
+		log.out("ok)");
+
+		log.out("(edges...");
+		final Map<String, SDGEdge.Kind> kindOfName = new HashMap<String, SDGEdge.Kind>();
+		for (final SDGEdge.Kind kind : SDGEdge.Kind.values()) {
+			kindOfName.put(kind.toString(), kind);
+		}
+		for (int section = 0; section < numEdgeSections; section++) {
+			final int kindId = edgeSections.getInt();
+			final int count = edgeSections.getInt();
+			final long offset = start + edgeSections.getLong();
+			final long length = edgeSections.getLong();
+			final SDGEdge.Kind kind = kindOfName.get(string(kindId));
+			if (kind == null) {
+				throw new IOException("unknown edge kind: " + string(kindId));
+			}
+
+			final ByteBuffer edges = map(offset, length);
+			for (int i = 0; i < count; i++) {
+				final SDGNode from = sdg.getNode(edges.getInt());
+				final SDGNode to = sdg.getNode(edges.getInt());
+				final String label = string(edges.getInt());
+				final SDGEdge edge = (label != null
+					? new LabeledSDGEdge(from, to, kind, label)
+					: kind.newEdge(from, to));
+
+				sdg.addEdge(edge);
+			}
+		}
+		log.out("ok)");
+
+		if (numThreads > 0) {
+			log.out("(thread info...");
+			final ByteBuffer threads = map(fixedOffset[SECTION_THREADS], fixedLength[SECTION_THREADS]);
+			final LinkedList<ThreadInstance> tis = new LinkedList<ThreadInstance>();
+			for (int i = 0; i < numThreads; i++) {
+				tis.add(readThread(threads, sdg));
+			}
+			sdg.setThreadsInfo(new ThreadsInformation(tis));
+			log.out("ok)");
+		}
+
+		if ((flags & FLAG_HAS_ROOT) != 0) {
+			sdg.setRoot(sdg.getNode(rootId));
+		}
+
+		log.outln("done.");
+
+		if (log.isEnabled()) {
+			final long time = System.currentTimeMillis() - startTime;
+			log.outln("read binary sdg " + name + " with " + numNodes + " nodes and " + numEdges + " edges in "
+					+ time + "ms.");
+		}
+
+		// the string and location tables are no longer needed
+		strings = null;
+		locations = null;
+
+		return sdg;
+	}
+
+	private ByteBuffer map(final long offset, final long length) throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("section of binary sdg too large: " + length + " bytes");
+		}
+
+		return in.map(FileChannel.MapMode.READ_ONLY, offset, length);
+	}
+
+	private void readStringPool(final ByteBuffer buf) {
+		final int num = buf.getInt();
+		strings = new String[num];
+		byte[] bytes = new byte[256];
+		for (int i = 0; i < num; i++) {
+			final int len = buf.getInt();
+			if (len > bytes.length) {
+				bytes = new byte[Math.max(len, 2 * bytes.length)];
+			}
+			buf.get(bytes, 0, len);
+			strings[i] = new String(bytes, 0, len, StandardCharsets.UTF_8).intern();
+		}
+	}
+
+	private void readLocationTable(final ByteBuffer buf) {
+		final int num = buf.getInt();
+		locations = new SourceLocation[num];
+		for (int i = 0; i < num; i++) {
+			final String file = string(buf.getInt());
+			final int sr = buf.getInt();
+			final int sc = buf.getInt();
+			final int er = buf.getInt();
+			final int ec = buf.getInt();
+			locations[i] = SourceLocation.getLocation(file, sr, sc, er, ec);
+		}
+	}
+
+	private String string(final int id) {
+		return (id == NONE ? null : strings[id]);
+	}
+
+	private SDGNode readNode(final ByteBuffer buf) {
+		final int id = buf.getInt();
+		final SDGNode.Kind kind = SDGNode.Kind.values()[buf.get()];
+		final SDGNode.Operation op = SDGNode.Operation.values()[buf.get()];
+		final int proc = buf.getInt();
+		final String label = string(buf.getInt());
+		final String type = string(buf.getInt());
+		final int locId = buf.getInt();
+		final SourceLocation loc = (locId == NONE ? SourceLocation.UNKNOWN : locations[locId]);
+		final String bcName = string(buf.getInt());
+		final int bcIndex = buf.getInt();
+		final String clsLoader = string(buf.getInt());
+		final String unresolvedCallTarget = string(buf.getInt());
+		final int[] threadNums = readInts(buf);
+		final int[] allocSites = readInts(buf);
+		final int[] aliasDataSrc = readInts(buf);
+		final String[] localDefNames = readStrings(buf);
+		final String[] localUseNames = readStrings(buf);
+
+		final SDGNode n = nodeFact.createNode(op, findKindId(op, kind), id, label, proc, type, loc, bcName, bcIndex,
+				localDefNames, localUseNames, unresolvedCallTarget, allocSites, clsLoader);
+
+		if (aliasDataSrc != null) {
+			n.setAliasDataSources(new TIntHashSet(aliasDataSrc));
+		}
+
+		if (threadNums != null && threadNums.length > 0) {
+			n.setThreadNumbers(threadNums);
+		}
+
+		return n;
+	}
+
+	private static int findKindId(final SDGNode.Operation op, final SDGNode.Kind kind) {
+		final SDGNode.Kind[] kinds = op.getCorrespondingKind();
+		for (int id = 0; id < kinds.length; id++) {
+			if (kind == kinds[id]) {
+				return id;
+			}
+		}
+
+		// should not happen - default to first kind
+		return 0;
+	}
+
+	private static int[] readInts(final ByteBuffer buf) {
+		final int len = buf.getInt();
+		if (len == NONE) {
+			return null;
+		}
+
+		final int[] values = new int[len];
+		buf.asIntBuffer().get(values);
+		buf.position(buf.position() + 4 * len);
+
+		return values;
+	}
+
+	private String[] readStrings(final ByteBuffer buf) {
+		final int len = buf.getInt();
+		if (len == NONE) {
+			return null;
+		}
+
+		final String[] values = new String[len];
+		for (int i = 0; i < len; i++) {
+			values[i] = string(buf.getInt());
+		}
+
+		return values;
+	}
+
+	/* fold nodes of the folded call graph may be part of thread contexts, but not of the sdg */
+	private final Map<Integer, SDGNode> foldNodes = new HashMap<>();
+
+	private SDGNode findNode(final SDG sdg, final int id) {
+		final SDGNode n = sdg.getNode(id);
+		if (n == null && id < 0) {
+			return foldNodes.computeIfAbsent(id,
+					k -> new SDGNode(SDGNode.Kind.FOLDED, k, GraphFolder.PROC_ID_FOR_FOLDED_LOOPS, null));
+		}
+
+		return n;
+	}
+
+	private ThreadInstance readThread(final ByteBuffer buf, final SDG sdg) {
+		final int id = buf.getInt();
+		final SDGNode entry = sdg.getNode(buf.getInt());
+		final SDGNode exit = sdg.getNode(buf.getInt());
+		final boolean hasFork = buf.get() != 0;
+		final int forkId = buf.getInt();
+		final SDGNode fork = (hasFork ? sdg.getNode(forkId) : null);
+		final int numJoins = buf.getInt();
+		final List<SDGNode> joins = new LinkedList<SDGNode>();
+		for (int i = 0; i < numJoins; i++) {
+			joins.add(sdg.getNode(buf.getInt()));
+		}
+		final int ctxLength = buf.getInt();
+		final LinkedList<SDGNode> context = new LinkedList<SDGNode>();
+		for (int i = 0; i < ctxLength; i++) {
+			context.add(findNode(sdg, buf.getInt()));
+		}
+		final boolean dynamic = buf.get() != 0;
+
+		return new ThreadInstance(id, entry, exit, fork, joins, context, dynamic);
+	}
+
+}
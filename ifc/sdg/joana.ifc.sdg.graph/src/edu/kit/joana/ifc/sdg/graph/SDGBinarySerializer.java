@@ -0,0 +1,372 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import edu.kit.joana.util.SourceLocation;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.set.TIntSet;
+
+/**
+ * Writes a {@link JoanaGraph} in the compact binary SDG container format that can be read back
+ * with {@link SDGBinaryParser} (see {@link SDG#readFromBinary(String)}).
+ * <p>
+ * The file consists of a fixed size header followed by a number of sections:
+ * <ul>
+ * <li> the node table (one variable length record per node), </li>
+ * <li> one edge list per {@link SDGEdge.Kind} that occurs in the graph, </li>
+ * <li> the thread information, </li>
+ * <li> the {@link SourceLocation} table and </li>
+ * <li> the string pool, which holds every label, type, bytecode name, class loader, local variable name and
+ *      source file exactly once. </li>
+ * </ul>
+ * All references between sections are plain ints (node ids, string pool indices, location table indices),
+ * so each section can be mapped and decoded independently of the others.
+ * The header stores the position and size of every section. It is written last, once all section positions
+ * are known.
+ * <p>
+ * Node kinds and operations are stored by their ordinal. Whenever {@link SDGNode.Kind} or
+ * {@link SDGNode.Operation} change, {@link #VERSION} has to be increased.
+ */
+public final class SDGBinarySerializer {
+
+	/** "JSDG" */
+	static final int MAGIC = 0x4A534447;
+	static final int VERSION = 1;
+
+	static final int FLAG_JOANA_COMPILER = 1;
+	static final int FLAG_HAS_ROOT = 1 << 1;
+
+	/** marks a missing string, location or array */
+	static final int NONE = -1;
+
+	static final int SECTION_NODES = 0;
+	static final int SECTION_THREADS = 1;
+	static final int SECTION_LOCATIONS = 2;
+	static final int SECTION_STRINGS = 3;
+	static final int NUM_FIXED_SECTIONS = 4;
+
+	/** magic, version, flags, name, root, #nodes, #edges, #threads */
+	static final int HEADER_FIELDS_SIZE = 8 * 4;
+	/** offset and length of each fixed section */
+	static final int FIXED_SECTIONS_SIZE = NUM_FIXED_SECTIONS * 2 * 8;
+	/** kind string, #edges, offset and length of an edge section */
+	static final int EDGE_SECTION_ENTRY_SIZE = 4 + 4 + 8 + 8;
+
+	static int headerSize() {
+		return HEADER_FIELDS_SIZE + FIXED_SECTIONS_SIZE + 4 + SDGEdge.Kind.values().length * EDGE_SECTION_ENTRY_SIZE;
+	}
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final FileChannel out;
+	private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private long pos;
+
+	private final TObjectIntHashMap<String> stringIds = new TObjectIntHashMap<String>(1024, 0.5f, NONE);
+	private final List<String> strings = new ArrayList<String>();
+	private final Map<SourceLocation, Integer> locationIds = new HashMap<SourceLocation, Integer>();
+	private final List<SourceLocation> locations = new ArrayList<SourceLocation>();
+
+	private SDGBinarySerializer(final FileChannel out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes the given graph in binary format to the file sdgFile. An existing file is overwritten.
+	 */
+	public static void toBinaryFormat(final JoanaGraph g, final String sdgFile) throws IOException {
+		toBinaryFormat(g, Paths.get(sdgFile));
+	}
+
+	/**
+	 * Writes the given graph in binary format to the file at path. An existing file is overwritten.
+	 */
+	public static void toBinaryFormat(final JoanaGraph g, final Path path) throws IOException {
+		try (final FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			toBinaryFormat(g, ch);
+		}
+	}
+
+	/**
+	 * Writes the given graph in binary format to the channel, starting at its current position.
+	 * The channel is not closed.
+	 */
+	public static void toBinaryFormat(final JoanaGraph g, final FileChannel out) throws IOException {
+		final SDGBinarySerializer ser = new SDGBinarySerializer(out);
+		ser.write(g);
+	}
+
+	private void write(final JoanaGraph g) throws IOException {
+		final long start = out.position();
+		final int headerSize = headerSize();
+		pos = start + headerSize;
+		final long[] fixedOffset = new long[NUM_FIXED_SECTIONS];
+		final long[] fixedLength = new long[NUM_FIXED_SECTIONS];
+
+		final int nameId = (g.getName() == null ? NONE : stringId(g.getName()));
+
+		// nodes - edges are collected per kind on the fly, so the graph is traversed only once
+		final SDGEdge.Kind[] kinds = SDGEdge.Kind.values();
+		final TIntArrayList[] edgesOfKind = new TIntArrayList[kinds.length];
+		fixedOffset[SECTION_NODES] = pos;
+		int numNodes = 0;
+		int numEdges = 0;
+		for (final SDGNode n : g.vertexSet()) {
+			writeNode(n);
+			numNodes++;
+
+			for (final SDGEdge e : g.outgoingEdgesOf(n)) {
+				final int kind = e.getKind().ordinal();
+				if (edgesOfKind[kind] == null) {
+					edgesOfKind[kind] = new TIntArrayList();
+				}
+
+				final TIntArrayList edges = edgesOfKind[kind];
+				edges.add(n.getId());
+				edges.add(e.getTarget().getId());
+				edges.add(e.getLabel() == null ? NONE : stringId(e.getLabel()));
+				numEdges++;
+			}
+		}
+		fixedLength[SECTION_NODES] = pos - fixedOffset[SECTION_NODES];
+
+		// edges grouped by kind
+		final int[] edgeKind = new int[kinds.length];
+		final int[] edgeCount = new int[kinds.length];
+		final long[] edgeOffset = new long[kinds.length];
+		final long[] edgeLength = new long[kinds.length];
+		int numEdgeSections = 0;
+		for (int kind = 0; kind < kinds.length; kind++) {
+			final TIntArrayList edges = edgesOfKind[kind];
+			if (edges == null) {
+				continue;
+			}
+
+			edgeKind[numEdgeSections] = stringId(kinds[kind].toString());
+			edgeCount[numEdgeSections] = edges.size() / 3;
+			edgeOffset[numEdgeSections] = pos;
+			for (int i = 0; i < edges.size(); i++) {
+				putInt(edges.getQuick(i));
+			}
+			edgeLength[numEdgeSections] = pos - edgeOffset[numEdgeSections];
+			numEdgeSections++;
+			// release memory early
+			edgesOfKind[kind] = null;
+		}
+
+		// thread information
+		fixedOffset[SECTION_THREADS] = pos;
+		int numThreads = 0;
+		if (g.getThreadsInfo() != null) {
+			for (final ThreadInstance ti : g.getThreadsInfo()) {
+				writeThread(ti);
+				numThreads++;
+			}
+		}
+		fixedLength[SECTION_THREADS] = pos - fixedOffset[SECTION_THREADS];
+
+		// source locations - may add new strings, so they are written before the string pool
+		fixedOffset[SECTION_LOCATIONS] = pos;
+		putInt(locations.size());
+		for (final SourceLocation loc : locations) {
+			putInt(loc.getSourceFile() == null ? NONE : stringId(loc.getSourceFile()));
+			putInt(loc.getStartRow());
+			putInt(loc.getStartColumn());
+			putInt(loc.getEndRow());
+			putInt(loc.getEndColumn());
+		}
+		fixedLength[SECTION_LOCATIONS] = pos - fixedOffset[SECTION_LOCATIONS];
+
+		// string pool
+		fixedOffset[SECTION_STRINGS] = pos;
+		putInt(strings.size());
+		for (final String str : strings) {
+			final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+			putInt(bytes.length);
+			putBytes(bytes);
+		}
+		fixedLength[SECTION_STRINGS] = pos - fixedOffset[SECTION_STRINGS];
+
+		flush();
+
+		// header
+		final ByteBuffer header = ByteBuffer.allocate(headerSize);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		int flags = 0;
+		if (g instanceof SDG && ((SDG) g).getJoanaCompiler()) {
+			flags |= FLAG_JOANA_COMPILER;
+		}
+		if (g.getRoot() != null) {
+			flags |= FLAG_HAS_ROOT;
+		}
+		header.putInt(flags);
+		header.putInt(nameId);
+		header.putInt(g.getRoot() != null ? g.getRoot().getId() : 0);
+		header.putInt(numNodes);
+		header.putInt(numEdges);
+		header.putInt(numThreads);
+		for (int i = 0; i < NUM_FIXED_SECTIONS; i++) {
+			header.putLong(fixedOffset[i] - start);
+			header.putLong(fixedLength[i]);
+		}
+		header.putInt(numEdgeSections);
+		for (int i = 0; i < numEdgeSections; i++) {
+			header.putInt(edgeKind[i]);
+			header.putInt(edgeCount[i]);
+			header.putLong(edgeOffset[i] - start);
+			header.putLong(edgeLength[i]);
+		}
+		header.flip();
+		long headerPos = start;
+		while (header.hasRemaining()) {
+			headerPos += out.write(header, headerPos);
+		}
+
+		out.position(pos);
+	}
+
+	private void writeNode(final SDGNode n) throws IOException {
+		putInt(n.getId());
+		putByte(n.getKind().ordinal());
+		putByte(n.getOperation().ordinal());
+		putInt(n.getProc());
+		putInt(n.getLabel() == null ? NONE : stringId(n.getLabel()));
+		putInt(n.getType() == null ? NONE : stringId(n.getType()));
+		putInt(locationId(n.getSourceLocation()));
+		putInt(n.getBytecodeName() == null ? NONE : stringId(n.getBytecodeName()));
+		putInt(n.getBytecodeIndex());
+		putInt(n.getClassLoader() == null ? NONE : stringId(n.getClassLoader()));
+		putInt(n.getUnresolvedCallTarget() == null ? NONE : stringId(n.getUnresolvedCallTarget()));
+		putInts(n.getThreadNumbers());
+		putInts(n.getAllocationSites());
+		final TIntSet aliasDataSources = n.getAliasDataSources();
+		putInts(aliasDataSources == null ? null : aliasDataSources.toArray());
+		putStrings(n.getLocalDefNames());
+		putStrings(n.getLocalUseNames());
+	}
+
+	private void writeThread(final ThreadInstance ti) throws IOException {
+		putInt(ti.getId());
+		putInt(ti.getEntry().getId());
+		putInt(ti.getExit().getId());
+		putByte(ti.getFork() == null ? 0 : 1);
+		putInt(ti.getFork() == null ? 0 : ti.getFork().getId());
+		putInt(ti.getJoins().size());
+		for (final SDGNode join : ti.getJoins()) {
+			putInt(join.getId());
+		}
+		putInt(ti.getThreadContext().size());
+		for (final SDGNode ctx : ti.getThreadContext()) {
+			putInt(ctx.getId());
+		}
+		putByte(ti.isDynamic() ? 1 : 0);
+	}
+
+	private int stringId(final String str) {
+		int id = stringIds.get(str);
+		if (id == NONE) {
+			id = strings.size();
+			strings.add(str);
+			stringIds.put(str, id);
+		}
+
+		return id;
+	}
+
+	private int locationId(final SourceLocation loc) {
+		if (loc == null) {
+			return NONE;
+		}
+
+		Integer id = locationIds.get(loc);
+		if (id == null) {
+			id = locations.size();
+			locations.add(loc);
+			locationIds.put(loc, id);
+		}
+
+		return id;
+	}
+
+	private void putInts(final int[] values) throws IOException {
+		if (values == null) {
+			putInt(NONE);
+		} else {
+			putInt(values.length);
+			for (final int v : values) {
+				putInt(v);
+			}
+		}
+	}
+
+	private void putStrings(final String[] values) throws IOException {
+		if (values == null) {
+			putInt(NONE);
+		} else {
+			putInt(values.length);
+			for (final String v : values) {
+				putInt(v == null ? NONE : stringId(v));
+			}
+		}
+	}
+
+	private void putInt(final int v) throws IOException {
+		ensure(4);
+		buf.putInt(v);
+		pos += 4;
+	}
+
+	private void putByte(final int v) throws IOException {
+		ensure(1);
+		buf.put((byte) v);
+		pos++;
+	}
+
+	private void putBytes(final byte[] bytes) throws IOException {
+		int off = 0;
+		while (off < bytes.length) {
+			ensure(1);
+			final int len = Math.min(buf.remaining(), bytes.length - off);
+			buf.put(bytes, off, len);
+			off += len;
+			pos += len;
+		}
+	}
+
+	private void ensure(final int bytes) throws IOException {
+		if (buf.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException {
+		buf.flip();
+		long at = pos - buf.remaining();
+		while (buf.hasRemaining()) {
+			at += out.write(buf, at);
+		}
+		buf.clear();
+	}
+
+}
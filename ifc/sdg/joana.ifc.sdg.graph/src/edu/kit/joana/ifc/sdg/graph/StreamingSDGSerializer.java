@@ -0,0 +1,371 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import gnu.trove.iterator.TIntIterator;
+
+/**
+ * Writes a {@link JoanaGraph} in the textual .pdg format of {@link SDGSerializer} without materializing sorted copies
+ * of the graph.
+ * <p>
+ * The nodes are written in the order of their ids by walking the id space of the graph and looking up each id with
+ * {@link JoanaGraph#getNode(int)}. Only if the ids are very sparse, the ids of the nodes are copied into an int array
+ * and sorted. The outgoing edges of a node are sorted in an array that is reused for all nodes.
+ * Hence the output is the same as the one of {@link SDGSerializer#toPDGFormat(JoanaGraph, PrintWriter)}, but the
+ * additional memory needed is linear in the maximal out degree of a node instead of the size of the graph.
+ * <p>
+ * The output may be compressed with {@link Compression#GZIP}. The compressor is flushed after every block of
+ * uncompressed output, so each complete block of a truncated file can still be decompressed. A compressed graph can be
+ * read with {@link SDG#readFromAndUseLessHeap(java.io.InputStream)} from a {@link java.util.zip.GZIPInputStream}.
+ * <p>
+ * In the bounded memory mode the underlying stream is flushed after every block as well, and the ids of the nodes are
+ * never copied, even if they are sparse. So the memory needed for writing the graph is bounded by the block size, the
+ * compressor and the maximal out degree of a node.
+ */
+public final class StreamingSDGSerializer {
+
+	public enum Compression {
+		NONE, GZIP
+	}
+
+	public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+	/** the ids are copied and sorted, if there are more than this many ids per node in the id range of the graph */
+	private static final long MAX_IDS_PER_NODE = 4;
+
+	/** orders the outgoing edges of a node by kind and target id */
+	private static final Comparator<SDGEdge> EDGE_ORDER = new Comparator<SDGEdge>() {
+		@Override
+		public int compare(SDGEdge o1, SDGEdge o2) {
+			final int byKind = o1.getKind().compareTo(o2.getKind());
+			if (byKind != 0) return byKind;
+
+			return Integer.compare(o1.getTarget().getId(), o2.getTarget().getId());
+		}
+	};
+
+	private final Compression compression;
+	private final boolean boundedMemory;
+	private final int blockSize;
+
+	/* reused for the outgoing edges of all nodes */
+	private SDGEdge[] edges = new SDGEdge[16];
+
+	public StreamingSDGSerializer() {
+		this(Compression.NONE, false);
+	}
+
+	public StreamingSDGSerializer(Compression compression, boolean boundedMemory) {
+		this(compression, boundedMemory, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * @param compression compression of the output
+	 * @param boundedMemory whether the memory used by the serializer is bounded, independent of the id space
+	 * @param blockSize number of uncompressed bytes after which the compressor (and in bounded memory mode the
+	 * underlying stream) is flushed
+	 */
+	public StreamingSDGSerializer(Compression compression, boolean boundedMemory, int blockSize) {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("block size has to be positive: " + blockSize);
+		}
+
+		this.compression = compression;
+		this.boundedMemory = boundedMemory;
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Writes the graph to the given stream and closes it.
+	 */
+	public void write(JoanaGraph g, OutputStream out) throws IOException {
+		final OutputStream sink;
+		switch (compression) {
+		case NONE:
+			sink = boundedMemory ? new BlockOutputStream(out, blockSize) : out;
+			break;
+		case GZIP:
+			sink = new BlockOutputStream(new GZIPOutputStream(out, blockSize, true), blockSize);
+			break;
+		default:
+			throw new IllegalStateException("unknown compression " + compression);
+		}
+
+		final PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(sink)));
+		write(g, pw);
+		if (pw.checkError()) {
+			throw new IOException("could not write " + g.getName());
+		}
+	}
+
+	/**
+	 * Writes the graph to the given writer and closes it. The writer is not compressed.
+	 */
+	public void write(JoanaGraph g, PrintWriter pw) {
+		pw.print("SDG ");
+
+		if (g.getName() != null) {
+			pw.print("\"");pw.print(g.getName());pw.print("\" ");
+		}
+
+		if (g.getRoot() != null) {
+			pw.print("root " + g.getRoot().getId() + " ");
+		}
+
+		pw.print("{\n");
+
+		if (g instanceof SDG && ((SDG)g).getJoanaCompiler()) {
+			pw.print("JComp\n");
+		}
+
+		writeNodes(g, pw);
+
+		if (g.getThreadsInfo() != null) {
+			for (ThreadInstance ti : g.getThreadsInfo()) {
+				pw.print(ti);
+			}
+		}
+
+		pw.print("}\n");
+		pw.close();
+	}
+
+	private void writeNodes(JoanaGraph g, PrintWriter pw) {
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		int count = 0;
+		for (SDGNode n : g.vertexSet()) {
+			min = Math.min(min, n.getId());
+			max = Math.max(max, n.getId());
+			count++;
+		}
+
+		if (count == 0) {
+			return;
+		}
+
+		if (boundedMemory || (long) max - min + 1 <= MAX_IDS_PER_NODE * count) {
+			// walk the id space
+			for (int id = min; ; id++) {
+				final SDGNode n = g.getNode(id);
+				if (n != null) {
+					writeNode(g, n, pw);
+				}
+
+				if (id == max) {
+					break;
+				}
+			}
+		} else {
+			final int[] ids = new int[count];
+			int i = 0;
+			for (SDGNode n : g.vertexSet()) {
+				ids[i++] = n.getId();
+			}
+			Arrays.sort(ids);
+
+			for (i = 0; i < ids.length; i++) {
+				if (i == 0 || ids[i] != ids[i - 1]) {
+					writeNode(g, g.getNode(ids[i]), pw);
+				}
+			}
+		}
+	}
+
+	private void writeNode(JoanaGraph g, SDGNode n, PrintWriter pw) {
+		pw.print(n.getKind().toString());
+		pw.print(" ");
+		pw.print(n.getId());
+		pw.print(" {\n");
+		pw.print("O ");
+		pw.print(n.getOperation());
+		pw.print(";\n");
+
+		if (n.getLabel() != null) {
+			pw.print("V \"");pw.print(n.getLabel());pw.print("\";\n");
+		}
+
+		if (n.getType() != null) {
+			pw.print("T \"");pw.print(n.getType());pw.print("\";\n");
+		}
+
+		pw.print("P ");
+		pw.print(n.getProc());
+		pw.print(";\n");
+
+		if (n.getSource() != null) {
+			pw.print("S \"");pw.print(n.getSource());pw.print("\":");
+			pw.print(n.getSr());
+			pw.print(',');
+			pw.print(n.getSc());
+			pw.print('-');
+			pw.print(n.getEr());
+			pw.print(',');
+			pw.print(n.getEc());
+			pw.print(";\n");
+		}
+
+		if (n.getBytecodeName() != null) {
+			pw.print("B \""); pw.print(n.getBytecodeName()); pw.print("\":");
+			pw.print(n.getBytecodeIndex());
+			pw.print(";\n");
+		}
+
+		final int[] threads = n.getThreadNumbers();
+		if (threads != null && threads.length > 0) {
+			pw.print("Z ");
+			pw.print(threads[0]);
+
+			for (int i = 1; i < threads.length; i++) {
+				pw.print(", ");
+				pw.print(threads[i]);
+			}
+
+			pw.print(";\n");
+		}
+
+		final int[] allocSites = n.getAllocationSites();
+		if (allocSites != null && allocSites.length > 0) {
+			pw.print("A ");
+			pw.print(allocSites[0]);
+
+			for (int i = 1; i < allocSites.length; i++) {
+				pw.print(", ");
+				pw.print(allocSites[i]);
+			}
+
+			pw.print(";\n");
+		}
+
+		if (n.getAliasDataSources() != null) {
+			pw.print("D ");
+			final TIntIterator it = n.getAliasDataSources().iterator();
+			while (it.hasNext()) {
+				pw.print(it.next());
+				if (it.hasNext()) {
+					pw.print(", ");
+				}
+			}
+			pw.print(";\n");
+		}
+
+		if (n.getClassLoader() != null) {
+			pw.print("C \"");pw.print(n.getClassLoader());pw.print("\";\n");
+		}
+
+		if (n.getUnresolvedCallTarget() != null) {
+			pw.print("U \"");pw.print(n.getUnresolvedCallTarget());pw.print("\";\n");
+		}
+
+		writeNames("LD", n.getLocalDefNames(), pw);
+		writeNames("LU", n.getLocalUseNames(), pw);
+
+		writeDependencies(g, n, pw);
+		pw.print("}\n");
+	}
+
+	private static void writeNames(String key, String[] names, PrintWriter pw) {
+		if (names == null || names.length == 0) {
+			return;
+		}
+
+		pw.print(key);
+		pw.print(" [\"");
+		pw.print(names[0]);
+		pw.print("\"");
+
+		for (int i = 1; i < names.length; i++) {
+			// until wala fixes its local variable name resolution, we have to deal with null names :/
+			assert (names[i] == null || !names[i].contains("\""));
+			pw.print(", \"");
+			pw.print(names[i]);
+			pw.print("\"");
+		}
+
+		pw.print("];\n");
+	}
+
+	private void writeDependencies(JoanaGraph g, SDGNode n, PrintWriter pw) {
+		final Set<SDGEdge> outgoing = g.outgoingEdgesOf(n);
+		final int size = outgoing.size();
+		if (edges.length < size) {
+			edges = new SDGEdge[Math.max(size, 2 * edges.length)];
+		}
+
+		int i = 0;
+		for (SDGEdge e : outgoing) {
+			edges[i++] = e;
+		}
+		Arrays.sort(edges, 0, size, EDGE_ORDER);
+
+		for (i = 0; i < size; i++) {
+			final SDGEdge e = edges[i];
+			edges[i] = null;
+			pw.print(e.getKind().toString());
+			pw.print(" ");
+			pw.print(e.getTarget().getId());
+			if (e.getLabel() != null) {
+				pw.print(": \"");pw.print(e.getLabel());pw.print("\"");
+			}
+			pw.print(";\n");
+		}
+	}
+
+	/**
+	 * Flushes the underlying stream after every block of the given size.
+	 */
+	private static final class BlockOutputStream extends FilterOutputStream {
+
+		private final int blockSize;
+		private int written = 0;
+
+		private BlockOutputStream(OutputStream out, int blockSize) {
+			super(out);
+			this.blockSize = blockSize;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			if (++written >= blockSize) {
+				endBlock();
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				final int n = Math.min(len, blockSize - written);
+				out.write(b, off, n);
+				off += n;
+				len -= n;
+				written += n;
+				if (written >= blockSize) {
+					endBlock();
+				}
+			}
+		}
+
+		private void endBlock() throws IOException {
+			out.flush();
+			written = 0;
+		}
+	}
+}
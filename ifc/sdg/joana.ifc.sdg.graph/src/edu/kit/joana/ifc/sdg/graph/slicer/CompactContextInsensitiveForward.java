@@ -0,0 +1,52 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+
+/**
+ * The forward variant of {@link CompactContextInsensitiveSlicer}, computing the same slices as {@link ContextInsensitiveForward}.
+ */
+public class CompactContextInsensitiveForward extends CompactContextInsensitiveSlicer {
+
+	public CompactContextInsensitiveForward(CompactSDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	public CompactContextInsensitiveForward(CompactSDG graph) {
+		super(graph);
+	}
+
+	public CompactContextInsensitiveForward(SDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	public CompactContextInsensitiveForward(SDG graph) {
+		super(graph);
+	}
+
+	protected int firstEdge(int node) {
+		return g.outStart(node);
+	}
+
+	protected int lastEdge(int node) {
+		return g.outEnd(node);
+	}
+
+	protected int reachedNode(int edge) {
+		return g.outTarget(edge);
+	}
+
+	protected int edgeKind(int edge) {
+		return g.outKindOrdinal(edge);
+	}
+}
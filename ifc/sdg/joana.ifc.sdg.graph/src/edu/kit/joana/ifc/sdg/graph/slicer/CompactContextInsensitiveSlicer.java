@@ -0,0 +1,76 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * The context-insensitive slicer of {@link ContextInsensitiveSlicer} on a {@link CompactSDG}.
+ */
+public abstract class CompactContextInsensitiveSlicer extends CompactSlicer {
+
+	protected CompactContextInsensitiveSlicer(CompactSDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	protected CompactContextInsensitiveSlicer(CompactSDG graph) {
+		super(graph);
+	}
+
+	protected CompactContextInsensitiveSlicer(SDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	protected CompactContextInsensitiveSlicer(SDG graph) {
+		super(graph);
+	}
+
+	@Override
+	protected Collection<SDGNode> slice(int[] criteria, BitSet sub) {
+		final TIntArrayList visited = new TIntArrayList();
+
+		clearMarks();
+		worklist1.clear();
+
+		for (int v : criteria) {
+			if ((sub == null || sub.get(v)) && mark(v) == UNMARKED) {
+				worklist1.add(v);
+				visited.add(v);
+				setMark(v, PHASE1);
+			}
+		}
+
+		while (!worklist1.isEmpty()) {
+			final int w = worklist1.poll();
+			final int end = lastEdge(w);
+
+			for (int e = firstEdge(w); e < end; e++) {
+				if (!traversable[edgeKind(e)]) {
+					continue;
+				}
+
+				final int v = reachedNode(e);
+				if ((sub == null || sub.get(v)) && mark(v) == UNMARKED) {
+					worklist1.add(v);
+					visited.add(v);
+					setMark(v, PHASE1);
+				}
+			}
+		}
+
+		return toSlice(visited);
+	}
+}
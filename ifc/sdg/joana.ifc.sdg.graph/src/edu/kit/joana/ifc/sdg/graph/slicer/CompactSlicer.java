@@ -0,0 +1,199 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.collections.IntRingBuffer;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Base class of slicers that work on a {@link CompactSDG} instead of an {@link SDG}.
+ * <p>
+ * The slicers traverse the int arrays of the compact graph and keep their marks in an int array indexed by the node
+ * indices, so slicing does not touch any node or edge objects apart from the criteria. The computed slices contain the
+ * node objects of the original graph and are materialized lazily.<br>
+ * The marks and worklists are reused by all slices, so an instance must not be used by several threads at the same time.
+ * The compact graph itself may be shared by several slicers.
+ */
+public abstract class CompactSlicer implements Slicer {
+
+	static final int UNMARKED = 0;
+	static final int PHASE1 = 1;
+	static final int PHASE2 = 2;
+
+	protected Set<SDGEdge.Kind> omittedEdges = SDGEdge.Kind.threadEdges();
+	protected CompactSDG g;
+	/** traversable[k] tells whether edges of the kind with ordinal k are traversed */
+	protected boolean[] traversable;
+
+	/* reused by all slices, hence a slicer must not be shared between threads */
+	private int[] marks;
+	/** marks[i] - base is the mark of node i, if marks[i] > base */
+	private int base = 0;
+	protected final IntRingBuffer worklist1 = new IntRingBuffer();
+	protected final IntRingBuffer worklist2 = new IntRingBuffer();
+
+	protected CompactSlicer(CompactSDG graph, Set<SDGEdge.Kind> omit) {
+		this.omittedEdges = omit;
+		setGraph(graph);
+	}
+
+	protected CompactSlicer(CompactSDG graph) {
+		setGraph(graph);
+	}
+
+	/**
+	 * Builds the compact view of graph. Prefer the constructors taking a {@link CompactSDG}
+	 * if several slicers work on the same graph.
+	 */
+	protected CompactSlicer(SDG graph, Set<SDGEdge.Kind> omit) {
+		this(CompactSDG.build(graph), omit);
+	}
+
+	protected CompactSlicer(SDG graph) {
+		this(CompactSDG.build(graph));
+	}
+
+	/**
+	 * Builds the compact view of graph and slices on it from now on.
+	 */
+	public void setGraph(SDG graph) {
+		setGraph(CompactSDG.build(graph));
+	}
+
+	/**
+	 * Slices on the given compact graph from now on.
+	 * @throws IllegalArgumentException if graph does not keep the node objects, which the slices consist of
+	 */
+	public void setGraph(CompactSDG graph) {
+		if (!graph.hasNodes()) {
+			throw new IllegalArgumentException(graph + " has been built without node objects");
+		}
+		this.g = graph;
+		this.marks = new int[graph.numberOfNodes()];
+		this.base = 0;
+		this.traversable = CompactSDG.traversableKinds(omittedEdges);
+	}
+
+	public CompactSDG getGraph() {
+		return g;
+	}
+
+	public void setOmittedEdges(Set<SDGEdge.Kind> omit) {
+		this.omittedEdges = omit;
+		this.traversable = CompactSDG.traversableKinds(omit);
+	}
+
+	public Collection<SDGNode> slice(SDGNode criterion) {
+		return slice(Collections.singleton(criterion));
+	}
+
+	public Collection<SDGNode> slice(Collection<SDGNode> criteria) {
+		return slice(indicesOf(criteria), null);
+	}
+
+	/**
+	 * Computes the slice of the given criteria, restricted to the nodes of sub.
+	 * Criteria not contained in sub are ignored.
+	 */
+	public Collection<SDGNode> subgraphSlice(Collection<SDGNode> criteria, Collection<SDGNode> sub) {
+		final BitSet members;
+		if (sub instanceof DenseSlice && ((DenseSlice) sub).isSliceOf(g)) {
+			members = ((DenseSlice) sub).members();
+		} else {
+			members = new BitSet(g.numberOfNodes());
+			for (SDGNode n : sub) {
+				final int idx = g.indexOf(n);
+				if (idx >= 0) {
+					members.set(idx);
+				}
+			}
+		}
+
+		return slice(indicesOf(criteria), members);
+	}
+
+	/**
+	 * Computes the slice of the given nodes.
+	 *
+	 * @param criteria  indices of the slicing criteria
+	 * @param sub       the indices of the nodes the slice is restricted to, or null
+	 * @return          the slice
+	 */
+	protected abstract Collection<SDGNode> slice(int[] criteria, BitSet sub);
+
+	/* direction of the slicer */
+
+	/**
+	 * @return the position of the first edge to traverse from the given node
+	 */
+	protected abstract int firstEdge(int node);
+
+	/**
+	 * @return the position after the last edge to traverse from the given node
+	 */
+	protected abstract int lastEdge(int node);
+
+	/**
+	 * @return the node reached by the edge at the given position
+	 */
+	protected abstract int reachedNode(int edge);
+
+	/**
+	 * @return the ordinal of the kind of the edge at the given position
+	 */
+	protected abstract int edgeKind(int edge);
+
+	/* marks */
+
+	/**
+	 * Removes all marks in constant time.
+	 */
+	protected final void clearMarks() {
+		if (base >= Integer.MAX_VALUE - 3) {
+			Arrays.fill(marks, 0);
+			base = 0;
+		}
+		base += 2;
+	}
+
+	protected final int mark(int node) {
+		final int m = marks[node] - base;
+		return m > 0 ? m : UNMARKED;
+	}
+
+	protected final void setMark(int node, int mark) {
+		marks[node] = base + mark;
+	}
+
+	protected final Collection<SDGNode> toSlice(TIntArrayList nodes) {
+		return new DenseSlice(g, nodes.toArray(), nodes.size());
+	}
+
+	private int[] indicesOf(Collection<SDGNode> criteria) {
+		final int[] indices = new int[criteria.size()];
+		int i = 0;
+		for (SDGNode n : criteria) {
+			indices[i] = g.indexOf(n);
+			if (indices[i] < 0) {
+				throw new IllegalArgumentException("node " + n + " is not contained in " + g);
+			}
+			i++;
+		}
+		return indices;
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.collections.IntRingBuffer;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * The standard 2-phase slicer of {@link SummarySlicer} on a {@link CompactSDG}.
+ * It computes the same slices as {@link SummarySlicer}. The edges of a node are visited sorted by kind, which does not
+ * change the slice: in phase 1, a node saved for phase 2 is moved to phase 1 if it is reached by a followed edge later.
+ */
+public abstract class CompactSummarySlicer extends CompactSlicer {
+
+	protected static final int PARAMETER_IN = SDGEdge.Kind.PARAMETER_IN.ordinal();
+	protected static final int PARAMETER_OUT = SDGEdge.Kind.PARAMETER_OUT.ordinal();
+	protected static final int CALL = SDGEdge.Kind.CALL.ordinal();
+	private static final int INTERFERENCE = SDGEdge.Kind.INTERFERENCE.ordinal();
+	private static final int DATA_DEP = SDGEdge.Kind.DATA_DEP.ordinal();
+	private static final int DATA_HEAP = SDGEdge.Kind.DATA_HEAP.ordinal();
+	private static final int DATA_ALIAS = SDGEdge.Kind.DATA_ALIAS.ordinal();
+
+	protected CompactSummarySlicer(CompactSDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	protected CompactSummarySlicer(CompactSDG graph) {
+		super(graph);
+	}
+
+	protected CompactSummarySlicer(SDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	protected CompactSummarySlicer(SDG graph) {
+		super(graph);
+	}
+
+	/**
+	 * @return whether an edge of the given kind is saved for phase 2 in phase 1
+	 */
+	protected abstract boolean saveInPhase1(int kind);
+
+	/**
+	 * @return whether the edge of the given kind is followed in phase 2
+	 */
+	protected abstract boolean followInPhase2(int kind);
+
+	/**
+	 * @return whether the edge of the given kind from node w to node v is saved in phase 2
+	 */
+	protected final boolean saveInPhase2(int kind, int w, int v) {
+		return kind == INTERFERENCE
+				|| ((kind == DATA_DEP || kind == DATA_HEAP || kind == DATA_ALIAS) && g.proc(w) != g.proc(v));
+	}
+
+	@Override
+	protected Collection<SDGNode> slice(int[] criteria, BitSet sub) {
+		final TIntArrayList visited = new TIntArrayList();
+		IntRingBuffer worklist = worklist1;
+		final IntRingBuffer nextWorklist = worklist2;
+		boolean phase1 = true;
+
+		clearMarks();
+		worklist1.clear();
+		worklist2.clear();
+
+		for (int v : criteria) {
+			if (sub == null || sub.get(v)) {
+				worklist.add(v);
+				if (mark(v) == UNMARKED) {
+					visited.add(v);
+				}
+				setMark(v, PHASE1);
+			}
+		}
+
+		while (!worklist.isEmpty()) {
+
+			while (!worklist.isEmpty()) {
+				final int w = worklist.poll();
+				final int end = lastEdge(w);
+
+				for (int e = firstEdge(w); e < end; e++) {
+					final int kind = edgeKind(e);
+					if (!traversable[kind]) {
+						continue;
+					}
+
+					final int v = reachedNode(e);
+					if (sub != null && !sub.get(v)) {
+						continue;
+					}
+
+					final int mark = mark(v);
+					if (mark == UNMARKED || (phase1 && mark == PHASE2)) {
+						// if node was not yet added or node was added in phase2
+						if (phase1 ? saveInPhase1(kind) : saveInPhase2(kind, w, v)) {
+							if (mark != UNMARKED) {
+								// already saved
+								continue;
+							}
+							nextWorklist.add(v);
+							setMark(v, PHASE2);
+						} else if (phase1 || followInPhase2(kind)) {
+							worklist.add(v);
+							setMark(v, phase1 ? PHASE1 : PHASE2);
+						} else {
+							continue;
+						}
+
+						if (mark == UNMARKED) {
+							visited.add(v);
+						}
+					}
+				}
+			}
+
+			// swap worklists and phases
+			worklist = nextWorklist;
+			phase1 = false;
+		}
+
+		return toSlice(visited);
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+
+/**
+ * The backward variant of {@link CompactSummarySlicer}, computing the same slices as {@link SummarySlicerBackward}.
+ */
+public class CompactSummarySlicerBackward extends CompactSummarySlicer {
+
+	public CompactSummarySlicerBackward(CompactSDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	public CompactSummarySlicerBackward(CompactSDG graph) {
+		super(graph);
+	}
+
+	public CompactSummarySlicerBackward(SDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	public CompactSummarySlicerBackward(SDG graph) {
+		super(graph);
+	}
+
+	protected int firstEdge(int node) {
+		return g.inStart(node);
+	}
+
+	protected int lastEdge(int node) {
+		return g.inEnd(node);
+	}
+
+	protected int reachedNode(int edge) {
+		return g.inSource(edge);
+	}
+
+	protected int edgeKind(int edge) {
+		return g.inKindOrdinal(edge);
+	}
+
+	protected boolean saveInPhase1(int kind) {
+		return kind == PARAMETER_OUT;
+	}
+
+	protected boolean followInPhase2(int kind) {
+		return kind != PARAMETER_IN && kind != CALL;
+	}
+}
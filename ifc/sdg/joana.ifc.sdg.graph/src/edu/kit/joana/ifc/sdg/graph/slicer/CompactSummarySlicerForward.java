@@ -0,0 +1,60 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+
+/**
+ * The forward variant of {@link CompactSummarySlicer}, computing the same slices as {@link SummarySlicerForward}.
+ */
+public class CompactSummarySlicerForward extends CompactSummarySlicer {
+
+	public CompactSummarySlicerForward(CompactSDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	public CompactSummarySlicerForward(CompactSDG graph) {
+		super(graph);
+	}
+
+	public CompactSummarySlicerForward(SDG graph, Set<SDGEdge.Kind> omit) {
+		super(graph, omit);
+	}
+
+	public CompactSummarySlicerForward(SDG graph) {
+		super(graph);
+	}
+
+	protected int firstEdge(int node) {
+		return g.outStart(node);
+	}
+
+	protected int lastEdge(int node) {
+		return g.outEnd(node);
+	}
+
+	protected int reachedNode(int edge) {
+		return g.outTarget(edge);
+	}
+
+	protected int edgeKind(int edge) {
+		return g.outKindOrdinal(edge);
+	}
+
+	protected boolean saveInPhase1(int kind) {
+		return kind == PARAMETER_IN || kind == CALL;
+	}
+
+	protected boolean followInPhase2(int kind) {
+		return kind != PARAMETER_OUT;
+	}
+}
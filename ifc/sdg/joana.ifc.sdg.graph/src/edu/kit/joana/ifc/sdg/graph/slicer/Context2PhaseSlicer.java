@@ -15,7 +15,6 @@ import java.util.Set;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.Context;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.ContextManager;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.StaticContextManager;
@@ -115,8 +114,9 @@ public abstract class Context2PhaseSlicer {
 
                 } else if (ascend(e)) {
                     // ascend to the calling method
-                	SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                	StaticContext[] cons = man.ascend(reached, callSite ,next);
+                	SDGNode call = sdg.getCallSiteFor(e);
+                	SDGNode entry = sdg.getEntryFor(e);
+                	StaticContext[] cons = man.ascend(reached, call, entry, next);
 
                     // add the contexts to the worklist
                     for (StaticContext c : cons) {
@@ -12,11 +12,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.collections.IntRingBuffer;
 
 
 /**
@@ -24,7 +26,7 @@ import edu.kit.joana.ifc.sdg.graph.SDGNode;
  *
  * @author hammer, giffhorn
  */
-public abstract class ContextInsensitiveSlicer implements Slicer {
+public abstract class ContextInsensitiveSlicer implements MultiCriteriaSlicer {
     protected Set<SDGEdge.Kind> omittedEdges = SDGEdge.Kind.threadEdges();
     protected SDG g;
 
@@ -107,6 +109,58 @@ public abstract class ContextInsensitiveSlicer implements Slicer {
     	return slice;
     }
 
+    /**
+     * Computes the slices of all criteria in batches of {@link MultiCriteriaSlice#BATCH_SIZE}.
+     * Each node carries the word of criteria whose slice it belongs to, and a node is (re-)visited
+     * whenever it receives new bits.
+     */
+    public MultiCriteriaSlice sliceEach(List<? extends SDGNode> criteria) {
+    	final MultiCriteriaSlice result = new MultiCriteriaSlice(g, criteria);
+    	final IntRingBuffer worklist = new IntRingBuffer();
+
+    	for (int batch = 0; batch < result.numberOfBatches(); batch++) {
+    		final long[] reached = new long[result.size()];
+    		final long[] pending = new long[result.size()];
+    		long bit = 1L;
+
+    		for (SDGNode c : result.criteriaOfBatch(batch)) {
+    			final int i = result.index(c);
+    			if (pending[i] == 0) {
+    				worklist.add(i);
+    			}
+    			reached[i] |= bit;
+    			pending[i] |= bit;
+    			bit <<= 1;
+    		}
+
+    		while (!worklist.isEmpty()) {
+    			final int w = worklist.poll();
+    			final long d = pending[w];
+    			pending[w] = 0;
+
+    			for (SDGEdge e : edgesToTraverse(result.node(w))) {
+    				if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind()))
+    					continue;
+
+    				final int v = result.index(reachedNode(e));
+    				final long newBits = d & ~reached[v];
+
+    				if (newBits != 0) {
+    					reached[v] |= newBits;
+    					if (pending[v] == 0) {
+    						worklist.add(v);
+    					}
+    					pending[v] |= newBits;
+    				}
+    			}
+    		}
+
+    		result.setReached(batch, reached);
+    	}
+
+    	return result;
+    }
+
     public void setOmittedEdges(Set<SDGEdge.Kind> omit){
         this.omittedEdges = omit;
     }
@@ -17,7 +17,6 @@ import java.util.function.Function;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.Context;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.ContextManager;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.DynamicContextManager;
@@ -128,8 +127,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && visited.add(con)) {
@@ -140,8 +140,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (visited.add(con)) {
                 		worklist_2.add(con);
@@ -178,8 +179,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (visited.add(con)) {
                 		worklist_2.add(con);
@@ -267,8 +269,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && slice.add(con)) {
@@ -279,8 +282,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (slice.add(con)) {
                 		worklist_2.add(con);
@@ -316,8 +320,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (slice.add(con)) {
                 		worklist_2.add(con);
@@ -399,8 +404,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && visited.add(con)) {
@@ -411,8 +417,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (visited.add(con)) {
                 		worklist_2.add(con);
@@ -451,8 +458,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (visited.add(con)) {
                 		worklist_2.add(con);
@@ -542,8 +550,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && slice.add(con)) {
@@ -554,8 +563,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (slice.add(con)) {
                 		worklist_2.add(con);
@@ -593,8 +603,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (slice.add(con)) {
                 		worklist_2.add(con);
@@ -676,8 +687,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && subgraph.contains(con) && visited.add(con)) {
@@ -688,8 +700,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (subgraph.contains(con) && visited.add(con)) {
                 		worklist_2.add(con);
@@ -726,8 +739,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (subgraph.contains(con) && visited.add(con)) {
                 		worklist_2.add(con);
@@ -815,8 +829,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && subgraph.contains(con) && slice.add(con)) {
@@ -827,8 +842,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (subgraph.contains(con) && slice.add(con)) {
                 		worklist_2.add(con);
@@ -864,8 +880,9 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (subgraph.contains(con) && slice.add(con)) {
                 		worklist_2.add(con);
@@ -0,0 +1,154 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.kit.joana.ifc.sdg.graph.CompactSDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * A slice, stored as array of the indices of its nodes in a {@link NodeMarkTable} or a {@link CompactSDG}.
+ * <p>
+ * The set is materialized lazily: iteration just maps the indices to nodes, and the bit set used for {@link #contains(Object)}
+ * is only built on first use. Like the key set of a map, the slice supports the removal of nodes, but no additions.
+ */
+final class DenseSlice extends AbstractSet<SDGNode> {
+
+	/**
+	 * Maps between nodes and their indices.
+	 */
+	interface Nodes {
+		/** @return the index of o, or -1 if o is not a node with an index */
+		int indexOf(Object o);
+		SDGNode node(int idx);
+		/** @return an upper bound of all indices */
+		int capacity();
+	}
+
+	private final Nodes nodes;
+	/** the graph whose node indices are used, or null if the indices belong to a NodeMarkTable */
+	private final CompactSDG compactGraph;
+	private final int[] indices;
+	private int size;
+	/** null as long as no node has been removed and contains has not been called */
+	private BitSet members = null;
+
+	DenseSlice(final CompactSDG g, int[] indices, int size) {
+		this(new Nodes() {
+			@Override
+			public int indexOf(Object o) {
+				if (!(o instanceof SDGNode)) {
+					return -1;
+				}
+				final int idx = g.indexOf((SDGNode) o);
+				return (idx >= 0 && g.node(idx).equals(o)) ? idx : -1;
+			}
+
+			@Override
+			public SDGNode node(int idx) {
+				return g.node(idx);
+			}
+
+			@Override
+			public int capacity() {
+				return g.numberOfNodes();
+			}
+		}, g, indices, size);
+	}
+
+	DenseSlice(Nodes nodes, CompactSDG compactGraph, int[] indices, int size) {
+		this.nodes = nodes;
+		this.compactGraph = compactGraph;
+		this.indices = indices;
+		this.size = size;
+	}
+
+	/**
+	 * @return the set of the indices of the nodes of this slice. Must not be modified.
+	 */
+	BitSet members() {
+		if (members == null) {
+			members = new BitSet(nodes.capacity());
+			for (int i = 0; i < indices.length; i++) {
+				members.set(indices[i]);
+			}
+		}
+		return members;
+	}
+
+	/**
+	 * @return true iff this slice consists of nodes of the given graph
+	 */
+	boolean isSliceOf(CompactSDG g) {
+		return compactGraph == g;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		final int idx = nodes.indexOf(o);
+		return idx >= 0 && members().get(idx);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		final int idx = nodes.indexOf(o);
+		if (idx >= 0 && members().get(idx)) {
+			members.clear(idx);
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<SDGNode> iterator() {
+		return new Iterator<SDGNode>() {
+			private int next = advance(0);
+			private int last = -1;
+
+			private int advance(int from) {
+				if (members != null) {
+					while (from < indices.length && !members.get(indices[from])) {
+						from++;
+					}
+				}
+				return from;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next < indices.length;
+			}
+
+			@Override
+			public SDGNode next() {
+				if (next >= indices.length) throw new NoSuchElementException();
+				last = indices[next];
+				next = advance(next + 1);
+				return nodes.node(last);
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) throw new IllegalStateException();
+				members().clear(last);
+				size--;
+				last = -1;
+			}
+		};
+	}
+}
@@ -17,7 +17,6 @@ import java.util.function.Function;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.Context;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.ContextManager;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.DynamicContextManager;
@@ -128,8 +127,9 @@ public abstract class IPDGSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && visited.add(con)) {
@@ -140,8 +140,9 @@ public abstract class IPDGSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (visited.add(con)) {
                 		worklist.add(con);
@@ -219,8 +220,9 @@ public abstract class IPDGSlicer<C extends Context<C>> implements Slicer {
                 } else if (isAscendingEdge(e.getKind())) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = conMan.ascend(n, call, entry, next);
 
                         for (C con : newContexts) {
                         	if (con != null && slice.add(con)) {
@@ -231,8 +233,9 @@ public abstract class IPDGSlicer<C extends Context<C>> implements Slicer {
 
                 } else if (isDescendingEdge(e.getKind())) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = conMan.descend(n, call, entry, next);
 
                     if (slice.add(con)) {
                 		worklist.add(con);
@@ -0,0 +1,201 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * The result of a {@link MultiCriteriaSlicer}: the slices of a list of criteria.
+ * <p>
+ * The nodes of the graph are indexed by their id (shifted by the smallest id of the graph), and for each
+ * batch of {@link #BATCH_SIZE} criteria a single long word per node records which slices contain that node.
+ * Slices of single criteria are only materialized on demand, see {@link #getSlice(int)}.
+ * <p>
+ * Slicers implementing {@link MultiCriteriaSlicer} use {@link #index(SDGNode)}, {@link #criteriaOfBatch(int)}
+ * and {@link #setReached(int, long[])} to fill in the result of each batch.
+ */
+public final class MultiCriteriaSlice {
+
+	/** number of criteria that are sliced in a single traversal */
+	public static final int BATCH_SIZE = Long.SIZE;
+
+	private final List<SDGNode> criteria;
+	private final int minId;
+	private final SDGNode[] nodes;
+	private final long[][] reached;
+
+	public MultiCriteriaSlice(SDG g, List<? extends SDGNode> criteria) {
+		this.criteria = Collections.unmodifiableList(new ArrayList<SDGNode>(criteria));
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (SDGNode n : g.vertexSet()) {
+			min = Math.min(min, n.getId());
+			max = Math.max(max, n.getId());
+		}
+
+		if (min > max) {
+			// empty graph
+			min = 0;
+			max = -1;
+		}
+
+		this.minId = min;
+		this.nodes = new SDGNode[max - min + 1];
+		for (SDGNode n : g.vertexSet()) {
+			nodes[n.getId() - minId] = n;
+		}
+		this.reached = new long[numberOfBatches()][];
+	}
+
+	/**
+	 * @return the dense index of node n, in the range [0, {@link #size()})
+	 */
+	public int index(SDGNode n) {
+		return n.getId() - minId;
+	}
+
+	/**
+	 * @return the node with the given dense index, or null if there is no node with this index
+	 */
+	public SDGNode node(int index) {
+		return nodes[index];
+	}
+
+	/**
+	 * @return the size of the range of dense node indices
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	public int numberOfBatches() {
+		return (criteria.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+	}
+
+	/**
+	 * @return the criteria of the given batch. The i-th criterion of the batch corresponds to bit i of the reached words.
+	 */
+	public List<SDGNode> criteriaOfBatch(int batch) {
+		final int from = batch * BATCH_SIZE;
+		return criteria.subList(from, Math.min(from + BATCH_SIZE, criteria.size()));
+	}
+
+	/**
+	 * Stores the result of slicing a batch.
+	 * @param batch the number of the batch
+	 * @param reachedBy maps each dense node index to the word of criteria whose slices contain the node
+	 */
+	public void setReached(int batch, long[] reachedBy) {
+		if (reachedBy.length != nodes.length) throw new IllegalArgumentException();
+		reached[batch] = reachedBy;
+	}
+
+	public List<SDGNode> getCriteria() {
+		return criteria;
+	}
+
+	/**
+	 * @return true iff the slice of the given criterion contains n
+	 */
+	public boolean contains(int criterion, SDGNode n) {
+		final int idx = n.getId() - minId;
+		if (idx < 0 || idx >= nodes.length || nodes[idx] != n) {
+			return false;
+		}
+
+		return (reached[criterion / BATCH_SIZE][idx] & (1L << (criterion % BATCH_SIZE))) != 0;
+	}
+
+	/**
+	 * Calls action with the number of each criterion whose slice contains n, in ascending order.
+	 */
+	public void forEachCriterionContaining(SDGNode n, IntConsumer action) {
+		final int idx = n.getId() - minId;
+		if (idx < 0 || idx >= nodes.length || nodes[idx] != n) {
+			return;
+		}
+
+		for (int batch = 0; batch < reached.length; batch++) {
+			long word = reached[batch][idx];
+			while (word != 0) {
+				final int bit = Long.numberOfTrailingZeros(word);
+				action.accept(batch * BATCH_SIZE + bit);
+				word &= word - 1;
+			}
+		}
+	}
+
+	/**
+	 * @return a view of the slice of the given criterion. The view is computed lazily by a scan over all nodes
+	 * and should be copied if it is used repeatedly.
+	 */
+	public Collection<SDGNode> getSlice(final int criterion) {
+		final long[] words = reached[criterion / BATCH_SIZE];
+		final long mask = 1L << (criterion % BATCH_SIZE);
+
+		return new AbstractCollection<SDGNode>() {
+			private int size = -1;
+
+			@Override
+			public Iterator<SDGNode> iterator() {
+				return new Iterator<SDGNode>() {
+					private int next = advance(0);
+
+					private int advance(int from) {
+						while (from < words.length && (words[from] & mask) == 0) {
+							from++;
+						}
+						return from;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return next < words.length;
+					}
+
+					@Override
+					public SDGNode next() {
+						if (next >= words.length) throw new NoSuchElementException();
+						final SDGNode n = nodes[next];
+						next = advance(next + 1);
+						return n;
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof SDGNode && MultiCriteriaSlice.this.contains(criterion, (SDGNode) o);
+			}
+
+			@Override
+			public int size() {
+				if (size < 0) {
+					int count = 0;
+					for (long w : words) {
+						if ((w & mask) != 0) {
+							count++;
+						}
+					}
+					size = count;
+				}
+				return size;
+			}
+		};
+	}
+}
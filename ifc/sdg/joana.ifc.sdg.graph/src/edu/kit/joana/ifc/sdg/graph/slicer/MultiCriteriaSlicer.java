@@ -0,0 +1,34 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.List;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * A slicer that is able to compute the slices of many criteria at once.
+ * <p>
+ * Instead of one traversal per criterion, every node carries a 64-bit word whose i-th bit tells whether
+ * the node belongs to the slice of the i-th criterion. These words are propagated in one traversal of the graph,
+ * so up to {@link MultiCriteriaSlice#BATCH_SIZE} criteria are handled at the price of a single slice.
+ * Larger lists of criteria are processed in batches.
+ *
+ * @see MultiCriteriaSlice
+ */
+public interface MultiCriteriaSlicer extends Slicer {
+
+	/**
+	 * Computes the slice of each single criterion. The slice of the i-th criterion in the result is the same set
+	 * of nodes as computed by {@code slice(criteria.get(i))}.
+	 *
+	 * @param criteria the criteria, each of which is sliced separately
+	 * @return the slices of all criteria
+	 */
+	public MultiCriteriaSlice sliceEach(List<? extends SDGNode> criteria);
+}
@@ -0,0 +1,165 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Arrays;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * A reusable table of node marks for slicers, indexed by the dense node ids of an SDG.
+ * <p>
+ * Each node may carry one of two marks (phase 1 or phase 2). The marks of all nodes are cleared in constant time by
+ * {@link #clear()}, which just starts a new generation of marks. Hence, once the table has been allocated, marking
+ * nodes does not allocate any memory.<br>
+ * Nodes are addressed by their ids, which stay valid if the table grows while a slice is computed, even if it grows
+ * towards smaller ids. The table also records which node belongs to which id, so that slices can be kept as arrays of
+ * indices (see {@link #slice(int[], int)}). The node array is never modified for entries that are already in use,
+ * so slices computed earlier stay valid.
+ */
+final class NodeMarkTable {
+
+	static final int UNMARKED = 0;
+	static final int PHASE1 = 1;
+	static final int PHASE2 = 2;
+
+	private final SDG g;
+	private int offset;
+	private SDGNode[] nodes;
+	private int[] marks;
+	/** marks[i] - base is the mark of node i, if marks[i] > base */
+	private int base = 0;
+
+	NodeMarkTable(SDG g) {
+		this.g = g;
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (SDGNode n : g.vertexSet()) {
+			min = Math.min(min, n.getId());
+			max = Math.max(max, n.getId());
+		}
+
+		if (min > max) {
+			min = 0;
+			max = 0;
+		}
+
+		this.offset = min;
+		this.nodes = new SDGNode[max - min + 1];
+		this.marks = new int[max - min + 1];
+	}
+
+	SDG getGraph() {
+		return g;
+	}
+
+	/**
+	 * Removes all marks.
+	 */
+	void clear() {
+		if (base >= Integer.MAX_VALUE - 3) {
+			Arrays.fill(marks, 0);
+			base = 0;
+		}
+		base += 2;
+	}
+
+	/**
+	 * Adds n to the table. Grows the table if the id of n is not in the range of the table. If another node with the
+	 * same id is already in the table, e.g. because the graph has been changed, the node array is copied first, so
+	 * that slices computed earlier keep the old node.
+	 * @return the id of n, which addresses n in the table
+	 */
+	int add(SDGNode n) {
+		final int id = n.getId();
+		int idx = id - offset;
+		if (idx < 0 || idx >= nodes.length) {
+			grow(id);
+			idx = id - offset;
+		}
+		if (nodes[idx] != n) {
+			if (nodes[idx] != null) {
+				nodes = nodes.clone();
+			}
+			nodes[idx] = n;
+		}
+		return id;
+	}
+
+	int mark(int id) {
+		final int m = marks[id - offset] - base;
+		return m > 0 ? m : UNMARKED;
+	}
+
+	void setMark(int id, int mark) {
+		marks[id - offset] = base + mark;
+	}
+
+	SDGNode node(int id) {
+		return nodes[id - offset];
+	}
+
+	/**
+	 * @param ids ids of nodes of the table, is overwritten
+	 * @param size number of valid entries of ids
+	 * @return the slice consisting of the given nodes
+	 */
+	DenseSlice slice(int[] ids, int size) {
+		for (int i = 0; i < size; i++) {
+			ids[i] -= offset;
+		}
+		return new DenseSlice(snapshot(), null, ids, size);
+	}
+
+	/**
+	 * @return the mapping between nodes and indices in the current state of the table. It stays valid
+	 * for all nodes that are already in the table, even if the table grows later.
+	 */
+	private DenseSlice.Nodes snapshot() {
+		final SDGNode[] nodes = this.nodes;
+		final int offset = this.offset;
+		return new DenseSlice.Nodes() {
+			@Override
+			public int indexOf(Object o) {
+				if (!(o instanceof SDGNode)) {
+					return -1;
+				}
+				final int idx = ((SDGNode) o).getId() - offset;
+				return (idx >= 0 && idx < nodes.length && nodes[idx] == o) ? idx : -1;
+			}
+
+			@Override
+			public SDGNode node(int idx) {
+				return nodes[idx];
+			}
+
+			@Override
+			public int capacity() {
+				return nodes.length;
+			}
+		};
+	}
+
+	private void grow(int id) {
+		final int newOffset = Math.min(offset, id);
+		final int newLength = Math.max(offset + nodes.length, id + 1) - newOffset;
+		// allocate a larger table than needed, so that a growing graph does not lead to a copy for each new node
+		final int extra = Math.min(newLength / 2, Integer.MAX_VALUE - newLength);
+		final int start = (id < offset) ? newOffset - extra : newOffset;
+		final int length = newLength + extra;
+		final SDGNode[] newNodes = new SDGNode[length];
+		final int[] newMarks = new int[length];
+		System.arraycopy(nodes, 0, newNodes, offset - start, nodes.length);
+		System.arraycopy(marks, 0, newMarks, offset - start, marks.length);
+		// the old node array may still be referenced by earlier slices, so it is left unchanged
+		nodes = newNodes;
+		marks = newMarks;
+		offset = start;
+	}
+}
@@ -10,33 +10,45 @@ package edu.kit.joana.ifc.sdg.graph.slicer;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
+import edu.kit.joana.util.collections.IntRingBuffer;
+import gnu.trove.list.array.TIntArrayList;
 
 
 /**
  * Implementation of the standard 2-phase slicer.
  *
+ * This class is not thread-safe: the slicer keeps the marks of the visited nodes in a table that is reused by all
+ * slices, so an instance must not be used by several threads at the same time. Slicing with an instance that is
+ * already slicing in another thread throws an {@link IllegalStateException}.
+ *
  * -- Created on September 6, 2005
  *
  * @author  Christian Hammer, Dennis Giffhorn
  */
-public abstract class SummarySlicer implements Slicer {
+public abstract class SummarySlicer implements MultiCriteriaSlicer {
 
 	private final Logger debug = Log.getLogger(Log.L_SDG_GRAPH_DEBUG);
     protected Set<SDGEdge.Kind> omittedEdges = SDGEdge.Kind.threadEdges();
     protected SDG g;
 
+    /* reused by all slices, hence a slicer must not be shared between threads */
+    private NodeMarkTable marks = null;
+    private final IntRingBuffer phase1Worklist = new IntRingBuffer();
+    private final IntRingBuffer phase2Worklist = new IntRingBuffer();
+    /* set while a slice is computed with the table and the worklists above */
+    private final AtomicBoolean slicing = new AtomicBoolean(false);
+
     public interface EdgePredicate {
         public boolean phase1();
         public boolean follow(SDGEdge e);
@@ -68,21 +80,61 @@ public abstract class SummarySlicer implements Slicer {
     }
 
     public Collection<SDGNode> slice(Collection<SDGNode> criteria) {
-        Map<SDGNode, SDGNode> slice = new HashMap<SDGNode, SDGNode>();
-        LinkedList<SDGNode> worklist = new LinkedList<SDGNode>();
-        LinkedList<SDGNode> nextWorklist = new LinkedList<SDGNode>();
+        return slice(criteria, null);
+    }
+
+    public Collection<SDGNode> subgraphSlice(Collection<SDGNode> criteria, Collection<SDGNode> sub) {
+        return slice(criteria, sub);
+    }
+
+    /**
+     * The 2-phase slicing algorithm. The marks of the visited nodes are kept in a table indexed by the node ids, and
+     * the worklists contain the ids of the nodes, so no memory is allocated per visited node.
+     *
+     * @param criteria  the slicing criteria
+     * @param sub       the subgraph the slice is restricted to, or null
+     * @return          the slice, which is materialized lazily
+     */
+    private Collection<SDGNode> slice(Collection<SDGNode> criteria, Collection<SDGNode> sub) {
+        if (!slicing.compareAndSet(false, true)) {
+            throw new IllegalStateException("SummarySlicer is used by several threads at the same time");
+        }
+
+        try {
+            return slice(marks(), criteria, sub);
+        } finally {
+            slicing.set(false);
+        }
+    }
+
+    private Collection<SDGNode> slice(NodeMarkTable marks, Collection<SDGNode> criteria, Collection<SDGNode> sub) {
+        final IntRingBuffer phase1Worklist = this.phase1Worklist;
+        final IntRingBuffer phase2Worklist = this.phase2Worklist;
+        TIntArrayList visited = new TIntArrayList();
+        IntRingBuffer worklist = phase1Worklist;
+        IntRingBuffer nextWorklist = phase2Worklist;
         EdgePredicate p = phase1Predicate();
 
-        worklist.addAll(criteria);
+        marks.clear();
+        phase1Worklist.clear();
+        phase2Worklist.clear();
 
+        final int criteriaMark = phase1Predicate().phase1() ? NodeMarkTable.PHASE1 : NodeMarkTable.PHASE2;
         for (SDGNode v : criteria) {
-            slice.put(v, phase1Predicate().phase1() ? v : null);
+            if (sub == null || sub.contains(v)) {
+                final int i = marks.add(v);
+                worklist.add(i);
+                if (marks.mark(i) == NodeMarkTable.UNMARKED) {
+                    visited.add(i);
+                }
+                marks.setMark(i, criteriaMark);
+            }
         }
 
         while (!worklist.isEmpty()) {
 
             while (!worklist.isEmpty()) {
-                SDGNode w = worklist.poll();
+                SDGNode w = marks.node(worklist.poll());
 
                 for (SDGEdge e : edgesToTraverse(w)) {
 
@@ -94,22 +146,45 @@ public abstract class SummarySlicer implements Slicer {
 
                     SDGNode v = reachedNode(e);
 
-                    if (!slice.containsKey(v) ||
-                            (p.phase1() &&
-                            slice.get(v) == null)) {
+                    if (sub != null && !sub.contains(v)) {
+                        continue;
+                    }
+
+                    final int i = marks.add(v);
+                    final int mark = marks.mark(i);
+
+                    if (mark == NodeMarkTable.UNMARKED ||
+                            (p.phase1() && mark == NodeMarkTable.PHASE2)) {
 
                         // if node was not yet added or node was added in phase2
                         if (p.saveInOtherWorklist(e)) {
 
-                            debug.outln("OTHER\t" + e);
-                            nextWorklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
+                            if (mark != NodeMarkTable.UNMARKED) {
+                                // already saved
+                                continue;
+                            }
+                            if (debug.isEnabled()) {
+                                debug.outln("OTHER\t" + e);
+                            }
+                            nextWorklist.add(i);
+                            // a saved node is marked for phase 2, so that it is still traversed in phase 1
+                            // if it is reached via an edge that is followed
+                            marks.setMark(i, NodeMarkTable.PHASE2);
 
                         } else if (p.follow(e)) {
 
-                        	debug.outln("FOLLOW\t" + e);
-                            worklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
+                            if (debug.isEnabled()) {
+                                debug.outln("FOLLOW\t" + e);
+                            }
+                            worklist.add(i);
+                            marks.setMark(i, p.phase1() ? NodeMarkTable.PHASE1 : NodeMarkTable.PHASE2);
+
+                        } else {
+                            continue;
+                        }
+
+                        if (mark == NodeMarkTable.UNMARKED) {
+                            visited.add(i);
                         }
                     }
                 }
@@ -122,64 +197,115 @@ public abstract class SummarySlicer implements Slicer {
             p =  phase2Predicate();
         }
 
-        return slice.keySet();
+        return marks.slice(visited.toArray(), visited.size());
     }
 
-    public Collection<SDGNode> subgraphSlice(Collection<SDGNode> criteria, Collection<SDGNode> sub) {
-        Map<SDGNode, SDGNode> slice = new HashMap<SDGNode, SDGNode>();
-        LinkedList<SDGNode> worklist = new LinkedList<SDGNode>();
-        LinkedList<SDGNode> nextWorklist = new LinkedList<SDGNode>();
-        EdgePredicate p = phase1Predicate();
+    private NodeMarkTable marks() {
+        if (marks == null || marks.getGraph() != g) {
+            marks = new NodeMarkTable(g);
+        }
+        return marks;
+    }
 
-        for (SDGNode v : criteria) {
-            if (sub.contains(v)) {
-                worklist.add(v);
-                slice.put(v, phase1Predicate().phase1() ? v : null);
+    /**
+     * Computes the slices of all criteria in batches of {@link MultiCriteriaSlice#BATCH_SIZE}.
+     * Both phases propagate words of criteria instead of single nodes, and the marks of {@link #slice(Collection)}
+     * are kept as two words per node: the criteria for which a node is traversed in phase 1, and the criteria for
+     * which it is saved for phase 2. As the slice of a criterion does not depend on the order of traversal,
+     * the slice of each criterion equals {@link #slice(SDGNode)}.
+     */
+    public MultiCriteriaSlice sliceEach(List<? extends SDGNode> criteria) {
+        final MultiCriteriaSlice result = new MultiCriteriaSlice(g, criteria);
+        final IntRingBuffer worklist = new IntRingBuffer();
+
+        for (int batch = 0; batch < result.numberOfBatches(); batch++) {
+            final long[] phase1 = new long[result.size()];
+            final long[] saved = new long[result.size()];
+            final long[] pending = new long[result.size()];
+            long bit = 1L;
+
+            for (SDGNode c : result.criteriaOfBatch(batch)) {
+                final int i = result.index(c);
+                if (pending[i] == 0) {
+                    worklist.add(i);
+                }
+                phase1[i] |= bit;
+                pending[i] |= bit;
+                bit <<= 1;
             }
-        }
 
-        while (!worklist.isEmpty()) {
+            // phase 1
+            final EdgePredicate p1 = phase1Predicate();
             while (!worklist.isEmpty()) {
-                SDGNode w = worklist.poll();
-
-                for (SDGEdge e : edgesToTraverse(w)) {
-
-                    if (!e.getKind().isSDGEdge() ||
-                            omittedEdges.contains(e.getKind())) {
+                final int w = worklist.poll();
+                final long d = pending[w];
+                pending[w] = 0;
 
+                for (SDGEdge e : edgesToTraverse(result.node(w))) {
+                    if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
                         continue;
                     }
 
-                    SDGNode v = reachedNode(e);
+                    final int v = result.index(reachedNode(e));
 
-                    if (sub.contains(v) &&
-                            (!slice.containsKey(v) || (p.phase1() && slice.get(v) == null))) {
+                    if (p1.saveInOtherWorklist(e)) {
+                        saved[v] |= d & ~phase1[v];
 
-                        // if node was not yet added or node was added in phase2
-                        if (p.saveInOtherWorklist(e)) {
+                    } else if (p1.follow(e)) {
+                        final long newBits = d & ~phase1[v];
+                        if (newBits == 0) {
+                            continue;
+                        }
+                        phase1[v] |= newBits;
+                        if (pending[v] == 0) {
+                            worklist.add(v);
+                        }
+                        pending[v] |= newBits;
+                    }
+                }
+            }
 
-                        	debug.outln("OTHER\t" + e);
-                            nextWorklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
+            // phase 2: the nodes saved in phase 1 form the initial worklist. Nodes that were traversed in
+            // phase 1 for a criterion need not be traversed again, since phase 2 follows a subset of the edges of phase 1.
+            final long[] reached = phase1;
+            for (int i = 0; i < saved.length; i++) {
+                final long d = saved[i] & ~reached[i];
+                if (d != 0) {
+                    worklist.add(i);
+                    pending[i] = d;
+                    reached[i] |= d;
+                }
+            }
 
-                        } else if (p.follow(e)) {
+            final EdgePredicate p2 = phase2Predicate();
+            while (!worklist.isEmpty()) {
+                final int w = worklist.poll();
+                final long d = pending[w];
+                pending[w] = 0;
 
-                        	debug.outln("FOLLOW\t" + e);
+                for (SDGEdge e : edgesToTraverse(result.node(w))) {
+                    if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
+                        continue;
+                    }
+
+                    final int v = result.index(reachedNode(e));
+                    final long newBits = d & ~reached[v];
+
+                    if (newBits != 0 && (p2.saveInOtherWorklist(e) || p2.follow(e))) {
+                        // in phase 2, saved nodes end up in the current worklist as well
+                        reached[v] |= newBits;
+                        if (pending[v] == 0) {
                             worklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
                         }
+                        pending[v] |= newBits;
                     }
                 }
             }
 
-            // swap worklists and predicates
-            debug.outln("swap");
-
-            worklist = nextWorklist;
-            p =  phase2Predicate();
+            result.setReached(batch, reached);
         }
 
-        return slice.keySet();
+        return result;
     }
 
     public void setOmittedEdges(Set<SDGEdge.Kind> omit){
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
@@ -27,8 +28,10 @@ import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveSlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlice;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlicer;
 import edu.kit.joana.ifc.sdg.graph.slicer.SDGSlicer;
-import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.util.collections.IntRingBuffer;
 
 
 /**
@@ -41,7 +44,7 @@ import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
  *
  * @author hammer, giffhorn
  */
-public abstract class Iterative2PhaseSlicer implements Slicer {
+public abstract class Iterative2PhaseSlicer implements MultiCriteriaSlicer {
     interface Phase {
         public boolean follow(SDGEdge e);
         public boolean saveInOtherWorklist(SDGEdge e);
@@ -128,6 +131,90 @@ public abstract class Iterative2PhaseSlicer implements Slicer {
         return slice.keySet();
     }
 
+    /**
+     * Computes the slices of all criteria in batches of {@link MultiCriteriaSlice#BATCH_SIZE}.
+     * For every node, the words phase1 and phase2 record for which criteria the node has been marked
+     * with the respective phase. Like in {@link #slice(Collection)}, a phase 2 mark is upgraded to phase 1 if the
+     * node is reached again in phase 1 or via a thread edge.
+     */
+    public MultiCriteriaSlice sliceEach(List<? extends SDGNode> criteria) {
+        final MultiCriteriaSlice result = new MultiCriteriaSlice(g, criteria);
+        final IntRingBuffer worklist = new IntRingBuffer();
+        final Phase phase1 = phase1();
+        final Phase phase2 = phase2();
+
+        for (int batch = 0; batch < result.numberOfBatches(); batch++) {
+            final long[] marked1 = new long[result.size()];
+            final long[] marked2 = new long[result.size()];
+            final long[] pending1 = new long[result.size()];
+            final long[] pending2 = new long[result.size()];
+            long bit = 1L;
+
+            for (SDGNode c : result.criteriaOfBatch(batch)) {
+                final int i = result.index(c);
+                if ((pending1[i] | pending2[i]) == 0) {
+                    worklist.add(i);
+                }
+                marked1[i] |= bit;
+                pending1[i] |= bit;
+                bit <<= 1;
+            }
+
+            while (!worklist.isEmpty()) {
+                final int w = worklist.poll();
+                final long d1 = pending1[w];
+                // bits that have been upgraded in the meantime are propagated in phase 1 only
+                final long d2 = pending2[w] & ~marked1[w];
+                pending1[w] = 0;
+                pending2[w] = 0;
+
+                for (SDGEdge e : edgesToTraverse(result.node(w))) {
+                    if (!e.getKind().isSDGEdge()) continue;
+
+                    final int v = result.index(reachedNode(e));
+                    long toPhase1 = 0;
+                    long toPhase2 = 0;
+
+                    if (d1 != 0 && phase1.follow(e)) {
+                        final long newBits = d1 & ~marked1[v];
+                        if (phase1.saveInOtherWorklist(e)) {
+                            toPhase2 |= newBits & ~marked2[v];
+                        } else {
+                            toPhase1 |= newBits;
+                        }
+                    }
+
+                    if (d2 != 0 && phase2.follow(e)) {
+                        if (e.getKind().isThreadEdge()) {
+                            toPhase1 |= d2 & ~marked1[v];
+                        } else {
+                            toPhase2 |= d2 & ~(marked1[v] | marked2[v]);
+                        }
+                    }
+
+                    toPhase2 &= ~toPhase1;
+
+                    if ((toPhase1 | toPhase2) != 0) {
+                        if ((pending1[v] | pending2[v]) == 0) {
+                            worklist.add(v);
+                        }
+                        marked1[v] |= toPhase1;
+                        marked2[v] = (marked2[v] | toPhase2) & ~marked1[v];
+                        pending1[v] |= toPhase1;
+                        pending2[v] |= toPhase2;
+                    }
+                }
+            }
+
+            for (int i = 0; i < marked1.length; i++) {
+                marked1[i] |= marked2[i];
+            }
+            result.setReached(batch, marked1);
+        }
+
+        return result;
+    }
+
     /**
      * Computes a forward slice restricted to a given set of nodes.
      *
@@ -15,7 +15,6 @@ import java.util.Set;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.Context;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.ContextManager;
 
@@ -96,8 +95,9 @@ public class Context2PhaseSlicer<C extends Context<C>> {
 
                     } else {
                         // ascend to the calling method
-                    	SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] cons = man.ascend(reached, callSite ,next);
+                    	SDGNode call = sdg.getCallSiteFor(e);
+                    	SDGNode entry = sdg.getEntryFor(e);
+                        C[] cons = man.ascend(reached, call, entry, next);
 
                         // add the contexts to the worklist
                         for (C c : cons) {
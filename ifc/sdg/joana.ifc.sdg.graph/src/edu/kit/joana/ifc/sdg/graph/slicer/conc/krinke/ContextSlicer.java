@@ -17,7 +17,6 @@ import java.util.Set;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.Context;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.ContextManager;
 
@@ -105,8 +104,9 @@ public class ContextSlicer<C extends Context<C>> {
                 } else if (e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.PARAMETER_IN) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.getContext().isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = man.ascend(n, callSite, next.getContext());
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = man.ascend(n, call, entry, next.getContext());
 
                         for (C con : newContexts) {
                         	if (con != null) {
@@ -117,8 +117,9 @@ public class ContextSlicer<C extends Context<C>> {
 
                 } else if (e.getKind() == SDGEdge.Kind.PARAMETER_OUT) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = man.descend(n, callSite, next.getContext());
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = man.descend(n, call, entry, next.getContext());
                     addToWorklist(worklist_2, n, con, next.getStates(), next.getThread());
 
                 } else if (threadEdges.contains(e.getKind())) {
@@ -152,8 +153,9 @@ public class ContextSlicer<C extends Context<C>> {
 
                 } else if (e.getKind() == SDGEdge.Kind.PARAMETER_OUT) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = man.descend(n, callSite, next.getContext());
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = man.descend(n, call, entry, next.getContext());
                     addToWorklist(worklist_2, n, con, next.getStates(), next.getThread());
 
                 } else if (threadEdges.contains(e.getKind())) {
@@ -227,8 +229,9 @@ public class ContextSlicer<C extends Context<C>> {
                 } else if (e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.PARAMETER_IN) {
                     // go to the calling procedure
                 	if (n.isInThread(next.getThread()) && next.getContext().isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = man.ascend(n, callSite, next.getContext());
+                        SDGNode call = sdg.getCallSiteFor(e);
+                        SDGNode entry = sdg.getEntryFor(e);
+                        C[] newContexts = man.ascend(n, call, entry, next.getContext());
 
                         for (C con : newContexts) {
                         	if (con != null) {
@@ -239,8 +242,9 @@ public class ContextSlicer<C extends Context<C>> {
 
                 } else if (e.getKind() == SDGEdge.Kind.PARAMETER_OUT) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = man.descend(n, callSite, next.getContext());
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = man.descend(n, call, entry, next.getContext());
                     addToWorklist(worklist_2, n, con, next.getStates(), next.getThread());
 
                 } else {
@@ -276,8 +280,9 @@ public class ContextSlicer<C extends Context<C>> {
 
                 } else if (e.getKind() == SDGEdge.Kind.PARAMETER_OUT) {
                     // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = man.descend(n, callSite, next.getContext());
+                    SDGNode call = sdg.getCallSiteFor(e);
+                    SDGNode entry = sdg.getEntryFor(e);
+                    C con = man.descend(n, call, entry, next.getContext());
                     addToWorklist(worklist_2, n, con, next.getStates(), next.getThread());
 
                 } else {
@@ -13,6 +13,7 @@ import java.util.List;
 
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFGReachability;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.DynamicContextManager.DynamicContext;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.FoldedCFG;
 
@@ -27,6 +28,8 @@ public class ReachabilityChecker {
     private final ReachabilityCache<DynamicContext> cache;
     /** A folded version of the ICFG that is folded with Krinke's two-pass folding algorithm. */
     private final FoldedCFG foldedIcfg;
+    /** Context-insensitive reachability of the nodes of the folded ICFG, used to reject queries early. */
+    private final CFGReachability nodeReachability;
 
     /** Creates a new instance of ReachabilityChecker
      * Needs a ICFG that shall be used for the reaching tests and a folded
@@ -38,6 +41,7 @@ public class ReachabilityChecker {
     public ReachabilityChecker(FoldedCFG foldedIcfg) {
         this.cache = new ReachabilityCache<>();
         this.foldedIcfg = foldedIcfg;
+        this.nodeReachability = new CFGReachability(foldedIcfg, CFGReachability.Mode.CONTROL_FLOW);
     }
 
     /** Grants access to the cache for inheriting classes.
@@ -62,6 +66,12 @@ public class ReachabilityChecker {
             return false;
         }
 
+        // a context can only reach the target if its node reaches the node of the target
+        if (nodeReachability.contains(source.getNode()) && nodeReachability.contains(target.getNode())
+                && !nodeReachability.reaches(source.getNode(), target.getNode())) {
+            return false;
+        }
+
         // first, check cache
         // if not cached, traverse ICFG
         if (cache.contains(source, target) && cache.isReaching(source, target)) {
@@ -0,0 +1,430 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * A reachability index for (interprocedural) control flow graphs, e.g. the graphs built by
+ * {@link edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder#extractICFGIncludingJoins}.
+ * <p>
+ * Two-phase traversals of a cfg, like the one of {@link edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGForward}, are
+ * reachability in the product of the cfg with the two phases. The index is built on this product graph: its strongly
+ * connected components are condensed and numbered in reverse topological order, and each component gets
+ * {@link #LABELS} interval labels from randomized depth-first traversals of the condensed graph. A query is answered
+ * negatively in constant time if the topological numbers or one of the labels exclude reachability. Otherwise a
+ * depth-first search of the condensed graph is done, which is pruned with the same criteria.
+ * <p>
+ * The index is not synchronized, it must not be queried by multiple threads at once.
+ */
+public final class CFGReachability {
+
+	/**
+	 * Determines which edges a traversal follows and which phase it is in after following an edge.
+	 */
+	public enum Mode {
+		/**
+		 * Like {@link edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGForward}: b is reached from a iff b is in the forward
+		 * slice of a. Only control flow, call, return, fork and join edges are followed. Call edges lead to phase 2, in
+		 * which return edges are not followed. Fork and join edges lead back to phase 1.
+		 */
+		SLICE {
+			@Override
+			int next(final int phase, final SDGEdge.Kind kind) {
+				switch (kind) {
+				case CONTROL_FLOW:
+				case CALL:
+				case RETURN:
+				case FORK:
+				case JOIN:
+					break;
+				default:
+					return NOT_FOLLOWED;
+				}
+				if (phase == 1) {
+					return (kind == SDGEdge.Kind.CALL ? 2 : 1);
+				} else if (kind == SDGEdge.Kind.RETURN) {
+					return NOT_FOLLOWED;
+				} else {
+					return (kind.isThreadEdge() ? 1 : 2);
+				}
+			}
+		},
+
+		/**
+		 * Like {@link edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadRegions#reaches}: all edges are followed.
+		 * Call and fork edges lead to phase 2, in which return edges are not followed.
+		 */
+		THREAD_REGIONS {
+			@Override
+			int next(final int phase, final SDGEdge.Kind kind) {
+				if (phase == 1) {
+					return (kind == SDGEdge.Kind.CALL || kind == SDGEdge.Kind.FORK ? 2 : 1);
+				} else {
+					return (kind == SDGEdge.Kind.RETURN ? NOT_FOLLOWED : 2);
+				}
+			}
+		},
+
+		/**
+		 * Plain reachability over control flow, call and return edges, ignoring calling contexts. This over-approximates
+		 * every context-sensitive traversal of these edges.
+		 */
+		CONTROL_FLOW {
+			@Override
+			int next(final int phase, final SDGEdge.Kind kind) {
+				if (kind == SDGEdge.Kind.CONTROL_FLOW || kind == SDGEdge.Kind.CALL || kind == SDGEdge.Kind.RETURN) {
+					return 1;
+				}
+				return NOT_FOLLOWED;
+			}
+		};
+
+		private static final int NOT_FOLLOWED = 0;
+
+		/**
+		 * @return the phase of the traversal after following an edge of the given kind in the given phase (1 or 2), or
+		 * {@link #NOT_FOLLOWED}
+		 */
+		abstract int next(int phase, SDGEdge.Kind kind);
+	}
+
+	/** number of interval labels per component */
+	public static final int LABELS = 2;
+
+	private static final int NO_ENTRY = -1;
+
+	private final TObjectIntHashMap<SDGNode> node2index;
+	/** component of each state, the state of node i in phase p is 2 * i + p - 1 */
+	private final int[] comp;
+	/** successors of the components in compressed sparse row format */
+	private final int[] succStart;
+	private final int[] succ;
+	/** interval labels: component c has the intervals [low[k][c], post[k][c]] */
+	private final int[][] low;
+	private final int[][] post;
+
+	private final int[] visited;
+	private int query = 0;
+	private final int[] stack;
+
+	public CFGReachability(final CFG cfg, final Mode mode) {
+		this(cfg, mode, new Random(0));
+	}
+
+	public CFGReachability(final CFG cfg, final Mode mode, final Random random) {
+		final SDGNode[] nodes = cfg.vertexSet().toArray(new SDGNode[cfg.vertexSet().size()]);
+		node2index = new TObjectIntHashMap<SDGNode>(nodes.length, 0.5f, NO_ENTRY);
+		for (int i = 0; i < nodes.length; i++) {
+			node2index.put(nodes[i], i);
+		}
+
+		// product graph of the cfg and the two phases
+		final int states = 2 * nodes.length;
+		final int[] stateStart = new int[states + 1];
+		int[] stateSucc = new int[16];
+		int edges = 0;
+		for (int i = 0; i < nodes.length; i++) {
+			for (int phase = 1; phase <= 2; phase++) {
+				final int s = 2 * i + phase - 1;
+				stateStart[s] = edges;
+				for (final SDGEdge e : cfg.outgoingEdgesOf(nodes[i])) {
+					final int nextPhase = mode.next(phase, e.getKind());
+					final int j = node2index.get(e.getTarget());
+					if (nextPhase == Mode.NOT_FOLLOWED || j == NO_ENTRY) {
+						continue;
+					}
+					if (edges == stateSucc.length) {
+						stateSucc = Arrays.copyOf(stateSucc, 2 * edges);
+					}
+					stateSucc[edges++] = 2 * j + nextPhase - 1;
+				}
+			}
+		}
+		stateStart[states] = edges;
+
+		comp = new int[states];
+		final int comps = condense(states, stateStart, stateSucc);
+
+		// condensed graph, without duplicate edges and self loops
+		final int[] compStart = new int[comps + 1];
+		final int[][] members = membersOfComponents(comps);
+		final int[] lastSource = new int[comps];
+		Arrays.fill(lastSource, NO_ENTRY);
+		int[] compSucc = new int[16];
+		int compEdges = 0;
+		for (int c = 0; c < comps; c++) {
+			compStart[c] = compEdges;
+			for (final int s : members[c]) {
+				for (int k = stateStart[s]; k < stateStart[s + 1]; k++) {
+					final int d = comp[stateSucc[k]];
+					if (d != c && lastSource[d] != c) {
+						lastSource[d] = c;
+						if (compEdges == compSucc.length) {
+							compSucc = Arrays.copyOf(compSucc, 2 * compEdges);
+						}
+						compSucc[compEdges++] = d;
+					}
+				}
+			}
+		}
+		compStart[comps] = compEdges;
+		succStart = compStart;
+		succ = Arrays.copyOf(compSucc, compEdges);
+
+		low = new int[LABELS][];
+		post = new int[LABELS][];
+		stack = new int[comps + 1];
+		for (int k = 0; k < LABELS; k++) {
+			label(k, comps, random);
+		}
+
+		visited = new int[comps];
+	}
+
+	/**
+	 * Computes the strongly connected components of the product graph with Tarjan's algorithm, without recursion.
+	 * The components are numbered in the order in which they are completed, so each edge between different
+	 * components leads from a higher to a lower number.
+	 * @return number of components
+	 */
+	private int condense(final int states, final int[] start, final int[] targets) {
+		final int[] index = new int[states];
+		final int[] lowlink = new int[states];
+		final int[] edgePos = new int[states];
+		final int[] sccStack = new int[states];
+		final int[] callStack = new int[states];
+		final boolean[] onStack = new boolean[states];
+		Arrays.fill(index, NO_ENTRY);
+		int nextIndex = 0;
+		int sccTop = 0;
+		int comps = 0;
+
+		for (int root = 0; root < states; root++) {
+			if (index[root] != NO_ENTRY) {
+				continue;
+			}
+			int callTop = 0;
+			callStack[callTop++] = root;
+			index[root] = lowlink[root] = nextIndex++;
+			edgePos[root] = start[root];
+			sccStack[sccTop++] = root;
+			onStack[root] = true;
+
+			while (callTop > 0) {
+				final int v = callStack[callTop - 1];
+				if (edgePos[v] < start[v + 1]) {
+					final int w = targets[edgePos[v]++];
+					if (index[w] == NO_ENTRY) {
+						index[w] = lowlink[w] = nextIndex++;
+						edgePos[w] = start[w];
+						sccStack[sccTop++] = w;
+						onStack[w] = true;
+						callStack[callTop++] = w;
+					} else if (onStack[w] && index[w] < lowlink[v]) {
+						lowlink[v] = index[w];
+					}
+				} else {
+					callTop--;
+					if (lowlink[v] == index[v]) {
+						int w;
+						do {
+							w = sccStack[--sccTop];
+							onStack[w] = false;
+							comp[w] = comps;
+						} while (w != v);
+						comps++;
+					}
+					if (callTop > 0) {
+						final int u = callStack[callTop - 1];
+						if (lowlink[v] < lowlink[u]) {
+							lowlink[u] = lowlink[v];
+						}
+					}
+				}
+			}
+		}
+
+		return comps;
+	}
+
+	private int[][] membersOfComponents(final int comps) {
+		final int[] count = new int[comps];
+		for (final int c : comp) {
+			count[c]++;
+		}
+		final int[][] members = new int[comps][];
+		for (int c = 0; c < comps; c++) {
+			members[c] = new int[count[c]];
+			count[c] = 0;
+		}
+		for (int s = 0; s < comp.length; s++) {
+			final int c = comp[s];
+			members[c][count[c]++] = s;
+		}
+
+		return members;
+	}
+
+	/**
+	 * Computes the k-th interval labels by a depth-first traversal of the condensed graph, which visits the roots and
+	 * the successors of each component in random order. post is the post-order number of a component, low the
+	 * smallest post-order number of the components reachable from it.
+	 */
+	private void label(final int k, final int comps, final Random random) {
+		final int[] lowK = new int[comps];
+		final int[] postK = new int[comps];
+		final boolean[] seen = new boolean[comps];
+		final int[] pos = new int[comps];
+		final int[] offset = new int[comps];
+		int nextPost = 0;
+
+		final int[] roots = new int[comps];
+		for (int c = 0; c < comps; c++) {
+			roots[c] = c;
+		}
+		shuffle(roots, random);
+
+		for (final int root : roots) {
+			if (seen[root]) {
+				continue;
+			}
+			int top = 0;
+			stack[top++] = root;
+			seen[root] = true;
+			offset[root] = randomOffset(root, random);
+
+			while (top > 0) {
+				final int c = stack[top - 1];
+				final int degree = succStart[c + 1] - succStart[c];
+				if (pos[c] < degree) {
+					final int d = succ[succStart[c] + (pos[c]++ + offset[c]) % degree];
+					if (!seen[d]) {
+						stack[top++] = d;
+						seen[d] = true;
+						offset[d] = randomOffset(d, random);
+					}
+				} else {
+					top--;
+					int l = nextPost;
+					for (int i = succStart[c]; i < succStart[c + 1]; i++) {
+						l = Math.min(l, lowK[succ[i]]);
+					}
+					postK[c] = nextPost++;
+					lowK[c] = l;
+				}
+			}
+		}
+
+		low[k] = lowK;
+		post[k] = postK;
+	}
+
+	private int randomOffset(final int c, final Random random) {
+		final int degree = succStart[c + 1] - succStart[c];
+		return (degree > 1 ? random.nextInt(degree) : 0);
+	}
+
+	private static void shuffle(final int[] a, final Random random) {
+		for (int i = a.length - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final int tmp = a[i];
+			a[i] = a[j];
+			a[j] = tmp;
+		}
+	}
+
+	/**
+	 * @return whether the given node is a node of the cfg of this index
+	 */
+	public boolean contains(final SDGNode node) {
+		return node2index.containsKey(node);
+	}
+
+	/**
+	 * Returns whether target is reached from source, starting in phase 1. A node reaches itself, nodes that are not
+	 * part of the cfg reach nothing and are not reached.
+	 */
+	public boolean reaches(final SDGNode source, final SDGNode target) {
+		final int i = node2index.get(source);
+		final int j = node2index.get(target);
+		if (i == NO_ENTRY || j == NO_ENTRY) {
+			return false;
+		}
+
+		return reaches(comp[2 * i], comp[2 * j], comp[2 * j + 1]);
+	}
+
+	private boolean mayReach(final int c, final int d) {
+		if (c < d) {
+			return false;
+		}
+		for (int k = 0; k < LABELS; k++) {
+			if (low[k][d] < low[k][c] || post[k][d] > post[k][c]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Searches the condensed graph from c for one of the components d1 and d2.
+	 */
+	private boolean reaches(final int c, final int d1, final int d2) {
+		if (c == d1 || c == d2) {
+			return true;
+		}
+		boolean may1 = mayReach(c, d1);
+		boolean may2 = mayReach(c, d2);
+		if (!may1 && !may2) {
+			return false;
+		}
+
+		query++;
+		if (query == 0) {
+			Arrays.fill(visited, 0);
+			query = 1;
+		}
+		int top = 0;
+		stack[top++] = c;
+		visited[c] = query;
+		while (top > 0) {
+			final int e = stack[--top];
+			for (int i = succStart[e]; i < succStart[e + 1]; i++) {
+				final int f = succ[i];
+				if (f == d1 || f == d2) {
+					return true;
+				}
+				if (visited[f] != query && ((may1 && mayReach(f, d1)) || (may2 && mayReach(f, d2)))) {
+					visited[f] = query;
+					stack[top++] = f;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return number of strongly connected components of the product graph
+	 */
+	public int size() {
+		return visited.length;
+	}
+
+	public String toString() {
+		return "reachability index of " + node2index.size() + " nodes with " + size() + " components and "
+				+ succ.length + " edges";
+	}
+}
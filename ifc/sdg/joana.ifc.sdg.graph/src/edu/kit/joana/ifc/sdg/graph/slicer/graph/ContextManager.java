@@ -52,7 +52,20 @@ public interface ContextManager<C extends Context<C>> {
      * @param oldContext   The Context from which reachedNode is reached.
      * @return             The Context of reachedNode.
      */
-    C descend(SDGNode reachedNode, SDGNodeTuple callSite, C oldContext);
+    default C descend(SDGNode reachedNode, SDGNodeTuple callSite, C oldContext) {
+    	return descend(reachedNode, callSite.getFirstNode(), callSite.getSecondNode(), oldContext);
+    }
+
+    /** Enters a called procedure at the call site given by its call node and the entry node of the called procedure,
+     * coming from `oldContext' and going to `reachedNode'. Returns the resulting Context of `reachedNode'.
+     *
+     * @param reachedNode  The reached node.
+     * @param call         The call node of the call site at which the traversal takes place.
+     * @param entry        The entry node of the called procedure.
+     * @param oldContext   The Context from which reachedNode is reached.
+     * @return             The Context of reachedNode.
+     */
+    C descend(SDGNode reachedNode, SDGNode call, SDGNode entry, C oldContext);
 
     /** Leaves a procedure towards the calling procedure specified by call site `callSite'.
      * Traverses from `oldContext' to `reachedNode' and returns the resulting Context of `reachedNode'
@@ -62,7 +75,20 @@ public interface ContextManager<C extends Context<C>> {
      * @param oldContext   The Context from which reachedNode is reached.
      * @return             The Context of reachedNode.
      */
-    C[] ascend(SDGNode reachedNode, SDGNodeTuple callSite, C oldContext);
+    default C[] ascend(SDGNode reachedNode, SDGNodeTuple callSite, C oldContext) {
+    	return ascend(reachedNode, callSite.getFirstNode(), callSite.getSecondNode(), oldContext);
+    }
+
+    /** Leaves a procedure towards the calling procedure at the call site given by its call node and the entry node
+     * of the left procedure. Traverses from `oldContext' to `reachedNode' and returns the resulting Context of `reachedNode'
+     *
+     * @param reachedNode  The reached node.
+     * @param call         The call node of the call site at which the traversal takes place.
+     * @param entry        The entry node of the left procedure.
+     * @param oldContext   The Context from which reachedNode is reached.
+     * @return             The Context of reachedNode.
+     */
+    C[] ascend(SDGNode reachedNode, SDGNode call, SDGNode entry, C oldContext);
 
     /** Unmaps a fold node to any of its folded nodes.
      * If the given node is not a fold node, it is returned itself.
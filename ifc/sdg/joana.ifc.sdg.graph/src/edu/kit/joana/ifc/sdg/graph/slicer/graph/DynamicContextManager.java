@@ -551,9 +551,7 @@ public class DynamicContextManager implements ContextManager<DynamicContextManag
      * @param next The current context.
      * @return The contexts of the reached node - can be null, 1 or 2 (recursive calls)
      */
-    public DynamicContext[] ascend(SDGNode reachedNode, SDGNodeTuple callSite, DynamicContext oldContext){
-        // the call site of the calling procedure
-        SDGNode call = callSite.getFirstNode();
+    public DynamicContext[] ascend(SDGNode reachedNode, SDGNode call, SDGNode entry, DynamicContext oldContext){
         DynamicContext[] res = {null, null};
 
         // top of context and call site are matching : traverse edge
@@ -579,9 +577,7 @@ public class DynamicContextManager implements ContextManager<DynamicContextManag
      * @param next The current context.
      * @return The resulting context.
      */
-    public DynamicContext descend(SDGNode reachedNode, SDGNodeTuple callSite, DynamicContext oldContext) {
-        // the call site calling the procedure to descend into
-        SDGNode call = callSite.getFirstNode();
+    public DynamicContext descend(SDGNode reachedNode, SDGNode call, SDGNode entry, DynamicContext oldContext) {
         SDGNode mapped = foldedCall.map(call);
         DynamicContext newContext = null;
 
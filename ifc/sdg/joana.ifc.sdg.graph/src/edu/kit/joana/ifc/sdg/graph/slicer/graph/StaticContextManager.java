@@ -8,6 +8,7 @@
 package edu.kit.joana.ifc.sdg.graph.slicer.graph;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 
@@ -22,6 +23,7 @@ import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.GraphFolder;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
 import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.set.hash.THashSet;
 
@@ -62,7 +64,8 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 		public int hashCode() {
 			final int prime = 31;
 			int result = 1;
-			result = prime * result + ((stack == null) ? 0 : stack.hashCode());
+			result = prime * result + node.getId();
+			result = prime * result + stack.id;
 			return result;
 		}
 
@@ -143,13 +146,21 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 	    }
 
 		public StaticContext descend(SDGNode reachedNode, SDGNodeTuple callSite) {
-	        CallString called = this.stack.desc.get(callSite);
+			return descend(reachedNode, callSite.getFirstNode(), callSite.getSecondNode());
+		}
+
+		public StaticContext descend(SDGNode reachedNode, SDGNode call, SDGNode entry) {
+	        CallString called = stack.table.descend(stack, call, entry);
 	        StaticContext down = new StaticContext(reachedNode, called, thread);
 	        return down;
         }
 
 		public StaticContext ascend(SDGNode reachedNode, SDGNodeTuple callSite) {
-        	CallString caller = stack.asc.get(callSite);
+			return ascend(reachedNode, callSite.getFirstNode(), callSite.getSecondNode());
+		}
+
+		public StaticContext ascend(SDGNode reachedNode, SDGNode call, SDGNode entry) {
+        	CallString caller = stack.table.ascend(stack, call, entry);
         	if (caller != null) {
         		// if caller == null, the reached procedure has no other calling context
         		StaticContext up = new StaticContext(reachedNode, caller, thread);
@@ -180,13 +191,29 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 	/* the call-string class */
 	static class CallString {
 		private final LinkedList<SDGNode> calls;
-		private final THashMap<SDGNodeTuple, CallString> asc;  // call edge -> call string
-		private final THashMap<SDGNodeTuple, CallString> desc; // call edge -> call string
+		private final int id;                  // position in the table
+		private final CallStringTable table;   // transitions to other call strings
+		private CallString caller;             // the call string without the top call site
+
+		// the procedures that are called in this call string and, for each of them, the call string reached
+		// by each of its call edges, indexed by the slot of the call edge in the procedure
+		private int[] procs = new int[0];
+		private CallString[][] callees = new CallString[0][];
 
-		CallString (LinkedList<SDGNode> stack) {
+		CallString (LinkedList<SDGNode> stack, int id, CallStringTable table) {
 			calls = stack;
-			asc = new THashMap<SDGNodeTuple, CallString>();
-			desc = new THashMap<SDGNodeTuple, CallString>();
+			this.id = id;
+			this.table = table;
+		}
+
+		private CallString[] callees(int proc) {
+			for (int i = 0; i < procs.length; i++) {
+				if (procs[i] == proc) {
+					return callees[i];
+				}
+			}
+
+			return null;
 		}
 
 		private SDGNode peek() {
@@ -203,6 +230,115 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 	}
 
 
+	/**
+	 * The call strings of a manager and the call edges between them. The call strings form a trie over the folded
+	 * call graph: descending along a call edge appends the call site, ascending removes it.
+	 * <p>
+	 * The call edges of each procedure are numbered densely by slots, which are looked up by the id of the call
+	 * node together with the node of the call in the folded call graph. Every call string keeps the call strings
+	 * reached by descending, indexed by these slots, and its caller, so a transition costs a few array lookups.
+	 */
+	static final class CallStringTable {
+		private static final int NO_ENTRY = -1;
+
+		private int nrOfCallStrings = 0;
+		// the entry nodes called by each call node, the slots of these call edges and the node of the call in the
+		// folded call graph, indexed by the id of the call node
+		private final SDGNode[][] calleesOf;
+		private final int[][] slotsOf;
+		private final SDGNode[] mapped;
+		// proc -> number of its call edges
+		private final TIntIntHashMap slotsOfProc = new TIntIntHashMap();
+
+		private CallStringTable(SDG g, FoldedCallGraph fc) {
+			calleesOf = new SDGNode[g.lastId() + 1][];
+			slotsOf = new int[calleesOf.length][];
+			mapped = new SDGNode[calleesOf.length];
+			for (SDGEdge e : g.edgeSet()) {
+				if (e.getKind() == SDGEdge.Kind.CALL) {
+					addCallEdge(e.getSource(), e.getTarget());
+					if (mapped[e.getSource().getId()] == null && fc.containsVertex(e.getSource())) {
+						mapped[e.getSource().getId()] = fc.map(e.getSource());
+					}
+				}
+			}
+		}
+
+		private void addCallEdge(SDGNode call, SDGNode entry) {
+			final int id = call.getId();
+			final SDGNode[] entries = calleesOf[id];
+			if (entries == null) {
+				calleesOf[id] = new SDGNode[] {entry};
+				slotsOf[id] = new int[] {slotsOfProc.adjustOrPutValue(call.getProc(), 1, 1) - 1};
+			} else if (slot(call, entry) == NO_ENTRY) {
+				calleesOf[id] = Arrays.copyOf(entries, entries.length + 1);
+				calleesOf[id][entries.length] = entry;
+				slotsOf[id] = Arrays.copyOf(slotsOf[id], entries.length + 1);
+				slotsOf[id][entries.length] = slotsOfProc.adjustOrPutValue(call.getProc(), 1, 1) - 1;
+			}
+		}
+
+		/**
+		 * Returns the node of the given call node in the folded call graph, or null if the call node is unknown.
+		 */
+		private SDGNode map(SDGNode call) {
+			final int id = call.getId();
+			return id < 0 || id >= mapped.length ? null : mapped[id];
+		}
+
+		private int slot(SDGNode call, SDGNode entry) {
+			final int id = call.getId();
+			if (id < 0 || id >= calleesOf.length || calleesOf[id] == null) {
+				return NO_ENTRY;
+			}
+
+			final SDGNode[] entries = calleesOf[id];
+			for (int i = 0; i < entries.length; i++) {
+				if (entries[i] == entry) {
+					return slotsOf[id][i];
+				}
+			}
+
+			return NO_ENTRY;
+		}
+
+		private CallString add(LinkedList<SDGNode> calls) {
+			return new CallString(calls, nrOfCallStrings++, this);
+		}
+
+		private void connect(CallString from, SDGNode call, SDGNode entry, CallString to) {
+			CallString[] callees = from.callees(call.getProc());
+			if (callees == null) {
+				final int i = from.procs.length;
+				from.procs = Arrays.copyOf(from.procs, i + 1);
+				from.procs[i] = call.getProc();
+				from.callees = Arrays.copyOf(from.callees, i + 1);
+				callees = new CallString[slotsOfProc.get(call.getProc())];
+				from.callees[i] = callees;
+			}
+
+			callees[slot(call, entry)] = to;
+			to.caller = from;
+		}
+
+		private CallString descend(CallString s, SDGNode call, SDGNode entry) {
+			final int slot = slot(call, entry);
+			if (slot == NO_ENTRY) {
+				return null;
+			}
+
+			final CallString[] callees = s.callees(call.getProc());
+			return callees == null ? null : callees[slot];
+		}
+
+		private CallString ascend(CallString s, SDGNode call, SDGNode entry) {
+			// the caller is unique, but the call edge has to lead from it to s
+			final CallString caller = s.caller;
+			return caller != null && descend(caller, call, entry) == s ? caller : null;
+		}
+	}
+
+
 	private static class ContextCreator {
 		private final ContextComputer co;
 //		private CallGraph c;
@@ -212,6 +348,7 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 		private final TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>> map;
 		private final THashMap<LinkedList<SDGNode>, CallString> unique;
 		private final THashMap<DynamicContext, CallString> cons;
+		private final CallStringTable table;
 
 		private ContextCreator(SDG g, CallGraph c, FoldedCallGraph fc) {
 			this.g = g;
@@ -221,6 +358,7 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 			map = new TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>>();
 			unique = new THashMap<LinkedList<SDGNode>, CallString>();
 			cons = new THashMap<DynamicContext, CallString>();
+			table = new CallStringTable(g, fc);
 			co = new ContextComputer(g, c, fc);
 		}
 
@@ -252,7 +390,7 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 
 				// update the unique call strings map
 				if (s == null) {
-					s = new CallString(c.getCallStack());
+					s = table.add(c.getCallStack());
 					unique.put(c.getCallStack(), s);
 				}
 
@@ -301,9 +439,7 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 				        }
 
 				        CallString to = cons.get(con);
-				        SDGNodeTuple callSite = new SDGNodeTuple(e.getSource(), e.getTarget());
-						from.desc.put(callSite, to);
-						to.asc.put(callSite, from);
+						table.connect(from, e.getSource(), e.getTarget(), to);
 					}
 				}
 			}
@@ -316,7 +452,7 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 	public static StaticContextManager create(SDG g, CallGraph c, FoldedCallGraph fc) {
 		ContextCreator cc = new ContextCreator(g, c, fc);
 		cc.execute();
-		return new StaticContextManager(fc, cc.map);
+		return new StaticContextManager(fc, cc.map, cc.table);
 	}
 
 	public static StaticContextManager create(SDG sdg) {
@@ -331,10 +467,13 @@ public class StaticContextManager implements ContextManager<StaticContextManager
 
 	private final FoldedCallGraph foldedCall;
 	private final TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>> procsThreadsCallStrings;
+	private final CallStringTable table;
 
-	private StaticContextManager(FoldedCallGraph fc, TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>> map) {
+	private StaticContextManager(FoldedCallGraph fc, TIntObjectHashMap<TIntObjectHashMap<LinkedList<CallString>>> map,
+			CallStringTable table) {
 		foldedCall = fc;
 		procsThreadsCallStrings = map;
+		this.table = table;
 	}
 
 
@@ -366,44 +505,47 @@ public class StaticContextManager implements ContextManager<StaticContextManager
     	return oldContext.level(reachedNode);
     }
 
-    public StaticContext descend(SDGNode reachedNode, SDGNodeTuple callSite, StaticContext oldContext) {
+    public StaticContext descend(SDGNode reachedNode, SDGNode call, SDGNode entry, StaticContext oldContext) {
         // if the corresponding call site is recursive,
         // clone context and set `oldContext' as new node
         // else compute new context by going into procedure
-        if (foldedCall.isFolded(callSite.getFirstNode())
-        		&& oldContext.top() == this.foldedCall.map(callSite.getFirstNode())) {
+        SDGNode mapped = map(call);
+        if (mapped != call && oldContext.top() == mapped) {
 
         	return oldContext.level(reachedNode);
 
         } else {
-	        return oldContext.descend(reachedNode, callSite);
+	        return oldContext.descend(reachedNode, call, entry);
         }
     }
 
-    public StaticContext[] ascend(SDGNode reachedNode, SDGNodeTuple callSite, StaticContext oldContext) {
+    public StaticContext[] ascend(SDGNode reachedNode, SDGNode call, SDGNode entry, StaticContext oldContext) {
     	StaticContext[] res = {null, null};
         //System.out.println("Ascending to: "+callSite);
         //System.out.println(": "+pre);
 
         // top of context and call site are matching : traverse edge
-        if (match(callSite.getFirstNode(), oldContext)){
+        SDGNode mapped = map(call);
+        if (oldContext.isEmpty() || mapped == oldContext.top()){
             // if the procedure call is recursive,
             // build a context with the same call stack
-            if (foldedCall.isFolded(callSite.getFirstNode())){
+            if (mapped != call){
                 res[0] = oldContext.level(reachedNode);
 //                verify(recursive);
             }
 
             // compute new context by leaving actual procedure
 //	            verify(up);
-	        res[1] = oldContext.ascend(reachedNode, callSite);
+	        res[1] = oldContext.ascend(reachedNode, call, entry);
         }
 
         return res;
     }
 
-    private boolean match(SDGNode callSite, StaticContext con){
-        return con.isEmpty() || foldedCall.map(callSite) == con.top();
+    /** Maps a call node to the folded call graph, a call node is folded iff it is mapped to a fold node. */
+    private SDGNode map(SDGNode call) {
+    	SDGNode mapped = table.map(call);
+    	return mapped != null ? mapped : foldedCall.map(call);
     }
 
 	@Override
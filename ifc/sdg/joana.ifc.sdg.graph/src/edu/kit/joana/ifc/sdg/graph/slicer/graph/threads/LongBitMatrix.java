@@ -0,0 +1,255 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads;
+
+import java.util.NoSuchElementException;
+
+import com.ibm.wala.util.intset.IntIterator;
+
+/**
+ * A square bit matrix backed by a single long array, with bulk operations on whole rows.
+ * <p>
+ * The bits are stored row by row. Each row is padded to a multiple of {@link #WORDS_PER_BLOCK} longs, i.e. to whole
+ * cache lines of 64 bytes, so a row operation streams through a contiguous block of words that no other row shares.
+ * Rows may be combined with <i>row sets</i>: long arrays of length {@link #wordsPerRow()} that hold a set of column
+ * indices in the same layout as a row (see {@link #newRowSet()}, {@link #add(long[], int)} and
+ * {@link #contains(long[], int)}).
+ * <p>
+ * The set bits of a row can be enumerated without allocation by {@link #nextSetBit(int, int)}.
+ */
+public final class LongBitMatrix<T> implements IMutableBitMatrix<T> {
+
+	private static final int LOG_BITS_PER_WORD = 6;
+	private static final int LOW_MASK = 0x3f;
+
+	/** number of longs in a cache line */
+	public static final int WORDS_PER_BLOCK = 8;
+
+	private final int dimension;
+	private final int wordsPerRow;
+	private final long[] bits;
+
+	public LongBitMatrix(int dimension) {
+		if (dimension < 1) {
+			throw new IllegalArgumentException("dimension must be at least 1");
+		}
+		this.dimension = dimension;
+		final int words = ((dimension - 1) >> LOG_BITS_PER_WORD) + 1;
+		this.wordsPerRow = ((words + WORDS_PER_BLOCK - 1) / WORDS_PER_BLOCK) * WORDS_PER_BLOCK;
+		final long size = ((long) wordsPerRow) * dimension;
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("dimension is too large");
+		}
+		this.bits = new long[(int) size];
+	}
+
+	/**
+	 * @return a copy of the given matrix
+	 */
+	public static <T> LongBitMatrix<T> copyOf(IBitMatrix<T> m) {
+		final LongBitMatrix<T> result = new LongBitMatrix<>(m.getDimension());
+		for (int j = 0; j < m.getDimension(); j++) {
+			for (IntIterator it = m.onCol(j); it.hasNext(); ) {
+				result.set(it.next(), j);
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public boolean get(int i, int j) {
+		return (bits[i * wordsPerRow + (j >> LOG_BITS_PER_WORD)] & (1L << (j & LOW_MASK))) != 0;
+	}
+
+	@Override
+	public void set(int i, int j) {
+		bits[i * wordsPerRow + (j >> LOG_BITS_PER_WORD)] |= 1L << (j & LOW_MASK);
+	}
+
+	public void clear(int i, int j) {
+		bits[i * wordsPerRow + (j >> LOG_BITS_PER_WORD)] &= ~(1L << (j & LOW_MASK));
+	}
+
+	@Override
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * @return the number of longs of a row, which is the length of a row set
+	 */
+	public int wordsPerRow() {
+		return wordsPerRow;
+	}
+
+	/* row operations */
+
+	/**
+	 * Sets row i to the union of the rows i and k.
+	 */
+	public void orRows(int i, int k) {
+		final int to = i * wordsPerRow;
+		final int from = k * wordsPerRow;
+		for (int w = 0; w < wordsPerRow; w++) {
+			bits[to + w] |= bits[from + w];
+		}
+	}
+
+	/**
+	 * Sets row i to the intersection of the rows i and k.
+	 */
+	public void andRows(int i, int k) {
+		final int to = i * wordsPerRow;
+		final int from = k * wordsPerRow;
+		for (int w = 0; w < wordsPerRow; w++) {
+			bits[to + w] &= bits[from + w];
+		}
+	}
+
+	/**
+	 * Adds the columns set in row i to the given row set.
+	 */
+	public void orRowInto(int i, long[] set) {
+		final int offset = i * wordsPerRow;
+		for (int w = 0; w < wordsPerRow; w++) {
+			set[w] |= bits[offset + w];
+		}
+	}
+
+	/**
+	 * Removes the columns not set in row i from the given row set.
+	 */
+	public void andRowInto(int i, long[] set) {
+		final int offset = i * wordsPerRow;
+		for (int w = 0; w < wordsPerRow; w++) {
+			set[w] &= bits[offset + w];
+		}
+	}
+
+	/**
+	 * @return whether row i and the given row set have a column in common
+	 */
+	public boolean rowIntersects(int i, long[] set) {
+		final int offset = i * wordsPerRow;
+		for (int w = 0; w < wordsPerRow; w++) {
+			if ((bits[offset + w] & set[w]) != 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return the number of bits set in row i
+	 */
+	public int rowCardinality(int i) {
+		final int offset = i * wordsPerRow;
+		int count = 0;
+		for (int w = 0; w < wordsPerRow; w++) {
+			count += Long.bitCount(bits[offset + w]);
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return the smallest column j >= from such that bit (i, j) is set, or -1 if there is none
+	 */
+	public int nextSetBit(int i, int from) {
+		if (from >= dimension) {
+			return -1;
+		}
+		final int offset = i * wordsPerRow;
+		int w = from >> LOG_BITS_PER_WORD;
+		long word = bits[offset + w] & (-1L << (from & LOW_MASK));
+		while (true) {
+			if (word != 0) {
+				return (w << LOG_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+			}
+			if (++w == wordsPerRow) {
+				return -1;
+			}
+			word = bits[offset + w];
+		}
+	}
+
+	@Override
+	public IntIterator onCol(int j) {
+		return new IntIterator() {
+			int i = nextSetInCol(j, 0);
+
+			@Override
+			public boolean hasNext() {
+				return i >= 0;
+			}
+
+			@Override
+			public int next() {
+				if (i < 0) {
+					throw new NoSuchElementException();
+				}
+				final int result = i;
+				i = nextSetInCol(j, i + 1);
+				return result;
+			}
+		};
+	}
+
+	private int nextSetInCol(int j, int from) {
+		for (int i = from; i < dimension; i++) {
+			if (get(i, j)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/* row sets */
+
+	/**
+	 * @return an empty row set of this matrix
+	 */
+	public long[] newRowSet() {
+		return new long[wordsPerRow];
+	}
+
+	public static void add(long[] set, int j) {
+		set[j >> LOG_BITS_PER_WORD] |= 1L << (j & LOW_MASK);
+	}
+
+	public static boolean contains(long[] set, int j) {
+		return (set[j >> LOG_BITS_PER_WORD] & (1L << (j & LOW_MASK))) != 0;
+	}
+
+	/**
+	 * @return the number of columns in the given row set
+	 */
+	public static int cardinality(long[] set) {
+		int count = 0;
+		for (long word : set) {
+			count += Long.bitCount(word);
+		}
+
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder result = new StringBuilder(dimension * (dimension + 1));
+		for (int i = 0; i < dimension; i++) {
+			for (int j = 0; j < dimension; j++) {
+				result.append(get(i, j) ? '1' : '0');
+			}
+			result.append('\n');
+		}
+		return result.toString();
+	}
+}
@@ -10,7 +10,9 @@
  */
 package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.VirtualNode;
@@ -62,4 +64,39 @@ public interface MHPAnalysis {
     public boolean mayExist(int thread, VirtualNode v);
 
     public boolean mayExist(int thread, SDGNode n, int nThread);
+
+    /**
+     * Bulk version of {@link #isParallel(SDGNode, SDGNode)}.
+     *
+     * @param m a node
+     * @param candidates some nodes
+     * @return all nodes n of candidates with isParallel(m, n), in the order of candidates
+     */
+    public default <N extends SDGNode> List<N> parallelTo(SDGNode m, Collection<N> candidates) {
+        final List<N> result = new ArrayList<N>();
+        for (N n : candidates) {
+            if (isParallel(m, n)) {
+                result.add(n);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Bulk version of {@link #isParallel(SDGNode, SDGNode)}.
+     *
+     * @return whether isParallel(m, n) holds for some node m of ms and some node n of ns
+     */
+    public default boolean isAnyParallel(Collection<? extends SDGNode> ms, Collection<? extends SDGNode> ns) {
+        for (SDGNode m : ms) {
+            for (SDGNode n : ns) {
+                if (isParallel(m, n)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
 }
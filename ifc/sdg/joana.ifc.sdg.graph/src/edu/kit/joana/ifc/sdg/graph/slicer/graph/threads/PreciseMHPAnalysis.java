@@ -20,6 +20,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.RandomAccess;
 import java.util.Set;
 
@@ -57,11 +58,21 @@ import edu.kit.joana.util.collections.SimpleVectorBase;
 public class PreciseMHPAnalysis implements MHPAnalysis {
 
 	private static final Logger debug = Log.getLogger(Log.L_MHP_DEBUG);
+
+	/**
+	 * {@link #parallelRegions} is only built for at most this many thread regions, since it needs
+	 * (number of thread regions)^2 / 8 bytes.
+	 */
+	private static final int MAX_REGIONS_FOR_ROWS = 1 << 14;
 	
     private final ThreadsInformation info;
     private final IBitMatrix<ThreadRegion> threadRegionMap;
     private final ThreadRegions regions;
     private Map<Integer, Collection<ThreadRegion>> mayExist;
+    /**
+     * isParallel(r, s) for all thread regions r and s, built on demand for bulk queries
+     */
+    private volatile LongBitMatrix<ThreadRegion> parallelRegions;
 
     private PreciseMHPAnalysis(ThreadsInformation info, IBitMatrix<ThreadRegion> map, ThreadRegions regions) {
         this.info = info;
@@ -196,16 +207,122 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
      * @return all ThreadRegion s such that {@link PreciseMHPAnalysis#isParallel(r, s)}
      */
     public Iterable<ThreadRegion> parallelTo(ThreadRegion r) {
-        final boolean isDynamic = isDynamic(r.getThread());
-        final int     rThread = r.getThread();
-        final IntIterator it = threadRegionMap.onCol(r.getID());
+        final LongBitMatrix<ThreadRegion> rows = parallelRegions();
+        if (rows == null) {
+            final boolean isDynamic = isDynamic(r.getThread());
+            final int     rThread = r.getThread();
+            final IntIterator it = threadRegionMap.onCol(r.getID());
+
+            return new Iterable<ThreadRegion>() {
+                @Override
+                public Iterator<ThreadRegion> iterator() {
+                    return new ColIterator(it, isDynamic, rThread);
+                }
+            };
+        }
 
+        final int row = r.getID();
         return new Iterable<ThreadRegion>() {
             @Override
             public Iterator<ThreadRegion> iterator() {
-                return new ColIterator(it, isDynamic, rThread);
+                return new Iterator<ThreadRegion>() {
+                    int next = rows.nextSetBit(row, 0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public ThreadRegion next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        final ThreadRegion result = regions.getThreadRegion(next);
+                        next = rows.nextSetBit(row, next + 1);
+                        return result;
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public <N extends SDGNode> List<N> parallelTo(SDGNode m, Collection<N> candidates) {
+        final LongBitMatrix<ThreadRegion> rows = parallelRegions();
+        if (rows == null) {
+            return MHPAnalysis.super.parallelTo(m, candidates);
+        }
+
+        final long[] parallel = rows.newRowSet();
+        for (int mt : m.getThreadNumbers()) {
+            rows.orRowInto(regions.getThreadRegion(m, mt).getID(), parallel);
+        }
+
+        final List<N> result = new ArrayList<N>();
+        for (N n : candidates) {
+            for (int nt : n.getThreadNumbers()) {
+                if (LongBitMatrix.contains(parallel, regions.getThreadRegion(n, nt).getID())) {
+                    result.add(n);
+                    break;
+                }
             }
-        }; 
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean isAnyParallel(Collection<? extends SDGNode> ms, Collection<? extends SDGNode> ns) {
+        final LongBitMatrix<ThreadRegion> rows = parallelRegions();
+        if (rows == null) {
+            return MHPAnalysis.super.isAnyParallel(ms, ns);
+        }
+
+        final long[] nRegions = rows.newRowSet();
+        for (SDGNode n : ns) {
+            for (int nt : n.getThreadNumbers()) {
+                LongBitMatrix.add(nRegions, regions.getThreadRegion(n, nt).getID());
+            }
+        }
+
+        for (SDGNode m : ms) {
+            for (int mt : m.getThreadNumbers()) {
+                if (rows.rowIntersects(regions.getThreadRegion(m, mt).getID(), nRegions)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the matrix of {@link #isParallel(ThreadRegion, ThreadRegion)}, indexed by the ids of the thread regions,
+     * or null if there are too many thread regions
+     */
+    private LongBitMatrix<ThreadRegion> parallelRegions() {
+        LongBitMatrix<ThreadRegion> rows = parallelRegions;
+        if (rows == null && regions.size() <= MAX_REGIONS_FOR_ROWS) {
+            synchronized (this) {
+                rows = parallelRegions;
+                if (rows == null) {
+                    rows = new LongBitMatrix<ThreadRegion>(regions.size());
+                    for (ThreadRegion r : regions) {
+                        final boolean isDynamic = isDynamic(r.getThread());
+                        for (IntIterator it = threadRegionMap.onCol(r.getID()); it.hasNext(); ) {
+                            final int s = it.next();
+                            if (isDynamic || regions.getThreadRegion(s).getThread() != r.getThread()) {
+                                rows.set(r.getID(), s);
+                            }
+                        }
+                    }
+                    parallelRegions = rows;
+                }
+            }
+        }
+
+        return rows;
     }
     
     public String toString() {
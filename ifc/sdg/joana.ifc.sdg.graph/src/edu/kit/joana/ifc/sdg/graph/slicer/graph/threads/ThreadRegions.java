@@ -30,6 +30,7 @@ import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGSlicer;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFG;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFGReachability;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.VirtualNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
@@ -53,6 +54,9 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 	/** the control flow graph used to determine the thread regions */
 	private final CFG icfg;
 
+	/** reachability index of the control flow graph, built on the first call of {@link #reaches(SDGNode, SDGNode)} */
+	private CFGReachability reachability;
+
 	/** the thread regions of the control flow graph */
 	private final ArrayList<ThreadRegion> regions;
 	
@@ -233,50 +237,16 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 	/**
 	 * Returns true if source may reach target.
 	 * Needed for backwards compatibility.
+	 * The first query builds a reachability index of the control flow graph, which answers all further queries.
 	 * @param source
 	 * @param target
 	 * @return
 	 */
 	 public boolean reaches(SDGNode source, SDGNode target) {
-		 LinkedList<SDGNode> w1 = new LinkedList<SDGNode>();
-		 LinkedList<SDGNode> w2 = new LinkedList<SDGNode>();
-		 HashSet<SDGNode> marked = new HashSet<SDGNode>();
-
-		 w1.add(source);
-		 marked.add(source);
-
-		 while (!w1.isEmpty()) {
-			 SDGNode next = w1.poll();
-
-			 if (next == target) return true;
-
-			 for (SDGEdge edge : icfg.outgoingEdgesOf(next)) {
-				 if (edge.getKind() == SDGEdge.Kind.CALL || edge.getKind() == SDGEdge.Kind.FORK) {
-					 if (marked.add(edge.getTarget())) {
-					 w2.addFirst(edge.getTarget());
-				 }
-			 } else if (marked.add(edge.getTarget())) {
-					 // don't traverse other region start nodes or already visited nodes
-					 w1.addFirst(edge.getTarget());
-				 }
-			 }
+		 if (reachability == null) {
+			 reachability = new CFGReachability(icfg, CFGReachability.Mode.THREAD_REGIONS);
 		 }
-
-		 while (!w2.isEmpty()) {
-			 SDGNode next = w2.poll();
-
-			 if (next == target) return true;
-
-			 for (SDGEdge edge : icfg.outgoingEdgesOf(next)) {
-				 if (edge.getKind() != SDGEdge.Kind.RETURN) {
-					 if (marked.add(edge.getTarget())) {
-						 w2.addFirst(edge.getTarget());
-					 }
-				 }
-			 }
-		 }
-
-		 return false;
+		 return reachability.reaches(source, target);
 	 }
 
 	 public int size() {
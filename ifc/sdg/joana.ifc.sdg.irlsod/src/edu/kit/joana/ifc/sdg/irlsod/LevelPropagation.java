@@ -0,0 +1,276 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.irlsod;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
+import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * The dependence graph of the o/rlsod checkers, condensed to its strongly connected components.
+ * <p>
+ * A node m influences a node n if there is an sdg edge from m to n or if m is a probabilistic influencer of n.
+ * The fixed point of the checkers assigns to each node the least upper bound of the initial levels of all nodes
+ * which transitively influence it. All nodes of a strongly connected component get the same level, so it suffices
+ * to propagate the levels once along the edges of the condensed graph in topological order. The levels are
+ * propagated as ids of an {@link IntLattice}.
+ * <p>
+ * Propagating along backward slices instead of single sdg edges ({@link PredecessorMethod#SLICE}) yields the same
+ * fixed point: every sdg predecessor of a node is contained in its backward slice and every node of the slice
+ * transitively influences the node.
+ */
+final class LevelPropagation {
+
+	private static final int NO_ENTRY = -1;
+
+	/** the nodes of the sdg, indexed by their position */
+	private final SDGNode[] nodes;
+
+	private final TObjectIntHashMap<SDGNode> node2index;
+
+	/** maps each node to its strongly connected component, components are numbered in reverse topological order */
+	private final int[] comp;
+
+	/** number of strongly connected components */
+	private final int comps;
+
+	/** successors of the components in the condensed graph, in compressed sparse row form */
+	private final int[] succStart;
+	private final int[] succ;
+
+	LevelPropagation(final SDG sdg, final ProbInfComputer probInf) {
+		final Collection<SDGNode> vertices = sdg.vertexSet();
+		this.nodes = vertices.toArray(new SDGNode[vertices.size()]);
+		this.node2index = new TObjectIntHashMap<SDGNode>(nodes.length, 0.5f, NO_ENTRY);
+		for (int i = 0; i < nodes.length; i++) {
+			node2index.put(nodes[i], i);
+		}
+
+		// collect the influence edges m -> n
+		final TIntArrayList sources = new TIntArrayList();
+		final TIntArrayList sinks = new TIntArrayList();
+		for (int n = 0; n < nodes.length; n++) {
+			for (final SDGEdge e : sdg.incomingEdgesOf(nodes[n])) {
+				if (e.getKind().isSDGEdge()) {
+					addEdge(e.getSource(), n, sources, sinks);
+				}
+			}
+			for (final SDGNode m : probInf.getProbabilisticInfluencers(nodes[n])) {
+				addEdge(m, n, sources, sinks);
+			}
+		}
+		final int[] start = new int[nodes.length + 1];
+		for (int k = 0; k < sources.size(); k++) {
+			start[sources.getQuick(k) + 1]++;
+		}
+		for (int i = 0; i < nodes.length; i++) {
+			start[i + 1] += start[i];
+		}
+		final int[] targets = new int[sources.size()];
+		final int[] pos = Arrays.copyOf(start, nodes.length);
+		for (int k = 0; k < sources.size(); k++) {
+			targets[pos[sources.getQuick(k)]++] = sinks.getQuick(k);
+		}
+
+		this.comp = new int[nodes.length];
+		this.comps = condense(start, targets);
+
+		// successor lists of the condensed graph without self loops and duplicates
+		final int[] last = new int[comps];
+		Arrays.fill(last, NO_ENTRY);
+		final int[][] members = membersOfComponents();
+		this.succStart = new int[comps + 1];
+		int[] succ = new int[Math.max(targets.length, 1)];
+		int count = 0;
+		for (int c = 0; c < comps; c++) {
+			succStart[c] = count;
+			for (final int m : members[c]) {
+				for (int k = start[m]; k < start[m + 1]; k++) {
+					final int d = comp[targets[k]];
+					if (d != c && last[d] != c) {
+						last[d] = c;
+						succ[count++] = d;
+					}
+				}
+			}
+		}
+		succStart[comps] = count;
+		this.succ = Arrays.copyOf(succ, count);
+	}
+
+	private void addEdge(final SDGNode source, final int target, final TIntArrayList sources, final TIntArrayList sinks) {
+		final int m = node2index.get(source);
+		if (m != NO_ENTRY && m != target) {
+			sources.add(m);
+			sinks.add(target);
+		}
+	}
+
+	/**
+	 * Computes the strongly connected components with Tarjan's algorithm, without recursion.
+	 * The components are numbered in the order in which they are completed, so each edge between different
+	 * components leads from a higher to a lower number.
+	 * @return number of components
+	 */
+	private int condense(final int[] start, final int[] targets) {
+		final int size = nodes.length;
+		final int[] index = new int[size];
+		final int[] lowlink = new int[size];
+		final int[] edgePos = new int[size];
+		final int[] sccStack = new int[size];
+		final int[] callStack = new int[size];
+		final boolean[] onStack = new boolean[size];
+		Arrays.fill(index, NO_ENTRY);
+		int nextIndex = 0;
+		int sccTop = 0;
+		int comps = 0;
+
+		for (int root = 0; root < size; root++) {
+			if (index[root] != NO_ENTRY) {
+				continue;
+			}
+			int callTop = 0;
+			callStack[callTop++] = root;
+			index[root] = lowlink[root] = nextIndex++;
+			edgePos[root] = start[root];
+			sccStack[sccTop++] = root;
+			onStack[root] = true;
+
+			while (callTop > 0) {
+				final int v = callStack[callTop - 1];
+				if (edgePos[v] < start[v + 1]) {
+					final int w = targets[edgePos[v]++];
+					if (index[w] == NO_ENTRY) {
+						index[w] = lowlink[w] = nextIndex++;
+						edgePos[w] = start[w];
+						sccStack[sccTop++] = w;
+						onStack[w] = true;
+						callStack[callTop++] = w;
+					} else if (onStack[w] && index[w] < lowlink[v]) {
+						lowlink[v] = index[w];
+					}
+				} else {
+					callTop--;
+					if (lowlink[v] == index[v]) {
+						int w;
+						do {
+							w = sccStack[--sccTop];
+							onStack[w] = false;
+							comp[w] = comps;
+						} while (w != v);
+						comps++;
+					}
+					if (callTop > 0) {
+						final int u = callStack[callTop - 1];
+						if (lowlink[v] < lowlink[u]) {
+							lowlink[u] = lowlink[v];
+						}
+					}
+				}
+			}
+		}
+
+		return comps;
+	}
+
+	private int[][] membersOfComponents() {
+		final int[] count = new int[comps];
+		for (final int c : comp) {
+			count[c]++;
+		}
+		final int[][] members = new int[comps][];
+		for (int c = 0; c < comps; c++) {
+			members[c] = new int[count[c]];
+			count[c] = 0;
+		}
+		for (int i = 0; i < comp.length; i++) {
+			final int c = comp[i];
+			members[c][count[c]++] = i;
+		}
+
+		return members;
+	}
+
+	/**
+	 * Computes the least fixed point of the classification.
+	 * @param levels the security lattice
+	 * @param init initial levels, nodes without initial level start with bottom
+	 * @return the level of each node of the sdg
+	 */
+	<L> Map<SDGNode, L> propagate(final IntLattice<L> levels, final Map<SDGNode, L> init)
+			throws NotInLatticeException {
+		final int bottom = levels.getBottomId();
+		final int top = levels.getTopId();
+		final int[] level = new int[comps];
+		Arrays.fill(level, bottom);
+		for (final Map.Entry<SDGNode, L> e : init.entrySet()) {
+			final int n = node2index.get(e.getKey());
+			if (n != NO_ENTRY) {
+				final int c = comp[n];
+				level[c] = levels.leastUpperBound(level[c], levels.getId(e.getValue()));
+			}
+		}
+
+		// the components are numbered in reverse topological order, so each component is final when it is reached
+		for (int c = comps - 1; c >= 0; c--) {
+			final int l = level[c];
+			if (l == bottom) {
+				continue;
+			}
+			for (int k = succStart[c]; k < succStart[c + 1]; k++) {
+				final int d = succ[k];
+				if (level[d] != top) {
+					level[d] = levels.leastUpperBound(level[d], l);
+				}
+			}
+		}
+
+		final Map<SDGNode, L> ret = new HashMap<SDGNode, L>();
+		for (int n = 0; n < nodes.length; n++) {
+			ret.put(nodes[n], levels.getElement(level[comp[n]]));
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the nodes which are transitively influenced by the given node, including the node itself.
+	 */
+	BitSet influenced(final SDGNode source) {
+		final BitSet reached = new BitSet(comps);
+		final int s = node2index.get(source);
+		if (s == NO_ENTRY) {
+			return reached;
+		}
+		reached.set(comp[s]);
+		// successors have smaller numbers, so a single descending sweep visits all reachable components
+		for (int c = comp[s]; c >= 0; c = reached.previousSetBit(c - 1)) {
+			for (int k = succStart[c]; k < succStart[c + 1]; k++) {
+				reached.set(succ[k]);
+			}
+		}
+		return reached;
+	}
+
+	/**
+	 * Returns whether the target is contained in a set returned by {@link #influenced(SDGNode)}.
+	 */
+	boolean isInfluenced(final BitSet influenced, final SDGNode target) {
+		final int t = node2index.get(target);
+		return t != NO_ENTRY && influenced.get(comp[t]);
+	}
+}
@@ -4,16 +4,13 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.core.violations.IUnaryViolation;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
 import edu.kit.joana.ifc.sdg.core.violations.UnaryViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
-import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.Log;
@@ -30,7 +27,8 @@ public class ORLSODChecker<L> extends AnnotationMapChecker<L> {
 	protected Map<SDGNode, L> cl;
 
 	/**
-	 * When propagation security levels along the SDG (step "2.a"), use the whole slice, or just the sdg predecessors
+	 * When propagation security levels along the SDG (step "2.a"), use the whole slice, or just the sdg predecessors.
+	 * Both methods lead to the same classification, as each node of a backward slice transitively reaches the criterion.
 	 **/
 	protected final PredecessorMethod predecessorMethod;
 
@@ -121,71 +119,15 @@ public class ORLSODChecker<L> extends AnnotationMapChecker<L> {
 		inferUserAnnotationsOnDemand();
 		
 		final SDG sdg = this.getSDG();
-		final IStaticLattice<L> secLattice = this.getLattice();
 		
-		final I2PBackward backw = new I2PBackward(sdg);
 		// 1.) initialize classification: we go from the bottom up, so every
 		// node is classified as low initially
 		// except for the user annotated nodes: They are classified with the
 		// level given by the user
-		cl = initCL(true);
-		// 2.) fixed-point iteration
-		int numIters = 0;
-		boolean change;
-		do {
-			change = false;
-			for (final SDGNode n : sdg.vertexSet()) {
-				final L oldLevel = cl.get(n);
-				// nothing changes if current level is top already
-				if (secLattice.getTop().equals(oldLevel)) {
-					continue;
-				}
-				L newLevel = oldLevel;
-
-				// 2a.) propagate from sdg predecessors
-				final Collection<SDGNode> predecessors;
-				switch (predecessorMethod) {
-				case EDGE:
-					// @formatter:off
-					predecessors = sdg.incomingEdgesOf(n).stream()
-					                                     .filter((e) -> e.getKind().isSDGEdge())
-					                                     .map(SDGEdge::getSource)
-					                                     .collect(Collectors.toSet());
-					// @formatter:on
-					debug.outln(String.format("BS(%s) = %s", n, predecessors));
-					break;
-				case SLICE:
-					predecessors = backw.slice(n);
-					debug.outln(String.format("PRED(%s) = %s", n, predecessors));
-					break;
-				default:
-					throw new IllegalArgumentException(predecessorMethod.toString());
-				}
-				for (final SDGNode m : predecessors) {
-					newLevel = secLattice.leastUpperBound(newLevel, cl.get(m));
-					if (secLattice.getTop().equals(newLevel)) {
-						break; // we can abort the loop here - level cannot get
-						// any higher
-					}
-				}
-				// 2b.) propagate security levels from probabilistic influencers
-				final Collection<? extends SDGNode> pi = probInf.getProbabilisticInfluencers(n);
-				debug.outln(String.format("ProbInf(%s) = %s", n, pi));
-				for (final SDGNode cp : pi) {
-					newLevel = secLattice.leastUpperBound(newLevel, cl.get(cp));
-					if (secLattice.getTop().equals(newLevel)) {
-						break; // we can abort the loop here - level cannot get
-						// any higher
-					}
-				}
-				if (!newLevel.equals(oldLevel)) {
-					cl.put(n, newLevel);
-					change = true;
-				}
-			}
-			numIters++;
-		} while (change);
-		debug.outln(String.format("needed %d iteration(s).", numIters));
+		// 2.) fixed-point iteration: propagate the levels along the condensed
+		// dependence graph (see LevelPropagation), both predecessor methods
+		// lead to the same fixed point
+		cl = new LevelPropagation(sdg, probInf).propagate(getIntLattice(), userAnn);
 		// 3.) check that sink levels comply
 		return checkCompliance();
 	}
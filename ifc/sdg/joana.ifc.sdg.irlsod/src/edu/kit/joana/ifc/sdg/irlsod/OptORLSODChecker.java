@@ -1,34 +1,17 @@
 package edu.kit.joana.ifc.sdg.irlsod;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
-import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
-import edu.kit.joana.util.maps.MapUtils;
 
 public class OptORLSODChecker<L> extends ORLSODChecker<L> {
 
-	/**
-	 * maps each node to all the nodes which must be updated when the security level of the node has changed
-	 */
-	private Map<SDGNode, Set<SDGNode>> forwDep;
-
-	/**
-	 * maps each node to the nodes from which the security level of the node can be computed
-	 */
-	private Map<SDGNode, Set<SDGNode>> backwDep;
-	
 	private SDG sdg;
 
 	public OptORLSODChecker(final SDG sdg, final IStaticLattice<L> secLattice, final ProbInfComputer probInf) {
@@ -45,57 +28,8 @@ public class OptORLSODChecker<L> extends ORLSODChecker<L> {
 	public Collection<? extends IViolation<SecurityNode>> checkIFlow() throws NotInLatticeException {
 		inferUserAnnotationsOnDemand();
 		
-		final IStaticLattice<L> secLattice = this.getLattice();
-		cl = initCL(false);
-		backwDep = computeBackwardDep();
-		forwDep = MapUtils.invert(backwDep);
-		final LinkedList<SDGNode> worklist = new LinkedList<SDGNode>();
-		for (final SDGNode n : userAnn.keySet()) {
-			worklist.add(n);
-			cl.put(n, userAnn.get(n));
-		}
-		while (!worklist.isEmpty()) {
-			final SDGNode next = worklist.poll();
-			L level = cl.get(next);
-			if (forwDep.get(next) == null) {
-				continue;
-			}
-			
-			for (final SDGNode depNext : forwDep.get(next)) {
-				final L oldLevel = cl.get(depNext);
-				L newLevel = secLattice.leastUpperBound(oldLevel, level);
-				if (!newLevel.equals(oldLevel)) {
-					worklist.add(depNext);
-					cl.put(depNext, newLevel);
-				}
-			}
-		}
+		cl = new LevelPropagation(sdg, probInf).propagate(getIntLattice(), userAnn);
 		return checkCompliance();
 	}
 
-	protected Map<SDGNode, Set<SDGNode>> computeBackwardDep() {
-		final SDG sdg = this.getSDG();
-		
-		final Map<SDGNode, Set<SDGNode>> ret = new HashMap<SDGNode, Set<SDGNode>>();
-		for (final SDGNode n : sdg.vertexSet()) {
-			ret.put(n, computeBackwardDeps(n));
-		}
-		return ret;
-	}
-
-	protected Set<SDGNode> computeBackwardDeps(final SDGNode n) {
-		final Set<SDGNode> dep = new HashSet<SDGNode>();
-		dep.addAll(sdgStep(n));
-		dep.addAll(probInf.getProbabilisticInfluencers(n));
-		dep.remove(n);
-		return dep;
-	}
-
-	private Collection<? extends SDGNode> sdgStep(SDGNode n) {
-		return sdg.incomingEdgesOf(n).stream()
-				.filter(e->e.getKind().isSDGEdge())
-				.map(SDGEdge::getSource)
-				.collect(Collectors.toSet());
-	}
-
 }
@@ -163,11 +163,9 @@ public class OriginalTimingClassificationChecker<L> extends AnnotationMapChecker
 			}
 		}
 		// relative timing of annotated nodes
-		for (final SDGNode n : userAnn.keySet()) {
-			for (final SDGNode m : userAnn.keySet()) {
-				if (mhp.isParallel(m, n)) {
-					ret.put(Pair.pair(n, m), l.getBottom());
-				}
+		for (final SDGNode m : userAnn.keySet()) {
+			for (final SDGNode n : mhp.parallelTo(m, userAnn.keySet())) {
+				ret.put(Pair.pair(n, m), l.getBottom());
 			}
 		}
 		return ret;
@@ -1,21 +1,18 @@
 package edu.kit.joana.ifc.sdg.irlsod;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import org.jgrapht.DirectedGraph;
-import org.jgrapht.alg.DijkstraShortestPath;
-import org.jgrapht.graph.DefaultDirectedGraph;
-import org.jgrapht.graph.DefaultEdge;
-
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.core.violations.BinaryViolation;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
@@ -38,29 +35,27 @@ public class PathBasedORLSODChecker<L> extends OptORLSODChecker<L> {
 		inferUserAnnotationsOnDemand();
 		
 		final SDG sdg = this.getSDG();
-		final IStaticLattice<L> secLattice = this.getLattice();
+		final IntLattice<L> secLattice = this.getIntLattice();
 		
-		DirectedGraph<SDGNode, DefaultEdge> depGraph = new DefaultDirectedGraph<SDGNode, DefaultEdge>(DefaultEdge.class);
-		for (final SDGNode n : sdg.vertexSet()) {
-			for (final SDGNode inflN : computeBackwardDeps(n)) {
-				depGraph.addVertex(inflN);
-				depGraph.addVertex(n);
-				depGraph.addEdge(inflN, n);
-			}
-		}
+		final LevelPropagation deps = new LevelPropagation(sdg, probInf);
 		final List<BinaryViolation<SecurityNode, L>> ret = new LinkedList<BinaryViolation<SecurityNode, L>>();
 		for (final Map.Entry<SDGNode, L> userEntry1 : userAnn.entrySet()) {
+			final int level1 = secLattice.getId(userEntry1.getValue());
+			// nodes which may be influenced by the first node, computed on demand
+			BitSet influenced = null;
 			for (final Map.Entry<SDGNode, L> userEntry2 : userAnn.entrySet()) {
-				if (secLattice.isLeq(userEntry1.getValue(), userEntry2.getValue())) {
+				if (secLattice.isLeq(level1, secLattice.getId(userEntry2.getValue()))) {
 					continue;
 				}
-				final List<DefaultEdge> path = DijkstraShortestPath.findPathBetween(depGraph, userEntry1.getKey(),
-						userEntry2.getKey());
-				if (path == null) {
+				if (influenced == null) {
+					influenced = deps.influenced(userEntry1.getKey());
+				}
+				if (!deps.isInfluenced(influenced, userEntry2.getKey())) {
 					debug.outln(
 							String.format("%s cannot influence %s.", userEntry1.getKey(), userEntry2.getKey()));
 				} else {
-					debug.outln(path);
+					debug.outln(
+							String.format("%s may influence %s.", userEntry1.getKey(), userEntry2.getKey()));
 					ret.add(new BinaryViolation<SecurityNode, L>(new SecurityNode(userEntry2.getKey()),
 							new SecurityNode(userEntry1.getKey()), userEntry2.getValue()));
 				}
@@ -7,11 +7,16 @@
  */
 package edu.kit.joana.ifc.sdg.mhpoptimization;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
-import edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGForward;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFGReachability;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
@@ -57,10 +62,26 @@ public final class PruneInterferences {
 		int all = 0;
 		int x = 0;
 		
-		CFGForward forw = new CFGForward(ICFGBuilder.extractICFGIncludingJoins(graph));
-		for (SDGEdge e : graph.edgeSet()) {
-			if (e.getKind() == SDGEdge.Kind.INTERFERENCE
-					|| e.getKind() == SDGEdge.Kind.INTERFERENCE_WRITE) {
+		CFGReachability reach = new CFGReachability(ICFGBuilder.extractICFGIncludingJoins(graph), CFGReachability.Mode.SLICE);
+		final List<SDGEdge> interferences = new ArrayList<SDGEdge>();
+		final List<SDGNode> targets = new ArrayList<SDGNode>();
+		for (SDGNode n : graph.vertexSet()) {
+			interferences.clear();
+			targets.clear();
+			for (SDGEdge e : graph.outgoingEdgesOf(n)) {
+				if (e.getKind() == SDGEdge.Kind.INTERFERENCE
+						|| e.getKind() == SDGEdge.Kind.INTERFERENCE_WRITE) {
+					interferences.add(e);
+					targets.add(e.getTarget());
+				}
+			}
+			if (interferences.isEmpty()) {
+				continue;
+			}
+
+			// query the mhp information of all interference edges of n at once
+			final Set<SDGNode> parallel = new HashSet<SDGNode>(mhp.parallelTo(n, targets));
+			for (SDGEdge e : interferences) {
 				all++;
 				
 				/**
@@ -76,7 +97,7 @@ public final class PruneInterferences {
 				 * But until this interference pruning analysis is integrated into the SDG building process itself (where we have the chance to do it right), we stick
 				 * to this hack-fix to avoid a soundness leak here.
 				 */
-				if (!mhp.isParallel(e.getSource(), e.getTarget()) && (guaranteedSameThread(e, graph.getThreadsInfo()) || !(e.getKind() == SDGEdge.Kind.INTERFERENCE && interThreadFlowPossible(e, forw)))) {
+				if (!parallel.contains(e.getTarget()) && (guaranteedSameThread(e, graph.getThreadsInfo()) || !(e.getKind() == SDGEdge.Kind.INTERFERENCE && interThreadFlowPossible(e, reach)))) {
 					remove.add(e);
 					x++;
 				}
@@ -110,14 +131,15 @@ public final class PruneInterferences {
 	}
 	
 	/**
-	 * Uses the given forward slicer to determine whether the source of the given edge can reach the target of the given edge in the control-flow graph (including joins).
-	 * The slicer is given as parameter here for efficiency reasons. It was initialized with the control-flow graph to be used for slicing.
+	 * Uses the given reachability index to determine whether the source of the given edge can reach the target of the given edge in the control-flow graph (including joins),
+	 * i.e. whether the target is in the forward slice of the source in this graph.
+	 * The index is given as parameter here for efficiency reasons. It was built on the control-flow graph to be used.
 	 * @param e edge to check
-	 * @param forw forward slicer to use for reachability analysis
+	 * @param reach reachability index of the control-flow graph in mode {@link CFGReachability.Mode#SLICE}
 	 * @return whether the source of the given edge can reach the target of the given edge in the control-flow graph (including joins)
 	 */
-	private static boolean interThreadFlowPossible(SDGEdge e, CFGForward forw) {
-		return forw.slice(e.getSource()).contains(e.getTarget());
+	private static boolean interThreadFlowPossible(SDGEdge e, CFGReachability reach) {
+		return reach.reaches(e.getSource(), e.getTarget());
 	}
 
 }
@@ -0,0 +1,87 @@
+package edu.kit.joana.ifc.sdg.lattice.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.lattice.IEditableLattice;
+import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
+import edu.kit.joana.ifc.sdg.lattice.LatticeUtil;
+import edu.kit.joana.ifc.sdg.lattice.impl.EditableLatticeSimple;
+import edu.kit.joana.ifc.sdg.lattice.impl.PowersetLattice;
+
+public class IntLatticeTest {
+
+	private static <ElementType> void testPair(IStaticLattice<ElementType> lattice, IntLattice<ElementType> intLattice,
+			ElementType x, ElementType y) {
+		final int i = intLattice.getId(x);
+		final int j = intLattice.getId(y);
+		assertEquals(lattice.leastUpperBound(x, y), intLattice.getElement(intLattice.leastUpperBound(i, j)));
+		assertEquals(lattice.greatestLowerBound(x, y), intLattice.getElement(intLattice.greatestLowerBound(i, j)));
+		assertEquals(lattice.isLeq(x, y), intLattice.isLeq(i, j));
+		// the ids are a linear extension of the order
+		assertTrue(!intLattice.isLeq(i, j) || i <= j);
+	}
+
+	private static <ElementType> void testAllPairs(IStaticLattice<ElementType> lattice) {
+		final IntLattice<ElementType> intLattice = IntLattice.of(lattice);
+		assertEquals(lattice.getTop(), intLattice.getElement(intLattice.getTopId()));
+		assertEquals(lattice.getBottom(), intLattice.getElement(intLattice.getBottomId()));
+		assertSame(intLattice, IntLattice.of(intLattice));
+		for (ElementType x : lattice.getElements()) {
+			for (ElementType y : lattice.getElements()) {
+				testPair(lattice, intLattice, x, y);
+			}
+		}
+	}
+
+	@Test
+	public void testPowerset() {
+		testAllPairs(new PowersetLattice<>(new HashSet<>(Arrays.asList("customer", "provider", "application"))));
+	}
+
+	@Test
+	public void testCompleted() {
+		IEditableLattice<String> lattice = new EditableLatticeSimple<>();
+		String[] levels  = { "customer", "provider", "application",
+		                     "customer provider", "application customer", "application provider"
+		};
+		for (String level : levels) {
+			lattice.addElement(level);
+		}
+		lattice.setImmediatelyGreater("customer provider", "provider");
+		lattice.setImmediatelyGreater("customer provider",  "customer");
+		lattice.setImmediatelyGreater("application customer", "customer");
+		lattice.setImmediatelyGreater("application customer", "application");
+		lattice.setImmediatelyGreater("application provider", "application");
+		lattice.setImmediatelyGreater("application provider", "provider");
+
+		testAllPairs(LatticeUtil.dedekindMcNeilleCompletion(lattice));
+	}
+
+	@Test
+	public void testWithoutTables() {
+		final Set<Integer> top = new HashSet<>();
+		for (int i = 0; i < 10; i++) {
+			top.add(i);
+		}
+		final PowersetLattice<Integer> lattice = new PowersetLattice<>(top);
+		final IntLattice<Set<Integer>> intLattice = IntLattice.of(lattice);
+		assertTrue(intLattice.size() > IntLattice.MAX_TABLE_SIZE);
+
+		final List<Set<Integer>> elements = new ArrayList<>(lattice.getElements());
+		final Random random = new Random(0);
+		for (int k = 0; k < 10000; k++) {
+			testPair(lattice, intLattice, elements.get(random.nextInt(elements.size())),
+					elements.get(random.nextInt(elements.size())));
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+
+package edu.kit.joana.ifc.sdg.qifc.nildumu;
+
+import static edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.B.U;
+import static edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.bl;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Bit;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.DependencySet;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.DependencySetImpl;
+
+/**
+ * Tests the {@link DependencySetImpl} against a {@link HashSet}
+ */
+public class DependencySetTest {
+
+	/** spans several 64 bit blocks */
+	private static final int NUMBER_OF_BITS = 300;
+
+	private static List<Bit> createBits() {
+		List<Bit> bits = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_BITS; i++) {
+			bits.add(bl.forceCreateXBit());
+		}
+		return bits;
+	}
+
+	private static void assertSameSet(Set<Bit> expected, DependencySetImpl actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		long lastBitNo = -1;
+		for (Bit bit : actual) {
+			assertTrue(bit.bitNo > lastBitNo, "bits are ordered by their number");
+			lastBitNo = bit.bitNo;
+		}
+	}
+
+	@Test
+	public void testAddAndRemoveAcrossBlocks() {
+		List<Bit> bits = createBits();
+		Random random = new Random(42);
+		Set<Bit> expected = new HashSet<>();
+		DependencySetImpl actual = new DependencySetImpl(Collections.emptyList());
+		for (int i = 0; i < 5000; i++) {
+			Bit bit = bits.get(random.nextInt(bits.size()));
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(bit), actual.remove(bit));
+			} else {
+				assertEquals(expected.add(bit), actual.add(bit));
+			}
+			assertEquals(expected.contains(bit), actual.contains(bit));
+		}
+		assertSameSet(expected, actual);
+		for (Bit bit : bits) {
+			assertEquals(expected.contains(bit), actual.contains(bit));
+		}
+		for (Bit bit : new ArrayList<>(expected)) {
+			assertTrue(actual.remove(bit));
+		}
+		assertTrue(actual.isEmpty());
+	}
+
+	@Test
+	public void testEqualsAndHashCode() {
+		List<Bit> bits = createBits();
+		Random random = new Random(42);
+		for (int i = 0; i < 200; i++) {
+			Set<Bit> first = new HashSet<>();
+			Set<Bit> second = new HashSet<>();
+			for (int j = random.nextInt(10); j > 0; j--) {
+				Bit bit = bits.get(random.nextInt(bits.size()));
+				first.add(bit);
+				if (random.nextInt(10) != 0) {
+					second.add(bit);
+				}
+			}
+			// the second set is built in a different order and with bits that are removed again
+			DependencySetImpl firstImpl = new DependencySetImpl(first);
+			DependencySetImpl secondImpl = new DependencySetImpl(Collections.emptyList());
+			List<Bit> shuffled = new ArrayList<>(second);
+			Collections.shuffle(shuffled, random);
+			for (Bit bit : shuffled) {
+				Bit other = bits.get(random.nextInt(bits.size()));
+				boolean added = secondImpl.add(other);
+				secondImpl.add(bit);
+				if (added && !second.contains(other)) {
+					secondImpl.remove(other);
+				}
+			}
+			assertSameSet(first, firstImpl);
+			assertSameSet(second, secondImpl);
+			assertEquals(first.equals(second), firstImpl.equals(secondImpl));
+			assertEquals(first.equals(second), secondImpl.equals(firstImpl));
+			if (first.equals(second)) {
+				assertEquals(firstImpl.hashCode(), secondImpl.hashCode());
+			}
+			assertEquals(first.isEmpty(), firstImpl.equals(Lattices.ds.empty()));
+		}
+	}
+
+	@Test
+	public void testFrozenSetsAreCopiedOnWrite() {
+		List<Bit> bits = createBits();
+		DependencySetImpl frozen = new DependencySetImpl(bits.subList(0, 100)).freeze();
+		assertTrue(frozen.isFrozen());
+		assertThrows(UnsupportedOperationException.class, () -> frozen.add(bits.get(200)));
+		assertThrows(UnsupportedOperationException.class, () -> frozen.remove(bits.get(0)));
+
+		DependencySet copy = frozen.copy();
+		assertFalse(((DependencySetImpl) copy).isFrozen());
+		assertTrue(copy.add(bits.get(200)));
+		assertEquals(100, frozen.size());
+
+		Bit adding = bl.create(U, frozen);
+		Bit removing = bl.create(U, frozen);
+		assertSame(frozen, adding.deps());
+		adding.addDependency(bits.get(200));
+		removing.removeXDependency(bits.get(0));
+
+		assertNotSame(frozen, adding.deps());
+		assertNotSame(frozen, removing.deps());
+		assertTrue(adding.deps().contains(bits.get(200)));
+		assertFalse(removing.deps().contains(bits.get(0)));
+		assertEquals(101, adding.deps().size());
+		assertEquals(99, removing.deps().size());
+		assertEquals(new HashSet<>(bits.subList(0, 100)), frozen);
+		assertNotEquals(frozen, adding.deps());
+
+		// a dependency that is already contained does not copy the set
+		Bit unchanged = bl.create(U, frozen);
+		unchanged.addDependency(bits.get(0));
+		assertSame(frozen, unchanged.deps());
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+
+package edu.kit.joana.ifc.sdg.qifc.nildumu;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Sec;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.MinCut.ComputationResult;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Runner.TestCase;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.prog.SimpleTestBed;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.prog.SimpleTestBed2;
+
+/**
+ * Compares the run time and the max flows of the min cut algorithms on the programs of the test beds. Each program
+ * is analyzed once, then the leakage for all security levels is computed with every algorithm.
+ * <p>
+ * Usage: MinCutBenchmark [repetitions per program and algorithm, default 10]
+ */
+public class MinCutBenchmark {
+
+	public static void main(String[] args) {
+		final int repetitions = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		final Map<MinCut.Algo, Long> totalNanos = new EnumMap<>(MinCut.Algo.class);
+		final MinCut.Algo usedAlgo = MinCut.usedAlgo;
+		try {
+			Stream.of(SimpleTestBed.class, SimpleTestBed2.class)
+				.flatMap(Runner::testCasesForClassAndInnerClasses)
+				.forEach(testCase -> {
+					final Context context = analyze(testCase);
+					final StringBuilder line = new StringBuilder(testCase.description());
+					String dinicFlows = null;
+					String ekFlows = null;
+					for (MinCut.Algo algo : MinCut.Algo.values()) {
+						MinCut.usedAlgo = algo;
+						Map<Sec<?>, ComputationResult> res = MinCut.compute(context); // warm up
+						final long start = System.nanoTime();
+						for (int i = 0; i < repetitions; i++) {
+							res = MinCut.compute(context);
+						}
+						final long nanos = (System.nanoTime() - start) / repetitions;
+						totalNanos.merge(algo, nanos, Long::sum);
+						final String flows = maxFlows(res);
+						if (algo == MinCut.Algo.DINIC) {
+							dinicFlows = flows;
+						} else if (algo == MinCut.Algo.EK_APPROX) {
+							ekFlows = flows;
+						}
+						line.append(String.format("\t%s: %dus %s", algo.name(), nanos / 1000, flows));
+					}
+					if (!dinicFlows.equals(ekFlows)) {
+						line.append("\tmax flows differ");
+					}
+					System.out.println(line);
+				});
+		} finally {
+			MinCut.usedAlgo = usedAlgo;
+		}
+		totalNanos.forEach((algo, nanos) -> System.out.println(String.format("%s: %dms in total", algo, nanos / 1000000)));
+	}
+
+	static Context analyze(TestCase testCase) {
+		final List<String> handlerProps = testCase.applicableMethodInvocationHandlerProps();
+		final Builder builder = new Builder();
+		builder.methodInvocationHandler(handlerProps.isEmpty() ? null : handlerProps.get(0))
+			   .entry(testCase.klass)
+			   .entryMethod(testCase.mainMethod);
+		return builder.buildProgramOrDie().analyze();
+	}
+
+	private static String maxFlows(Map<Sec<?>, ComputationResult> res) {
+		return new TreeMap<>(res.entrySet().stream()
+				.collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().maxFlow))).toString();
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+
+package edu.kit.joana.ifc.sdg.qifc.nildumu;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Sec;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.MinCut.ComputationResult;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Runner.TestCase;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.prog.SimpleTestBed;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.prog.SimpleTestBed2;
+
+/**
+ * Checks that {@link MinCut.Dinic} computes the same max flows as {@link MinCut.ApproxEdmondsKarp} for all security
+ * levels of the programs of the test beds
+ */
+public class MinCutTests {
+
+	public static Stream<TestCase> testCasesSupplier() {
+		return Stream.of(SimpleTestBed.class, SimpleTestBed2.class)
+				.flatMap(Runner::testCasesForClassAndInnerClasses);
+	}
+
+	@ParameterizedTest
+	@MethodSource("testCasesSupplier")
+	void testDinicMatchesEdmondsKarp(TestCase testCase) {
+		final Context context = MinCutBenchmark.analyze(testCase);
+		final MinCut.Algo usedAlgo = MinCut.usedAlgo;
+		try {
+			MinCut.usedAlgo = MinCut.Algo.EK_APPROX;
+			final Map<Sec<?>, ComputationResult> expected = MinCut.compute(context);
+			MinCut.usedAlgo = MinCut.Algo.DINIC;
+			final Map<Sec<?>, ComputationResult> actual = MinCut.compute(context);
+			assertEquals(expected.keySet(), actual.keySet());
+			for (Sec<?> sec : expected.keySet()) {
+				assertEquals(expected.get(sec).maxFlow, actual.get(sec).maxFlow,
+						testCase.description() + ": max flow for " + sec);
+			}
+		} finally {
+			MinCut.usedAlgo = usedAlgo;
+		}
+	}
+}
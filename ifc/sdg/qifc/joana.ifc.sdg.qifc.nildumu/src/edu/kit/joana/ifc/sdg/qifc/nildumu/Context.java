@@ -64,6 +64,7 @@ import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.BasicSecLattice;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Bit;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.BitLattice;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.DependencySet;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.DependencySetImpl;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Lattice;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Sec;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.SecurityLattice;
@@ -220,6 +221,19 @@ public class Context {
 
     public static final int INFTY = Integer.MAX_VALUE;
 
+    /*-------------------------- hash consing -------------------------------*/
+
+    /**
+     * Canonical (frozen) dependency sets, the evaluation of a node creates the same dependency sets
+     * in every iteration
+     */
+    private final Map<DependencySet, DependencySet> internedDependencySets = new HashMap<>();
+
+    /**
+     * Canonical values of bits that are replaced under a conditional, keyed by the bit list of the value
+     */
+    private final Map<List<Bit>, Value> internedValues = new HashMap<>();
+
     /*-------------------------- methods -------------------------------*/
 
     private MethodInvocationHandler methodInvocationHandler;
@@ -524,15 +538,45 @@ public class Context {
 
     public Value replace(Optional<AffectingConditional> cond, Value value) {
         Box<Boolean> replacedABit = new Box<>(false);
-        Value newValue = value.stream().map(b -> {
+        List<Bit> newBits = value.stream().map(b -> {
             Bit r = replace(cond, b);
             if (r != b){
                 replacedABit.val = true;
             }
             return r;
-        }).collect(Value.collector());
+        }).collect(Collectors.toList());
         if (replacedABit.val){
-            return newValue;
+            return intern(newBits);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the canonical instance of the dependency set. Canonical instances are frozen, so they are
+     * equal only if they are identical. Bits copy a frozen set before adding dependencies to it.
+     */
+    public DependencySet intern(DependencySet deps){
+        if (deps.isEmpty()){
+            return Lattices.ds.empty();
+        }
+        DependencySetImpl impl = deps instanceof DependencySetImpl ? (DependencySetImpl)deps : new DependencySetImpl(deps);
+        DependencySet canonical = internedDependencySets.get(impl);
+        if (canonical == null){
+            canonical = impl.isFrozen() ? impl : new DependencySetImpl(impl).freeze();
+            internedDependencySets.put(canonical, canonical);
+        }
+        return canonical;
+    }
+
+    /**
+     * Returns the canonical value with the given bits. A new value is only created if there is none yet,
+     * as creating a value sets it as the value of each of its bits.
+     */
+    private Value intern(List<Bit> bits){
+        Value value = internedValues.get(bits);
+        if (value == null){
+            value = new Value(bits);
+            internedValues.put(bits, value);
         }
         return value;
     }
@@ -707,6 +751,8 @@ public class Context {
 
     public void resetNodeValueStates(){
         nodeValueStates.clear();
+        internedDependencySets.clear();
+        internedValues.clear();
         nodeValueState = nodeValueStates.get(currentCallPath);
     }
 
@@ -29,7 +29,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
@@ -616,19 +615,120 @@ public class Lattices {
 	        DependencySet copy();
 	    }
 
-	    public static class DependencySetImpl extends HashSet<Bit> implements DependencySet {
+	    /**
+	     * Dependency set that is backed by a sparse bit set over the numbers of its bits: the numbers are
+	     * grouped in blocks of 64, only the non empty blocks are stored, each as its block index and a word.
+	     * The bits themselves are stored ordered by their number, so iteration is ordered and contains,
+	     * equals and copy work on the words and arrays without hashing.
+	     * <p>
+	     * A set can be frozen (see {@link Context#intern(DependencySet)}), frozen sets cannot be modified,
+	     * {@link Bit#addDependency(Bit)} copies them first.
+	     */
+	    public static class DependencySetImpl extends AbstractSet<Bit> implements DependencySet {
+
+	        private static final long[] NO_WORDS = new long[0];
+	        private static final Bit[] NO_BITS = new Bit[0];
+
+	        /** sorted indexes of the non empty blocks */
+	        private long[] blocks;
+	        private long[] words;
+	        private int blockCount;
+	        /** bits ordered by their number */
+	        private Bit[] bits;
+	        private int size;
+	        private boolean frozen = false;
 
 	        public DependencySetImpl(Collection<? extends Bit> c) {
-	            super(c);
+	            if (c instanceof DependencySetImpl) {
+	                DependencySetImpl other = (DependencySetImpl) c;
+	                blocks = Arrays.copyOf(other.blocks, other.blockCount);
+	                words = Arrays.copyOf(other.words, other.blockCount);
+	                blockCount = other.blockCount;
+	                bits = Arrays.copyOf(other.bits, other.size);
+	                size = other.size;
+	                return;
+	            }
+	            Bit[] sorted = c.toArray(NO_BITS);
+	            Arrays.sort(sorted, (a, b) -> Long.compare(a.bitNo, b.bitNo));
+	            blocks = sorted.length == 0 ? NO_WORDS : new long[sorted.length];
+	            words = sorted.length == 0 ? NO_WORDS : new long[sorted.length];
+	            bits = sorted;
+	            for (Bit bit : sorted) {
+	                if (size > 0 && bits[size - 1].bitNo == bit.bitNo) {
+	                    continue;
+	                }
+	                bits[size++] = bit;
+	                long block = bit.bitNo >>> 6;
+	                if (blockCount == 0 || blocks[blockCount - 1] != block) {
+	                    blocks[blockCount++] = block;
+	                }
+	                words[blockCount - 1] |= 1L << bit.bitNo;
+	            }
 	        }
 
 	        private DependencySetImpl(Bit bit){
 	            this(Collections.singleton(bit));
 	        }
 
+	        private int blockIndex(long bitNo) {
+	            return Arrays.binarySearch(blocks, 0, blockCount, bitNo >>> 6);
+	        }
+
+	        private int bitIndex(long bitNo) {
+	            int low = 0;
+	            int high = size - 1;
+	            while (low <= high) {
+	                int mid = (low + high) >>> 1;
+	                long midNo = bits[mid].bitNo;
+	                if (midNo < bitNo) {
+	                    low = mid + 1;
+	                } else if (midNo > bitNo) {
+	                    high = mid - 1;
+	                } else {
+	                    return mid;
+	                }
+	            }
+	            return -(low + 1);
+	        }
+
+	        @Override
+	        public boolean contains(Object o) {
+	            if (!(o instanceof Bit)) {
+	                return false;
+	            }
+	            long bitNo = ((Bit) o).bitNo;
+	            int i = blockIndex(bitNo);
+	            return i >= 0 && (words[i] & (1L << bitNo)) != 0;
+	        }
+
 	        @Override
 	        public boolean add(Bit bit) {
-	            return super.add(bit);
+	            checkNotFrozen();
+	            if (contains(bit)) {
+	                return false;
+	            }
+	            int i = blockIndex(bit.bitNo);
+	            if (i < 0) {
+	                i = -(i + 1);
+	                if (blockCount == blocks.length) {
+	                    blocks = Arrays.copyOf(blocks, Math.max(4, blockCount * 2));
+	                    words = Arrays.copyOf(words, blocks.length);
+	                }
+	                System.arraycopy(blocks, i, blocks, i + 1, blockCount - i);
+	                System.arraycopy(words, i, words, i + 1, blockCount - i);
+	                blocks[i] = bit.bitNo >>> 6;
+	                words[i] = 0;
+	                blockCount++;
+	            }
+	            words[i] |= 1L << bit.bitNo;
+	            int j = -(bitIndex(bit.bitNo) + 1);
+	            if (size == bits.length) {
+	                bits = Arrays.copyOf(bits, Math.max(4, size * 2));
+	            }
+	            System.arraycopy(bits, j, bits, j + 1, size - j);
+	            bits[j] = bit;
+	            size++;
+	            return true;
 	        }
 
 	        @Override
@@ -639,7 +739,22 @@ public class Lattices {
 	        @Override
 	        public boolean remove(Object o) {
 	            assert o instanceof Bit && ((Bit) o).val == X;
-	            return super.remove(o);
+	            checkNotFrozen();
+	            if (!contains(o)) {
+	                return false;
+	            }
+	            long bitNo = ((Bit) o).bitNo;
+	            int i = blockIndex(bitNo);
+	            words[i] &= ~(1L << bitNo);
+	            if (words[i] == 0) {
+	                System.arraycopy(blocks, i + 1, blocks, i, blockCount - i - 1);
+	                System.arraycopy(words, i + 1, words, i, blockCount - i - 1);
+	                blockCount--;
+	            }
+	            int j = bitIndex(bitNo);
+	            System.arraycopy(bits, j + 1, bits, j, size - j - 1);
+	            bits[--size] = null;
+	            return true;
 	        }
 
 	        @Override
@@ -647,6 +762,50 @@ public class Lattices {
 	            throw new UnsupportedOperationException();
 	        }
 
+	        @Override
+	        public Iterator<Bit> iterator() {
+	            return new Iterator<Bit>() {
+
+	                int i = 0;
+
+	                @Override
+	                public boolean hasNext() {
+	                    return i < size;
+	                }
+
+	                @Override
+	                public Bit next() {
+	                    if (i >= size) {
+	                        throw new NoSuchElementException();
+	                    }
+	                    return bits[i++];
+	                }
+	            };
+	        }
+
+	        @Override
+	        public int size() {
+	            return size;
+	        }
+
+	        private void checkNotFrozen() {
+	            if (frozen) {
+	                throw new UnsupportedOperationException("Modifying a frozen dependency set");
+	            }
+	        }
+
+	        /**
+	         * Makes this set unmodifiable
+	         */
+	        DependencySetImpl freeze() {
+	            frozen = true;
+	            return this;
+	        }
+
+	        public boolean isFrozen() {
+	            return frozen;
+	        }
+
 	        @Override
 	        public String toString() {
 	            return DependencySetLattice.get().toString(this);
@@ -658,7 +817,7 @@ public class Lattices {
 
 	        public Bit getSingleBit(){
 	            assert size() == 1;
-	            return iterator().next();
+	            return bits[0];
 	        }
 
 	        public DependencySet map(Function<Bit, Bit> mapper){
@@ -667,7 +826,34 @@ public class Lattices {
 
 	        @Override
 	        public boolean equals(Object o) {
-	            return (o instanceof DependencySetImpl && super.equals(o)) || (o instanceof EmptyDependencySet && this.isEmpty());
+	            if (o == this) {
+	                return true;
+	            }
+	            if (o instanceof EmptyDependencySet) {
+	                return isEmpty();
+	            }
+	            if (!(o instanceof DependencySetImpl)) {
+	                return super.equals(o);
+	            }
+	            DependencySetImpl other = (DependencySetImpl) o;
+	            if (size != other.size || blockCount != other.blockCount) {
+	                return false;
+	            }
+	            for (int i = 0; i < blockCount; i++) {
+	                if (blocks[i] != other.blocks[i] || words[i] != other.words[i]) {
+	                    return false;
+	                }
+	            }
+	            return true;
+	        }
+
+	        @Override
+	        public int hashCode() {
+	            int hash = 0;
+	            for (int i = 0; i < size; i++) {
+	                hash += bits[i].hashCode();
+	            }
+	            return hash;
 	        }
 
 	        @Override
@@ -1039,11 +1225,21 @@ public class Lattices {
 	            }
 	            if (deps instanceof EmptyDependencySet){
 	                deps = new DependencySetImpl(newDependency);
-	            } else {
-	                deps.add(newDependency);
+	            } else if (!deps.contains(newDependency)) {
+	                modifiableDeps().add(newDependency);
 	            }
 	        }
 
+	        /**
+	         * Copies frozen (shared) dependency sets before they are modified
+	         */
+	        private DependencySet modifiableDeps(){
+	            if (deps instanceof DependencySetImpl && ((DependencySetImpl) deps).isFrozen()){
+	                deps = deps.copy();
+	            }
+	            return deps;
+	        }
+
 	        public Bit addDependencies(Collection<Bit> newDependencies){
 	            newDependencies.forEach(this::addDependency);
 	            return this;
@@ -1078,7 +1274,9 @@ public class Lattices {
 
 	        public void removeXDependency(Bit bit) {
 	            assert bit.val == X;
-	            deps.remove(bit);
+	            if (deps.contains(bit)) {
+	                modifiableDeps().remove(bit);
+	            }
 	        }
 
 	        @Override
@@ -1091,7 +1289,8 @@ public class Lattices {
 
 	        @Override
 	        public int hashCode() {
-	            return Objects.hash(bitNo);
+	            // the hash of Objects.hash(bitNo) without boxing, the iteration order of hash sets of bits stays the same
+	            return 31 + Long.hashCode(bitNo);
 	        }
 	        
 	        public Set<Bit> calculateReachedBits(Set<Bit> bitsToReach){
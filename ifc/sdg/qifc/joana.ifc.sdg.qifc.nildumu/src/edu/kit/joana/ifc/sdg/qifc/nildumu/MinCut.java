@@ -17,6 +17,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -57,7 +58,8 @@ public class MinCut {
 
     public static enum Algo {
         EK_APPROX("approximate Edmonds-Karp"),
-        GRAPHT_PP("JGraphT Preflow-Push");
+        GRAPHT_PP("JGraphT Preflow-Push"),
+        DINIC("Dinic");
 
         public final String description;
 
@@ -679,6 +681,271 @@ public class MinCut {
         }
     }
 
+    /**
+     * Dinic's algorithm on a flow network with int indexed nodes that is built once from the bit dependency graph.
+     * Bit i is split into the start node 2i and the end node 2i + 1, connected by an edge whose capacity is the
+     * weight of the bit. The outgoing edges of all nodes are stored as linked lists in arrays, edge e and edge e ^ 1
+     * are the forward and the residual edge of each other.
+     */
+    public static class Dinic extends Algorithm {
+
+        private static final long INFINITE_CAPACITY = Long.MAX_VALUE / 4;
+
+        private final List<Bit> bits = new ArrayList<>();
+        private final Map<Bit, Integer> bitIndex = new HashMap<>();
+        private int source;
+        private int sink;
+        private int nodeCount;
+
+        private int[] head;
+        private int[] next = new int[16];
+        private int[] to = new int[16];
+        private long[] capacity = new long[16];
+        private int edgeCount = 0;
+
+        private int[] level;
+        private int[] iter;
+        /* reused by all searches and augmenting paths, a path visits each node at most once */
+        private int[] queue;
+        private int[] path;
+
+        protected Dinic(Set<Bit> sourceNodes, Set<Bit> sinkNodes, Function<Bit, Integer> weights) {
+            super(sourceNodes, sinkNodes, weights);
+        }
+
+        @Override
+        public ComputationResult compute() {
+            buildNetwork();
+            long flow = maxFlow();
+            if (flow >= INFTY / 2) {
+                return fallback();
+            }
+            boolean[] reachable = reachableInResidualNetwork();
+            Set<Bit> minCut = new HashSet<>();
+            for (int i = 0; i < bits.size(); i++) {
+                if (reachable[2 * i] && !reachable[2 * i + 1]) {
+                    minCut.add(bits.get(i));
+                }
+            }
+            if (minCut.isEmpty() && flow > 0) {
+                return fallback();
+            }
+            return new ComputationResult(minCut, flow);
+        }
+
+        private int index(Bit bit) {
+            Integer i = bitIndex.get(bit);
+            if (i == null) {
+                i = bits.size();
+                bits.add(bit);
+                bitIndex.put(bit, i);
+            }
+            return i;
+        }
+
+        private void buildNetwork() {
+            Set<Bit> alreadyVisited = new HashSet<>();
+            for (Bit bit : sourceNodes) {
+                bl.walkBits(bit, this::index, sinkNodes::contains, alreadyVisited);
+            }
+            for (Bit bit : sinkNodes) {
+                index(bit);
+            }
+            source = 2 * bits.size();
+            sink = source + 1;
+            nodeCount = sink + 1;
+            head = new int[nodeCount];
+            Arrays.fill(head, -1);
+            for (int i = 0; i < bits.size(); i++) {
+                Bit bit = bits.get(i);
+                int weight = weights.apply(bit);
+                addEdge(2 * i, 2 * i + 1, weight == INFTY ? INFINITE_CAPACITY : weight);
+                if (!sinkNodes.contains(bit)) {
+                    for (Bit d : bit.deps()) {
+                        Integer j = bitIndex.get(d);
+                        if (j != null && j != i) {
+                            addEdge(2 * i + 1, 2 * j, INFINITE_CAPACITY);
+                        }
+                    }
+                }
+            }
+            for (Bit bit : sourceNodes) {
+                addEdge(source, 2 * bitIndex.get(bit), INFINITE_CAPACITY);
+            }
+            for (Bit bit : sinkNodes) {
+                addEdge(2 * bitIndex.get(bit) + 1, sink, INFINITE_CAPACITY);
+            }
+            level = new int[nodeCount];
+            iter = new int[nodeCount];
+            queue = new int[nodeCount];
+            path = new int[nodeCount];
+        }
+
+        private void addEdge(int from, int target, long cap) {
+            if (edgeCount + 2 > to.length) {
+                next = Arrays.copyOf(next, to.length * 2);
+                capacity = Arrays.copyOf(capacity, to.length * 2);
+                to = Arrays.copyOf(to, to.length * 2);
+            }
+            to[edgeCount] = target;
+            capacity[edgeCount] = cap;
+            next[edgeCount] = head[from];
+            head[from] = edgeCount++;
+            to[edgeCount] = from;
+            capacity[edgeCount] = 0;
+            next[edgeCount] = head[target];
+            head[target] = edgeCount++;
+        }
+
+        private long maxFlow() {
+            long flow = 0;
+            while (flow < INFINITE_CAPACITY && computeLevels()) {
+                System.arraycopy(head, 0, iter, 0, nodeCount);
+                long df;
+                while (flow < INFINITE_CAPACITY && (df = augment()) > 0) {
+                    flow += df;
+                }
+            }
+            return flow;
+        }
+
+        /**
+         * Breadth first search from the source in the residual network
+         *
+         * @return is the sink reachable?
+         */
+        private boolean computeLevels() {
+            Arrays.fill(level, -1);
+            int first = 0;
+            int last = 0;
+            queue[last++] = source;
+            level[source] = 0;
+            while (first < last) {
+                int cur = queue[first++];
+                for (int e = head[cur]; e != -1; e = next[e]) {
+                    if (capacity[e] > 0 && level[to[e]] < 0) {
+                        level[to[e]] = level[cur] + 1;
+                        queue[last++] = to[e];
+                    }
+                }
+            }
+            return level[sink] >= 0;
+        }
+
+        /**
+         * Finds a path from the source to the sink in the level graph and pushes as much flow as possible along it.
+         * Iterative, as the paths may be longer than the stack allows.
+         *
+         * @return the pushed flow, 0 if there is no path left
+         */
+        private long augment() {
+            int depth = 0;
+            int cur = source;
+            while (true) {
+                if (cur == sink) {
+                    long df = INFINITE_CAPACITY;
+                    for (int i = 0; i < depth; i++) {
+                        df = Math.min(df, capacity[path[i]]);
+                    }
+                    for (int i = 0; i < depth; i++) {
+                        capacity[path[i]] -= df;
+                        capacity[path[i] ^ 1] += df;
+                    }
+                    return df;
+                }
+                int e = iter[cur];
+                while (e != -1 && (capacity[e] == 0 || level[to[e]] != level[cur] + 1)) {
+                    e = next[e];
+                }
+                iter[cur] = e;
+                if (e == -1) {
+                    // dead end, the sink is not reachable from cur in this phase
+                    if (depth == 0) {
+                        return 0;
+                    }
+                    level[cur] = -1;
+                    cur = to[path[--depth] ^ 1];
+                    iter[cur] = next[iter[cur]];
+                } else {
+                    path[depth++] = e;
+                    cur = to[e];
+                }
+            }
+        }
+
+        private boolean[] reachableInResidualNetwork() {
+            boolean[] reachable = new boolean[nodeCount];
+            int first = 0;
+            int last = 0;
+            queue[last++] = source;
+            reachable[source] = true;
+            while (first < last) {
+                int cur = queue[first++];
+                for (int e = head[cur]; e != -1; e = next[e]) {
+                    if (capacity[e] > 0 && !reachable[to[e]]) {
+                        reachable[to[e]] = true;
+                        queue[last++] = to[e];
+                    }
+                }
+            }
+            return reachable;
+        }
+
+        /**
+         * Used if the flow is infinite. Like {@link ApproxEdmondsKarp}, the smaller one of the sets of bits
+         * with finite weight that are nearest to the sources or to the sinks is the min cut.
+         */
+        private ComputationResult fallback() {
+            Set<Bit> sourceDeps = finiteFrontier(true);
+            Set<Bit> sinkDeps = finiteFrontier(false);
+            if (sourceDeps == null || sinkDeps == null || sourceDeps.isEmpty() || sinkDeps.isEmpty()) {
+                sourceDeps = sourceNodes;
+                sinkDeps = sinkNodes;
+            }
+            if (sourceDeps.size() < sinkDeps.size()) {
+                return new ComputationResult(sourceDeps, sourceDeps.size());
+            }
+            return new ComputationResult(sinkDeps, sinkDeps.size());
+        }
+
+        /**
+         * Walks from the source (or backwards from the sink) through bits with infinite weight only
+         *
+         * @return the bits with finite weight that are reached or null if the other end of the network is reached
+         */
+        private Set<Bit> finiteFrontier(boolean forward) {
+            Set<Bit> frontier = new HashSet<>();
+            boolean[] visited = new boolean[nodeCount];
+            int first = 0;
+            int last = 0;
+            int parity = forward ? 0 : 1;
+            queue[last++] = forward ? source : sink;
+            while (first < last) {
+                int cur = queue[first++];
+                if (cur == (forward ? sink : source)) {
+                    return null;
+                }
+                if (cur < source) {
+                    // entered a bit, go through it only if its weight is infinite
+                    Bit bit = bits.get(cur / 2);
+                    if (weights.apply(bit) != INFTY) {
+                        frontier.add(bit);
+                        continue;
+                    }
+                    cur ^= 1;
+                }
+                for (int e = head[cur]; e != -1; e = next[e]) {
+                    // forward: the original edges, backward: the residual edges of the incoming original edges
+                    if ((e & 1) == parity && !visited[to[e]]) {
+                        visited[to[e]] = true;
+                        queue[last++] = to[e];
+                    }
+                }
+            }
+            return frontier;
+        }
+    }
+
     /**
      * Choose the algorithm by setting the static {@link MinCut#usedAlgo} variable
      */
@@ -690,6 +957,9 @@ public class MinCut {
                 break;
             case EK_APPROX:
                 cur = new ApproxEdmondsKarp(sourceNodes, sinkNodes, weights);
+                break;
+            case DINIC:
+                cur = new Dinic(sourceNodes, sinkNodes, weights);
         }
         return cur.compute();
     }
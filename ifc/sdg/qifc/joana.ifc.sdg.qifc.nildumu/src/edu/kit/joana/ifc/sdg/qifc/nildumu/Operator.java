@@ -219,7 +219,7 @@ public interface Operator {
             if (bitValue.isConstant()) {
                 return bl.create(bitValue);
             }
-            DependencySet dataDeps = computeDataDependencies(x, y, bitValue);
+            DependencySet dataDeps = c.intern(computeDataDependencies(x, y, bitValue));
             Bit r = bl.create(bitValue, dataDeps);
             c.repl(r, computeModificator(x, y, r, dataDeps));
             return r;
@@ -280,7 +280,7 @@ public interface Operator {
             if (bitValue.isConstant()) {
                 return bl.create(bitValue);
             }
-            DependencySet dataDeps = computeDataDependencies(bits, bitValue);
+            DependencySet dataDeps = c.intern(computeDataDependencies(bits, bitValue));
             Bit r = bl.create(bitValue, dataDeps);
             c.repl(r, computeModsCreator(r, dataDeps));
             return r;
@@ -308,7 +308,7 @@ public interface Operator {
                 if (bitValues.get(i).isConstant()){
                     bits.add(bl.create(bitValues.get(i)));
                 } else {
-                    Bit r = bl.create(bitValues.get(i), dataDeps.get(i));
+                    Bit r = bl.create(bitValues.get(i), c.intern(dataDeps.get(i)));
                     bits.add(r);
                     c.repl(r, computeModsCreator(i + 1, r, x, y, bitValues, dataDeps.get(i)));
                 }
@@ -477,7 +477,7 @@ public interface Operator {
         public Value compute(Context c, Value x) {
             return x.stream().map(b -> {
                 B val = v(b).neg();
-                DependencySet dataDeps = b.isConstant() ? ds.empty() : ds.create(b);
+                DependencySet dataDeps = b.isConstant() ? ds.empty() : c.intern(ds.create(b));
                 Bit r = bl.create(val, dataDeps);
                 c.repl(r, new StructuredModsCreator() {
                     @Override
@@ -703,7 +703,7 @@ public interface Operator {
             if (bitValue.isConstant()) {
                 return bl.create(bitValue);
             }
-            DependencySet dataDeps = computeDataDependencies(bits, bitValue);
+            DependencySet dataDeps = c.intern(computeDataDependencies(bits, bitValue));
             Bit r = bl.create(bitValue, dataDeps);
             c.repl(r, computeModsCreator(r, dataDeps));
             r.addDependencies(computeControlDeps(c, currentNode, bitValue, dataDeps));
@@ -754,7 +754,7 @@ public interface Operator {
     };
     
     public static Bit wrapBit(Context c, Bit source) {
-    	Bit wrap = bl.create(source.val(), ds.create(source));
+    	Bit wrap = bl.create(source.val(), c.intern(ds.create(source)));
     	c.repl(wrap, ((con, b, a) -> con.choose(b, a) == a ? new Mods(b, a).add(c.repl(source).apply(con, source, a)) : Mods.empty()));
     	return wrap;
     }
@@ -136,7 +136,7 @@ public class App {
 				.collect(Collectors.toList());
 		// System.out.println(" Parameters: ");
 		LeakageComputation lc = new LeakageComputation(hVals, leaked.get(), entry);
-		lc.compute(jArgs.outputDirectory);
+		lc.compute(jArgs.outputDirectory, jArgs.threads);
 	}
 
 	private static void compile(String outputDirectory, String programPath, String jarPath)
@@ -167,6 +167,7 @@ public class App {
 		@Parameter(names = "--static", description = "Perform only static analysis on the input program") private boolean onlyStatic = false;
 		@Parameter(names = "--run", description = "Run the program without performing any analysis") private boolean onlyRun = false;
 		@Parameter(names = "--dump-graphs", description = "Dump graphs created by JOANA") private boolean dumpGraphs = false;
+		@Parameter(names = "--threads", description = "Count the models exactly on the given number of threads instead of estimating them with ApproxMC") private int threads = 0;
 		@Parameter(description = "A program for the interpreter to execute, plus optionally the result of a previous static analysis", validateWith = Args.class, converter = Args.class) private List<String> inputFiles = new ArrayList<>();
 
 		@Parameter(names = "--args", description = "Arguments for running the input program", variableArity = true) private List<String> args = new ArrayList<>();
@@ -213,6 +214,9 @@ public class App {
 				}
 			}
 			SimpleLogger.log(String.format("Using output directory: %s", outputDirectory));
+			if (threads < 0) {
+				throw new ParameterException("Error: Number of threads must not be negative.");
+			}
 			// we always need an input program
 			if (inputFiles.size() == 0) {
 				throw new ParameterException("Error: No input file found");
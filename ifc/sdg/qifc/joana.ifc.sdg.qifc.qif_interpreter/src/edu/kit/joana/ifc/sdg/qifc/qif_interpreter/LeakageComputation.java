@@ -9,6 +9,7 @@ import org.logicng.formulas.Formula;
 import org.logicng.formulas.Variable;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -67,16 +68,29 @@ public class LeakageComputation {
 	}
 
 	public void compute(String outputDirectory) throws UnexpectedTypeException, IOException {
+		compute(outputDirectory, 0);
+	}
+
+	/**
+	 * Computes the number of high inputs that produce the leaked value
+	 *
+	 * @param outputDirectory directory for the files of ApproxMC
+	 * @param threads         if positive, the models are counted exactly by a {@link ParallelModelCounter} with
+	 *                        this number of threads instead of being estimated by ApproxMC
+	 */
+	public void compute(String outputDirectory, int threads) throws UnexpectedTypeException, IOException {
 		Formula count = createCountingFormula();
 		// System.out.println("formula: " + count);
 		// FormulaDotFileWriter.write("dot.dot", count, true);
-		int modelCount;
+		BigInteger modelCount;
 
 		if (hVars.stream().noneMatch(count::containsVariable)) {
-			modelCount = (int) Math.pow(2, hVars.size());
+			modelCount = BigInteger.ONE.shiftLeft(hVars.size());
+		} else if (threads > 0) {
+			modelCount = new ParallelModelCounter(threads).count(count, hVars);
 		} else {
 			ApproxMC approxMC = new ApproxMC(outputDirectory);
-			modelCount = approxMC.estimateModelCount(count, hVars);
+			modelCount = BigInteger.valueOf(approxMC.estimateModelCount(count, hVars));
 		}
 		System.out.println("# of inputs w/ the same output: " + modelCount);
 	}
@@ -0,0 +1,221 @@
+package edu.kit.joana.ifc.sdg.qifc.qif_interpreter;
+
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.FType;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.knowledgecompilation.bdds.BDD;
+import org.logicng.knowledgecompilation.bdds.BDDFactory;
+import org.logicng.knowledgecompilation.bdds.jbuddy.BDDKernel;
+import org.logicng.knowledgecompilation.bdds.orderings.ForceOrdering;
+import org.logicng.modelcounting.ModelCounter;
+import org.logicng.transformations.FormulaFactoryImporter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the models of a formula projected on a set of variables (usually the bits of the secret inputs) exactly
+ * and on multiple threads.
+ * <p>
+ * The formula is split by cube-and-conquer: it is restricted by every assignment (cube) of a few of the sampling
+ * variables and the counts of the restricted formulas are summed up. Each restricted formula is split further into
+ * components, conjunctions that do not share variables, and its count is the product of the counts of its
+ * components. The formula factory returns the same formula for structurally identical formulas, so each distinct
+ * component is counted only once, even if it occurs in the restrictions of several cubes. The components are counted
+ * on a work-stealing pool. Formula factories are not thread safe, so each task gets a copy of its formula in its own
+ * factory.
+ */
+public class ParallelModelCounter {
+
+	/* initial size of the node table of a BDD kernel, it grows if needed, and size of its operation caches */
+	private static final int BDD_NODES = 10000;
+	private static final int BDD_CACHE = 10000;
+
+	private final int parallelism;
+	private final int cubeVariables;
+
+	/**
+	 * @param parallelism number of threads used for counting
+	 */
+	public ParallelModelCounter(int parallelism) {
+		this(parallelism, defaultCubeVariables(parallelism));
+	}
+
+	/**
+	 * @param parallelism   number of threads used for counting
+	 * @param cubeVariables number of variables that are assigned in each cube
+	 */
+	public ParallelModelCounter(int parallelism, int cubeVariables) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		if (cubeVariables < 0 || cubeVariables > 30) {
+			throw new IllegalArgumentException("number of cube variables must be between 0 and 30: " + cubeVariables);
+		}
+		this.parallelism = parallelism;
+		this.cubeVariables = cubeVariables;
+	}
+
+	// about four cubes per thread
+	private static int defaultCubeVariables(int parallelism) {
+		return (32 - Integer.numberOfLeadingZeros(Math.max(parallelism, 1) - 1)) + 2;
+	}
+
+	/**
+	 * Counts the assignments of the sampling variables that can be extended to a model of the formula
+	 */
+	public BigInteger count(Formula f, Collection<Variable> samplingSet) {
+		SortedSet<Variable> sampling = new TreeSet<>(samplingSet);
+		List<Variable> cubeVars = sampling.stream().filter(f::containsVariable).limit(cubeVariables)
+				.collect(Collectors.toList());
+		SortedSet<Variable> remaining = new TreeSet<>(sampling);
+		remaining.removeAll(cubeVars);
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			Map<Formula, ForkJoinTask<BigInteger>> counts = new HashMap<>();
+			List<Cube> cubes = new ArrayList<>();
+			for (int cube = 0; cube < (1 << cubeVars.size()); cube++) {
+				List<Literal> literals = new ArrayList<>();
+				for (int i = 0; i < cubeVars.size(); i++) {
+					literals.add(((cube >> i) & 1) == 1 ? cubeVars.get(i) : cubeVars.get(i).negate());
+				}
+				Formula restricted = f.restrict(new Assignment(literals));
+				if (restricted.type() == FType.FALSE) {
+					continue;
+				}
+				List<ForkJoinTask<BigInteger>> componentCounts = new ArrayList<>();
+				for (Formula component : components(restricted)) {
+					ForkJoinTask<BigInteger> task = counts.get(component);
+					if (task == null) {
+						task = pool.submit(countingTask(component, remaining));
+						counts.put(component, task);
+					}
+					componentCounts.add(task);
+				}
+				int constrained = (int) restricted.variables().stream().filter(remaining::contains).count();
+				cubes.add(new Cube(remaining.size() - constrained, componentCounts));
+			}
+			BigInteger count = BigInteger.ZERO;
+			for (Cube cube : cubes) {
+				count = count.add(cube.count());
+			}
+			return count;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * A restricted formula: the counts of its components and the number of sampling variables that it does not contain
+	 */
+	private static final class Cube {
+
+		private final int unconstrained;
+		private final List<ForkJoinTask<BigInteger>> componentCounts;
+
+		Cube(int unconstrained, List<ForkJoinTask<BigInteger>> componentCounts) {
+			this.unconstrained = unconstrained;
+			this.componentCounts = componentCounts;
+		}
+
+		BigInteger count() {
+			BigInteger count = BigInteger.ONE.shiftLeft(unconstrained);
+			for (ForkJoinTask<BigInteger> task : componentCounts) {
+				count = count.multiply(task.join());
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Splits a formula into conjunctions of its operands that do not share variables. Their projected counts multiply.
+	 *
+	 * @return the components, none for the constant true
+	 */
+	static List<Formula> components(Formula f) {
+		if (f.type() == FType.TRUE) {
+			return Collections.emptyList();
+		}
+		if (f.type() != FType.AND) {
+			return Collections.singletonList(f);
+		}
+		List<Formula> operands = new ArrayList<>();
+		f.forEach(operands::add);
+		int[] parent = new int[operands.size()];
+		Map<Variable, Integer> firstOperand = new HashMap<>();
+		for (int i = 0; i < operands.size(); i++) {
+			parent[i] = i;
+			for (Variable v : operands.get(i).variables()) {
+				Integer j = firstOperand.putIfAbsent(v, i);
+				if (j != null) {
+					parent[find(parent, i)] = find(parent, j);
+				}
+			}
+		}
+		Map<Integer, List<Formula>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < operands.size(); i++) {
+			groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(operands.get(i));
+		}
+		return groups.values().stream().map(f.factory()::and).collect(Collectors.toList());
+	}
+
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Creates the counting task for a component, the task counts the models projected on the sampling variables that
+	 * the component contains. The formula is copied into the factory of the task here, as the factory of the original
+	 * formula must only be used by the calling thread.
+	 */
+	private static ForkJoinTask<BigInteger> countingTask(Formula f, SortedSet<Variable> sampling) {
+		FormulaFactory local = new FormulaFactory();
+		Formula copy = f.transform(new FormulaFactoryImporter(local), false);
+		SortedSet<Variable> localSampling = f.variables().stream().filter(sampling::contains)
+				.map(v -> local.variable(v.name())).collect(Collectors.toCollection(TreeSet::new));
+		return ForkJoinTask.adapt(() -> countProjected(copy, localSampling));
+	}
+
+	/**
+	 * Counts the models of the formula projected on the sampling variables. Uses the d-DNNF based model counter of
+	 * LogicNG if the formula only contains sampling variables. Otherwise the other variables are eliminated from a BDD
+	 * of the formula by existential quantification first, so the projected models are counted without enumerating
+	 * them.
+	 */
+	static BigInteger countProjected(Formula f, SortedSet<Variable> sampling) {
+		SortedSet<Variable> relevant = f.variables().stream().filter(sampling::contains)
+				.collect(Collectors.toCollection(TreeSet::new));
+		BigInteger unconstrained = BigInteger.ONE.shiftLeft(sampling.size() - relevant.size());
+		if (f.type() == FType.FALSE) {
+			return BigInteger.ZERO;
+		}
+		if (relevant.size() == f.variables().size()) {
+			return ModelCounter.count(Collections.singletonList(f), relevant).multiply(unconstrained);
+		}
+		List<Variable> eliminated = f.variables().stream().filter(v -> !sampling.contains(v))
+				.collect(Collectors.toList());
+		BDDKernel kernel = new BDDKernel(f.factory(), new ForceOrdering().getOrder(f), BDD_NODES, BDD_CACHE);
+		BDD projected = BDDFactory.build(f, kernel).exists(eliminated);
+		// the BDD counts the assignments of all variables of the kernel, the eliminated ones are unconstrained now
+		return projected.modelCount().shiftRight(eliminated.size()).multiply(unconstrained);
+	}
+}
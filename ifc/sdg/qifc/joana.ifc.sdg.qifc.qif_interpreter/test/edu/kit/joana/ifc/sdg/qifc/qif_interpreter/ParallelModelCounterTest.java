@@ -0,0 +1,131 @@
+package edu.kit.joana.ifc.sdg.qifc.qif_interpreter;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Variable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelModelCounterTest {
+
+	@Test void countTest() {
+		FormulaFactory ff = new FormulaFactory();
+		Variable x = ff.variable("x");
+		Variable y = ff.variable("y");
+		Variable z = ff.variable("z");
+		List<Variable> h = Arrays.asList(x, y, z);
+
+		Formula f = ff.or(ff.and(x, y), ff.and(x.negate(), z));
+		for (int threads = 1; threads <= 4; threads++) {
+			for (int cubeVars = 0; cubeVars <= 3; cubeVars++) {
+				assertEquals(BigInteger.valueOf(4), new ParallelModelCounter(threads, cubeVars).count(f, h));
+			}
+		}
+		assertEquals(BigInteger.valueOf(8), new ParallelModelCounter(2).count(ff.constant(true), h));
+		assertEquals(BigInteger.ZERO, new ParallelModelCounter(2).count(ff.and(x, x.negate()), h));
+	}
+
+	@Test void projectedCountTest() {
+		FormulaFactory ff = new FormulaFactory();
+		Variable x = ff.variable("x");
+		Variable y = ff.variable("y");
+		Variable l = ff.variable("l");
+
+		// l is not a sampling variable, every assignment of x and y except x = y = 0 can be extended to a model
+		Formula f = ff.and(ff.equivalence(l, ff.or(x, y)), l);
+		assertEquals(BigInteger.valueOf(3), new ParallelModelCounter(2, 1).count(f, Arrays.asList(x, y)));
+	}
+
+	@Test void projectedCountWithoutEnumerationTest() {
+		FormulaFactory ff = new FormulaFactory();
+		List<Variable> h = new ArrayList<>();
+		List<Formula> equivalences = new ArrayList<>();
+		for (int i = 0; i <= 40; i++) {
+			h.add(ff.variable("h" + i));
+		}
+		// l_i is determined by h_i and h_i+1, so every assignment of the h variables can be extended to a model
+		for (int i = 0; i < 40; i++) {
+			equivalences.add(ff.equivalence(ff.variable("l" + i), ff.or(h.get(i), h.get(i + 1))));
+		}
+		Formula f = ff.and(equivalences);
+		assertEquals(BigInteger.ONE.shiftLeft(41), new ParallelModelCounter(2).count(f, h));
+		assertEquals(BigInteger.ONE.shiftLeft(41).subtract(BigInteger.ONE.shiftLeft(39)),
+				new ParallelModelCounter(2).count(ff.and(f, ff.variable("l0")), h));
+	}
+
+	@Test void componentsTest() {
+		FormulaFactory ff = new FormulaFactory();
+		Variable x = ff.variable("x");
+		Variable y = ff.variable("y");
+		Variable z = ff.variable("z");
+		Variable l = ff.variable("l");
+
+		List<Formula> components = ParallelModelCounter.components(ff.and(ff.or(x, l), z, ff.or(y, l.negate())));
+		assertEquals(2, components.size());
+		assertTrue(components.contains(ff.and(ff.or(x, l), ff.or(y, l.negate()))));
+		assertTrue(components.contains(z));
+		assertTrue(ParallelModelCounter.components(ff.constant(true)).isEmpty());
+	}
+
+	@Test void randomProjectedCountTest() {
+		Random random = new Random(42);
+		for (int i = 0; i < 100; i++) {
+			FormulaFactory ff = new FormulaFactory();
+			List<Variable> vars = new ArrayList<>();
+			for (int j = 0; j < 8; j++) {
+				vars.add(ff.variable("v" + j));
+			}
+			List<Variable> sampling = vars.subList(0, 1 + random.nextInt(vars.size()));
+			Formula f = randomFormula(ff, vars, random, 4);
+			BigInteger expected = bruteForceCount(f, vars, sampling);
+			for (int cubeVars = 0; cubeVars <= 3; cubeVars++) {
+				assertEquals(expected, new ParallelModelCounter(2, cubeVars).count(f, sampling), f.toString());
+			}
+		}
+	}
+
+	private static Formula randomFormula(FormulaFactory ff, List<Variable> vars, Random random, int depth) {
+		if (depth == 0 || random.nextInt(4) == 0) {
+			Variable v = vars.get(random.nextInt(vars.size()));
+			return random.nextBoolean() ? v : v.negate();
+		}
+		Formula left = randomFormula(ff, vars, random, depth - 1);
+		Formula right = randomFormula(ff, vars, random, depth - 1);
+		switch (random.nextInt(4)) {
+			case 0:
+				return ff.or(left, right);
+			case 1:
+				return ff.equivalence(left, right);
+			default:
+				return ff.and(left, right);
+		}
+	}
+
+	/**
+	 * Evaluates the formula for all assignments and collects the assignments of the sampling variables of its models
+	 */
+	private static BigInteger bruteForceCount(Formula f, List<Variable> vars, List<Variable> sampling) {
+		Set<Integer> projected = new HashSet<>();
+		for (int a = 0; a < (1 << vars.size()); a++) {
+			Assignment assignment = new Assignment();
+			for (int i = 0; i < vars.size(); i++) {
+				assignment.addLiteral(((a >> i) & 1) == 1 ? vars.get(i) : vars.get(i).negate());
+			}
+			if (f.evaluate(assignment)) {
+				projected.add(a & ((1 << sampling.size()) - 1));
+			}
+		}
+		return BigInteger.valueOf(projected.size());
+	}
+
+}
@@ -0,0 +1,82 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ui.ifc.wala.console.test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.kit.joana.ui.ifc.wala.console.console.IFCConsole;
+import edu.kit.joana.ui.ifc.wala.console.io.PrintStreamConsoleWrapper;
+import edu.kit.joana.util.io.IOFactory;
+
+/**
+ * Checks that the batch mode of 'runEntryPointsYAML', which builds the SDGs of several entry points concurrently,
+ * gives the same results as analyzing the entry points one after another.
+ */
+public class BatchModeTest {
+
+	private static final String ENTRY_POINTS = ".*" + BatchPrograms.class.getSimpleName() + ".*";
+
+	private static String sequentialResult;
+
+	private static IFCConsole createConsole() {
+		BufferedReader in = new BufferedReader(IOFactory.createUTF8ISReader(System.in));
+		return new IFCConsole(in, new PrintStreamConsoleWrapper(System.out, System.out, in, System.out, System.out));
+	}
+
+	private static String runEntryPoints(IFCConsole console) {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		Assert.assertTrue(console.useEntryPointsYAML(IOFactory.createUTF8PrintStream(result), ENTRY_POINTS));
+		return IOFactory.createUTF8String(result.toByteArray(), 0, result.size());
+	}
+
+	@BeforeClass
+	public static void setUp() {
+		sequentialResult = runEntryPoints(createConsole());
+		Assert.assertTrue(sequentialResult.contains("direct"));
+		Assert.assertTrue(sequentialResult.contains("noLeak"));
+	}
+
+	private static void testBatch(int threads, long memoryBudget) {
+		IFCConsole console = createConsole();
+		console.setBatchMode(threads, memoryBudget);
+		Assert.assertEquals(sequentialResult, runEntryPoints(console));
+		// the console can be used for another batch
+		Assert.assertEquals(sequentialResult, runEntryPoints(console));
+	}
+
+	@Test
+	public void testTwoThreads() {
+		testBatch(2, 0);
+	}
+
+	@Test
+	public void testMoreThreadsThanEntryPoints() {
+		testBatch(16, 0);
+	}
+
+	@Test
+	public void testMemoryBudgetLimitsThreads() {
+		// only one build fits into the heap, so the sdgs are built one after another in low memory mode
+		testBatch(4, 2 * (Runtime.getRuntime().maxMemory() >> 20));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoThreads() {
+		createConsole().setBatchMode(0, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeMemoryBudget() {
+		createConsole().setBatchMode(2, -1);
+	}
+}
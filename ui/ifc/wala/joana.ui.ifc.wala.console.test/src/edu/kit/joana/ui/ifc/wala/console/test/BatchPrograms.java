@@ -0,0 +1,70 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ui.ifc.wala.console.test;
+
+import edu.kit.joana.ui.annotations.EntryPoint;
+import edu.kit.joana.ui.annotations.PointsToPrecision;
+import edu.kit.joana.ui.annotations.PruningPolicy;
+import edu.kit.joana.ui.annotations.Sink;
+import edu.kit.joana.ui.annotations.Source;
+
+/**
+ * Entry points for {@link BatchModeTest}. Some of them change options of the console, which stay set for the
+ * following entry points.
+ */
+public class BatchPrograms {
+
+	static class Box {
+		int value;
+	}
+
+	@EntryPoint(tag = "direct")
+	public static void direct() {
+		print(secret());
+	}
+
+	@EntryPoint(tag = "typeBased", pointsToPrecision = PointsToPrecision.TYPE_BASED)
+	public static void typeBased() {
+		Box secretBox = new Box();
+		Box publicBox = new Box();
+		secretBox.value = secret();
+		publicBox.value = 1;
+		print(publicBox.value);
+	}
+
+	@EntryPoint(tag = "indirect")
+	public static void indirect() {
+		Box secretBox = new Box();
+		Box publicBox = new Box();
+		secretBox.value = secret();
+		if (secretBox.value > 0) {
+			publicBox.value = 1;
+		}
+		print(publicBox.value);
+	}
+
+	@EntryPoint(tag = "doNotPrune", pruningPolicy = PruningPolicy.DO_NOT_PRUNE)
+	public static void doNotPrune() {
+		print(secret() + 1);
+	}
+
+	@EntryPoint(tag = "noLeak")
+	public static void noLeak() {
+		secret();
+		print(0);
+	}
+
+	@Source(tags = "")
+	public static int secret() {
+		return 42;
+	}
+
+	@Sink(tags = "")
+	public static void print(int value) {
+	}
+}
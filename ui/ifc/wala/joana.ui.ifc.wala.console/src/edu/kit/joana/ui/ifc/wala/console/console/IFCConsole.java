@@ -18,6 +18,7 @@ import com.ibm.wala.shrikeCT.AnnotationsReader.AnnotationAttribute;
 import com.ibm.wala.shrikeCT.AnnotationsReader.ArrayElementValue;
 import com.ibm.wala.shrikeCT.AnnotationsReader.ConstantElementValue;
 import com.ibm.wala.shrikeCT.AnnotationsReader.ElementValue;
+import com.ibm.wala.types.TypeReference;
 import com.ibm.wala.types.annotations.Annotation;
 import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
@@ -75,6 +76,12 @@ import javax.xml.stream.XMLStreamException;
 import java.io.*;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -115,6 +122,9 @@ public class IFCConsole {
 		USE_ENTRY_POINT("useEntryPoint", 1, "tag", "Select the entry point with the given tag, build the sdg, select sources and sinks with this tag"),
 		RUN_ENTRY_POINTS_YAML("runEntryPointsYAML", 0, 2, "<out file, '-' for std out, is the default> <pattern matching the entry points, optional, matches all if not present>",
 				"Stores the analysis results for the entry points in the passed file as YAML"),
+		SET_BATCH_MODE("setBatchMode", 1, 2, "<threads> [<memory budget per entry point in MB>]",
+				"Sets the number of entry points whose SDGs 'runEntryPointsYAML' builds concurrently. Each build reuses the class hierarchy and the ir cache of a finished build, if there is one. "
+				+ "If a memory budget is given, the SDGs are built in low memory mode and at most (max memory / budget) of them are built concurrently."),
 		SET_CLASSPATH(	"setClasspath", 		1, 		"<path>",
 							"Sets the class path for sdg generation. Can be for example a bin directory or a jar file."),
 		SET_EXCEPTIONS( "setExceptionAnalysis", 1, "<exception analysis type>", "Sets the type of exception analysis to perform during SDG construction. Possible values are: " + Arrays.toString(ExceptionAnalysis.values())),
@@ -383,6 +393,17 @@ public class IFCConsole {
 	private SetValueStore setValueStore = new SetValueStore();
 	private Map<SDGProgramPart, Pair<String, ValueToSet.Mode>> valuesToSet = new HashMap<>();
 	private String classPathAfterOpt = null;
+	/** number of entry points whose sdgs are built concurrently by {@link #useEntryPointsYAML(PrintStream, String)} */
+	private int batchThreads = 1;
+	/** memory budget per entry point in MB, 0 if there is none */
+	private long batchMemoryBudget = 0;
+	/** class hierarchies and ir caches shared by the sdg builds for the entry points, only set during a batch run */
+	private SDGBuildPreparation.SharedAnalysis sharedAnalysis = null;
+	/**
+	 * class paths with the set values applied, by original class path and set values, only set during a batch run:
+	 * the builds use the same class path and therefore share their class hierarchies
+	 */
+	private Map<List<Object>, String> setValueClassPaths = null;
 	/**
 	 * @see UninitializedFieldHelperOptions
 	 */
@@ -488,6 +509,23 @@ public class IFCConsole {
 		};
 	}
 	
+	private Command makeCommandSetBatchMode() {
+		return new Command(CMD.SET_BATCH_MODE) {
+
+			@Override
+			boolean execute(String[] args) {
+				try {
+					setBatchMode(Integer.parseInt(args[1]), args.length > 2 ? Long.parseLong(args[2]) : 0);
+				} catch (IllegalArgumentException e) {
+					out.error(e.getMessage());
+					return false;
+				}
+				out.logln("batch threads = " + batchThreads + ", memory budget = " + (batchMemoryBudget > 0 ? batchMemoryBudget + "M" : "none"));
+				return true;
+			}
+		};
+	}
+
 	private Command makeCommandSelectEntry() {
 		return new Command(CMD.SELECT_ENTRY) {
 
@@ -1218,6 +1256,7 @@ public class IFCConsole {
 		repo.addCommand(makeCommandSelectSources());
 		repo.addCommand(makeCommandUseEntryPoint());
 		repo.addCommand(makeCommandRunEntryPointsYAML());
+		repo.addCommand(makeCommandSetBatchMode());
 		repo.addCommand(makeCommandSetTimeSensitivity());
 		repo.addCommand(makeCommandSetType());
 		repo.addCommand(makeCommandOnlyDirectFlow());
@@ -1501,39 +1540,167 @@ public class IFCConsole {
 		}
 	}
 	
+	/**
+	 * Analyzes all entry points that match the pattern and writes the result of each entry point to the stream as
+	 * soon as it is available. The SDG builds reuse the class hierarchies and ir caches of the finished builds. See
+	 * {@link #setBatchMode(int, long)} for building the SDGs of several entry points concurrently.
+	 */
 	public boolean useEntryPointsYAML(PrintStream stream, String pattern) {
-		YamlSequenceBuilder seq = Yaml.createYamlSequenceBuilder();
 		Optional<List<Pair<IMethod, Annotation>>> result = 
 				loc.doSearchForEntryPointAnnotated(classPath, out, new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE));
-		if (result.isPresent()) {
-			for (Pair<IMethod, Annotation> p : result.get()) {
-				Optional<YamlMapping> map = useEntryPointYaml(p.getFirst(), p.getSecond());
+		if (!result.isPresent()) {
+			out.error("No entry points found");
+			return false;
+		}
+		List<Pair<IMethod, Annotation>> entries = result.get();
+		int threads = batchThreads;
+		if (batchMemoryBudget > 0) {
+			threads = (int) Math.max(1, Math.min(threads, Runtime.getRuntime().maxMemory() / (batchMemoryBudget << 20)));
+		}
+		sharedAnalysis = new SDGBuildPreparation.SharedAnalysis();
+		setValueClassPaths = new HashMap<>();
+		ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+		try {
+			// the console state is set up for one entry point at a time, only the sdg builds run in the background
+			List<Pair<BuildOptions, Future<Optional<SDGProgram>>>> builds = new ArrayList<>(entries.size());
+			// the options that the console will have once the last submitted entry point is selected
+			BuildOptions options = getBuildOptions();
+			for (int i = 0; i < entries.size(); i++) {
+				Pair<IMethod, Annotation> p = entries.get(i);
+				Optional<YamlMapping> map;
+				try {
+					if (pool == null) {
+						map = useEntryPointYaml(p.getFirst(), p.getSecond());
+					} else {
+						while (builds.size() < Math.min(entries.size(), i + threads)) {
+							Pair<IMethod, Annotation> next = entries.get(builds.size());
+							Pair<BuildOptions, Future<Optional<SDGProgram>>> build = submitSDGBuild(pool, options, next.getFirst(), next.getSecond());
+							options = build.getFirst() != null ? build.getFirst() : options;
+							builds.add(build);
+						}
+						Pair<BuildOptions, Future<Optional<SDGProgram>>> build = builds.set(i, null);
+						map = useEntryPointYaml(p.getFirst(), p.getSecond(), () -> useBuiltSDG(build));
+					}
+				} finally {
+					// the entry point is analyzed or has failed, the next builds may reuse the class hierarchy of its sdg
+					if (ifcAnalysis != null && ifcAnalysis.getProgram() != null) {
+						sharedAnalysis.release(ifcAnalysis.getProgram().getClassHierarchy());
+					}
+				}
 				if (!map.isPresent()) {
 					return false;
 				}
-				seq = seq.add(map.get());
+				// a sequence with a single element, the outputs of all entry points form the sequence of all results
+				stream.println(Yaml.createYamlSequenceBuilder().add(map.get()).build().toString());
+				stream.flush();
 			}
-			stream.println(seq.build().toString());
 			return true;
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+			sharedAnalysis = null;
+			setValueClassPaths = null;
 		}
-		out.error("No entry points found");
-		return false;
 	}
 	
 	public Optional<YamlMapping> useEntryPointYaml(IMethod method, Annotation annotation){
-		if (!selectEntryPoint(JavaMethodSignature.fromString(method.getSignature()), annotation, s -> ifcAnalysis.addSinkClasses(new String[0]))) {
+		return useEntryPointYaml(method, annotation, this::buildSDGIfNeeded);
+	}
+
+	private Optional<YamlMapping> useEntryPointYaml(IMethod method, Annotation annotation, BooleanSupplier buildSDG){
+		if (!selectEntryPointAndSetValues(method, annotation)) {
 			return Optional.empty();
 		}
-		String tag = "";
-		if (annotation.getNamedArguments().containsKey("tag")) {
-			tag = (String)((ConstantElementValue)annotation.getNamedArguments().get("tag")).val;
-		}
-		Pattern pattern = new Pattern(tag, false, PatternType.SIGNATURE, PatternType.ID);
-		if (!selectSetValues(tag) || !buildSDGIfNeeded() || !selectSources(pattern) || !selectSinks(pattern)) {
+		Pattern pattern = new Pattern(getEntryPointTag(annotation), false, PatternType.SIGNATURE, PatternType.ID);
+		if (!buildSDG.getAsBoolean() || !selectSources(pattern) || !selectSinks(pattern)) {
 			return Optional.empty();
 		}
 		return runAnalysisYAML();
 	}
+
+	private boolean selectEntryPointAndSetValues(IMethod method, Annotation annotation) {
+		return selectEntryPoint(JavaMethodSignature.fromString(method.getSignature()), annotation, s -> ifcAnalysis.addSinkClasses(new String[0]))
+				&& selectSetValues(getEntryPointTag(annotation));
+	}
+
+	private static String getEntryPointTag(Annotation annotation) {
+		if (annotation.getNamedArguments().containsKey("tag")) {
+			return (String)((ConstantElementValue)annotation.getNamedArguments().get("tag")).val;
+		}
+		return "";
+	}
+
+	/**
+	 * Builds the SDG of the entry point in the background. The console state belongs to the entry point that is
+	 * analyzed, so it is not changed: the build uses the given options, overridden by the options of the entry point
+	 * annotation. The build logs into a buffer that is printed once the build is finished, so that the logs of
+	 * concurrent builds do not interleave.
+	 * @param previous the options of the console once the previous entry point is selected
+	 * @return the options of the build, null if they could not be determined, and the build
+	 */
+	private Pair<BuildOptions, Future<Optional<SDGProgram>>> submitSDGBuild(ExecutorService pool, BuildOptions previous, IMethod method, Annotation annotation) {
+		Optional<BuildOptions> options = getBuildOptions(previous, method, annotation);
+		Optional<SDGConfig> config = options.flatMap(o -> createSDGConfig(classPath, o, false, MHPType.NONE, ExceptionAnalysis.INTERPROC));
+		if (!config.isPresent()) {
+			return Pair.pair(null, CompletableFuture.completedFuture(Optional.empty()));
+		}
+		final boolean directFlow = options.get().onlyDirectFlow;
+		return Pair.pair(options.get(), pool.submit(() -> {
+			ByteArrayOutputStream log = new ByteArrayOutputStream();
+			Optional<SDGProgram> program = createSDG(config.get(), directFlow, IOFactory.createUTF8PrintStream(log));
+			out.getPrintStream().print(IOFactory.createUTF8String(log.toByteArray(), 0, log.size()));
+			return program;
+		}));
+	}
+
+	/**
+	 * Uses the SDG that was built in the background for the selected entry point. If the options of the console
+	 * differ from the ones the SDG was built with, e.g. because an option of an earlier entry point was invalid, the
+	 * SDG is built again.
+	 */
+	private boolean useBuiltSDG(Pair<BuildOptions, Future<Optional<SDGProgram>>> build) {
+		Optional<SDGProgram> sdg;
+		try {
+			sdg = build.getSecond().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			out.error("\nSDG creation interrupted.");
+			return false;
+		} catch (ExecutionException e) {
+			out.error("\nSDG creation failed: " + e.getCause());
+			return false;
+		}
+		if (!getBuildOptions().equals(build.getFirst())) {
+			sdg.ifPresent(program -> sharedAnalysis.release(program.getClassHierarchy()));
+			return buildSDG();
+		}
+		if (sdg.isPresent()){
+			setSDGProgram(sdg.get());
+			recomputeSDG = false;
+			return true;
+		}
+		recomputeSDG = true;
+		return false;
+	}
+
+	/**
+	 * Sets the number of entry points whose SDGs {@link #useEntryPointsYAML(PrintStream, String)} builds
+	 * concurrently.
+	 * @param threads number of concurrent builds
+	 * @param memoryBudget memory in MB that each build may use, 0 if there is no budget. With a budget, the SDGs are
+	 * built in low memory mode and the number of concurrent builds is limited by the maximal heap size.
+	 */
+	public void setBatchMode(int threads, long memoryBudget) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+		}
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("Memory budget must not be negative: " + memoryBudget);
+		}
+		this.batchThreads = threads;
+		this.batchMemoryBudget = memoryBudget;
+	}
 	
 	public boolean runAnalysisYAML(String outputFile) {
 		if (outputFile.equals("-")) {
@@ -1780,7 +1947,7 @@ public class IFCConsole {
 			}
 		}
 		if (map.containsKey("pointsToPrecision")) {
-			setPointsTo(((edu.kit.joana.ui.annotations.PointsToPrecision)((ConstantElementValue)map.get("pointsToPrecision")).val).name());
+			setPointsTo(getPointsToPrecisionName(map));
 		}
 		if (map.containsKey("chops")) {
 			chopComputation = (ChopComputation)((ConstantElementValue)map.get("chops")).val;
@@ -1792,14 +1959,9 @@ public class IFCConsole {
 				return false;
 			}
 		}
-		if (map.containsKey("onlyDirectFlow")) {
-			boolean only = ((ConstantElementValue)map.get("chops")).val.equals(true);
-			recomputeSDG |= onlyDirectFlow != only;
-			onlyDirectFlow = only;
-		} else {
-			recomputeSDG |= onlyDirectFlow;
-			onlyDirectFlow = false;
-		}
+		boolean only = isOnlyDirectFlow(map);
+		recomputeSDG |= onlyDirectFlow != only;
+		onlyDirectFlow = only;
 		if (map.containsKey("pruningPolicy")){
 			if (!setPruningPolicy(((AnnotationsReader.EnumElementValue)map.get("pruningPolicy")).enumVal)){
 				return false;
@@ -1811,11 +1973,112 @@ public class IFCConsole {
 			}
 		}
 		if (map.containsKey("uninitializedFieldTypeRegexp")){
-			setUninitializedFieldTypeMatcher(t -> t.getName().toString().matches((String)((ConstantElementValue)map.get("uninitializedFieldTypeRegexp")).val));
+			setUninitializedFieldTypeMatcher(new RegexpFieldTypeMatcher((String)((ConstantElementValue)map.get("uninitializedFieldTypeRegexp")).val));
 		}
 		return true;
 	}
 
+	private static String getPointsToPrecisionName(Map<String, ElementValue> map) {
+		return ((edu.kit.joana.ui.annotations.PointsToPrecision)((ConstantElementValue)map.get("pointsToPrecision")).val).name();
+	}
+
+	private static boolean isOnlyDirectFlow(Map<String, ElementValue> map) {
+		return map.containsKey("onlyDirectFlow") && ((ConstantElementValue)map.get("onlyDirectFlow")).val.equals(true);
+	}
+
+	/**
+	 * @param previous the options before the entry point is selected
+	 * @return the options that {@link #selectEntryPoint(JavaMethodSignature, Annotation, Consumer)} sets for the entry
+	 * point, without setting them, or nothing if the annotation contains an invalid option
+	 */
+	private static Optional<BuildOptions> getBuildOptions(BuildOptions previous, IMethod method, Annotation annotation) {
+		Map<String, ElementValue> map = annotation.getNamedArguments();
+		PointsToPrecision pts = map.containsKey("pointsToPrecision") ? getPointsToPrecision(getPointsToPrecisionName(map), previous.pointsTo) : previous.pointsTo;
+		PruningPolicy policy = previous.pruningPolicy;
+		if (map.containsKey("pruningPolicy")) {
+			try {
+				policy = PruningPolicy.valueOf(((AnnotationsReader.EnumElementValue)map.get("pruningPolicy")).enumVal.toUpperCase());
+			} catch (IllegalArgumentException ex) {
+				return Optional.empty();
+			}
+		}
+		UninitializedFieldHelperOptions.FieldTypeMatcher matcher = previous.uninitializedFieldTypeMatcher;
+		if (map.containsKey("uninitializedFieldTypeRegexp")) {
+			matcher = new RegexpFieldTypeMatcher((String)((ConstantElementValue)map.get("uninitializedFieldTypeRegexp")).val);
+		}
+		return Optional.of(new BuildOptions(JavaMethodSignature.fromString(method.getSignature()), pts, policy,
+				isOnlyDirectFlow(map), matcher));
+	}
+
+	/**
+	 * @return the options of the console for building the SDG of the selected entry point
+	 */
+	private BuildOptions getBuildOptions() {
+		return new BuildOptions(loc.getActiveEntry(), pointsTo, pruningPolicy, onlyDirectFlow, uninitializedFieldTypeMatcher);
+	}
+
+	/**
+	 * The options of the console that differ between the SDGs of the entry points.
+	 */
+	private static final class BuildOptions {
+		private final JavaMethodSignature entry;
+		private final PointsToPrecision pointsTo;
+		private final PruningPolicy pruningPolicy;
+		private final boolean onlyDirectFlow;
+		private final UninitializedFieldHelperOptions.FieldTypeMatcher uninitializedFieldTypeMatcher;
+
+		private BuildOptions(JavaMethodSignature entry, PointsToPrecision pointsTo, PruningPolicy pruningPolicy,
+				boolean onlyDirectFlow, UninitializedFieldHelperOptions.FieldTypeMatcher uninitializedFieldTypeMatcher) {
+			this.entry = entry;
+			this.pointsTo = pointsTo;
+			this.pruningPolicy = pruningPolicy;
+			this.onlyDirectFlow = onlyDirectFlow;
+			this.uninitializedFieldTypeMatcher = uninitializedFieldTypeMatcher;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof BuildOptions)) {
+				return false;
+			}
+			BuildOptions other = (BuildOptions) obj;
+			return Objects.equals(entry, other.entry) && pointsTo == other.pointsTo && pruningPolicy == other.pruningPolicy
+					&& onlyDirectFlow == other.onlyDirectFlow
+					&& uninitializedFieldTypeMatcher.equals(other.uninitializedFieldTypeMatcher);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(entry, pointsTo, pruningPolicy, onlyDirectFlow, uninitializedFieldTypeMatcher);
+		}
+	}
+
+	/**
+	 * Matches the types whose names match a regular expression, equal to all matchers with the same expression.
+	 */
+	private static final class RegexpFieldTypeMatcher implements UninitializedFieldHelperOptions.FieldTypeMatcher {
+		private final String regexp;
+
+		private RegexpFieldTypeMatcher(String regexp) {
+			this.regexp = regexp;
+		}
+
+		@Override
+		public boolean matchType(TypeReference typeReference) {
+			return typeReference.getName().toString().matches(regexp);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof RegexpFieldTypeMatcher && regexp.equals(((RegexpFieldTypeMatcher) obj).regexp);
+		}
+
+		@Override
+		public int hashCode() {
+			return regexp.hashCode();
+		}
+	}
+
 	public void setUninitializedFieldTypeMatcher(UninitializedFieldHelperOptions.FieldTypeMatcher fieldTypeMatcher){
 		recomputeSDG |= !uninitializedFieldTypeMatcher.equals(fieldTypeMatcher);
 	  this.uninitializedFieldTypeMatcher = fieldTypeMatcher;
@@ -2083,13 +2346,21 @@ public class IFCConsole {
 	}
 
 	public void setPointsTo(final String newPts) {
+		final PointsToPrecision pts = getPointsToPrecision(newPts, pointsTo);
+		recomputeSDG |= pointsTo != pts;
+		this.pointsTo = pts;
+	}
+
+	/**
+	 * @return the points-to precision with the given name, or the default if there is none
+	 */
+	private static PointsToPrecision getPointsToPrecision(final String name, final PointsToPrecision dflt) {
 		for (final PointsToPrecision pts : PointsToPrecision.values()) {
-			if (pts.name().equals(newPts)) {
-				recomputeSDG |= pointsTo != pts;
-				this.pointsTo = pts;
-				break;
+			if (pts.name().equals(name)) {
+				return pts;
 			}
 		}
+		return dflt;
 	}
 
 	public void setExceptionAnalysis(final String newExc) {
@@ -2207,6 +2478,7 @@ public class IFCConsole {
 		out.logln("output directory = " + outputDirectory);
 		out.logln("points-to = " + pointsTo.desc);
 		out.logln("lattice = " + latticeFile);
+		out.logln("batch threads = " + batchThreads + ", memory budget = " + (batchMemoryBudget > 0 ? batchMemoryBudget + "M" : "none"));
 		// out.logln("sdg = " + sdgFile);
 
 	}
@@ -2606,20 +2878,51 @@ public class IFCConsole {
 	}
 
 	private Optional<SDGProgram> createSDG(String classPath, boolean computeInterference, MHPType mhpType, ExceptionAnalysis exA, boolean setValues){
-		try {
-			if (this.valuesToSet.size() > 0){
-				classPath = new PreProcPasses(createSetValuePass()).process(null, "", classPath);
-				classPathAfterOpt = classPath;
+		Optional<SDGConfig> config = createSDGConfig(classPath, computeInterference, mhpType, exA);
+		if (!config.isPresent()) {
+			return Optional.empty();
+		}
+		return createSDG(config.get(), onlyDirectFlow, out.getPrintStream());
+	}
+
+	private Optional<SDGConfig> createSDGConfig(String classPath, boolean computeInterference, MHPType mhpType, ExceptionAnalysis exA){
+		return createSDGConfig(classPath, getBuildOptions(), computeInterference, mhpType, exA);
+	}
+
+	private Optional<SDGConfig> createSDGConfig(String classPath, BuildOptions options, boolean computeInterference, MHPType mhpType, ExceptionAnalysis exA){
+		if (this.valuesToSet.size() > 0){
+			List<Object> key = Arrays.asList(classPath, new HashMap<>(valuesToSet));
+			String setValueClassPath = setValueClassPaths == null ? null : setValueClassPaths.get(key);
+			if (setValueClassPath == null) {
+				try {
+					setValueClassPath = new PreProcPasses(createSetValuePass()).process(null, "", classPath);
+				} catch (IOException e) {
+					out.error("\nI/O problem during sdg creation: " + e.getMessage());
+					return Optional.empty();
+				}
+				if (setValueClassPaths != null) {
+					setValueClassPaths.put(key, setValueClassPath);
+				}
 			}
-			SDGConfig config = new SDGConfig(classPath, loc.getActiveEntry().toBCString(), stubsPath);
-			config.setPruningPolicy(pruningPolicy);
-			config.setComputeInterferences(computeInterference);
-			config.setMhpType(mhpType);
-			config.setExceptionAnalysis(exA);
-			config.setPointsToPrecision(pointsTo);
-			config.setFieldPropagation(FieldPropagation.OBJ_GRAPH_SIMPLE_PROPAGATION);
-			config.setFieldHelperOptions(new UninitializedFieldHelperOptions(uninitializedFieldTypeMatcher));
-			SDGProgram program = SDGProgram.createSDGProgram(config, out.getPrintStream(), monitor);
+			classPath = setValueClassPath;
+			classPathAfterOpt = classPath;
+		}
+		SDGConfig config = new SDGConfig(classPath, options.entry.toBCString(), stubsPath);
+		config.setPruningPolicy(options.pruningPolicy);
+		config.setComputeInterferences(computeInterference);
+		config.setMhpType(mhpType);
+		config.setExceptionAnalysis(exA);
+		config.setPointsToPrecision(options.pointsTo);
+		config.setFieldPropagation(FieldPropagation.OBJ_GRAPH_SIMPLE_PROPAGATION);
+		config.setFieldHelperOptions(new UninitializedFieldHelperOptions(options.uninitializedFieldTypeMatcher));
+		config.setSharedAnalysis(sharedAnalysis);
+		config.setLowMemoryBuild(sharedAnalysis != null && batchMemoryBudget > 0);
+		return Optional.of(config);
+	}
+
+	private Optional<SDGProgram> createSDG(SDGConfig config, boolean onlyDirectFlow, PrintStream log){
+		try {
+			SDGProgram program = SDGProgram.createSDGProgram(config, log, monitor);
 			if (onlyDirectFlow) {
 				SDGProgram.throwAwayControlDeps(program.getSDG());
 			}
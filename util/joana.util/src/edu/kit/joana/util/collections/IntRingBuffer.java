@@ -0,0 +1,91 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.util.collections;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A FIFO queue of primitive ints, backed by an array that is used as a ring buffer.
+ *
+ * Intended as allocation free worklist for graph traversals: once the buffer has grown to the maximal
+ * number of simultaneously queued elements, neither {@link #add(int)} nor {@link #poll()} allocate.
+ * The buffer may be reused for several traversals via {@link #clear()}.
+ */
+public final class IntRingBuffer {
+
+	private int[] elements;
+	private int head;
+	private int size;
+
+	public IntRingBuffer() {
+		this(16);
+	}
+
+	public IntRingBuffer(int initialCapacity) {
+		if (initialCapacity < 1) throw new IllegalArgumentException();
+		this.elements = new int[initialCapacity];
+	}
+
+	/**
+	 * Appends i to the end of the queue.
+	 */
+	public void add(int i) {
+		if (size == elements.length) {
+			grow();
+		}
+
+		int tail = head + size;
+		if (tail >= elements.length) {
+			tail -= elements.length;
+		}
+		elements[tail] = i;
+		size++;
+	}
+
+	/**
+	 * Removes and returns the first element of the queue.
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public int poll() {
+		if (size == 0) throw new NoSuchElementException();
+
+		final int i = elements[head];
+		head++;
+		if (head == elements.length) {
+			head = 0;
+		}
+		size--;
+
+		return i;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Empties the queue, but keeps the allocated buffer.
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	private void grow() {
+		final int[] newElements = new int[elements.length * 2];
+		final int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, newElements, 0, firstPart);
+		System.arraycopy(elements, 0, newElements, firstPart, size - firstPart);
+		elements = newElements;
+		head = 0;
+	}
+}
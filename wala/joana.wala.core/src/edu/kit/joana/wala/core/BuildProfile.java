@@ -0,0 +1,253 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records resource usage and counters of the phases of an sdg build. Set {@link SDGBuilder.SDGBuilderConfig#profile}
+ * to an instance of this class to profile a build.
+ * <p>
+ * For each phase the wall time, the cpu time, the allocated bytes and the peak heap usage are recorded:
+ * <ul>
+ * <li>The cpu time is the cpu time of the whole process, if the jvm provides it, so the work of worker threads of
+ * parallel phases is included. Otherwise it is the cpu time of the building thread.</li>
+ * <li>The allocated bytes are the bytes allocated by all threads that are alive at the start and at the end of the
+ * phase, if the jvm provides them.</li>
+ * <li>The peak heap usage is the sum of the peak usages of the heap memory pools during the phase.</li>
+ * </ul>
+ * Values that are not supported by the jvm are -1. A phase may also have counters, e.g. the number of pdgs or the
+ * number of edges of each kind at the end of the phase.
+ */
+public final class BuildProfile {
+
+	public enum Phase {
+		CALLGRAPH, PRUNING, INTRAPROC, CALLS, CLINIT, STATICS, HEAP, KILLDEF, ACCESSPATH, INTERFERENCE, CONVERT, SUMMARY
+	}
+
+	public static final class PhaseRecord {
+		private final Phase phase;
+		private long wallNanos = -1;
+		private long cpuNanos = -1;
+		private long allocatedBytes = -1;
+		private long peakHeapBytes = -1;
+		private final Map<String, Long> counters = new LinkedHashMap<String, Long>();
+
+		private PhaseRecord(final Phase phase) {
+			this.phase = phase;
+		}
+
+		public Phase getPhase() {
+			return phase;
+		}
+
+		public long getWallNanos() {
+			return wallNanos;
+		}
+
+		public long getCpuNanos() {
+			return cpuNanos;
+		}
+
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		public long getPeakHeapBytes() {
+			return peakHeapBytes;
+		}
+
+		public Map<String, Long> getCounters() {
+			return Collections.unmodifiableMap(counters);
+		}
+
+		public String toString() {
+			return phase + ": " + (wallNanos / 1000000) + "ms wall, " + (cpuNanos / 1000000) + "ms cpu, "
+					+ allocatedBytes + " bytes allocated, " + peakHeapBytes + " bytes peak heap " + counters;
+		}
+	}
+
+	/** measurements at the start of a phase */
+	private static final class Start {
+		private final long wall;
+		private final long cpu;
+		private final long allocated;
+
+		private Start(final long wall, final long cpu, final long allocated) {
+			this.wall = wall;
+			this.cpu = cpu;
+			this.allocated = allocated;
+		}
+	}
+
+	private final List<PhaseRecord> records = new ArrayList<PhaseRecord>();
+	private final Map<Phase, PhaseRecord> phase2record = new EnumMap<Phase, PhaseRecord>(Phase.class);
+	private final Map<Phase, Start> running = new EnumMap<Phase, Start>(Phase.class);
+
+	public synchronized void start(final Phase phase) {
+		if (running.containsKey(phase)) {
+			throw new IllegalStateException("phase " + phase + " is already running");
+		}
+
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				pool.resetPeakUsage();
+			}
+		}
+
+		running.put(phase, new Start(System.nanoTime(), cpuTime(), allocatedBytes()));
+	}
+
+	public synchronized void end(final Phase phase) {
+		final Start start = running.remove(phase);
+		if (start == null) {
+			throw new IllegalStateException("phase " + phase + " is not running");
+		}
+
+		final PhaseRecord rec = getRecord(phase);
+		rec.wallNanos = add(rec.wallNanos, System.nanoTime() - start.wall);
+		rec.cpuNanos = add(rec.cpuNanos, diff(cpuTime(), start.cpu));
+		rec.allocatedBytes = add(rec.allocatedBytes, diff(allocatedBytes(), start.allocated));
+		rec.peakHeapBytes = Math.max(rec.peakHeapBytes, peakHeap());
+	}
+
+	/**
+	 * Sets a counter of a phase. Counters may be set whether the phase is running or not.
+	 */
+	public synchronized void count(final Phase phase, final String counter, final long value) {
+		getRecord(phase).counters.put(counter, value);
+	}
+
+	/**
+	 * @return the records of all phases that have been started or counted, in the order of their first use
+	 */
+	public synchronized List<PhaseRecord> getPhases() {
+		return Collections.unmodifiableList(new ArrayList<PhaseRecord>(records));
+	}
+
+	/**
+	 * @return the record of the given phase, or null if the phase has neither been started nor counted
+	 */
+	public synchronized PhaseRecord getPhase(final Phase phase) {
+		return phase2record.get(phase);
+	}
+
+	private PhaseRecord getRecord(final Phase phase) {
+		PhaseRecord rec = phase2record.get(phase);
+		if (rec == null) {
+			rec = new PhaseRecord(phase);
+			phase2record.put(phase, rec);
+			records.add(rec);
+		}
+
+		return rec;
+	}
+
+	/**
+	 * @return the records as json object, with an array of phases
+	 */
+	public synchronized String toJSON() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("{\"phases\":[");
+		for (int i = 0; i < records.size(); i++) {
+			final PhaseRecord rec = records.get(i);
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append("\n {\"phase\":\"").append(rec.phase.name().toLowerCase()).append('"');
+			sb.append(",\"wallNanos\":").append(rec.wallNanos);
+			sb.append(",\"cpuNanos\":").append(rec.cpuNanos);
+			sb.append(",\"allocatedBytes\":").append(rec.allocatedBytes);
+			sb.append(",\"peakHeapBytes\":").append(rec.peakHeapBytes);
+			sb.append(",\"counters\":{");
+			boolean first = true;
+			for (final Map.Entry<String, Long> c : rec.counters.entrySet()) {
+				if (!first) {
+					sb.append(',');
+				}
+				first = false;
+				sb.append('"').append(c.getKey()).append("\":").append(c.getValue());
+			}
+			sb.append("}}");
+		}
+		sb.append("\n]}\n");
+
+		return sb.toString();
+	}
+
+	public String toString() {
+		return toJSON();
+	}
+
+	private static long add(final long acc, final long value) {
+		if (value < 0) {
+			return acc;
+		}
+
+		return (acc < 0 ? value : acc + value);
+	}
+
+	private static long diff(final long end, final long start) {
+		return (end < 0 || start < 0 ? -1 : end - start);
+	}
+
+	private static long cpuTime() {
+		final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			final long cpu = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+			if (cpu >= 0) {
+				return cpu;
+			}
+		}
+
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		return (threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1);
+	}
+
+	private static long allocatedBytes() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+
+		final com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+		if (!sunThreads.isThreadAllocatedMemorySupported() || !sunThreads.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+
+		long sum = 0;
+		for (final long bytes : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			if (bytes > 0) {
+				sum += bytes;
+			}
+		}
+
+		return sum;
+	}
+
+	private static long peakHeap() {
+		long sum = 0;
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				sum += pool.getPeakUsage().getUsed();
+			}
+		}
+
+		return sum;
+	}
+}
@@ -25,6 +25,7 @@ import com.ibm.wala.types.ClassLoaderReference;
 import com.ibm.wala.types.MethodReference;
 import com.ibm.wala.types.TypeReference;
 
+import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.wala.flowless.pointsto.AliasGraph.MayAliasGraph;
 import edu.kit.joana.wala.flowless.spec.java.ast.MethodInfo;
 import edu.kit.joana.wala.flowless.util.AliasGraphIO;
@@ -36,12 +37,47 @@ public interface ExternalCallCheck {
 
 	boolean isCallToModule(SSAInvokeInstruction invk);
 
+	/**
+	 * The calls for which this returns true have their alias context registered with
+	 * {@link #registerAliasContext(SSAInvokeInstruction, int, MayAliasGraph)}, and their parameters are not
+	 * connected by the builder if it has not found a target.
+	 * @param caller the method that contains the call
+	 * @return true iff the call is a call into an external module, by default {@link #isCallToModule(SSAInvokeInstruction)}
+	 */
+	default boolean isCallToModule(IMethod caller, SSAInvokeInstruction invk) {
+		return isCallToModule(invk);
+	}
+
 	MethodInfo checkForModuleMethod(IMethod im);
 
 	void registerAliasContext(SSAInvokeInstruction invk, int callNodeId, MayAliasGraph context);
 
 	void setClassHierarchy(IClassHierarchy cha);
 
+	/**
+	 * Methods that are summarized are not part of the call graph of the sdg, so no pdg is built for them.
+	 * Their calls should be reported by {@link #isCallToModule(SSAInvokeInstruction)}.
+	 * @return true iff the dependencies of the given method are provided by a precomputed summary.
+	 */
+	default boolean isSummarizedMethod(IMethod im) {
+		return false;
+	}
+
+	/**
+	 * Called after the sdg has been built, but before its summary edges are computed. Adds the dependencies of
+	 * the summarized methods at the calls registered with
+	 * {@link #registerAliasContext(SSAInvokeInstruction, int, MayAliasGraph)}.
+	 */
+	default void addSummaries(SDG sdg) {
+	}
+
+	/**
+	 * Called after the summary edges of the sdg have been computed. Lets the check keep the summaries of methods
+	 * that have been analyzed as part of the sdg, so they can be summarized in later builds.
+	 */
+	default void storeSummaries(SDG sdg) {
+	}
+
 	public static ExternalCallCheck EMPTY = new ExternalCallCheck() {
 
 		@Override
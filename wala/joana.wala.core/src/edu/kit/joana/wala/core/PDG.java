@@ -247,7 +247,7 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 			addDataFlowSSA(ir, instructions);
 			removeNopAndPhiNodes();
 			addRootParameterStructure();
-			checkForExternalCalls(ext, out);
+			checkForExternalCalls(ext);
 		}
 	}
 
@@ -275,13 +275,12 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		}
 	}
 
-	private void checkForExternalCalls(final ExternalCallCheck ext, final PrintStream out) {
+	private void checkForExternalCalls(final ExternalCallCheck ext) {
 		for (final PDGNode call : calls) {
 			final SSAInvokeInstruction invk = (SSAInvokeInstruction) node2instr.get(call);
     
             assert (ext != null);
-			if (ext.isCallToModule(invk)) {
-				out.print("E" + getId());
+			if (ext.isCallToModule(method, invk)) {
 				//out.println("Call to external module: " + invk.getDeclaredTarget().getSignature());
 				final CGNode cgnode = cgNode;
 				final PointerAnalysis<InstanceKey> pts = builder.getPointerAnalysis();
@@ -1581,6 +1580,16 @@ public final class PDG extends DependenceGraph implements INodeWithNumber {
 		return node2instr.get(node);
 	}
 
+	/**
+	 * Drops the mapping between the nodes and the ssa instructions of this pdg, so the instructions and the ir they
+	 * belong to may be garbage collected. Afterwards {@link #getNode(SSAInstruction)} and
+	 * {@link #getInstruction(PDGNode)} return null.
+	 */
+	public void releaseInstructions() {
+		node2instr.clear();
+		instr2node.clear();
+	}
+
 	public String getSourceFile() {
 		return sourceFile;
 	}
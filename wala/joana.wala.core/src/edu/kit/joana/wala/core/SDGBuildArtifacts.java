@@ -19,4 +19,8 @@ public interface SDGBuildArtifacts {
 	public com.ibm.wala.ipa.callgraph.CallGraph getNonPrunedWalaCallGraph();
 	public com.ibm.wala.ipa.callgraph.CallGraph getWalaCallGraph();
 	public IClassHierarchy getClassHierarchy();
+	/**
+	 * @return the profile of the build phases, or null if the build has not been profiled.
+	 */
+	public BuildProfile getBuildProfile();
 }
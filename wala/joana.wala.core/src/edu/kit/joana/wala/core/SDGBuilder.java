@@ -47,8 +47,10 @@ import com.ibm.wala.util.intset.EmptyIntSet;
 import com.ibm.wala.util.intset.IntSet;
 import com.ibm.wala.util.intset.IntSetUtil;
 import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.util.BytecodeLocation;
 import edu.kit.joana.util.*;
+import edu.kit.joana.wala.core.BuildProfile.Phase;
 import edu.kit.joana.wala.core.CallGraph.CallGraphFilter;
 import edu.kit.joana.wala.core.CallGraph.Edge;
 import edu.kit.joana.wala.core.CallGraph.Node;
@@ -93,6 +95,7 @@ import org.jgrapht.DirectedGraph;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 
@@ -107,6 +110,8 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	// start at 2+1 == 3 because other ids are reserved.
 	public final static int PDG_START_ID = 3;
 	public final static int NO_PDG_ID = -1;
+	/** number of methods whose control flow graphs are computed in parallel before their pdgs are built */
+	private final static int PARALLEL_CFG_WINDOW = 256;
 	public final static boolean DATA_FLOW_FOR_GET_FROM_FIELD_NODE =
 			Config.getBool(Config.C_SDG_DATAFLOW_FOR_GET_FROM_FIELD, false);
 
@@ -448,14 +453,8 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			builder = null;
 		}
 
-		final ISummaryComputer summaryComputer = cfg.summaryComputationType.getSummaryComputer();
-
 		if (cfg.computeSummary) {
-			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			}
+			computeSummary(cfg, pack, progress);
 		}
 
 		return sdg;
@@ -487,14 +486,8 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			builder = null;
 		}
 		
-		final ISummaryComputer summaryComputer = cfg.summaryComputationType.getSummaryComputer();
-
 		if (cfg.computeSummary) {
-			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			}
+			computeSummary(cfg, pack, progress);
 		}
 
 		return sdg;
@@ -516,14 +509,8 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		
 		builder.purge();
 		
-		final ISummaryComputer summaryComputer = cfg.summaryComputationType.getSummaryComputer();
-		
 		if (cfg.computeSummary) {
-			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			}
+			computeSummary(cfg, pack, progress);
 		}
 
 		return Pair.make(sdg, builder);
@@ -542,14 +529,8 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			pack = createSummaryWorkPackage(cfg.out, builder, sdg, progress);
 		}
 
-		final ISummaryComputer summaryComputer = cfg.summaryComputationType.getSummaryComputer();
-
 		if (cfg.computeSummary) {
-			if (cfg.accessPath) {
-				computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			} else {
-				computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
-			}
+			computeSummary(cfg, pack, progress);
 		}
 
 		return Pair.make(sdg, builder);
@@ -567,7 +548,21 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	public static SDG convertToJoana(PrintStream out, SDGBuilder builder, IProgressMonitor progress, boolean keepPDGs)
 			throws CancelException {
 		out.print("convert");
+		startPhase(builder.cfg, Phase.CONVERT);
 		final SDG sdg = JoanaConverter.convert(builder, progress, keepPDGs);
+		if (builder.cfg.lowMemory && !keepPDGs) {
+			// the pdgs have released their instructions, so nothing refers to the cached irs any more. This does
+			// not lower the peak heap, see SDGBuilderConfig#lowMemory.
+			builder.cfg.cache.clear();
+		}
+		endPhase(builder.cfg, Phase.CONVERT);
+		if (builder.cfg.profile != null) {
+			builder.cfg.profile.count(Phase.CONVERT, "nodes", sdg.vertexSet().size());
+			builder.cfg.profile.count(Phase.CONVERT, "edges", sdg.edgeSet().size());
+		}
+		if (builder.cfg.ext != null) {
+			builder.cfg.ext.addSummaries(sdg);
+		}
 		out.print(".");
 
 		return sdg;
@@ -593,6 +588,71 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		return pack;
 	}
 
+	private static void computeSummary(final SDGBuilderConfig cfg, final WorkPackage<SDG> pack,
+			final IProgressMonitor progress) throws CancelException {
+		final ISummaryComputer summaryComputer = cfg.summaryComputationType.getSummaryComputer();
+
+		startPhase(cfg, Phase.SUMMARY);
+		if (cfg.accessPath) {
+			computeDataAndAliasSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+		} else {
+			computeSummaryEdges(cfg.out, summaryComputer, pack, cfg.doParallel, progress);
+		}
+		endPhase(cfg, Phase.SUMMARY);
+
+		if (cfg.profile != null) {
+			final SDG sdg = pack.getGraph();
+			cfg.profile.count(Phase.SUMMARY, "nodes", sdg.vertexSet().size());
+			final Map<SDGEdge.Kind, Long> kinds = new EnumMap<SDGEdge.Kind, Long>(SDGEdge.Kind.class);
+			for (final SDGEdge e : sdg.edgeSet()) {
+				final Long num = kinds.get(e.getKind());
+				kinds.put(e.getKind(), (num == null ? 1 : num + 1));
+			}
+			for (final Map.Entry<SDGEdge.Kind, Long> kind : kinds.entrySet()) {
+				cfg.profile.count(Phase.SUMMARY, "edges." + kind.getKey(), kind.getValue());
+			}
+		}
+
+		if (cfg.ext != null) {
+			cfg.ext.storeSummaries(pack.getGraph());
+		}
+	}
+
+	private static void startPhase(final SDGBuilderConfig cfg, final Phase phase) {
+		if (cfg.profile != null) {
+			cfg.profile.start(phase);
+		}
+	}
+
+	private static void endPhase(final SDGBuilderConfig cfg, final Phase phase) {
+		if (cfg.profile != null) {
+			cfg.profile.end(phase);
+		}
+	}
+
+	/**
+	 * Ends a phase of the pdg construction and records the number of pdgs, of their nodes and of their edges by kind.
+	 */
+	private void endPdgPhase(final Phase phase) {
+		if (cfg.profile == null) {
+			return;
+		}
+
+		cfg.profile.end(phase);
+		cfg.profile.count(phase, "pdgs", pdgs.size());
+		cfg.profile.count(phase, "nodes", countNodesInPdgs());
+		final Map<PDGEdge.Kind, Long> kinds = new EnumMap<PDGEdge.Kind, Long>(PDGEdge.Kind.class);
+		for (final PDG pdg : pdgs) {
+			for (final PDGEdge e : pdg.edgeSet()) {
+				final Long num = kinds.get(e.kind);
+				kinds.put(e.kind, (num == null ? 1 : num + 1));
+			}
+		}
+		for (final Map.Entry<PDGEdge.Kind, Long> kind : kinds.entrySet()) {
+			cfg.profile.count(phase, "edges." + kind.getKey(), kind.getValue());
+		}
+	}
+
 	private static void computeSummaryEdges(PrintStream out, ISummaryComputer summaryComputer,
 			WorkPackage<SDG> pack, boolean isParallel, IProgressMonitor progress) throws CancelException {
 		summaryComputer.compute(pack, isParallel, progress);
@@ -613,6 +673,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	private int pdgId = getMainId();
 	private List<PDG> pdgs = new LinkedList<PDG>();
 	private TIntObjectMap<PDG> pdgIdToPdg = new TIntObjectHashMap<>();
+	private Map<CGNode, PDG> cgNodeToPdg = new HashMap<>();
 	/**
 	 * currently unused - could later be used to append static initializer calls
 	 * to it
@@ -623,6 +684,11 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	private com.ibm.wala.ipa.callgraph.CallGraph nonPrunedCG = null;
 	private Map<PDGNode, TIntSet> call2alloc = null;
 	private InterprocAnalysisResult<SSAInstruction, IExplodedBasicBlock> interprocExceptionResult = null;
+	/** the methods that may throw an exception, once the interprocedural exception analysis result has been released */
+	private Set<CGNode> mayThrowExceptionResult = null;
+	/** exception analyzed cfgs computed in parallel, but not yet used to build a pdg */
+	private final Map<CGNode, ControlFlowGraph<SSAInstruction, IExplodedBasicBlock>> precomputedCFGs =
+			new ConcurrentHashMap<CGNode, ControlFlowGraph<SSAInstruction, IExplodedBasicBlock>>();
 
 	private SDGBuilder(final SDGBuilderConfig cfg) {
 		this.cfg = cfg;
@@ -635,7 +701,12 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 		cfg.out.print("\n\tcallgraph: ");
 		progress.beginTask("building call graph...", IProgressMonitor.UNKNOWN);
+		startPhase(cfg, Phase.CALLGRAPH);
 		final CGResult walaCG = buildCallgraph(progress);
+		endPhase(cfg, Phase.CALLGRAPH);
+		if (cfg.profile != null) {
+			cfg.profile.count(Phase.CALLGRAPH, "nodes", walaCG.cg.getNumberOfNodes());
+		}
 		progress.done();
 		run(walaCG, progress);
 	}
@@ -659,7 +730,13 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 		nonPrunedCG = initalCG.cg;
 		progress.beginTask("pruning call graph...", IProgressMonitor.UNKNOWN);
+		startPhase(cfg, Phase.PRUNING);
 		cg = convertAndPruneCallGraph(cfg.prunecg, initalCG, progress);
+		endPhase(cfg, Phase.PRUNING);
+		if (cfg.profile != null) {
+			cfg.profile.count(Phase.PRUNING, "nodes", cg.vertexSet().size());
+			cfg.profile.count(Phase.PRUNING, "edges", cg.edgeSet().size());
+		}
 		progress.done();
 		if (cfg.debugCallGraphDotOutput) {
 			debugDumpGraph(cg, "callgraph.dot");
@@ -684,6 +761,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 
 		pdgId = getMainId();
+		startPhase(cfg, Phase.INTRAPROC);
 		{
 			// create main pdg
 			final CGNode cgm = cg.getRoot().node;
@@ -699,27 +777,42 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		progress.beginTask("computing intraprocedural flow", cg.vertexSet().size());
 		int currentNum = 1;
 
+		final List<CGNode> intraproc = new ArrayList<CGNode>(cg.vertexSet().size());
 		for (CallGraph.Node node : cg.vertexSet()) {
-			if (node.node == cg.getRoot().node) {
-				continue;
+			if (node.node != cg.getRoot().node) {
+				intraproc.add(node.node);
 			}
+		}
 
-			final CGNode cgm = node.node;
-			final PDG pdg = createAndAddPDG(cgm, progress);
+		for (int from = 0; from < intraproc.size(); from += PARALLEL_CFG_WINDOW) {
+			final List<CGNode> window = intraproc.subList(from, Math.min(from + PARALLEL_CFG_WINDOW, intraproc.size()));
+			if (cfg.doParallel) {
+				precomputeExceptionAnalyzedCFGs(window, progress);
+			}
 
-			progress.worked(currentNum++);
+			for (final CGNode cgm : window) {
+				final PDG pdg = createAndAddPDG(cgm, progress);
 
-			MonitorUtil.throwExceptionIfCanceled(progress);
+				progress.worked(currentNum++);
 
-			if (cfg.debugManyGraphsDotOutput) {
-				debugOutput(pdg);
+				MonitorUtil.throwExceptionIfCanceled(progress);
+
+				if (cfg.debugManyGraphsDotOutput) {
+					debugOutput(pdg);
+				}
 			}
 		}
+		precomputedCFGs.clear();
+		if (cfg.lowMemory) {
+			releaseInterprocExceptionResult();
+		}
+		endPdgPhase(Phase.INTRAPROC);
 		progress.done();
 		
 		SourceLocation.clearSourceLocationPool();
 
 		cfg.out.print("calls");
+		startPhase(cfg, Phase.CALLS);
 		progress.beginTask("interproc: connect call sites", pdgs.size());
 		currentNum = 0;
 		// connect call sites
@@ -758,11 +851,13 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 
 		cfg.out.print(".");
+		endPdgPhase(Phase.CALLS);
 		progress.done();
 		
 		if (cfg.staticInitializers != StaticInitializationTreatment.NONE) {
 			progress.beginTask("interproc: handling static initializers (clinit)...", IProgressMonitor.UNKNOWN);
 			cfg.out.print("clinit");
+			startPhase(cfg, Phase.CLINIT);
 			switch (cfg.staticInitializers) {
 			case SIMPLE:
 				// nothing to do, this is handled though fakeWorldClinit of wala
@@ -774,6 +869,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			default:
 				throw new IllegalStateException("Unknown option: " + cfg.staticInitializers);
 			}
+			endPdgPhase(Phase.CLINIT);
 			cfg.out.print(".");
 
 		}
@@ -781,13 +877,17 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		cfg.out.print("statics");
 		// propagate static root nodes and add dataflow
 		progress.beginTask("interproc: adding data flow for static fields...", IProgressMonitor.UNKNOWN);
+		startPhase(cfg, Phase.STATICS);
 		addDataFlowForStaticFields(progress);
+		endPdgPhase(Phase.STATICS);
 		progress.done();
 		cfg.out.print(".");
 
 		cfg.out.print("heap");
 		// compute dataflow through heap/fields (no-alias)
+		startPhase(cfg, Phase.HEAP);
 		addDataFlowForHeapFields(progress);
+		endPdgPhase(Phase.HEAP);
 		cfg.out.print(".");
 
 		cfg.out.print("misc");
@@ -800,7 +900,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		if (cfg.localKillingDefs) {
 			cfg.out.print("killdef");
 			progress.beginTask("interproc: computing local killing defintions...", IProgressMonitor.UNKNOWN);
+			startPhase(cfg, Phase.KILLDEF);
 			LocalKillingDefs.run(this, progress);
+			endPdgPhase(Phase.KILLDEF);
 			progress.done();
 			cfg.out.print(".");
 		}
@@ -810,7 +912,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			cfg.out.print("accesspath");
 			progress.beginTask("interproc: computing access path information...", IProgressMonitor.UNKNOWN);
 			// compute access path info
+			startPhase(cfg, Phase.ACCESSPATH);
 			this.apResult = AccessPath.compute(this, getMainPDG());
+			endPdgPhase(Phase.ACCESSPATH);
 			progress.done();
 			cfg.out.print(".");
 		}
@@ -826,6 +930,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 
 		if (cfg.computeInterference) {
 			cfg.out.print("interference");
+			startPhase(cfg, Phase.INTERFERENCE);
 			ThreadInformationProvider tiProvider = new ThreadInformationProvider(this);
 
 			if (!cfg.computeAllocationSites) {
@@ -836,6 +941,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			addInterferenceEdges(tiProvider, progress);
 			progress.subTask("introducing fork edges...");
 			introduceForkEdges(tiProvider);
+			endPdgPhase(Phase.INTERFERENCE);
 			cfg.out.print(".");
 		}
 
@@ -857,14 +963,39 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 	}
 	
+	/**
+	 * Releases the interprocedural exception analysis result, which keeps the cfgs of all methods, once all pdgs have
+	 * been built. Only the information which methods may throw an exception is kept.
+	 */
+	private void releaseInterprocExceptionResult() {
+		if (interprocExceptionResult == null) {
+			return;
+		}
+
+		if (cfg.pruneDDEdgesToDanglingExceptionNodes) {
+			mayThrowExceptionResult = new HashSet<CGNode>();
+			for (final CallGraph.Node node : cg.vertexSet()) {
+				final ExceptionPruningAnalysis<SSAInstruction, IExplodedBasicBlock> result =
+						interprocExceptionResult.getResult(node.node);
+				if (result == null || result.hasExceptions()) {
+					mayThrowExceptionResult.add(node.node);
+				}
+			}
+		}
+
+		interprocExceptionResult = null;
+	}
+
 	private void purge() {
 		//keep: this.nonPrunedCG, this.cg, this.cfg
 		this.apResult = null;
 		this.params = null;
 		this.pdgs = null;
 		this.pdgIdToPdg = null;
+		this.cgNodeToPdg = null;
 		this.call2alloc = null;
 		this.interprocExceptionResult = null;
+		this.mayThrowExceptionResult = null;
 	}
 
 	public ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> createIntraExceptionAnalyzedCFG(final CGNode n,
@@ -878,8 +1009,59 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		return npa.getCFG();
 	}
 
+	/**
+	 * Computes the exception analyzed control flow graphs of the given methods in parallel. The pdgs of the methods
+	 * are still built one after another in the order of the call graph, so that the node ids do not depend on the
+	 * scheduling of the threads: The pdg nodes are numbered by a single counter, their ids define their hash codes and
+	 * order and some of them are shared by several pdgs (e.g. the {@link ParameterField}s).
+	 * So only the part of the pdg construction that does not create nodes is done in parallel. The precomputed graphs
+	 * are consumed by {@link #createExceptionAnalyzedCFG(CGNode, IProgressMonitor)}.
+	 * If the computation fails for a method, the graph is computed again when its pdg is built, so the error is
+	 * reported there.
+	 * The worker threads only check the given monitor for cancellation, progress is reported when the pdgs are built.
+	 */
+	private void precomputeExceptionAnalyzedCFGs(final List<CGNode> nodes, final IProgressMonitor progress)
+			throws CancelException {
+		final IProgressMonitor cancelOnly = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return progress.isCanceled();
+			}
+
+			@Override
+			public String getCancelMessage() {
+				return progress.getCancelMessage();
+			}
+		};
+		nodes.parallelStream().forEach(n -> {
+			if (progress.isCanceled()) {
+				return;
+			}
+			try {
+				final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg =
+						computeExceptionAnalyzedCFG(n, cancelOnly);
+				if (ecfg != null) {
+					precomputedCFGs.put(n, ecfg);
+				}
+			} catch (UnsoundGraphException | CancelException | RuntimeException e) {
+				if (IS_DEBUG) debug.outln("could not precompute cfg of " + n + ": " + e);
+			}
+		});
+		MonitorUtil.throwExceptionIfCanceled(progress);
+	}
+
 	public ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> createExceptionAnalyzedCFG(final CGNode n,
 			final IProgressMonitor progress) throws UnsoundGraphException, CancelException {
+		final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> precomputed = precomputedCFGs.remove(n);
+		if (precomputed != null) {
+			return precomputed;
+		}
+
+		return computeExceptionAnalyzedCFG(n, progress);
+	}
+
+	private ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> computeExceptionAnalyzedCFG(final CGNode n,
+			final IProgressMonitor progress) throws UnsoundGraphException, CancelException {
 		ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg = null;
 
 		switch (cfg.exceptions) {
@@ -1017,7 +1199,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			return npa.hasExceptions();
 		case INTERPROC:
 		}
-		if (interprocExceptionResult == null) {
+		if (mayThrowExceptionResult != null) {
+			return mayThrowExceptionResult.contains(n);
+		} else if (interprocExceptionResult == null) {
 			return true;
 		} else {
 				ExceptionPruningAnalysis<SSAInstruction, IExplodedBasicBlock> result = interprocExceptionResult.getResult(n);
@@ -1626,7 +1810,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			} else {
 				for (final PDGNode call : pdg.getCalls()) {
 					final Set<PDG> tgts = findPossibleTargets(cg, pdg, call);
-					if (tgts.isEmpty() && !cfg.ext.isCallToModule((SSAInvokeInstruction) pdg.getInstruction(call))) {
+					if (tgts.isEmpty() && !cfg.ext.isCallToModule(pdg.getMethod(), (SSAInvokeInstruction) pdg.getInstruction(call))) {
 						// do direct data deps dummies
 						final List<PDGNode> inParam = new LinkedList<PDGNode>();
 						final List<PDGNode> outParam = new LinkedList<PDGNode>();
@@ -1786,13 +1970,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	}
 
 	public PDG getPDGforMethod(CGNode n) {
-		for (PDG pdg : pdgs) {
-			if (n.equals(pdg.cgNode)) {
-				return pdg;
-			}
-		}
-
-		return null;
+		return cgNodeToPdg.get(n);
 	}
 
 	public int getNextNodeId() {
@@ -1930,6 +2108,10 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	public boolean isParallel() {
 		return cfg.doParallel;
 	}
+	public boolean isLocalKillingDefsBitVectors() {
+		return cfg.localKillingDefsBitVectors;
+	}
+
 	public boolean isKeepPhiNodes() {
 		return cfg.keepPhiNodes;
 	}
@@ -1978,6 +2160,11 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			}
 		}
 
+		if (cfg.ext != null && cfg.ext.isSummarizedMethod(m)) {
+			// the dependencies of the method are added from its summary
+			return true;
+		}
+
 		return false;
 	}
 
@@ -2009,6 +2196,10 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		return nonPrunedCG;
 	}
 
+	public BuildProfile getBuildProfile() {
+		return cfg.profile;
+	}
+
 	private static <V, E> void debugDumpGraph(final DirectedGraph<V, E> g, final String fileName) {
 		try {
 			WriteGraphToDot.write(g, fileName);
@@ -2041,6 +2232,12 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		public MethodState defaultExceptionMethodState = null;
 		public boolean accessPath = false;
 		public boolean localKillingDefs = true;
+		/**
+		 * Compute the local killing definitions on numbered accesses and bit vectors, see
+		 * {@link edu.kit.joana.wala.core.killdef.BitVectorKillingDefs}. Removes the same edges as the original
+		 * computation, which is used if this flag is not set.
+		 */
+		public boolean localKillingDefsBitVectors = true;
 		public boolean keepPhiNodes = true;
 		public int prunecg = DO_NOT_PRUNE;
 		public boolean mergeFieldsOfPrunedCalls = true;
@@ -2163,6 +2360,28 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		 * in multiple threads.
 		 */
 		public boolean doParallel = true;
+		/**
+		 * If set, the SDG builder records the resource usage and the sizes of the graphs of each build phase in this
+		 * profile. See {@link BuildProfile}.
+		 */
+		public transient BuildProfile profile = null;
+		/**
+		 * If this flag is set, the SDG builder tries to keep its peak memory usage low: intermediate analysis results
+		 * are released as soon as no later phase needs them, the pdgs are converted to the SDG one by one and each pdg
+		 * releases its edges and instructions once it has been converted. Has no effect on the conversion if the pdgs
+		 * are kept after the build.
+		 * <p>
+		 * The pdgs cannot be converted while they are built: the phases after the intraprocedural one still change
+		 * them and look their nodes up by ssa instruction. An ir built again would have other instruction objects, so
+		 * the irs of the pdgs are not evicted during the build either. The analysis cache of wala only refers to its
+		 * irs by soft references, so it already evicts them during the build if the heap runs short. The peak heap
+		 * is therefore set by the pdgs at the end of the build, or by the pdgs not yet converted plus the sdg during
+		 * the conversion. Releasing each converted pdg keeps the latter below the sum of both. Clearing the analysis
+		 * cache after the conversion only drops the irs that are still softly reachable, so that they do not survive
+		 * into the summary computation, and does not lower the peak. The peak heap of the conversion is recorded as
+		 * phase {@link Phase#CONVERT} of the {@link #profile}, to be compared with the peak of the earlier phases.
+		 */
+		public boolean lowMemory = false;
 		/**
 		 * Options for creating the static helper for working with uninitialized fields
 		 */
@@ -2185,6 +2404,9 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 			CancelException {
 		final PDG pdg = PDG.build(this, Util.methodName(cgm.getMethod()), cgm, pdgId, cfg.ext, cfg.out, progress);
 		pdgIdToPdg.put(pdgId, pdg);
+		if (!cgNodeToPdg.containsKey(cgm)) {
+			cgNodeToPdg.put(cgm, pdg);
+		}
 		pdgs.add(pdg);
 		pdgId++;
 
@@ -0,0 +1,159 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.interference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.util.intset.IntIterator;
+import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.OrdinalSet;
+
+import edu.kit.joana.wala.core.PDG;
+import edu.kit.joana.wala.core.ParameterField;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapAccess;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapRead;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapWrite;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+/**
+ * Inverted index of the heap reads and writes of all pdgs. The accesses are indexed by their field and by the
+ * indices of the instance keys of their base pointer, so the accesses that may alias an access are found without
+ * looking at the accesses of unrelated pdgs. An access finds the same accesses as
+ * {@link HeapAccess#isAliasing(HeapAccess)}: the accesses to the same field whose base pointers share an instance
+ * key, or whose base pointers are both null or both empty.
+ * <p>
+ * All points-to sets of the accesses are backed by the instance key mapping of the pointer analysis, so the
+ * indices of the instance keys are comparable. The index is immutable after it has been built and may be queried by
+ * multiple threads.
+ */
+final class HeapAccessIndex {
+
+	/**
+	 * A heap access together with the pdg it belongs to.
+	 */
+	static final class Access<T extends HeapAccess> {
+		final PDG pdg;
+		final T access;
+
+		private Access(final PDG pdg, final T access) {
+			this.pdg = pdg;
+			this.access = access;
+		}
+	}
+
+	private static final class FieldAccesses<T extends HeapAccess> {
+		private final TIntObjectHashMap<List<Access<T>>> byInstanceKey = new TIntObjectHashMap<List<Access<T>>>();
+		private final List<Access<T>> nullBase = new ArrayList<Access<T>>();
+		private final List<Access<T>> emptyBase = new ArrayList<Access<T>>();
+
+		private void add(final Access<T> acc) {
+			final OrdinalSet<InstanceKey> base = acc.access.getBase();
+			if (base == null) {
+				nullBase.add(acc);
+			} else if (base.isEmpty()) {
+				emptyBase.add(acc);
+			} else {
+				for (final IntIterator it = base.getBackingSet().intIterator(); it.hasNext(); ) {
+					final int ik = it.next();
+					List<Access<T>> accs = byInstanceKey.get(ik);
+					if (accs == null) {
+						accs = new ArrayList<Access<T>>(2);
+						byInstanceKey.put(ik, accs);
+					}
+					accs.add(acc);
+				}
+			}
+		}
+	}
+
+	private final Map<ParameterField, FieldAccesses<HeapRead>> reads =
+			new IdentityHashMap<ParameterField, FieldAccesses<HeapRead>>();
+	private final Map<ParameterField, FieldAccesses<HeapWrite>> writes =
+			new IdentityHashMap<ParameterField, FieldAccesses<HeapWrite>>();
+
+	public void addReads(final PDG pdg, final Set<HeapRead> hreads) {
+		for (final HeapRead read : hreads) {
+			add(reads, new Access<HeapRead>(pdg, read));
+		}
+	}
+
+	public void addWrites(final PDG pdg, final Set<HeapWrite> hwrites) {
+		for (final HeapWrite write : hwrites) {
+			add(writes, new Access<HeapWrite>(pdg, write));
+		}
+	}
+
+	private static <T extends HeapAccess> void add(final Map<ParameterField, FieldAccesses<T>> index,
+			final Access<T> acc) {
+		final ParameterField field = acc.access.getField();
+		FieldAccesses<T> accs = index.get(field);
+		if (accs == null) {
+			accs = new FieldAccesses<T>();
+			index.put(field, accs);
+		}
+		accs.add(acc);
+	}
+
+	/**
+	 * @return the reads that may alias the given access. Each read is contained at most once.
+	 */
+	public List<Access<HeapRead>> findAliasingReads(final HeapAccess acc) {
+		return findAliasing(reads, acc);
+	}
+
+	/**
+	 * @return the writes that may alias the given access. Each write is contained at most once.
+	 */
+	public List<Access<HeapWrite>> findAliasingWrites(final HeapAccess acc) {
+		return findAliasing(writes, acc);
+	}
+
+	private static <T extends HeapAccess> List<Access<T>> findAliasing(final Map<ParameterField, FieldAccesses<T>> index,
+			final HeapAccess acc) {
+		final FieldAccesses<T> accs = index.get(acc.getField());
+		if (accs == null) {
+			return Collections.emptyList();
+		}
+
+		final OrdinalSet<InstanceKey> base = acc.getBase();
+		if (base == null) {
+			return accs.nullBase;
+		} else if (base.isEmpty()) {
+			return accs.emptyBase;
+		}
+
+		final IntSet keys = base.getBackingSet();
+		if (keys.size() == 1) {
+			final List<Access<T>> result = accs.byInstanceKey.get(keys.intIterator().next());
+			return (result == null ? Collections.<Access<T>>emptyList() : result);
+		}
+
+		// an access may share more than one instance key with acc, but should be reported only once
+		final Set<Access<T>> seen = Collections.newSetFromMap(new IdentityHashMap<Access<T>, Boolean>());
+		final List<Access<T>> result = new ArrayList<Access<T>>();
+		for (final IntIterator it = keys.intIterator(); it.hasNext(); ) {
+			final List<Access<T>> shared = accs.byInstanceKey.get(it.next());
+			if (shared != null) {
+				for (final Access<T> a : shared) {
+					if (seen.add(a)) {
+						result.add(a);
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+}
@@ -162,9 +162,8 @@ public class InterferenceComputation {
 	 */
 	private final Set<InterferenceEdge> computeInterference(final IProgressMonitor progress) throws CancelException {
 		if (IS_DEBUG) debug.outln("Computing read-write/write-write interference for threads");
-		final Set<InterferenceEdge> ret = new HashSet<InterferenceEdge>();
-		Map<PDG, Set<HeapWrite>> writeMap = new IdentityHashMap<>();
-		Map<PDG, Set<HeapRead>> readMap = new IdentityHashMap<>();
+		final Map<PDG, Set<HeapWrite>> writeMap = new IdentityHashMap<>();
+		final HeapAccessIndex index = new HeapAccessIndex();
 
 		Collection<PDG> pdgs = getPDGs();
 
@@ -172,60 +171,37 @@ public class InterferenceComputation {
 			if (pdg == null) {
 				continue;
 			}
-			writeMap.put(pdg, getHeapWrites(pdg));
-			readMap.put(pdg, getHeapReads(pdg));
+			final Set<HeapWrite> writes = getHeapWrites(pdg);
+			writeMap.put(pdg, writes);
+			index.addWrites(pdg, writes);
+			index.addReads(pdg, getHeapReads(pdg));
 		}
-		Stream<PDG> s1 = builder.isParallel()?pdgs.parallelStream():pdgs.stream();
-		s1.forEach(pdg -> {
-			if (pdg == null) {
-				return;
-			}
-
-			final Set<HeapWrite> writes = writeMap.get(pdg);
 
-			if (writes.isEmpty()) {
-				// a pdg without heap access does not interfere with anything
-				// the interferences that may happen because of read statements
-				// only appear when there is a aliasing write statement in another
-				// pdg. We skip them here because they will be added later on
-				// while handling the pdg with the interfering write.
+		// Instead of comparing the accesses of all pairs of pdgs, each write only looks at the accesses that share
+		// a location with it. Each thread collects its edges in its own set, the sets are merged at the end.
+		Stream<PDG> s = builder.isParallel()?pdgs.parallelStream():pdgs.stream();
+		return s.collect(HashSet::new, (ret, pdg) -> {
+			if (pdg == null) {
 				return;
 			}
-			Stream<PDG> s2 = builder.isParallel()?pdgs.parallelStream():pdgs.stream();
-			s2.forEach(pdgCur -> {
-				if (pdgCur == null) {
-					return;
-				}
-
-				if (mayRunInParallelThreads(pdg, pdgCur)) {
-					final Set<HeapRead> readsCur = readMap.get(pdgCur);
-					final Set<HeapWrite> writesCur = writeMap.get(pdgCur);
 
-					if (readsCur.isEmpty() && writesCur.isEmpty()) {
-						// a pdg without heap access does not interfere with anything
-						return;
+			// a pdg without heap writes does not interfere with anything on its own. The interferences
+			// of its reads are found while handling the pdgs with the aliasing writes.
+			for (final HeapWrite write : writeMap.get(pdg)) {
+				for (final HeapAccessIndex.Access<HeapRead> read : index.findAliasingReads(write)) {
+					if (mayRunInParallelThreads(pdg, read.pdg)) {
+						ret.add(addReadWriteInterference(write, read.access));
 					}
-					
-					Set<InterferenceEdge> interferenceEdges
-						= computeInterference(writes, readsCur, writesCur);
-					synchronized (ret) {
-						ret.addAll(interferenceEdges);
+				}
+				for (final HeapAccessIndex.Access<HeapWrite> write2 : index.findAliasingWrites(write)) {
+					if (mayRunInParallelThreads(pdg, write2.pdg)) {
+						ret.add(addWriteWriteInterference(write, write2.access));
 					}
 				}
-
-				/*if (progress.isCanceled()) {
-					throw CancelException.make("Computing interference canceled.");
-				}*/
-			});
-
-			/*if (progress.isCanceled()) {
-				throw CancelException.make("Computing interference canceled.");
-			}*/
+			}
 
 			progress.worked(1);
-		});
-
-		return ret;
+		}, Set::addAll);
 	}
 
 	private Collection<PDG> getPDGs() {
@@ -236,26 +212,6 @@ public class InterferenceComputation {
 		return builder.getNonPrunedWalaCallGraph();
 	}
 
-	private final Set<InterferenceEdge> computeInterference(final Set<HeapWrite> writes1, final Set<HeapRead> reads2,
-			final Set<HeapWrite> writes2) {
-
-		final Set<InterferenceEdge> ret = new HashSet<InterferenceEdge>();
-		for (final HeapWrite write : writes1) {
-			for (final HeapRead read2 : reads2) {
-				if (write.isAliasing(read2)) {
-					ret.add(addReadWriteInterference(write, read2));
-				}
-			}
-			for (final HeapWrite write2 : writes2) {
-				if (write.isAliasing(write2)) {
-					ret.add(addWriteWriteInterference(write, write2));
-				}
-			}
-		}
-
-		return ret;
-	}
-
 	private final InterferenceEdge addReadWriteInterference(final HeapWrite write, final HeapRead read) {
 		final PDGNode ewrite = write.getNode();
 		final PDG pdgWrite = getPdgForId(ewrite.getPdgId());
@@ -612,6 +568,14 @@ public class InterferenceComputation {
 			return expr;
 		}
 
+		public OrdinalSet<InstanceKey> getBase() {
+			return base;
+		}
+
+		public ParameterField getField() {
+			return field;
+		}
+
 		public boolean isAliasing(final HeapAccess acc) {
 			final boolean emtpyBases = (base == null && acc.base == null) ||
 			(base != null && acc.base != null && base.isEmpty() && acc.base.isEmpty());
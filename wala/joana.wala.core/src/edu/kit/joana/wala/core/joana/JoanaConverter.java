@@ -15,6 +15,7 @@ import java.util.TreeSet;
 
 import com.ibm.wala.classLoader.IClass;
 import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ssa.SSAInstruction;
 import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.MonitorUtil;
 import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
@@ -34,6 +35,8 @@ import edu.kit.joana.wala.core.PDGEdge;
 import edu.kit.joana.wala.core.PDGNode;
 import edu.kit.joana.wala.core.SDGBuilder;
 import edu.kit.joana.wala.util.PrettyWalaNames;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.set.TIntSet;
 
 
@@ -68,15 +71,19 @@ public class JoanaConverter {
 
         progress.beginTask("Inserting edges into SDG", allNodes.length);
         progress.subTask("processing " + allNodes.length + " nodes");
-        for (int i = 0; i < allNodes.length; i++) {
-        	addEdgesForNode(sdg, allNodes[i], b, keepPDGs);
-
-        	if (i % 107 == 0) {
-                progress.worked(i);
-    			MonitorUtil.throwExceptionIfCanceled(progress);
-            }
+        if (b.cfg.lowMemory && !keepPDGs) {
+        	sdg.setNode2Instr(addEdgesAndReleasePDGs(sdg, allNodes, b, progress));
+        } else {
+	        for (int i = 0; i < allNodes.length; i++) {
+	        	addEdgesForNode(sdg, allNodes[i], b, keepPDGs);
+
+	        	if (i % 107 == 0) {
+	                progress.worked(i);
+	    			MonitorUtil.throwExceptionIfCanceled(progress);
+	            }
+	        }
+	        sdg.setNode2Instr(b.getPDGNode2IIndex());
         }
-        sdg.setNode2Instr(b.getPDGNode2IIndex());
         sdg.setEntryToCGNode(b.getEntryNode2CGNode());
         
         final int rootId = b.getPDGforMethod(b.getNonPrunedWalaCallGraph().getFakeRootNode()).entry.getId();
@@ -89,6 +96,46 @@ public class JoanaConverter {
 		return sdg;
 	}
 
+	/**
+	 * Adds the edges pdg by pdg. As soon as the edges of a pdg have been added, its edges and its instructions are
+	 * released. The nodes are reordered by their pdg.
+	 * @return the mapping of the nodes to the index of their instruction
+	 */
+	private static TIntIntMap addEdgesAndReleasePDGs(SDG sdg, PDGNode[] nodes, SDGBuilder b,
+			IProgressMonitor progress) throws CancelException {
+		final TIntIntMap node2iindex = new TIntIntHashMap();
+
+		// stable sort, so the nodes of each pdg stay ordered by their id
+		Arrays.sort(nodes, new Comparator<PDGNode>() {
+			public int compare(PDGNode o1, PDGNode o2) {
+				return Integer.compare(o1.getPdgId(), o2.getPdgId());
+			}});
+
+		int start = 0;
+		while (start < nodes.length) {
+			final int pdgId = nodes[start].getPdgId();
+			final PDG pdg = b.getPDGforId(pdgId);
+			int end = start;
+			for (; end < nodes.length && nodes[end].getPdgId() == pdgId; end++) {
+				final PDGNode node = nodes[end];
+				addEdgesForNode(sdg, node, b, false);
+
+				final SSAInstruction instr = pdg.getInstruction(node);
+				if (instr != null) {
+					node2iindex.put(node.getId(), instr.iindex);
+				}
+			}
+
+			pdg.releaseInstructions();
+
+			progress.worked(end);
+			MonitorUtil.throwExceptionIfCanceled(progress);
+			start = end;
+		}
+
+		return node2iindex;
+	}
+
 	private static void addEdgesForNode(SDG sdg, PDGNode node, SDGBuilder b, boolean keepEdges) {
 		PDG pdg = b.getPDGforId(node.getPdgId());
 		SDGNode from = sdg.getNode(node.getId());
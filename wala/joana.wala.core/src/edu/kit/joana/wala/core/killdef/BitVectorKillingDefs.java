@@ -0,0 +1,510 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.killdef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.wala.dataflow.graph.BitVectorSolver;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import com.ibm.wala.util.collections.Pair;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.dominators.Dominators;
+import com.ibm.wala.util.intset.BitVector;
+import com.ibm.wala.util.intset.IntIterator;
+import com.ibm.wala.util.intset.IntSet;
+import com.ibm.wala.util.intset.MutableMapping;
+
+import edu.kit.joana.wala.core.ParameterField;
+import edu.kit.joana.wala.core.dataflow.GenReach;
+import edu.kit.joana.wala.core.killdef.Access.Kind;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * Computes the killed reads of a method on numbered accesses. It produces the same pairs of writes and reads as the
+ * computation with {@link AccessManager#computeEquivalenceClasses}, {@link Reachability}, the must-kill and must-read
+ * maps and the kill/gen solver of {@link LocalKillingDefs}, but
+ * <ul>
+ * <li>the accesses of the flow graph are numbered, their kind, field, node and values are kept in arrays and the
+ * reaching accesses, the dominators of the nodes, must-kill and must-read are bit vectors indexed by these numbers.
+ * </li>
+ * <li>the value equivalence classes are a union-find structure over the value numbers. The parts of the merge rules
+ * that do not depend on the equivalence classes are evaluated only once, so each iteration of the fixpoint only
+ * checks the candidates that remain.</li>
+ * </ul>
+ * The merge rules are monotone in the equivalence of values, so their least fixpoint does not depend on the order
+ * the merges are applied in.
+ * <p>
+ * The access manager is only read: the values of its accesses are not merged.
+ *
+ * @param <T> the type of the nodes of the flow graph
+ */
+public final class BitVectorKillingDefs<T> {
+
+	private final CGNode method;
+	private final IFieldsMayMod fMayMod;
+	private final AccessManager<T> accesses;
+	private final NumberedGraph<T> flow;
+	private final T entry;
+	private final Dominators<T> dom;
+
+	/* all accesses of the flow graph, indexed by their number */
+	private final List<Access<T>> accs = new ArrayList<Access<T>>();
+	private final TObjectIntHashMap<Access<T>> acc2num = new TObjectIntHashMap<Access<T>>(16, 0.5f, -1);
+	private Kind[] kind;
+	private boolean[] isWrite;
+	private int[] node;
+	private int[] field;
+	private int[] value;
+	private int[] base;
+	private int[] index;
+	private final List<ParameterField> fields = new ArrayList<ParameterField>();
+
+	/* indexed by node number */
+	private BitVector[] mayIn;
+	private BitVector[] mustIn;
+	private BitVector[] dominators;
+
+	/* union-find over the dense ids of the value numbers */
+	private int[] parent;
+
+	public BitVectorKillingDefs(final CGNode method, final IFieldsMayMod fMayMod, final AccessManager<T> accesses,
+			final NumberedGraph<T> flow, final T entry, final Dominators<T> dom) {
+		this.method = method;
+		this.fMayMod = fMayMod;
+		this.accesses = accesses;
+		this.flow = flow;
+		this.entry = entry;
+		this.dom = dom;
+	}
+
+	/**
+	 * @return pairs of a write and a read of the same field where the write may not reach the read
+	 */
+	public List<Pair<FieldAccess<T>, FieldAccess<T>>> computeKilledReads(final IProgressMonitor progress)
+			throws CancelException {
+		numberAccesses();
+		computeReachingAccesses(progress);
+		computeDominators();
+
+		final int[] reads = toNumbers(accesses.getReads());
+		final int[] writes = toNumbers(accesses.getWrites());
+
+		computeValueEquivClasses(reads, progress);
+
+		final BitVector[] in = solveReachingWrites(writes, progress);
+
+		final List<Pair<FieldAccess<T>, FieldAccess<T>>> killed = new ArrayList<Pair<FieldAccess<T>, FieldAccess<T>>>();
+		for (final int r : reads) {
+			final T n = accs.get(r).getNode();
+			if (n == entry) continue;
+
+			final BitVector inR = in[node[r]];
+			for (int w = 0; w < writes.length; w++) {
+				if (!inR.get(w) && isSameAccess(writes[w], r)) {
+					killed.add(Pair.make((FieldAccess<T>) accs.get(writes[w]), (FieldAccess<T>) accs.get(r)));
+				}
+			}
+		}
+
+		return killed;
+	}
+
+	private void numberAccesses() {
+		for (final T n : flow) {
+			for (final Access<T> a : accesses.getAccess(n)) {
+				acc2num.put(a, accs.size());
+				accs.add(a);
+			}
+		}
+
+		final int size = accs.size();
+		kind = new Kind[size];
+		isWrite = new boolean[size];
+		node = new int[size];
+		field = new int[size];
+		value = new int[size];
+		base = new int[size];
+		index = new int[size];
+
+		final Map<ParameterField, Integer> field2num = new HashMap<ParameterField, Integer>();
+		final TIntIntHashMap val2num = new TIntIntHashMap(16, 0.5f, Integer.MIN_VALUE, -1);
+		for (int i = 0; i < size; i++) {
+			final Access<T> a = accs.get(i);
+			kind[i] = a.getKind();
+			isWrite[i] = a.isWrite();
+			node[i] = flow.getNumber(a.getNode());
+			field[i] = base[i] = index[i] = value[i] = -1;
+
+			if (a instanceof FieldAccess<?>) {
+				Integer f = field2num.get(a.getField());
+				if (f == null) {
+					f = fields.size();
+					fields.add(a.getField());
+					field2num.put(a.getField(), f);
+				}
+				field[i] = f;
+				value[i] = valueNum(val2num, a.getValue().v);
+
+				if (kind[i] == Kind.FIELD || kind[i] == Kind.ARRAY) {
+					base[i] = valueNum(val2num, a.getBase().v);
+				}
+
+				if (kind[i] == Kind.ARRAY) {
+					index[i] = valueNum(val2num, a.getIndex().v);
+				}
+			}
+		}
+
+		parent = new int[val2num.size()];
+		for (int i = 0; i < parent.length; i++) {
+			parent[i] = i;
+		}
+	}
+
+	private static int valueNum(final TIntIntHashMap val2num, final int val) {
+		int num = val2num.get(val);
+		if (num < 0) {
+			num = val2num.size();
+			val2num.put(val, num);
+		}
+
+		return num;
+	}
+
+	private int[] toNumbers(final Iterable<FieldAccess<T>> fas) {
+		final TIntArrayList nums = new TIntArrayList();
+		for (final FieldAccess<T> fa : fas) {
+			final int num = acc2num.get(fa);
+			if (num < 0) {
+				throw new IllegalStateException("access is not part of the flow graph: " + fa);
+			}
+			nums.add(num);
+		}
+
+		return nums.toArray();
+	}
+
+	/**
+	 * Solves the same may- and must-reach frameworks as {@link AccessManager}, but with the numbering of the
+	 * accesses as domain, so the solutions are bit vectors over the access numbers.
+	 */
+	private void computeReachingAccesses(final IProgressMonitor progress) throws CancelException {
+		final Map<T, Collection<Access<T>>> gen = new HashMap<T, Collection<Access<T>>>();
+		for (final T n : flow) {
+			gen.put(n, accesses.getAccess(n));
+		}
+
+		final MutableMapping<Access<T>> domain = MutableMapping.make();
+		for (final Access<T> a : accs) {
+			domain.add(a);
+		}
+
+		mayIn = solve(new GenReach<T, Access<T>>(flow, new GenReach.UnionMeetGenFunctions<T, Access<T>>(gen), domain),
+				progress);
+		mustIn = solve(new GenReach<T, Access<T>>(flow,
+				new GenReach.IntersectionMeetGenFunctions<T, Access<T>>(gen), domain), progress);
+	}
+
+	private BitVector[] solve(final GenReach<T, Access<T>> reach, final IProgressMonitor progress)
+			throws CancelException {
+		final BitVectorSolver<T> solver = new BitVectorSolver<T>(reach);
+		solver.solve(progress);
+
+		final BitVector[] in = new BitVector[flow.getMaxNumber() + 1];
+		for (final T n : flow) {
+			final BitVector bv = new BitVector(accs.size());
+			final IntSet set = solver.getIn(n).getValue();
+			if (set != null) {
+				for (final IntIterator it = set.intIterator(); it.hasNext();) {
+					bv.set(it.next());
+				}
+			}
+			in[flow.getNumber(n)] = bv;
+		}
+
+		return in;
+	}
+
+	/**
+	 * Computes the dominators of all nodes that contain an access, see {@link Dominators#isDominatedBy}.
+	 */
+	private void computeDominators() {
+		dominators = new BitVector[flow.getMaxNumber() + 1];
+		for (final Access<T> a : accs) {
+			final T n = a.getNode();
+			final int num = flow.getNumber(n);
+			if (dominators[num] == null) {
+				final BitVector bv = new BitVector();
+				for (T ptr = n; ptr != null; ptr = dom.getIdom(ptr)) {
+					bv.set(flow.getNumber(ptr));
+				}
+				dominators[num] = bv;
+			}
+		}
+	}
+
+	private boolean isDominating(final int mayDominate, final int mayBeDominated) {
+		return dominators[node[mayBeDominated]].get(node[mayDominate]);
+	}
+
+	private int find(int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+
+		return v;
+	}
+
+	private boolean union(final int v1, final int v2) {
+		final int r1 = find(v1);
+		final int r2 = find(v2);
+		if (r1 == r2) {
+			return false;
+		}
+
+		parent[Math.max(r1, r2)] = Math.min(r1, r2);
+
+		return true;
+	}
+
+	/**
+	 * Same as {@link FieldAccess#isSameAccess} with the current value equivalence classes.
+	 */
+	private boolean isSameAccess(final int a1, final int a2) {
+		if (kind[a1] != kind[a2] || field[a1] != field[a2]) {
+			return false;
+		}
+
+		switch (kind[a1]) {
+		case ARRAY:
+			return find(base[a1]) == find(base[a2]) && find(index[a1]) == find(index[a2]);
+		case FIELD:
+			return find(base[a1]) == find(base[a2]);
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * See {@link AccessManager#computeEquivalenceClasses}.
+	 */
+	private void computeValueEquivClasses(final int[] reads, final IProgressMonitor progress)
+			throws CancelException {
+		/*
+		 * v2 = v1.f;	// from
+		 * <no write to f>
+		 * v3 = v1.f;	// to
+		 *
+		 * merge (v2, v3)
+		 */
+		final TIntArrayList sameReads = new TIntArrayList();
+		for (final int to : reads) {
+			for (final int from : reads) {
+				if (to != from && kind[to] == kind[from] && field[to] == field[from] && mayIn[node[to]].get(from)
+						&& !isWriteInBetween(from, to, field[to])) {
+					sameReads.add(to);
+					sameReads.add(from);
+				}
+			}
+		}
+
+		MonitorUtil.throwExceptionIfCanceled(progress);
+
+		/*
+		 * v3 = v4.a;	// readA
+		 * v1.f = v3;	// writeF
+		 * v2 = v1.f;	// readF
+		 *
+		 * merge (v3, v2) iff n1 dominates n3 and no other write to f is in between
+		 */
+		final TIntArrayList copiedReads = new TIntArrayList();
+		for (final int readF : reads) {
+			final int writeF = findLastWriteDominating(readF);
+			if (writeF < 0 || kind[writeF] != kind[readF] || field[writeF] != field[readF]) continue;
+
+			for (final int readA : reads) {
+				if (field[readA] != field[readF] && isDominating(readA, writeF)) {
+					copiedReads.add(readA);
+					copiedReads.add(writeF);
+					copiedReads.add(readF);
+				}
+			}
+		}
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+
+			MonitorUtil.throwExceptionIfCanceled(progress);
+
+			for (int i = 0; i < sameReads.size(); i += 2) {
+				final int to = sameReads.getQuick(i);
+				final int from = sameReads.getQuick(i + 1);
+				if (isSameAccess(to, from)) {
+					changed |= union(value[to], value[from]);
+				}
+			}
+
+			for (int i = 0; i < copiedReads.size(); i += 3) {
+				final int readA = copiedReads.getQuick(i);
+				final int writeF = copiedReads.getQuick(i + 1);
+				final int readF = copiedReads.getQuick(i + 2);
+				if (find(value[writeF]) == find(value[readA]) && isSameAccess(writeF, readF)) {
+					changed |= union(value[readA], value[readF]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * See {@link Reachability#isWriteInBetween}.
+	 */
+	private boolean isWriteInBetween(final int from, final int to, final int f) {
+		if (!isDominating(from, to)) {
+			return true;
+		}
+
+		final BitVector rFrom = mustIn[node[from]];
+		final BitVector rTo = mayIn[node[to]];
+
+		for (int a = rTo.nextSetBit(0); a >= 0; a = rTo.nextSetBit(a + 1)) {
+			if (rFrom.get(a) || !isDominating(from, a)) continue;
+			// in between from -> to
+			switch (kind[a]) {
+			case CALL:
+				if (fMayMod.mayCallModField(method, accs.get(a).getCallSite(), fields.get(f))) {
+					return true;
+				}
+				break;
+			case ARRAY:
+			case FIELD:
+			case STATIC:
+				if (isWrite[a] && field[a] == f) {
+					return true;
+				}
+				break;
+			default: // nothing to do here
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * See {@link Reachability#findLastWriteDominating}.
+	 * @return the number of the write or -1
+	 */
+	private int findLastWriteDominating(final int acc) {
+		final BitVector must = mustIn[node[acc]];
+		final BitVector may = mayIn[node[acc]];
+
+		int iWriteDom = -1;
+		for (int a = must.nextSetBit(0); a >= 0; a = must.nextSetBit(a + 1)) {
+			if (isWrite[a] && field[a] == field[acc] && (iWriteDom < 0 || isDominating(iWriteDom, a))) {
+				iWriteDom = a;
+			}
+		}
+
+		if (iWriteDom < 0) {
+			return -1;
+		}
+
+		for (int a = may.nextSetBit(0); a >= 0; a = may.nextSetBit(a + 1)) {
+			if (a == iWriteDom) continue;
+
+			if (isWrite[a]) {
+				if (field[a] == field[iWriteDom] && isDominating(iWriteDom, a)) {
+					// a possible write is between the dominating write and the access
+					return -1;
+				}
+			} else if (kind[a] == Kind.CALL) {
+				if (isDominating(iWriteDom, a)
+						&& fMayMod.mayCallModField(method, accs.get(a).getCallSite(), fields.get(field[iWriteDom]))) {
+					// a possible call to a method that may modify the field is in between the domination write and
+					// the access
+					return -1;
+				}
+			}
+		}
+
+		return iWriteDom;
+	}
+
+	/**
+	 * Standard kill/gen analysis of the writes that may reach a node. A write kills all other writes that are the same
+	 * access. The bits of the solution are the positions of the writes in the given array.
+	 * @return the writes that may reach each node, indexed by node number
+	 */
+	private BitVector[] solveReachingWrites(final int[] writes, final IProgressMonitor progress)
+			throws CancelException {
+		final int maxNum = flow.getMaxNumber() + 1;
+		final BitVector[] kill = new BitVector[maxNum];
+		final BitVector[] gen = new BitVector[maxNum];
+		for (int w1 = 0; w1 < writes.length; w1++) {
+			final int n = node[writes[w1]];
+			if (gen[n] == null) {
+				gen[n] = new BitVector(writes.length);
+				kill[n] = new BitVector(writes.length);
+			}
+			gen[n].set(w1);
+
+			for (int w2 = 0; w2 < writes.length; w2++) {
+				if (w1 != w2 && isSameAccess(writes[w1], writes[w2])) {
+					kill[n].set(w2);
+				}
+			}
+		}
+
+		final BitVector[] in = new BitVector[maxNum];
+		final BitVector[] out = new BitVector[maxNum];
+		for (final T n : flow) {
+			out[flow.getNumber(n)] = new BitVector(writes.length);
+		}
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+
+			MonitorUtil.throwExceptionIfCanceled(progress);
+
+			for (final T n : flow) {
+				final int num = flow.getNumber(n);
+				final BitVector bvIn = new BitVector(writes.length);
+				for (final Iterator<T> it = flow.getPredNodes(n); it.hasNext();) {
+					bvIn.or(out[flow.getNumber(it.next())]);
+				}
+				in[num] = bvIn;
+
+				final BitVector bvOut = new BitVector(bvIn);
+				if (kill[num] != null) {
+					bvOut.andNot(kill[num]);
+					bvOut.or(gen[num]);
+				}
+
+				if (!bvOut.sameBits(out[num])) {
+					out[num] = bvOut;
+					changed = true;
+				}
+			}
+		}
+
+		return in;
+	}
+
+}
@@ -7,6 +7,7 @@
  */
 package edu.kit.joana.wala.core.killdef;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,6 +27,7 @@ import com.ibm.wala.dataflow.graph.BitVectorUnion;
 import com.ibm.wala.dataflow.graph.ITransferFunctionProvider;
 import com.ibm.wala.fixpoint.BitVectorVariable;
 import com.ibm.wala.fixpoint.UnaryOperator;
+import com.ibm.wala.ipa.callgraph.CGNode;
 import com.ibm.wala.ipa.cha.IClassHierarchy;
 import com.ibm.wala.ssa.IR;
 import com.ibm.wala.ssa.SSAArrayLengthInstruction;
@@ -57,8 +59,10 @@ import com.ibm.wala.ssa.analysis.IExplodedBasicBlock;
 import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
 import com.ibm.wala.util.WalaException;
+import com.ibm.wala.util.collections.Pair;
 import com.ibm.wala.util.graph.Acyclic;
 import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+import com.ibm.wala.util.graph.NumberedGraph;
 import com.ibm.wala.util.graph.dominators.Dominators;
 import com.ibm.wala.util.intset.BitVector;
 import com.ibm.wala.util.intset.IBinaryNaturalRelation;
@@ -101,20 +105,21 @@ public final class LocalKillingDefs {
 	public static int run(final SDGBuilder sdg, final IProgressMonitor progress) throws CancelException {
 		if (DEBUG_PRINT) System.out.println("\n>>>> local killing definitions");
 
-		int removed = 0;
 		Stream<PDG> s = sdg.isParallel()?sdg.getAllPDGs().parallelStream():sdg.getAllPDGs().stream();
-		s.forEach(pdg -> {
+		final int removed = s.mapToInt(pdg -> {
 			final IR ir = pdg.cgNode.getIR();
 			if (ir != null) {
 				
 				try {
-					/*removed += */run(sdg, pdg, progress);
+					return run(sdg, pdg, progress);
 				} catch (Exception e) {
 					// TODO Auto-generated catch block
 					e.printStackTrace();
 				}
 			}
-		});
+
+			return 0;
+		}).sum();
 
 		if (INFO_PRINT) {
 			System.out.println(sdg.getMainMethodName() + " - killed " + removed + " edges in total.");
@@ -246,18 +251,49 @@ public final class LocalKillingDefs {
 		// build flow graph without back edges
 		final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> flow = ecfg; // = stripBackEdges(ecfg);
 		final Dominators<IExplodedBasicBlock> dom = Dominators.make(flow, flow.entry());
-		final Map<IExplodedBasicBlock, OrdinalSet<Access<IExplodedBasicBlock>>> mayReach =
+		final IFieldsMayMod fMayMod = sdg.getFieldsMayMod();
+
+		final List<Pair<FieldAccess<IExplodedBasicBlock>, FieldAccess<IExplodedBasicBlock>>> killedReads;
+		if (sdg.isLocalKillingDefsBitVectors()) {
+			killedReads = new BitVectorKillingDefs<IExplodedBasicBlock>(pdg.cgNode, fMayMod, accesses, flow,
+					flow.entry(), dom).computeKilledReads(progress);
+		} else {
+			killedReads = computeKilledReads(pdg.cgNode, fMayMod, accesses, flow, flow.entry(), dom, progress);
+		}
+
+		for (final Pair<FieldAccess<IExplodedBasicBlock>, FieldAccess<IExplodedBasicBlock>> killed : killedReads) {
+			// killed read - remove data deps iff there are any
+			final int removed = removePotentialDataDep(killed.fst, killed.snd);
+			if (DEBUG_PRINT && removed > 0) System.out.println(killed.snd + ": killed read from " + killed.fst
+					+ ": " + removed + " edges removed");
+
+			totalRemoved += removed;
+		}
+
+		if (DEBUG_PRINT) System.out.println();
+	}
+
+	/**
+	 * Computes the killed reads of a method with the value equivalence classes of the access manager, the must-kill and
+	 * must-read maps and a kill/gen analysis of the writes that may reach each node. The values of the accesses are
+	 * merged. {@link BitVectorKillingDefs} computes the same pairs.
+	 * @return pairs of a write and a read of the same field where the write may not reach the read
+	 */
+	public static <T> List<Pair<FieldAccess<T>, FieldAccess<T>>> computeKilledReads(final CGNode method,
+			final IFieldsMayMod fMayMod, final AccessManager<T> accesses, final NumberedGraph<T> flow, final T entry,
+			final Dominators<T> dom, final IProgressMonitor progress) throws CancelException {
+		final Map<T, OrdinalSet<Access<T>>> mayReach =
 				accesses.computeMayReachableAccesses(flow, progress);
-		final Map<IExplodedBasicBlock, OrdinalSet<Access<IExplodedBasicBlock>>> mustReach =
+		final Map<T, OrdinalSet<Access<T>>> mustReach =
 				accesses.computeMustReachableAccesses(flow, progress);
 		
 		if (DEBUG_PRINT) {
-			for (IExplodedBasicBlock bb : ecfg) {
-				System.out.print("bb" + bb.getGraphNodeId() + " must-reach: ");
-				OrdinalSet<Access<IExplodedBasicBlock>> must = mustReach.get(bb);
+			for (T bb : flow) {
+				System.out.print("bb" + flow.getNumber(bb) + " must-reach: ");
+				OrdinalSet<Access<T>> must = mustReach.get(bb);
 				if (must != null) {
-					for (Access<IExplodedBasicBlock> a : must) {
-						System.out.print("bb" + a.getNode().getGraphNodeId() + " ");
+					for (Access<T> a : must) {
+						System.out.print("bb" + flow.getNumber(a.getNode()) + " ");
 					}
 				} else {
 					System.out.print("<null>");
@@ -266,22 +302,21 @@ public final class LocalKillingDefs {
 			}
 		}
 		
-		final IFieldsMayMod fMayMod = sdg.getFieldsMayMod();
-		final Reachability<IExplodedBasicBlock> reach =
-				new Reachability<IExplodedBasicBlock>(pdg.cgNode, fMayMod, mayReach, mustReach, dom);
+		final Reachability<T> reach =
+				new Reachability<T>(method, fMayMod, mayReach, mustReach, dom);
 		accesses.computeEquivalenceClasses(reach, progress);
 
 		// then: do standard kill/gen analysis
-		final Map<FieldAccess<IExplodedBasicBlock>, Set<FieldAccess<IExplodedBasicBlock>>> mustKill =
+		final Map<FieldAccess<T>, Set<FieldAccess<T>>> mustKill =
 				accesses.buildMustKillMap();
 
 		if (DEBUG_PRINT) {
-			for (FieldAccess<IExplodedBasicBlock> fa : mustKill.keySet()) {
-				System.out.print("bb" + fa.getNode().getGraphNodeId() + " kills: ");
-				Set<FieldAccess<IExplodedBasicBlock>> must = mustKill.get(fa);
+			for (FieldAccess<T> fa : mustKill.keySet()) {
+				System.out.print("bb" + flow.getNumber(fa.getNode()) + " kills: ");
+				Set<FieldAccess<T>> must = mustKill.get(fa);
 				if (must != null) {
-					for (FieldAccess<IExplodedBasicBlock> a : must) {
-						System.out.print("bb" + a.getNode().getGraphNodeId() + " ");
+					for (FieldAccess<T> a : must) {
+						System.out.print("bb" + flow.getNumber(a.getNode()) + " ");
 					}
 				} else {
 					System.out.print("<null>");
@@ -290,9 +325,9 @@ public final class LocalKillingDefs {
 			}
 		}
 		
-		final OrdinalSetMapping<FieldAccess<IExplodedBasicBlock>> map =
-				new MutableMapping<FieldAccess<IExplodedBasicBlock>>(new FieldAccess[1]);
-		for (final FieldAccess<IExplodedBasicBlock> write : accesses.getWrites()) {
+		final OrdinalSetMapping<FieldAccess<T>> map =
+				new MutableMapping<FieldAccess<T>>(new FieldAccess[1]);
+		for (final FieldAccess<T> write : accesses.getWrites()) {
 			map.add(write);
 		}
 
@@ -300,73 +335,68 @@ public final class LocalKillingDefs {
 			System.out.println(map);
 		}
 		
-		final LocalKillTransferFunctions lktf = LocalKillTransferFunctions.build(ecfg, accesses, mustKill, map, fMayMod);
+		final LocalKillTransferFunctions<T> lktf = LocalKillTransferFunctions.build(flow, accesses, mustKill, map, fMayMod);
 
 		// debug out
 		if (DEBUG_PRINT) {
-			for (final FieldAccess<IExplodedBasicBlock> n1 : accesses.getReads()) {
+			for (final FieldAccess<T> n1 : accesses.getReads()) {
 				System.out.println(n1.id + ":" + n1);
 			}
-			for (final FieldAccess<IExplodedBasicBlock> n1 : accesses.getWrites()) {
+			for (final FieldAccess<T> n1 : accesses.getWrites()) {
 				System.out.println(n1.id + ":" + n1);
 			}
 		}
 
 		if (DEBUG_PRINT) System.out.print("Solving data flow problem");
-		final BitVectorFramework<IExplodedBasicBlock, FieldAccess<IExplodedBasicBlock>> lkf =
-				new BitVectorFramework<IExplodedBasicBlock, FieldAccess<IExplodedBasicBlock>>(ecfg, lktf, map);
+		final BitVectorFramework<T, FieldAccess<T>> lkf =
+				new BitVectorFramework<T, FieldAccess<T>>(flow, lktf, map);
 		if (DEBUG_PRINT) System.out.print(".");
-		final BitVectorSolver<IExplodedBasicBlock> solver = new BitVectorSolver<IExplodedBasicBlock>(lkf);
+		final BitVectorSolver<T> solver = new BitVectorSolver<T>(lkf);
 		if (DEBUG_PRINT) System.out.print(".");
 		solver.solve(progress);
 		if (DEBUG_PRINT) System.out.println("done.");
 
-		final Map<FieldAccess<IExplodedBasicBlock>, Set<FieldAccess<IExplodedBasicBlock>>> mustRead =
+		final Map<FieldAccess<T>, Set<FieldAccess<T>>> mustRead =
 				accesses.buildMustReadMap();
 
 		if (DEBUG_PRINT) {
-			for (FieldAccess<IExplodedBasicBlock> fa : mustRead.keySet()) {
-				Set<FieldAccess<IExplodedBasicBlock>> mreads = mustRead.get(fa);
-				System.out.print("bb" + fa.getNode().getGraphNodeId() + " must-read: ");
-				for (FieldAccess<IExplodedBasicBlock> r : mreads) {
-					System.out.print("bb" + r.getNode().getGraphNodeId() + " ");
+			for (FieldAccess<T> fa : mustRead.keySet()) {
+				Set<FieldAccess<T>> mreads = mustRead.get(fa);
+				System.out.print("bb" + flow.getNumber(fa.getNode()) + " must-read: ");
+				for (FieldAccess<T> r : mreads) {
+					System.out.print("bb" + flow.getNumber(r.getNode()) + " ");
 				}
 				System.out.println();
 			}
 		}
 		
-		for (final FieldAccess<IExplodedBasicBlock> r : accesses.getReads()) {
-			final IExplodedBasicBlock node = r.getNode();
-			if (node.isEntryBlock()) continue;
+		final List<Pair<FieldAccess<T>, FieldAccess<T>>> killed = new ArrayList<Pair<FieldAccess<T>, FieldAccess<T>>>();
+		for (final FieldAccess<T> r : accesses.getReads()) {
+			final T node = r.getNode();
+			if (node == entry) continue;
 
 			final BitVectorVariable bvIn = solver.getIn(node);
-			final OrdinalSet<FieldAccess<IExplodedBasicBlock>> inSet =
-					new OrdinalSet<FieldAccess<IExplodedBasicBlock>>(bvIn.getValue(), map);
-			
+			final OrdinalSet<FieldAccess<T>> inSet = new OrdinalSet<FieldAccess<T>>(bvIn.getValue(), map);
+
 			if (DEBUG_PRINT) {
-				System.out.print("bb" + r.getNode().getGraphNodeId() + " in: ");
-				for (FieldAccess<IExplodedBasicBlock> is : inSet) {
-					System.out.print("bb" + is.getNode().getGraphNodeId() + " ");
+				System.out.print("bb" + flow.getNumber(r.getNode()) + " in: ");
+				for (FieldAccess<T> is : inSet) {
+					System.out.print("bb" + flow.getNumber(is.getNode()) + " ");
 				}
 				System.out.println();
 			}
-			
-			final Set<FieldAccess<IExplodedBasicBlock>> nodeReads = mustRead.get(r);
+
+			final Set<FieldAccess<T>> nodeReads = mustRead.get(r);
 			if (nodeReads != null) {
-				for (final FieldAccess<IExplodedBasicBlock> mayRead : nodeReads) {
+				for (final FieldAccess<T> mayRead : nodeReads) {
 					if (!inSet.contains(mayRead)) {
-						// killed read - remove data deps iff there are any
-						final int removed = removePotentialDataDep(mayRead, r);
-						if (DEBUG_PRINT && removed > 0) System.out.println(r + ": killed read from " + mayRead + ": "
-								+ removed + " edges removed");
-
-						totalRemoved += removed;
+						killed.add(Pair.make(mayRead, r));
 					}
 				}
 			}
 		}
 
-		if (DEBUG_PRINT) System.out.println();
+		return killed;
 	}
 
 	private int removePotentialDataDep(final FieldAccess<IExplodedBasicBlock> from,
@@ -435,24 +465,24 @@ public final class LocalKillingDefs {
 		return null;
 	}
 
-	private static class LocalKillTransferFunctions implements ITransferFunctionProvider<IExplodedBasicBlock, BitVectorVariable> {
+	private static class LocalKillTransferFunctions<T> implements ITransferFunctionProvider<T, BitVectorVariable> {
 
-		private final Map<IExplodedBasicBlock, BitVector> bb2kill;
-		private final Map<IExplodedBasicBlock, BitVector> bb2gen;
+		private final Map<T, BitVector> bb2kill;
+		private final Map<T, BitVector> bb2gen;
 
 		private static final BitVector EMPTY = new BitVector();
 
-		public static LocalKillTransferFunctions build(
-				final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> cfg,
-				final AccessManager<IExplodedBasicBlock> access,
-				final Map<FieldAccess<IExplodedBasicBlock>, Set<FieldAccess<IExplodedBasicBlock>>> mustKill,
-				final OrdinalSetMapping<FieldAccess<IExplodedBasicBlock>> map, final IFieldsMayMod fMayMod) {
+		public static <T> LocalKillTransferFunctions<T> build(
+				final NumberedGraph<T> cfg,
+				final AccessManager<T> access,
+				final Map<FieldAccess<T>, Set<FieldAccess<T>>> mustKill,
+				final OrdinalSetMapping<FieldAccess<T>> map, final IFieldsMayMod fMayMod) {
 
-			final Map<IExplodedBasicBlock, BitVector> bb2kill = new HashMap<IExplodedBasicBlock, BitVector>();
-			final Map<IExplodedBasicBlock, BitVector> bb2gen = new HashMap<IExplodedBasicBlock, BitVector>();
+			final Map<T, BitVector> bb2kill = new HashMap<T, BitVector>();
+			final Map<T, BitVector> bb2gen = new HashMap<T, BitVector>();
 
-			for (final IExplodedBasicBlock bb : cfg) {
-				final Set<Access<IExplodedBasicBlock>> accs = access.getAccess(bb);
+			for (final T bb : cfg) {
+				final Set<Access<T>> accs = access.getAccess(bb);
 				final BitVector kill = createKill(accs, mustKill, map);
 				bb2kill.put(bb, kill);
 				final BitVector gen = createGen(accs, map, access, fMayMod);
@@ -460,34 +490,34 @@ public final class LocalKillingDefs {
 			}
 			
 			if (DEBUG_PRINT) {
-				for (final IExplodedBasicBlock bb : cfg) {
+				for (final T bb : cfg) {
 					final BitVector kill = bb2kill.get(bb);
-					System.out.println("bb" + bb.getGraphNodeId() + " kill: " + kill);
+					System.out.println("bb" + cfg.getNumber(bb) + " kill: " + kill);
 					final BitVector gen = bb2gen.get(bb);
-					System.out.println("bb" + bb.getGraphNodeId() + " gen:  " + gen);
+					System.out.println("bb" + cfg.getNumber(bb) + " gen:  " + gen);
 				}
 			}
 
-			return new LocalKillTransferFunctions(bb2kill, bb2gen);
+			return new LocalKillTransferFunctions<T>(bb2kill, bb2gen);
 		}
 
-		private static BitVector createKill(final Set<Access<IExplodedBasicBlock>> accs,
-				final Map<FieldAccess<IExplodedBasicBlock>, Set<FieldAccess<IExplodedBasicBlock>>> mustKill,
-				final OrdinalSetMapping<FieldAccess<IExplodedBasicBlock>> map) {
+		private static <T> BitVector createKill(final Set<Access<T>> accs,
+				final Map<FieldAccess<T>, Set<FieldAccess<T>>> mustKill,
+				final OrdinalSetMapping<FieldAccess<T>> map) {
 			if (accs == null || accs.isEmpty()) {
 				return null;
 			}
 
 			final BitVector bv = new BitVector();
 
-			for (final Access<IExplodedBasicBlock> a : accs) {
+			for (final Access<T> a : accs) {
 				if (!a.isWrite()) continue;
 
-				final FieldAccess<IExplodedBasicBlock> fa = (FieldAccess<IExplodedBasicBlock>) a;
-				final Set<FieldAccess<IExplodedBasicBlock>> kill = mustKill.get(fa);
+				final FieldAccess<T> fa = (FieldAccess<T>) a;
+				final Set<FieldAccess<T>> kill = mustKill.get(fa);
 
 				if (kill != null) {
-					for (final FieldAccess<IExplodedBasicBlock> k : kill) {
+					for (final FieldAccess<T> k : kill) {
 						final int id = map.getMappedIndex(k);
 						bv.set(id);
 					}
@@ -497,18 +527,18 @@ public final class LocalKillingDefs {
 			return (bv.isZero() ? null : bv);
 		}
 
-		private static BitVector createGen(final Set<Access<IExplodedBasicBlock>> accs,
-				final OrdinalSetMapping<FieldAccess<IExplodedBasicBlock>> map,
-				final AccessManager<IExplodedBasicBlock> accManager, final IFieldsMayMod fMayMod) {
+		private static <T> BitVector createGen(final Set<Access<T>> accs,
+				final OrdinalSetMapping<FieldAccess<T>> map,
+				final AccessManager<T> accManager, final IFieldsMayMod fMayMod) {
 			if (accs == null || accs.isEmpty()) {
 				return null;
 			}
 
 			final BitVector bv = new BitVector();
 
-			for (final Access<IExplodedBasicBlock> a : accs) {
+			for (final Access<T> a : accs) {
 				if (a.isWrite()) {
-					final FieldAccess<IExplodedBasicBlock> fa = (FieldAccess<IExplodedBasicBlock>) a;
+					final FieldAccess<T> fa = (FieldAccess<T>) a;
 					final int id = map.getMappedIndex(fa);
 					bv.set(id);
 				} else if (a.getKind() == Kind.CALL) {
@@ -516,7 +546,7 @@ public final class LocalKillingDefs {
 					// as we are only interested in must-kills, it is save to assume that is does nothing.
 //					final CallSiteReference csr = a.getCallSite();
 //					final CGNode method = accManager.getMethod();
-//					for (final FieldAccess<IExplodedBasicBlock> w : accManager.getWrites()) {
+//					for (final FieldAccess<T> w : accManager.getWrites()) {
 //						final ParameterField field = w.getField();
 //						if (fMayMod.mayCallModField(method, csr, field)) {
 //							final int id = map.getMappedIndex(w);
@@ -529,14 +559,14 @@ public final class LocalKillingDefs {
 			return (bv.isZero() ? null : bv);
 		}
 
-		private LocalKillTransferFunctions(final Map<IExplodedBasicBlock, BitVector> bb2kill,
-				final Map<IExplodedBasicBlock, BitVector> bb2gen) {
+		private LocalKillTransferFunctions(final Map<T, BitVector> bb2kill,
+				final Map<T, BitVector> bb2gen) {
 			this.bb2gen = bb2gen;
 			this.bb2kill = bb2kill;
 		}
 
 		@Override
-		public UnaryOperator<BitVectorVariable> getNodeTransferFunction(final IExplodedBasicBlock node) {
+		public UnaryOperator<BitVectorVariable> getNodeTransferFunction(final T node) {
 			final BitVector kill = bb2kill.get(node);
 			final BitVector gen = bb2gen.get(node);
 
@@ -557,7 +587,7 @@ public final class LocalKillingDefs {
 		}
 
 		@Override
-		public UnaryOperator<BitVectorVariable> getEdgeTransferFunction(IExplodedBasicBlock src, IExplodedBasicBlock dst) {
+		public UnaryOperator<BitVectorVariable> getEdgeTransferFunction(T src, T dst) {
 			return BitVectorIdentity.instance();
 		}
 
@@ -134,6 +134,12 @@ public class Dictionary {
 		return found.sdg;
 	}
 
+	public boolean containsMethod(String methodsig) {
+		final List<Entry> entries = map.get(methodsig);
+
+		return entries != null && !entries.isEmpty();
+	}
+
 	public void putSDGFor(IMethod method, MayAliasGraph aliascfg, SDGSummaryReference sdg) {
 		putSDGFor(extractSignature(method), aliascfg, sdg);
 	}
@@ -161,6 +167,13 @@ public class Dictionary {
 		return sanitizeSignature(im.getSignature());
 	}
 
+	/**
+	 * @param bcMethod the bytecode name of a method, as returned by {@link IMethod#getSignature()}
+	 */
+	public static String extractSignature(final String bcMethod) {
+		return sanitizeSignature(bcMethod);
+	}
+
 	private static String sanitizeSignature(String sig) {
 		sig = sig.replace(';', '#');
 		sig = sig.replace('/', '.');
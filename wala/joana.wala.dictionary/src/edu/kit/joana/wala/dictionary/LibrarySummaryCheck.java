@@ -0,0 +1,558 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ssa.SSAInvokeInstruction;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.IntraproceduralSlicerBackward;
+import edu.kit.joana.ifc.sdg.util.BytecodeLocation;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
+import edu.kit.joana.wala.core.ExternalCallCheck;
+import edu.kit.joana.wala.dictionary.Dictionary.SDGSummaryReference;
+import edu.kit.joana.wala.flowless.pointsto.AliasGraph.MayAliasGraph;
+import edu.kit.joana.wala.flowless.spec.java.ast.MethodInfo;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+/**
+ * Replaces the methods of some libraries with their summaries from a {@link LibrarySummaryStore}.
+ * <p>
+ * If this check is used as {@link edu.kit.joana.wala.core.SDGBuilder.SDGBuilderConfig#ext}, the SDGBuilder does not
+ * build pdgs for library methods that have a summary in the store. At each call of such a method the alias context
+ * of the call is registered. After the sdg has been built, the summary of the least alias context that covers the
+ * context of the call is loaded and the dependencies between the formal parameters of the method, including the
+ * fields reachable from them, are added as summary edges between the corresponding actual-in and actual-out nodes of
+ * the call. The summary edges of the callers are then computed from them as usual.
+ * <p>
+ * If there is no summary for the alias context of a call, every actual-in node of the call is connected to every
+ * actual-out node. The same holds for actual parameter nodes that have no counterpart in the summary.
+ * <p>
+ * Calls of analyzed library methods that call several methods get the union of the stored summaries of their
+ * callees, if there are any. Calls of analyzed library methods without any callee in the sdg are treated like calls
+ * without a summary.
+ * <p>
+ * Library methods without a summary are analyzed as part of the sdg. Once its summary edges have been computed, the
+ * dependencies between their formal parameters are written to the store for the alias context of their calls.
+ */
+public class LibrarySummaryCheck implements ExternalCallCheck {
+
+	private static final Logger debug = Log.getLogger(Log.L_MOJO_DEBUG);
+
+	private static final class LibraryCall {
+		private final String jarHash;
+		private final IMethod target;
+		private final MayAliasGraph context;
+
+		private LibraryCall(final String jarHash, final IMethod target, final MayAliasGraph context) {
+			this.jarHash = jarHash;
+			this.target = target;
+			this.context = context;
+		}
+	}
+
+	/**
+	 * The dependencies between the formal-in and formal-out nodes of a method. The nodes are identified by their
+	 * paths from the root parameter they belong to, see {@link LibrarySummaryCheck#paramPaths(SDG, SDGNode)}.
+	 */
+	private static final class ParamDependencies {
+		private final Set<String> formalIns = new HashSet<String>();
+		private final Set<String> formalOuts = new HashSet<String>();
+		private final Set<String> deps = new HashSet<String>();
+
+		private void add(final String from, final String to) {
+			deps.add(from + " -> " + to);
+		}
+
+		private void addAll(final ParamDependencies other) {
+			formalIns.addAll(other.formalIns);
+			formalOuts.addAll(other.formalOuts);
+			deps.addAll(other.deps);
+		}
+
+		private boolean dependsOn(final Set<String> from, final Set<String> to) {
+			for (final String f : from) {
+				for (final String t : to) {
+					if (deps.contains(f + " -> " + t)) {
+						return true;
+					}
+				}
+			}
+
+			return false;
+		}
+	}
+
+	private final LibrarySummaryStore store;
+	/** maps the bytecode names of the classes of the libraries to the hash of their jar */
+	private final Map<String, String> class2jar = new HashMap<String, String>();
+	/** calls of summarized methods, by the id of their call node */
+	private final TIntObjectHashMap<LibraryCall> calls = new TIntObjectHashMap<LibraryCall>();
+	/** calls of library methods that are analyzed as part of the sdg, by the id of their call node */
+	private final TIntObjectHashMap<LibraryCall> analyzed = new TIntObjectHashMap<LibraryCall>();
+	private final Map<SDGSummaryReference, ParamDependencies> dependencies =
+			new HashMap<SDGSummaryReference, ParamDependencies>();
+	private IClassHierarchy cha = null;
+
+	public LibrarySummaryCheck(final LibrarySummaryStore store, final Collection<File> libraries) throws IOException {
+		this.store = store;
+
+		for (final File lib : libraries) {
+			final String hash = LibrarySummaryStore.contentHash(lib);
+
+			try (JarFile jar = new JarFile(lib)) {
+				for (final Enumeration<JarEntry> it = jar.entries(); it.hasMoreElements(); ) {
+					final String name = it.nextElement().getName();
+					if (name.endsWith(".class")) {
+						class2jar.put("L" + name.substring(0, name.length() - ".class".length()), hash);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean resolveReflection() {
+		return false;
+	}
+
+	@Override
+	public void setClassHierarchy(final IClassHierarchy cha) {
+		this.cha = cha;
+	}
+
+	@Override
+	public MethodInfo checkForModuleMethod(final IMethod im) {
+		return null;
+	}
+
+	@Override
+	public boolean isSummarizedMethod(final IMethod im) {
+		final String hash = jarOf(im);
+		if (hash == null) {
+			return false;
+		}
+
+		try {
+			return store.containsMethod(hash, Dictionary.extractSignature(im));
+		} catch (IOException e) {
+			debug.outln("could not read summaries of " + im + ": " + e);
+			return false;
+		}
+	}
+
+	/**
+	 * Reports all calls of library methods. Without the calling method it is unknown whether the call enters the
+	 * library from outside, see {@link #isCallToModule(IMethod, SSAInvokeInstruction)}.
+	 */
+	@Override
+	public boolean isCallToModule(final SSAInvokeInstruction invk) {
+		final IMethod target = resolve(invk);
+
+		return target != null && jarOf(target) != null;
+	}
+
+	/**
+	 * Reports the calls of summarized methods and the calls that enter a library from outside of it, so that their
+	 * alias contexts are registered. The contexts of calls of methods that are analyzed as part of the sdg are needed
+	 * to store their summaries. Calls between the analyzed methods of a library are not reported.
+	 */
+	@Override
+	public boolean isCallToModule(final IMethod caller, final SSAInvokeInstruction invk) {
+		final IMethod target = resolve(invk);
+		if (target == null) {
+			return false;
+		}
+
+		final String hash = jarOf(target);
+
+		return hash != null && (!hash.equals(jarOf(caller)) || isSummarizedMethod(target));
+	}
+
+	private String jarOf(final IMethod im) {
+		return class2jar.get(im.getDeclaringClass().getName().toString());
+	}
+
+	private IMethod resolve(final SSAInvokeInstruction invk) {
+		if (cha == null) {
+			throw new IllegalStateException("Please set class hierarchy first!");
+		}
+
+		return cha.resolveMethod(invk.getDeclaredTarget());
+	}
+
+	@Override
+	public synchronized void registerAliasContext(final SSAInvokeInstruction invk, final int callNodeId,
+			final MayAliasGraph context) {
+		final IMethod target = resolve(invk);
+		final LibraryCall lc = new LibraryCall(jarOf(target), target, context);
+
+		if (isSummarizedMethod(target)) {
+			calls.put(callNodeId, lc);
+		} else {
+			analyzed.put(callNodeId, lc);
+		}
+	}
+
+	@Override
+	public synchronized void addSummaries(final SDG sdg) {
+		for (final int callId : calls.keys()) {
+			final SDGNode call = sdg.getNode(callId);
+			if (call == null || call.getKind() != SDGNode.Kind.CALL) {
+				continue;
+			}
+
+			final LibraryCall lc = calls.get(callId);
+			ParamDependencies deps = null;
+			try {
+				final SDGSummaryReference sumref =
+						store.lookup(lc.jarHash, Dictionary.extractSignature(lc.target), lc.context);
+				if (sumref != null) {
+					deps = getDependencies(sumref, lc.target.getSignature());
+				}
+			} catch (IOException e) {
+				debug.outln("could not load summary of " + lc.target + ": " + e);
+			}
+
+			addSummaryEdges(sdg, call, deps);
+		}
+
+		for (final int callId : analyzed.keys()) {
+			final SDGNode call = sdg.getNode(callId);
+			if (call == null || call.getKind() != SDGNode.Kind.CALL) {
+				continue;
+			}
+
+			final Set<SDGNode> callees = findCallees(sdg, call);
+			if (callees.isEmpty()) {
+				// the calls are reported as calls to modules, so the builder does not connect their parameters
+				// if it has not found a target
+				addSummaryEdges(sdg, call, null);
+			} else if (callees.size() > 1) {
+				final ParamDependencies deps = unionOfStoredDependencies(callees, analyzed.get(callId).context);
+				if (deps != null) {
+					addSummaryEdges(sdg, call, deps);
+				}
+			}
+		}
+
+		calls.clear();
+	}
+
+	@Override
+	public synchronized void storeSummaries(final SDG sdg) {
+		for (final int callId : analyzed.keys()) {
+			final SDGNode call = sdg.getNode(callId);
+			if (call == null || call.getKind() != SDGNode.Kind.CALL) {
+				continue;
+			}
+
+			final LibraryCall lc = analyzed.get(callId);
+			final SDGNode entry = findCallee(sdg, call);
+			if (entry == null || !lc.target.getSignature().equals(entry.getBytecodeName())) {
+				// the summary edges of calls with several targets do not belong to a single method
+				continue;
+			}
+
+			final String methodsig = Dictionary.extractSignature(lc.target);
+			try {
+				if (store.lookup(lc.jarHash, methodsig, lc.context) == null) {
+					store.put(lc.jarHash, methodsig, lc.context, createSummary(sdg, entry));
+				}
+			} catch (IOException e) {
+				debug.outln("could not store summary of " + lc.target + ": " + e);
+			}
+		}
+
+		analyzed.clear();
+	}
+
+	/**
+	 * @return the entry node of the only method called at the call node, or null if there is no or more than one.
+	 */
+	private static SDGNode findCallee(final SDG sdg, final SDGNode call) {
+		final Set<SDGNode> callees = findCallees(sdg, call);
+
+		return callees.size() == 1 ? callees.iterator().next() : null;
+	}
+
+	/**
+	 * @return the entry nodes of the methods called at the call node.
+	 */
+	private static Set<SDGNode> findCallees(final SDG sdg, final SDGNode call) {
+		final Set<SDGNode> callees = new HashSet<SDGNode>();
+
+		for (final SDGEdge edge : sdg.outgoingEdgesOf(call)) {
+			if (edge.getKind() == SDGEdge.Kind.CALL) {
+				callees.add(edge.getTarget());
+			}
+		}
+
+		return callees;
+	}
+
+	/**
+	 * Computes the union of the dependencies of the stored summaries of the called library methods for the alias
+	 * context of a call. Callees without a stored summary do not contribute, as their summary edges are computed
+	 * in the sdg.
+	 * @return the union of the dependencies, or null if none of the callees has a stored summary.
+	 */
+	private ParamDependencies unionOfStoredDependencies(final Set<SDGNode> callees, final MayAliasGraph context) {
+		ParamDependencies union = null;
+
+		for (final SDGNode entry : callees) {
+			final String bcMethod = entry.getBytecodeName();
+			final String hash = jarOfMethod(bcMethod);
+			if (hash == null) {
+				continue;
+			}
+
+			try {
+				final SDGSummaryReference sumref = store.lookup(hash, Dictionary.extractSignature(bcMethod), context);
+				if (sumref != null) {
+					if (union == null) {
+						union = new ParamDependencies();
+					}
+
+					union.addAll(getDependencies(sumref, bcMethod));
+				}
+			} catch (IOException e) {
+				debug.outln("could not load summary of " + bcMethod + ": " + e);
+			}
+		}
+
+		return union;
+	}
+
+	/**
+	 * @param bcMethod the bytecode name of a method, e.g. "lib.Lib.m(Llib/A;I)I"
+	 * @return the hash of the jar of the declaring class of the method, or null if it is not part of a library.
+	 */
+	private String jarOfMethod(final String bcMethod) {
+		final int params = bcMethod.indexOf('(');
+		final int name = bcMethod.lastIndexOf('.', params < 0 ? bcMethod.length() : params);
+		if (name < 0) {
+			return null;
+		}
+
+		return class2jar.get("L" + bcMethod.substring(0, name).replace('.', '/'));
+	}
+
+	/**
+	 * Creates a summary of a method that has been analyzed as part of an sdg with summary edges. The summary
+	 * consists of the entry node and the formal parameter nodes of the method. Each formal-out node has a data
+	 * dependency on each formal-in node it depends on in the sdg.
+	 */
+	public static SDG createSummary(final SDG sdg, final SDGNode entry) {
+		final SDG sum = new SDG(entry.getBytecodeName());
+		final SDGNode sumEntry = entry.clone();
+		sum.addVertex(sumEntry);
+
+		final Set<SDGNode> fIns = sdg.getFormalInsOfProcedure(entry);
+		final Set<SDGNode> fOuts = sdg.getFormalOutsOfProcedure(entry);
+		final TIntObjectHashMap<SDGNode> copies = new TIntObjectHashMap<SDGNode>();
+		copies.put(entry.getId(), sumEntry);
+		for (final SDGNode n : fIns) {
+			copies.put(n.getId(), n.clone());
+		}
+		for (final SDGNode n : fOuts) {
+			copies.put(n.getId(), n.clone());
+		}
+
+		for (final SDGNode copy : copies.valueCollection()) {
+			if (copy != sumEntry) {
+				sum.addVertex(copy);
+				sum.addEdge(sumEntry, copy, SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(sumEntry, copy));
+				if (copy.getKind() == SDGNode.Kind.EXIT) {
+					sum.addEdge(sumEntry, copy, SDGEdge.Kind.CONTROL_FLOW.newEdge(sumEntry, copy));
+				}
+			}
+		}
+
+		for (final SDGNode n : copies.valueCollection()) {
+			for (final SDGEdge edge : sdg.outgoingEdgesOf(sdg.getNode(n.getId()))) {
+				final SDGNode to = copies.get(edge.getTarget().getId());
+				if (edge.getKind() == SDGEdge.Kind.PARAMETER_STRUCTURE && to != null) {
+					sum.addEdge(n, to, SDGEdge.Kind.PARAMETER_STRUCTURE.newEdge(n, to));
+				}
+			}
+		}
+
+		final IntraproceduralSlicerBackward slicer = new IntraproceduralSlicerBackward(sdg);
+		for (final SDGNode fOut : fOuts) {
+			final SDGNode to = copies.get(fOut.getId());
+			for (final SDGNode n : slicer.slice(fOut)) {
+				if (fIns.contains(n)) {
+					final SDGNode from = copies.get(n.getId());
+					sum.addEdge(from, to, SDGEdge.Kind.DATA_DEP.newEdge(from, to));
+				}
+			}
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Adds summary edges between the actual-in and actual-out nodes of a call. If the dependencies are unknown,
+	 * all actual-outs depend on all actual-ins.
+	 */
+	private static void addSummaryEdges(final SDG sdg, final SDGNode call, final ParamDependencies deps) {
+		final List<SDGNode> actIns = MergeModules.findActualInsOfCall(sdg, call);
+		final List<SDGNode> actOuts = MergeModules.findActualOutsOfCall(sdg, call);
+		final Map<SDGNode, Set<String>> paths = new HashMap<SDGNode, Set<String>>();
+		if (deps != null) {
+			for (final SDGNode act : actIns) {
+				paths.put(act, paramPaths(sdg, act));
+			}
+			for (final SDGNode act : actOuts) {
+				paths.put(act, paramPaths(sdg, act));
+			}
+		}
+
+		for (final SDGNode actIn : actIns) {
+			for (final SDGNode actOut : actOuts) {
+				if (deps == null || dependsOn(deps, paths.get(actIn), paths.get(actOut))) {
+					sdg.addEdge(actIn, actOut, SDGEdge.Kind.SUMMARY.newEdge(actIn, actOut));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the summary edges of a call of the method of a summary created with {@link #createSummary(SDG, SDGNode)}.
+	 */
+	public static void addSummaryEdges(final SDG sdg, final SDGNode call, final SDG summary, final SDGNode entry) {
+		addSummaryEdges(sdg, call, computeDependencies(summary, entry));
+	}
+
+	private static boolean dependsOn(final ParamDependencies deps, final Set<String> actIn, final Set<String> actOut) {
+		if (Collections.disjoint(actIn, deps.formalIns) || Collections.disjoint(actOut, deps.formalOuts)) {
+			// the summary does not know the parameter, so it may depend on anything
+			return true;
+		}
+
+		return deps.dependsOn(actIn, actOut);
+	}
+
+	/**
+	 * @return the paths of a parameter node from the root parameters it belongs to. A path consists of the prefix of
+	 * the root parameter, or the name of the static field, followed by the bytecode index and the name of each field
+	 * on the way to the node, e.g. "&lt;param&gt; 1/-4:f". Nodes of object graphs that are reachable from several
+	 * roots have several paths.
+	 */
+	private static Set<String> paramPaths(final SDG sdg, final SDGNode node) {
+		final Set<String> paths = new HashSet<String>();
+		collectParamPaths(sdg, node, "", new HashSet<SDGNode>(), paths);
+
+		return paths;
+	}
+
+	private static void collectParamPaths(final SDG sdg, final SDGNode node, final String suffix,
+			final Set<SDGNode> onPath, final Set<String> paths) {
+		switch (node.getBytecodeIndex()) {
+		case BytecodeLocation.ROOT_PARAMETER:
+			paths.add(MergeModules.getPrefixFromParamNode(node) + suffix);
+			return;
+		case BytecodeLocation.STATIC_FIELD:
+			paths.add(node.getBytecodeName() + suffix);
+			return;
+		default:
+			if (!onPath.add(node)) {
+				return;
+			}
+
+			final String path = "/" + node.getBytecodeIndex() + ":" + node.getBytecodeName() + suffix;
+			for (final SDGEdge edge : sdg.incomingEdgesOf(node)) {
+				if (edge.getKind() == SDGEdge.Kind.PARAMETER_STRUCTURE) {
+					collectParamPaths(sdg, edge.getSource(), path, onPath, paths);
+				}
+			}
+
+			onPath.remove(node);
+		}
+	}
+
+	/**
+	 * Computes the dependencies between the formal-in and formal-out nodes of the method in its summary.
+	 */
+	private ParamDependencies getDependencies(final SDGSummaryReference sumref, final String bcMethod)
+			throws IOException {
+		ParamDependencies deps = dependencies.get(sumref);
+		if (deps != null) {
+			return deps;
+		}
+
+		final SDG sum = sumref.load();
+		final SDGNode entry = findEntryNode(sum, bcMethod);
+		if (entry == null) {
+			throw new IOException("No entry of " + bcMethod + " in " + sumref);
+		}
+
+		deps = computeDependencies(sum, entry);
+		dependencies.put(sumref, deps);
+
+		return deps;
+	}
+
+	private static ParamDependencies computeDependencies(final SDG sum, final SDGNode entry) {
+		final ParamDependencies deps = new ParamDependencies();
+		final Set<SDGNode> fIns = sum.getFormalInsOfProcedure(entry);
+		for (final SDGNode fIn : fIns) {
+			deps.formalIns.addAll(paramPaths(sum, fIn));
+		}
+
+		final IntraproceduralSlicerBackward slicer = new IntraproceduralSlicerBackward(sum);
+		for (final SDGNode fOut : sum.getFormalOutsOfProcedure(entry)) {
+			final Set<String> to = paramPaths(sum, fOut);
+			deps.formalOuts.addAll(to);
+
+			for (final SDGNode n : slicer.slice(fOut)) {
+				if (fIns.contains(n)) {
+					for (final String from : paramPaths(sum, n)) {
+						for (final String t : to) {
+							deps.add(from, t);
+						}
+					}
+				}
+			}
+		}
+
+		return deps;
+	}
+
+	private static SDGNode findEntryNode(final SDG sum, final String bcMethod) {
+		for (final SDGNode n : sum.vertexSet()) {
+			if (n.getKind() == SDGNode.Kind.ENTRY && bcMethod.equals(n.getBytecodeName())) {
+				return n;
+			}
+		}
+
+		return null;
+	}
+
+	public String toString() {
+		return "summaries of " + class2jar.size() + " library classes from " + store;
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.dictionary;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.wala.dictionary.Dictionary.SDGSummaryReference;
+import edu.kit.joana.wala.flowless.pointsto.AliasGraph.MayAliasGraph;
+import edu.kit.joana.wala.flowless.util.AliasGraphIO;
+
+/**
+ * On-disk store for the summary sdgs of library methods, so that libraries do not have to be analyzed again for
+ * every program that uses them.
+ * <p>
+ * A summary is stored for a library, identified by the hash of the content of its jar file, a method signature and
+ * the alias context the summary has been computed for. The layout of the directory of a library is the same as the
+ * one of the module directories read by {@link MergeModules}:
+ * <pre>
+ * root/&lt;hash of the jar&gt;/m_&lt;method signature&gt;/&lt;n&gt;.alias
+ * root/&lt;hash of the jar&gt;/m_&lt;method signature&gt;/&lt;n&gt;.pdg
+ * </pre>
+ * As the hash changes with the content of the jar, summaries of outdated libraries are never used.
+ * The summaries of a library are looked up with a {@link Dictionary} that is read when the library is used first.
+ * They are written by {@link LibrarySummaryCheck} for the library methods it has seen analyzed in a build.
+ */
+public final class LibrarySummaryStore {
+
+	private static final String METHOD_DIR_PREFIX = "m_";
+	private static final String ALIAS_SUFFIX = ".alias";
+	private static final String SDG_SUFFIX = ".pdg";
+
+	private final File root;
+	private final Map<String, Dictionary> libraries = new HashMap<String, Dictionary>();
+
+	public LibrarySummaryStore(final File root) {
+		if (root.exists() && !root.isDirectory()) {
+			throw new IllegalArgumentException("Not a directory: " + root.getAbsolutePath());
+		}
+
+		this.root = root;
+	}
+
+	/**
+	 * @return the SHA-256 hash of the content of the given file as hex string
+	 */
+	public static String contentHash(final File jar) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		try (InputStream in = new FileInputStream(jar)) {
+			final byte[] buf = new byte[1 << 16];
+			int read;
+			while ((read = in.read(buf)) > 0) {
+				digest.update(buf, 0, read);
+			}
+		}
+
+		final StringBuilder sb = new StringBuilder();
+		for (final byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(b & 0xf, 16));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * @return true iff there is a summary of the method for some alias context
+	 */
+	public synchronized boolean containsMethod(final String jarHash, final String methodsig) throws IOException {
+		return getDictionary(jarHash).containsMethod(methodsig);
+	}
+
+	/**
+	 * @return the summary of the method whose alias context is the least one that is at least as big as the given
+	 * context, or null if there is none.
+	 */
+	public synchronized SDGSummaryReference lookup(final String jarHash, final String methodsig,
+			final MayAliasGraph context) throws IOException {
+		final Dictionary dict = getDictionary(jarHash);
+		if (!dict.containsMethod(methodsig)) {
+			return null;
+		}
+
+		try {
+			return dict.getSDGfor(methodsig, context);
+		} catch (NoSuchElementException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the summary of a method for an alias context.
+	 */
+	public synchronized void put(final String jarHash, final String methodsig, final MayAliasGraph context,
+			final SDG summary) throws IOException {
+		final File mdir = new File(new File(root, jarHash), METHOD_DIR_PREFIX + methodsig);
+		if (!mdir.isDirectory() && !mdir.mkdirs()) {
+			throw new IOException("Could not create directory " + mdir.getAbsolutePath());
+		}
+
+		int num = 0;
+		while (new File(mdir, num + ALIAS_SUFFIX).exists()) {
+			num++;
+		}
+
+		final String prefix = mdir.getAbsolutePath() + File.separator + num;
+		// write the sdg first, so an .alias file is only found once its summary is complete
+		SDGSerializer.toPDGFormat(summary, new FileOutputStream(prefix + SDG_SUFFIX));
+		AliasGraphIO.writeToFile(context, prefix + ALIAS_SUFFIX);
+
+		final Dictionary dict = libraries.get(jarHash);
+		if (dict != null) {
+			dict.putSDGFor(methodsig, context, new SDGSummaryReference(prefix + SDG_SUFFIX));
+		}
+	}
+
+	private Dictionary getDictionary(final String jarHash) throws FileNotFoundException {
+		Dictionary dict = libraries.get(jarHash);
+
+		if (dict == null) {
+			dict = new Dictionary();
+			MergeModules.readModuleDir(new File(root, jarHash), dict);
+			libraries.put(jarHash, dict);
+		}
+
+		return dict;
+	}
+
+	public String toString() {
+		return "library summaries in " + root.getAbsolutePath();
+	}
+}
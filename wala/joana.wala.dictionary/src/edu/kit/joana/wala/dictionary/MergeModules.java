@@ -397,7 +397,7 @@ public class MergeModules {
 		return actChild;
 	}
 
-	private static String getPrefixFromParamNode(final SDGNode node) {
+	static String getPrefixFromParamNode(final SDGNode node) {
 		String label = node.getBytecodeName();
 		if (label.startsWith(BytecodeLocation.ROOT_PARAM_PREFIX)) {
 			for (int index = BytecodeLocation.ROOT_PARAM_PREFIX.length(); index < label.length(); index++) {
@@ -420,7 +420,7 @@ public class MergeModules {
 		return label;
 	}
 
-	private static List<SDGNode> findActualInsOfCall(final SDG sdg, final SDGNode call) {
+	static List<SDGNode> findActualInsOfCall(final SDG sdg, final SDGNode call) {
 		final List<SDGNode> actIns = new LinkedList<SDGNode>();
 
 		for (final SDGEdge edge : sdg.outgoingEdgesOf(call)) {
@@ -435,7 +435,7 @@ public class MergeModules {
 		return actIns;
 	}
 
-	private static List<SDGNode> findActualOutsOfCall(final SDG sdg, final SDGNode call) {
+	static List<SDGNode> findActualOutsOfCall(final SDG sdg, final SDGNode call) {
 		final List<SDGNode> actOuts = new LinkedList<SDGNode>();
 
 		for (final SDGEdge edge : sdg.outgoingEdgesOf(call)) {
@@ -612,47 +612,60 @@ public class MergeModules {
 				fail("directory of module " + mod.name + " does not exist: " + modDir.getAbsolutePath());
 			}
 
-			final File[] mmethoddirs = modDir.listFiles(new FileFilter() {
+			readModuleDir(modDir, dict);
 
-				@Override
-				public boolean accept(File pathname) {
-					return pathname.isDirectory() && pathname.getName().startsWith("m_");
-				}
-			});
+			println("done.");
+		}
 
-			for (final File mdir : mmethoddirs) {
-				//print("'" + mdir.getAbsolutePath() + "' ");
-				final String signature = mdir.getName().substring("m_".length());
+		this.dict = dict;
+	}
 
-				final String[] aliasCfgs = mdir.list(new FilenameFilter() {
+	/**
+	 * Adds the summaries found in the method directories (m_&lt;signature&gt;) of a module directory to the
+	 * dictionary. Each method directory contains an &lt;n&gt;.alias file with the alias context and an &lt;n&gt;.pdg
+	 * file with the summary sdg for each variant of the method.
+	 */
+	static void readModuleDir(final File modDir, final Dictionary dict) throws FileNotFoundException {
+		final File[] mmethoddirs = modDir.listFiles(new FileFilter() {
 
-					@Override
-					public boolean accept(File dir, String name) {
-						return name.endsWith(".alias");
-					}
-				});
+			@Override
+			public boolean accept(File pathname) {
+				return pathname.isDirectory() && pathname.getName().startsWith("m_");
+			}
+		});
+
+		if (mmethoddirs == null) {
+			return;
+		}
 
-				for (final String aliasCfg : aliasCfgs) {
-					final String prefix = aliasCfg.substring(0, aliasCfg.length() - ".alias".length());
+		for (final File mdir : mmethoddirs) {
+			//print("'" + mdir.getAbsolutePath() + "' ");
+			final String signature = mdir.getName().substring("m_".length());
 
-					String filenamePrefix = mdir.getAbsolutePath();
-					if (!filenamePrefix.endsWith(File.separator)) {
-						filenamePrefix += File.separator;
-					}
-					filenamePrefix += prefix;
+			final String[] aliasCfgs = mdir.list(new FilenameFilter() {
 
-					final MayAliasGraph alias = AliasGraphIO.readIn(filenamePrefix + ".alias");
+				@Override
+				public boolean accept(File dir, String name) {
+					return name.endsWith(".alias");
+				}
+			});
 
-					final SDGSummaryReference sumref = new SDGSummaryReference(filenamePrefix + ".pdg");
+			for (final String aliasCfg : aliasCfgs) {
+				final String prefix = aliasCfg.substring(0, aliasCfg.length() - ".alias".length());
 
-					dict.putSDGFor(signature, alias, sumref);
+				String filenamePrefix = mdir.getAbsolutePath();
+				if (!filenamePrefix.endsWith(File.separator)) {
+					filenamePrefix += File.separator;
 				}
-			}
+				filenamePrefix += prefix;
 
-			println("done.");
-		}
+				final MayAliasGraph alias = AliasGraphIO.readIn(filenamePrefix + ".alias");
 
-		this.dict = dict;
+				final SDGSummaryReference sumref = new SDGSummaryReference(filenamePrefix + ".pdg");
+
+				dict.putSDGFor(signature, alias, sumref);
+			}
+		}
 	}
 
 	private String findAndLoadMainSDG() throws IOException {
@@ -0,0 +1,118 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.eval.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.StaticContextManager;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.StaticContextManager.StaticContext;
+import edu.kit.joana.wala.eval.jmh.SlicingBenchmarks.Program;
+
+/**
+ * Throughput of the single steps of the context-sensitive slicers: descending into and ascending from a called
+ * procedure with a {@link StaticContextManager}, on the SDGs of {@link SlicingBenchmarks}.
+ * <p>
+ * Each operation performs the transitions along all call edges of the program in all contexts of their call nodes.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContextTransitionBenchmarks {
+
+	/**
+	 * A call edge together with a context in which it is traversed.
+	 */
+	private static final class Transition {
+		final StaticContext context;
+		final SDGNode call;
+		final SDGNode entry;
+
+		Transition(StaticContext context, SDGNode call, SDGNode entry) {
+			this.context = context;
+			this.call = call;
+			this.entry = entry;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Transitions {
+		StaticContextManager manager;
+		/** contexts of call nodes, to descend from */
+		List<Transition> descents;
+		/** contexts of entry nodes reached by descending, to ascend from */
+		List<Transition> ascents;
+
+		@Setup(Level.Trial)
+		public void doSetup(Program program) {
+			this.manager = StaticContextManager.create(program.sdg);
+			this.descents = new ArrayList<>();
+			this.ascents = new ArrayList<>();
+			for (SDGEdge e : program.sdg.edgeSet()) {
+				if (e.getKind() != SDGEdge.Kind.CALL) {
+					continue;
+				}
+
+				for (StaticContext context : manager.getAllContextsOf(e.getSource())) {
+					descents.add(new Transition(context, e.getSource(), e.getTarget()));
+					final StaticContext called = manager.descend(e.getTarget(), e.getSource(), e.getTarget(), context);
+					if (called != null) {
+						ascents.add(new Transition(called, e.getSource(), e.getTarget()));
+					}
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void descend(Transitions transitions, Blackhole blackhole) {
+		final StaticContextManager manager = transitions.manager;
+		for (Transition t : transitions.descents) {
+			blackhole.consume(manager.descend(t.entry, t.call, t.entry, t.context));
+		}
+	}
+
+	@Benchmark
+	public void ascend(Transitions transitions, Blackhole blackhole) {
+		final StaticContextManager manager = transitions.manager;
+		for (Transition t : transitions.ascents) {
+			blackhole.consume(manager.ascend(t.call, t.call, t.entry, t.context));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+				.include(ContextTransitionBenchmarks.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.eval.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.IFCAnalysis;
+import edu.kit.joana.api.IFCType;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.CompactIntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.ContextSensitiveChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.DoubleIntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.FixedPointChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.IntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.NonSameLevelChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.SummaryMergedChopper;
+import edu.kit.joana.ifc.sdg.graph.slicer.CompactSummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.krinke.OptimizedKrinke;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.NandaFactory;
+import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.util.io.IOFactory;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.SDGBuilder.ExceptionAnalysis;
+import edu.kit.joana.wala.core.SDGBuilder.FieldPropagation;
+import edu.kit.joana.wala.core.SDGBuilder.PointsToPrecision;
+
+/**
+ * Throughput of the query paths of an IFC check on the SDGs of some programs of joana.api.testdata: slicing, chopping
+ * and {@link IFCAnalysis#doIFC(IFCType)}.
+ * <p>
+ * The SDGs are built once per trial, so only the queries are measured. Run {@link #main(String[])} (or JMH with
+ * {@code -prof gc}) to also report the allocation rate of each query.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SlicingBenchmarks {
+
+	public static final String JOANA_API_TEST_DATA_CLASSPATH = JavaBenchmark.JOANA_API_TEST_DATA_CLASSPATH;
+	public static final String ANNOTATIONS_PASSON_CLASSPATH = JavaBenchmark.ANNOTATIONS_PASSON_CLASSPATH;
+
+	/** number of slicing and chopping criteria per program */
+	private static final int NUMBER_OF_CRITERIA = 64;
+
+	private static final Stubs STUBS = Stubs.JRE_15;
+
+	/**
+	 * Concurrent SDGs with interference edges, so that all slicers and all {@link IFCType}s are applicable
+	 */
+	private static SDGConfig config(String className) {
+		final SDGConfig config = new SDGConfig(
+				JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator + ANNOTATIONS_PASSON_CLASSPATH,
+				true,
+				JavaMethodSignature.mainMethodOfClass(className).toBCString(),
+				STUBS,
+				ExceptionAnalysis.INTERPROC,
+				FieldPropagation.OBJ_GRAPH,
+				PointsToPrecision.INSTANCE_BASED,
+				false, // no access paths
+				true, // interference
+				MHPType.PRECISE);
+		config.setParallel(false);
+		return config;
+	}
+
+	public enum SlicerKind {
+		SUMMARY(SummarySlicerBackward::new),
+		COMPACT_SUMMARY(CompactSummarySlicerBackward::new),
+		CONTEXT(ContextSlicerBackward::newStaticContextSlicerBackward),
+		I2P(I2PBackward::new),
+		NANDA(NandaFactory::createNandaBackward),
+		KRINKE(OptimizedKrinke::new);
+
+		private final Function<SDG, Slicer> create;
+
+		private SlicerKind(Function<SDG, Slicer> create) {
+			this.create = create;
+		}
+	}
+
+	public enum ChopperKind {
+		REPS_ROSAY(RepsRosayChopper::new),
+		FIXED_POINT(FixedPointChopper::new),
+		CONTEXT_SENSITIVE(ContextSensitiveChopper::new),
+		INTERSECTION(IntersectionChopper::new),
+		DOUBLE_INTERSECTION(DoubleIntersectionChopper::new),
+		SUMMARY_MERGED(SummaryMergedChopper::new),
+		NON_SAME_LEVEL(NonSameLevelChopper::new),
+		COMPACT_INTERSECTION(CompactIntersectionChopper::new);
+
+		private final Function<SDG, Chopper> create;
+
+		private ChopperKind(Function<SDG, Chopper> create) {
+			this.create = create;
+		}
+	}
+
+	/**
+	 * The analyzed program, with its SDG and the source and sink annotations of the program.
+	 */
+	@State(Scope.Benchmark)
+	public static class Program {
+		@Param({"joana.api.testdata.demo.SequentialLeaks", "joana.api.testdata.demo.PossibilisticLeaks",
+				"joana.api.testdata.demo.xrlsod.ORLSOD5a", "de.uni.trier.infsec.core.Setup"})
+		String className;
+
+		IFCAnalysis ana;
+		SDG sdg;
+		/** slicing criteria */
+		List<SDGNode> criteria;
+		/** chopping criteria: pairs of nodes of the same procedure, so that the same-level choppers apply as well */
+		List<SDGNode[]> chops;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+			final PrintStream out = IOFactory.createUTF8PrintStream(new ByteArrayOutputStream());
+			final SDGProgram program = SDGProgram.createSDGProgram(config(className), out, NullProgressMonitor.INSTANCE);
+			this.ana = new IFCAnalysis(program);
+			this.ana.addAllJavaSourceAnnotations();
+			this.sdg = program.getSDG();
+
+			// every k-th node in the order of the ids, so the criteria are spread over the whole program,
+			// but stay the same in every run
+			final List<SDGNode> nodes = new ArrayList<>(sdg.vertexSet());
+			Collections.sort(nodes, Comparator.comparingInt(SDGNode::getId));
+			final int step = Math.max(1, nodes.size() / NUMBER_OF_CRITERIA);
+			this.criteria = new ArrayList<>();
+			for (int i = 0; i < nodes.size() && criteria.size() < NUMBER_OF_CRITERIA; i += step) {
+				criteria.add(nodes.get(i));
+			}
+
+			final Map<Integer, SDGNode> lastOfProc = new HashMap<>();
+			this.chops = new ArrayList<>();
+			for (int i = nodes.size() - 1; i >= 0 && chops.size() < NUMBER_OF_CRITERIA; i -= step) {
+				final SDGNode sink = nodes.get(i);
+				final SDGNode source = sdg.getEntry(sink);
+				if (source != null && source != sink && lastOfProc.put(sink.getProc(), sink) == null) {
+					chops.add(new SDGNode[] { source, sink });
+				}
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Slicers {
+		@Param
+		SlicerKind slicerKind;
+
+		Slicer slicer;
+
+		@Setup(Level.Trial)
+		public void doSetup(Program program) {
+			this.slicer = slicerKind.create.apply(program.sdg);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Choppers {
+		@Param
+		ChopperKind chopperKind;
+
+		Chopper chopper;
+
+		@Setup(Level.Trial)
+		public void doSetup(Program program) {
+			this.chopper = chopperKind.create.apply(program.sdg);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class IFCTypes {
+		@Param
+		IFCType ifcType;
+	}
+
+	@Benchmark
+	public void slice(Program program, Slicers slicers, Blackhole blackhole) {
+		for (SDGNode criterion : program.criteria) {
+			blackhole.consume(slicers.slicer.slice(criterion));
+		}
+	}
+
+	@Benchmark
+	public void chop(Program program, Choppers choppers, Blackhole blackhole) {
+		for (SDGNode[] chop : program.chops) {
+			blackhole.consume(choppers.chopper.chop(chop[0], chop[1]));
+		}
+	}
+
+	@Benchmark
+	public void doIFC(Program program, IFCTypes ifcTypes, Blackhole blackhole) {
+		blackhole.consume(program.ana.doIFC(ifcTypes.ifcType));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+				.include(SlicingBenchmarks.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(opt).run();
+	}
+}
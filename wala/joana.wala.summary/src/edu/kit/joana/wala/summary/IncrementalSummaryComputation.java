@@ -0,0 +1,255 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.summary;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Updates the summary edges of an SDG after some of its intraprocedural edges have been added or removed.
+ * <p>
+ * The summary edges of a procedure only depend on the procedure itself and the summary edges at the call sites in it.
+ * So a change inside a procedure may only change the summary edges of the procedure and of its transitive callers.
+ * Only the summary edges at the call sites of these <i>affected</i> procedures are removed and recomputed by
+ * {@link SummaryComputation3}, restricted to the affected procedures. The summary edges at call sites of all other
+ * procedures are kept and reused where an affected procedure calls them.<br>
+ * As the summary edges at a call site are computed from all procedures it may call, the procedures that are called
+ * by the same call site as an affected procedure are affected as well, as are their callers.
+ * <p>
+ * The summary dependencies of the entry points of the work package are reset and recomputed only for the affected
+ * procedures.
+ */
+public final class IncrementalSummaryComputation {
+
+	private interface Computation {
+		int compute(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException;
+	}
+
+	private IncrementalSummaryComputation() {}
+
+	/**
+	 * @see SummaryComputation3#compute(WorkPackage, IProgressMonitor)
+	 */
+	public static int compute(WorkPackage<SDG> pack, Collection<SDGEdge> added, Collection<SDGEdge> removed,
+			IProgressMonitor progress) throws CancelException {
+		return update(pack, added, removed, SDGEdge.Kind.SUMMARY, SummaryComputation3::compute, progress);
+	}
+
+	/**
+	 * @see SummaryComputation3#computeAdjustedAliasDep(WorkPackage, IProgressMonitor)
+	 */
+	public static int computeAdjustedAliasDep(WorkPackage<SDG> pack, Collection<SDGEdge> added,
+			Collection<SDGEdge> removed, IProgressMonitor progress) throws CancelException {
+		return update(pack, added, removed, SDGEdge.Kind.SUMMARY_DATA, SummaryComputation3::computeAdjustedAliasDep, progress);
+	}
+
+	/**
+	 * @see SummaryComputation3#computePureDataDep(WorkPackage, IProgressMonitor)
+	 */
+	public static int computePureDataDep(WorkPackage<SDG> pack, Collection<SDGEdge> added,
+			Collection<SDGEdge> removed, IProgressMonitor progress) throws CancelException {
+		return update(pack, added, removed, SDGEdge.Kind.SUMMARY_DATA, SummaryComputation3::computePureDataDep, progress);
+	}
+
+	/**
+	 * @see SummaryComputation3#computeFullAliasDataDep(WorkPackage, IProgressMonitor)
+	 */
+	public static int computeFullAliasDataDep(WorkPackage<SDG> pack, Collection<SDGEdge> added,
+			Collection<SDGEdge> removed, IProgressMonitor progress) throws CancelException {
+		return update(pack, added, removed, SDGEdge.Kind.SUMMARY, SummaryComputation3::computeFullAliasDataDep, progress);
+	}
+
+	/**
+	 * @see SummaryComputation3#computeNoAliasDataDep(WorkPackage, IProgressMonitor)
+	 */
+	public static int computeNoAliasDataDep(WorkPackage<SDG> pack, Collection<SDGEdge> added,
+			Collection<SDGEdge> removed, IProgressMonitor progress) throws CancelException {
+		return update(pack, added, removed, SDGEdge.Kind.SUMMARY_NO_ALIAS, SummaryComputation3::computeNoAliasDataDep, progress);
+	}
+
+	/**
+	 * @see SummaryComputation3#computeHeapDataDep(WorkPackage, IProgressMonitor)
+	 */
+	public static int computeHeapDataDep(WorkPackage<SDG> pack, Collection<SDGEdge> added,
+			Collection<SDGEdge> removed, IProgressMonitor progress) throws CancelException {
+		return update(pack, added, removed, SDGEdge.Kind.SUMMARY_DATA, SummaryComputation3::computeHeapDataDep, progress);
+	}
+
+	/**
+	 * Applies the given changes to the graph of the work package and recomputes the summary edges of kind
+	 * sumEdgeKind of the affected procedures.
+	 *
+	 * @param added intraprocedural edges to add to the graph
+	 * @param removed intraprocedural edges to remove from the graph
+	 * @return the number of summary dependencies between formal-in and formal-out nodes found for the
+	 * entry points of the affected procedures
+	 */
+	private static int update(WorkPackage<SDG> pack, Collection<SDGEdge> added, Collection<SDGEdge> removed,
+			SDGEdge.Kind sumEdgeKind, Computation computation, IProgressMonitor progress) throws CancelException {
+		final SDG sdg = pack.getGraph();
+		final TIntSet changed = new TIntHashSet();
+		for (SDGEdge e : removed) {
+			changed.add(procedureOf(e));
+		}
+		for (SDGEdge e : added) {
+			changed.add(procedureOf(e));
+		}
+
+		sdg.removeAllEdges(removed);
+		sdg.addAllEdges(added);
+
+		final TIntSet affected = affectedProcedures(sdg, changed);
+		if (pack.getRelevantProcIds() != null) {
+			affected.retainAll(pack.getRelevantProcIds());
+		}
+
+		if (affected.isEmpty()) {
+			return 0;
+		}
+
+		removeSummaryEdges(sdg, affected, sumEdgeKind);
+
+		final Set<EntryPoint> entries = new HashSet<EntryPoint>();
+		for (EntryPoint ep : pack.getEntryPoints()) {
+			final SDGNode entry = sdg.getNode(ep.getEntryId());
+			if (entry != null && affected.contains(entry.getProc())) {
+				ep.reset();
+				entries.add(ep);
+			}
+		}
+
+		final WorkPackage<SDG> incremental = WorkPackage.create(sdg, entries, pack.getName(), affected,
+				pack.getFullyConnected(), pack.getOut2In(), pack.getRememberReached());
+		// the kept summary edges at call sites of unaffected callees have to be followed
+		incremental.setFollowExistingSummaries(true);
+
+		return computation.compute(incremental, progress);
+	}
+
+	private static int procedureOf(SDGEdge e) {
+		final int proc = e.getSource().getProc();
+		if (proc != e.getTarget().getProc()) {
+			throw new IllegalArgumentException("Edge " + e + " is not intraprocedural.");
+		}
+
+		return proc;
+	}
+
+	/**
+	 * Computes the procedures whose summary edges may change, if the given procedures change: the changed procedures,
+	 * their transitive callers and the procedures that share a call site with one of these.
+	 *
+	 * @param sdg an SDG
+	 * @param changed the ids of the changed procedures
+	 * @return the ids of the affected procedures
+	 */
+	public static TIntSet affectedProcedures(SDG sdg, TIntSet changed) {
+		// for each procedure the call sites that may call it, and for each call site the procedures it may call
+		final TIntObjectHashMap<List<SDGNode>> callSites = new TIntObjectHashMap<List<SDGNode>>();
+		final TIntObjectHashMap<TIntArrayList> callees = new TIntObjectHashMap<TIntArrayList>();
+		for (SDGNode n : sdg.vertexSet()) {
+			if (n.getKind() != SDGNode.Kind.CALL) {
+				continue;
+			}
+
+			final TIntArrayList targets = new TIntArrayList();
+			for (SDGEdge e : sdg.outgoingEdgesOf(n)) {
+				if (e.getKind() == SDGEdge.Kind.CALL) {
+					final int callee = e.getTarget().getProc();
+					targets.add(callee);
+					List<SDGNode> sites = callSites.get(callee);
+					if (sites == null) {
+						sites = new LinkedList<SDGNode>();
+						callSites.put(callee, sites);
+					}
+					sites.add(n);
+				}
+			}
+
+			callees.put(n.getId(), targets);
+		}
+
+		final TIntSet affected = new TIntHashSet(changed);
+		final TIntArrayList worklist = new TIntArrayList(changed.toArray());
+		while (!worklist.isEmpty()) {
+			final int proc = worklist.removeAt(worklist.size() - 1);
+			final List<SDGNode> sites = callSites.get(proc);
+			if (sites == null) {
+				continue;
+			}
+
+			for (SDGNode call : sites) {
+				if (affected.add(call.getProc())) {
+					worklist.add(call.getProc());
+				}
+
+				for (TIntIterator it = callees.get(call.getId()).iterator(); it.hasNext(); ) {
+					final int callee = it.next();
+					if (affected.add(callee)) {
+						worklist.add(callee);
+					}
+				}
+			}
+		}
+
+		return affected;
+	}
+
+	/**
+	 * Removes the summary edges of the given kind at all call sites that may call an affected procedure. As the affected
+	 * procedures are closed under callers, these call sites belong to affected procedures.
+	 */
+	private static void removeSummaryEdges(SDG sdg, TIntSet affected, SDGEdge.Kind sumEdgeKind) {
+		final List<SDGEdge> toRemove = new LinkedList<SDGEdge>();
+		for (SDGNode n : sdg.vertexSet()) {
+			if (n.getKind() != SDGNode.Kind.CALL || !affected.contains(n.getProc()) || !callsAny(sdg, n, affected)) {
+				continue;
+			}
+
+			for (SDGEdge ce : sdg.outgoingEdgesOf(n)) {
+				if (ce.getKind() != SDGEdge.Kind.CONTROL_DEP_EXPR || ce.getTarget().getKind() != SDGNode.Kind.ACTUAL_OUT) {
+					continue;
+				}
+
+				for (SDGEdge e : sdg.incomingEdgesOf(ce.getTarget())) {
+					if (e.getKind() == sumEdgeKind) {
+						toRemove.add(e);
+					}
+				}
+			}
+		}
+
+		sdg.removeAllEdges(toRemove);
+	}
+
+	private static boolean callsAny(SDG sdg, SDGNode call, TIntSet procs) {
+		for (SDGEdge e : sdg.outgoingEdgesOf(call)) {
+			if (e.getKind() == SDGEdge.Kind.CALL && procs.contains(e.getTarget().getProc())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
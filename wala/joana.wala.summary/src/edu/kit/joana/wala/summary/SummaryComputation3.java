@@ -19,6 +19,7 @@ import java.util.RandomAccess;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultDirectedGraph;
@@ -52,10 +53,11 @@ import gnu.trove.set.TIntSet;
  */
 public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGraph<SDGNode, SDGEdge>> {
 
-	private final HashSet<Edge> pathEdge;
-    private final Set<Integer> procedureWorkSet;
+	/* only used in assertions, concurrent since SummaryComputation4 processes components in parallel */
+	private final Set<Edge> pathEdge;
+    private final SccWork work;
     private final Map<Integer, IntrusiveList<Edge>> worklists;
-    private final G graph;
+    final G graph;
     private final TIntSet relevantFormalIns;
     private final TIntSet relevantProcs;
     private final TIntSet fullyConnected;
@@ -65,27 +67,34 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
     private final Set<SDGEdge.Kind> relevantEdges;
     private final String annotate;
     private final IntIntSimpleVector nodeId2ProcLocalNodeId;
-    private final SimpleVectorBase<Integer, SDGNode[]> procLocalNodeId2Node;
-    private final List<Set<Integer>> procSccs;
-    private final IntIntSimpleVector indexNumberOf;
+    /* indexed by procedure number, the entry of a procedure is dropped once its summary edges are in the graph */
+    private final SDGNode[][] procLocalNodeId2Node;
+    final List<Set<Integer>> procSccs;
+    final IntIntSimpleVector indexNumberOf;
     private final long relevantEdgesMask;
     private final long relevantEdgesAtActualOutMask;
+    private final boolean followExistingSummaries;
     private final boolean assertionsEnabled;
-    
-    private IntrusiveList<Edge> current; 
 
-	private SummaryComputation3(G graph, TIntSet relevantFormalIns,
+	SummaryComputation3(G graph, TIntSet relevantFormalIns,
+			TIntSet relevantProcs, TIntSet fullyConnected, TIntObjectMap<List<SDGNode>> out2in,
+			boolean rememberReached, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
+			String annotate, boolean followExistingSummaries) {
+		this(graph, relevantFormalIns, relevantProcs, fullyConnected, out2in, rememberReached, sumEdgeKind,
+				relevantEdges, annotate, followExistingSummaries, extractCallGraph(graph, relevantProcs));
+	}
+
+	SummaryComputation3(G graph, TIntSet relevantFormalIns,
 			TIntSet relevantProcs, TIntSet fullyConnected, TIntObjectMap<List<SDGNode>> out2in,
 			boolean rememberReached, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
-			String annotate) {
+			String annotate, boolean followExistingSummaries, DirectedGraph<Integer, DefaultEdge> callGraph) {
     	this.graph = graph;
     	this.relevantFormalIns = relevantFormalIns;
     	this.relevantProcs = relevantProcs;
     	this.fullyConnected = fullyConnected;
-        this.pathEdge = new HashSet<Edge>();
+        this.pathEdge = ConcurrentHashMap.newKeySet();
         int maxProcNumber = -1;
         {
-            final DirectedGraph<Integer, DefaultEdge> callGraph = extractCallGraph(graph);
             final TarjanStrongConnectivityInspector<Integer, DefaultEdge> sccInspector = new TarjanStrongConnectivityInspector<>(callGraph);
             
             this.procSccs = sccInspector.stronglyConnectedSets();
@@ -99,7 +108,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             }
             indexNumberOf.trimToSize();
             
-            this.procedureWorkSet = new TreeSet<>(new Comparator<Integer>() {
+            this.work = new SccWork(new TreeSet<>(new Comparator<Integer>() {
             	@Override
             	public int compare(Integer o1, Integer o2) {
             		final int sccCompare = Integer.compare(indexNumberOf.getInt(o1), indexNumberOf.getInt(o2));
@@ -107,7 +116,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
     				
     				return Integer.compare(o1, o2);
             	}
-			});
+			}), new HashSet<SDGEdge>());
         }
         
         this.worklists = new SimpleVectorBase<Integer, IntrusiveList<Edge>>(0, 1) {
@@ -122,12 +131,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         this.relevantEdges = relevantEdges;
         this.annotate = annotate;
         this.nodeId2ProcLocalNodeId = new IntIntSimpleVector(0, graph.vertexSet().size());
-        this.procLocalNodeId2Node = new SimpleVectorBase<Integer, SDGNode[]>(0, maxProcNumber) {
-        	@Override
-        	protected int getId(Integer procNumber) {
-        		return procNumber;
-        	}
-        };
+        this.procLocalNodeId2Node = new SDGNode[maxProcNumber + 1][];
         
         long relevantEdgesMask = 0;
         for (SDGEdge.Kind relevant : relevantEdges) {
@@ -135,6 +139,9 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         	relevantEdgesMask |= ((long) 1 << ((long)relevant.getPriority()));
         }
         this.relevantEdgesMask = relevantEdgesMask;
+        // if requested, summary edges of sumEdgeKind already in the graph (the ones kept by
+        // IncrementalSummaryComputation) are followed, even if sumEdgeKind is not relevant elsewhere
+        this.followExistingSummaries = followExistingSummaries;
         this.relevantEdgesAtActualOutMask = 
               ( ((long) 1 << ((long)sumEdgeKind.getPriority()))
               | ((long) 1 << ((long)SDGEdge.Kind.DATA_DEP.getPriority()))
@@ -142,6 +149,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
               | ((long) 1 << ((long)SDGEdge.Kind.DATA_ALIAS.getPriority()))
               )
               & relevantEdgesMask
+              | (followExistingSummaries ? ((long) 1 << ((long)sumEdgeKind.getPriority())) : 0)
               | ((long) 1 << ((long)SDGEdge.Kind.CONTROL_DEP_EXPR.getPriority()));
         boolean assertionsEnabled = false;
         assert (assertionsEnabled = true);
@@ -157,7 +165,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 	
 	private boolean relevantEdgesAtActualOut_contains(SDGEdge.Kind kind) {
 		final boolean result = ((long) 1 << ((long)kind.getPriority()) & relevantEdgesAtActualOutMask) != 0;
-		assert result == (kind == sumEdgeKind
+		assert result == ((kind == sumEdgeKind && (followExistingSummaries || relevantEdges_contains(kind)))
 				|| ((kind == SDGEdge.Kind.DATA_DEP || kind == SDGEdge.Kind.DATA_HEAP
 				|| kind == SDGEdge.Kind.DATA_ALIAS) && relevantEdges_contains(kind))
 				|| (kind == SDGEdge.Kind.CONTROL_DEP_EXPR)); 
@@ -166,6 +174,30 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 	}
 	
 	public static int compute(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY, defaultRelevantEdges(), progress);
+	}
+
+	public static int computeAdjustedAliasDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, adjustedAliasDepRelevantEdges(), progress);
+	}
+
+	public static int computePureDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, pureDataDepRelevantEdges(), progress);
+	}
+
+	public static int computeFullAliasDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+		return compute(pack, progress);
+	}
+
+	public static int computeNoAliasDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_NO_ALIAS, noAliasDataDepRelevantEdges(), progress);
+	}
+
+	public static int computeHeapDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, heapDataDepRelevantEdges(), progress);
+	}
+
+	static Set<SDGEdge.Kind> defaultRelevantEdges() {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -184,10 +216,10 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY, relevantEdges, progress);
+		return relevantEdges;
 	}
 
-	public static int computeAdjustedAliasDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	static Set<SDGEdge.Kind> adjustedAliasDepRelevantEdges() {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -206,10 +238,10 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, progress);
+		return relevantEdges;
 	}
 
-	public static int computePureDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	static Set<SDGEdge.Kind> pureDataDepRelevantEdges() {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -226,14 +258,10 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_DATA);
 //		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, progress);
+		return relevantEdges;
 	}
 
-	public static int computeFullAliasDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
-		return compute(pack, progress);
-	}
-
-	public static int computeNoAliasDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	static Set<SDGEdge.Kind> noAliasDataDepRelevantEdges() {
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
 		relevantEdges.add(SDGEdge.Kind.DATA_HEAP);
@@ -251,10 +279,10 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_NO_ALIAS, relevantEdges, progress);
+		return relevantEdges;
 	}
 
-	public static int computeHeapDataDep(WorkPackage<SDG> pack, IProgressMonitor progress) throws CancelException {
+	static Set<SDGEdge.Kind> heapDataDepRelevantEdges() {
 		// default summary computation follows control and date dependencies
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
@@ -273,7 +301,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 //		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 //		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
 
-		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, relevantEdges, progress);
+		return relevantEdges;
 	}
 
 	private static int compute(WorkPackage<SDG> pack, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
@@ -285,9 +313,13 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 			String annotate, IProgressMonitor progress) throws CancelException {
 		SummaryComputation3<SDG> comp = new SummaryComputation3<SDG>(pack.getGraph(), pack.getAllFormalInIds(),
 				pack.getRelevantProcIds(), pack.getFullyConnected(), pack.getOut2In(),
-				pack.getRememberReached(), sumEdgeKind, relevantEdges, annotate);
+				pack.getRememberReached(), sumEdgeKind, relevantEdges, annotate, pack.getFollowExistingSummaries());
 		Collection<SDGEdge> formInOutSummaryEdge = comp.computeSummaryEdges(progress);
 
+		return addSummaryDeps(pack, formInOutSummaryEdge);
+	}
+
+	static int addSummaryDeps(WorkPackage<SDG> pack, Collection<SDGEdge> formInOutSummaryEdge) {
 		for (SDGEdge edge : formInOutSummaryEdge) {
 			pack.addSummaryDep(edge.getSource().getId(), edge.getTarget().getId());
 		}
@@ -341,15 +373,45 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 
 
 	
-	private DirectedGraph<Integer, DefaultEdge> extractCallGraph(G graph) {
+	/**
+	 * The procedures whose worklists are not empty and the summary edges from formal-ins to formal-outs found so far.
+	 * Here, there is a single one for all components of the call graph, see {@link #workOf(int)}.
+	 */
+	static class SccWork {
+		final Set<Integer> procedureWorkSet;
+		final Collection<SDGEdge> formInOutSummaryEdge;
+		/* the worklist of the procedure that is processed, only used in assertions */
+		private IntrusiveList<Edge> current;
+
+		SccWork(Set<Integer> procedureWorkSet, Collection<SDGEdge> formInOutSummaryEdge) {
+			this.procedureWorkSet = procedureWorkSet;
+			this.formInOutSummaryEdge = formInOutSummaryEdge;
+		}
+
+		/**
+		 * Called for each new summary edge at a call site, before it is added.
+		 * @return true iff the summary edge is not added now, but later by the one processing the call site
+		 */
+		boolean defer(SDGNode actualIn, SDGNode actualOut) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return the calls between the relevant procedures, by procedure number
+	 */
+	static DirectedGraph<Integer, DefaultEdge> extractCallGraph(DirectedGraph<SDGNode, SDGEdge> graph,
+			TIntSet relevantProcs) {
 		final DirectedGraph<Integer, DefaultEdge> ret = new DefaultDirectedGraph<>(DefaultEdge.class);
 		for (final SDGNode n : graph.vertexSet()) {
 			final int proc = n.getProc(); 
+			if (relevantProcs != null && !relevantProcs.contains(proc)) continue;
 			ret.addVertex(proc);
 			if (n.getKind() == SDGNode.Kind.CALL) {
 				for (final SDGEdge callEdge : graph.outgoingEdgesOf(n)) {
 					if (callEdge.getKind() != SDGEdge.Kind.CALL) continue;
 					final int calledProc = callEdge.getTarget().getProc(); 
+					if (relevantProcs != null && !relevantProcs.contains(calledProc)) continue;
 					ret.addVertex(calledProc);
 					ret.addEdge(proc, calledProc);
 				}
@@ -358,11 +420,32 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 		return ret;
 	}
 
-    private Collection<SDGEdge> computeSummaryEdges(IProgressMonitor progress) throws CancelException {
-    	HashSet<SDGEdge> formInOutSummaryEdge = new HashSet<SDGEdge>();
+	/**
+	 * @return the work the given procedure belongs to
+	 */
+	SccWork workOf(int procedure) {
+		return work;
+	}
+
+	/**
+	 * Forgets the nodes of the given procedure, once the summary edges at its call sites are in the graph. Only the
+	 * entry of the given procedure is written, so the tasks of different components may call this in parallel.
+	 */
+	final void dropProcLocalNodes(int procedure) {
+		procLocalNodeId2Node[procedure] = null;
+	}
 
+	/**
+	 * Numbers the nodes of each relevant procedure and initializes the worklists with the formal-outs.
+	 */
+	final void initialize() {
+    	// only the nodes of relevant procedures take part in the computation, so
+    	// nodes of other procedures are neither numbered nor initialized
     	Map<Integer, Set<SDGNode>> proc2nodes = new HashMap<>();
-        for (SDGNode n : (Set<SDGNode>) graph.vertexSet()) {
+        for (SDGNode n : graph.vertexSet()) {
+        	if (relevantProcs != null && !relevantProcs.contains(n.getProc())) {
+        		continue;
+        	}
             proc2nodes.compute(n.getProc(), (k, nodes) -> {
             	if (nodes == null) {
             		nodes = new HashSet<>();
@@ -376,7 +459,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         	final int procedure = entry.getKey();
         	final Set<SDGNode> nodes = entry.getValue();
         	final SDGNode[] procLocal2Node = new SDGNode[nodes.size()];
-			procLocalNodeId2Node.put(procedure, procLocal2Node);
+			procLocalNodeId2Node[procedure] = procLocal2Node;
         	int procLocalNodeId = 0;
         	for (SDGNode n : nodes) {
         		nodeId2ProcLocalNodeId.put(n.getId(), procLocalNodeId);
@@ -385,14 +468,14 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         	}
         }
         
-        procLocalNodeId2Node.trimToSize();
         nodeId2ProcLocalNodeId.trimToSize();
 
-        for (SDGNode n : (Set<SDGNode>) graph.vertexSet()) {
+        for (SDGNode n : graph.vertexSet()) {
+        	if (relevantProcs != null && !relevantProcs.contains(n.getProc())) {
+        		continue;
+        	}
+
             if (n.getKind() == SDGNode.Kind.FORMAL_OUT || n.getKind() == SDGNode.Kind.EXIT) {
-            	if (relevantProcs != null && !relevantProcs.contains(n.getProc())) {
-            		continue;
-            	}
 
             	if (fullyConnected != null && fullyConnected.contains(n.getId())) {
             		continue;
@@ -408,7 +491,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
                 	workList.add(new Edge(n,n));
                 	return workList;
                 });
-                procedureWorkSet.add(n.getProc());
+                workOf(n.getProc()).procedureWorkSet.add(n.getProc());
             }
             
             if (n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
@@ -428,11 +511,14 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
                 n.customData = null;
             }
         }
-        
-        proc2nodes = null;
+	}
+
+    private Collection<SDGEdge> computeSummaryEdges(IProgressMonitor progress) throws CancelException {
+        initialize();
         
         assert workListsConsistent();
 
+        final Set<Integer> procedureWorkSet = work.procedureWorkSet;
         while (!procedureWorkSet.isEmpty()) {
         	
         	
@@ -441,10 +527,40 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
                 procedure = iterator.next();
                 iterator.remove();
             }
+            processWorklist(work, procedure);
+            
+            // TODO: somehow update this implicitly when creating summary edges
+            boolean leftScc = true;
+            for (Integer inSameScc : procSccs.get(indexNumberOf.getInt(procedure))) {
+            	if (procedureWorkSet.contains(inSameScc)) {
+            		leftScc = false;
+            		break;
+            	}
+            }
+
+            // clear HashSet<SDGNode> at each node whenever we leave a scc
+            if (leftScc) {
+                for (Integer inSameScc : procSccs.get(indexNumberOf.getInt(procedure))) {
+                	addSummaryEdgesToGraph(inSameScc);
+                	dropProcLocalNodes(inSameScc);
+                }
+            }
+            
+            assert workListsConsistent();
+        }
+
+        return work.formInOutSummaryEdge;
+    }
+
+    /**
+     * Processes the worklist of the given procedure until it is empty. Procedures whose worklists get new path edges
+     * are added to the given work.
+     */
+    final void processWorklist(SccWork work, int procedure) {
             final IntrusiveList<Edge> worklist = worklists.get(procedure);
-            current = worklist;
+            work.current = worklist;
 
-            final SDGNode[] procLocal2Node = procLocalNodeId2Node.get(procedure);
+            final SDGNode[] procLocal2Node = procLocalNodeId2Node[procedure];
 
             while (!worklist.isEmpty()) {
             	final Edge next = worklist.poll();
@@ -453,14 +569,14 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             	switch(k) {
             	case ACTUAL_OUT:
             		if (fullyConnected != null && fullyConnected.contains(next.source.getId())) {
-            			propagateAllActIns(worklist, next.source, next.target);
+            			propagateAllActIns(work, worklist, next.source, next.target);
             		} else {
             			for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
             				if (e == null) continue;
             				final SDGEdge.Kind kind = e.getKind();
             				assert kind != SDGEdge.Kind.CONTROL_DEP_EXPR || e.getSource().getKind() == SDGNode.Kind.CALL;
             				if (relevantEdgesAtActualOut_contains(kind)) {
-            					propagate(worklist, e.getSource(), next.target);
+            					propagate(work, worklist, e.getSource(), next.target);
             				}
             			}
             			final ActualOutInformation aoInformation = (ActualOutInformation) next.source.customData;
@@ -469,7 +585,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             			for (IntIterator it = incomingSummaryEdgesFrom.intIterator(); it.hasNext(); ) {
             				final int procLocalId = it.next();
             				SDGNode summarySource = procLocal2Node[procLocalId];
-            				propagate(worklist, summarySource, next.target);
+            				propagate(work, worklist, summarySource, next.target);
             			}
 
             		}
@@ -478,14 +594,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             	case FORMAL_IN:
             		// next.source is relevant formal in then:
             		if (relevantFormalIns.contains(next.source.getId())) {
-            			SDGEdge fInOut;
-            			if (annotate != null && !annotate.isEmpty()) {
-            				fInOut =  new LabeledSDGEdge(next.source, next.target, sumEdgeKind, annotate);
-            			} else {
-            				fInOut = sumEdgeKind.newEdge(next.source, next.target);
-            			}
-
-            			formInOutSummaryEdge.add(fInOut);
+            			work.formInOutSummaryEdge.add(newSummaryEdge(next.source, next.target));
             		}
 
             		final Collection<AcutalInActualOutPair> aiaoPairs = aiaoPairs(next);
@@ -496,38 +605,17 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             			
             			assert source != null;
             			if (target == null) continue;
+            			// summary edges at call sites in irrelevant procedures are never added to the graph
+            			if (relevantProcs != null && !relevantProcs.contains(source.getProc())) continue;
+            			if (work.defer(source, target)) continue;
             			
             			boolean connectedInPDG = false;
             			if (assertionsEnabled) {
             				connectedInPDG = graph.containsEdge(source, target, eOut -> eOut.getKind().isSDGEdge());
             			}
 
-
-            			final int procLocalIdOfSource = nodeId2ProcLocalNodeId.getInt(source.getId());
-            			final ActualOutInformation aoInformation = (ActualOutInformation) target.customData;
-
-            			if (aoInformation.incomingSummaryEdgesFrom.setWithResult((procLocalIdOfSource))) {
-            				assert !connectedInPDG;
-            				
-            				final Integer nrOfoutgoingSummaryEdgesInto = (Integer) source.customData;
-            				source.customData = nrOfoutgoingSummaryEdgesInto + 1;
-            				
-            				final AoPathsNodesBitvector aoPaths = aoInformation.aoPaths;
-            				
-            				if (!aoPaths.isZero()) {
-            					final int caller = source.getProc();
-            					procedureWorkSet.add(caller);
-            					final IntrusiveList<Edge> workListInCaller = worklists.get(caller);
-            					final SDGNode[] callerLocal2Node = procLocalNodeId2Node.get(caller);
-
-            					for (IntIterator it = aoPaths.intIterator(); it.hasNext(); ) {
-            						final int procLocalId = it.next();
-
-            						SDGNode aoPathTarget = callerLocal2Node[procLocalId];
-            						propagate(workListInCaller, source, aoPathTarget);
-            					}
-            				}
-            			}
+            			final boolean added = addSummaryEdge(work, source, target);
+            			assert !added || !connectedInPDG;
             		}
             		if (assertionsEnabled) {
 	            		for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
@@ -554,7 +642,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             			if (e == null) continue;
             			assert e.getKind() != SDGEdge.Kind.CONTROL_DEP_EXPR || e.getSource().getKind() == SDGNode.Kind.CALL;
             			if (relevantEdges_contains(e.getKind()) || e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR) {
-            				propagate(worklist, e.getSource(), next.target);
+            				propagate(work, worklist, e.getSource(), next.target);
             			}
             		}
             		break;
@@ -562,17 +650,17 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             	case FORMAL_OUT:
             	case EXIT:
             		if (fullyConnected != null && fullyConnected.contains(next.source.getId())) {
-            			propagateAllActIns(worklist, next.source, next.target);
+            			propagateAllActIns(work, worklist, next.source, next.target);
             		} else {
             			for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
             				if (e == null) continue;
             				if (e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR) {
             					if (e.getSource().getKind() == SDGNode.Kind.ENTRY) {
-            						propagate(worklist, e.getSource(), next.target);
+            						propagate(work, worklist, e.getSource(), next.target);
             					}
 
             				} else if (relevantEdges_contains(e.getKind())) {
-            					propagate(worklist, e.getSource(), next.target);
+            					propagate(work, worklist, e.getSource(), next.target);
             				}
             			}
             		}
@@ -582,130 +670,152 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             		for (SDGEdge e : graph.incomingEdgesOfUnsafe(next.source)) {
             			if (e == null) continue;
             			if (relevantEdges_contains(e.getKind())) {
-            				propagate(worklist, e.getSource(), next.target);
+            				propagate(work, worklist, e.getSource(), next.target);
             			}
             		}
             		break;
             	}
             }
-            
-            // TODO: somehow update this implicitly when creating summary edges
-            boolean leftScc = true;
-            for (Integer inSameScc : procSccs.get(indexNumberOf.getInt(procedure))) {
-            	if (procedureWorkSet.contains(inSameScc)) {
-            		leftScc = false;
-            		break;
-            	}
-            }
+    }
 
-            // clear HashSet<SDGNode> at each node whenever we leave a scc
-            if (leftScc) {
-                for (Integer inSameScc : procSccs.get(indexNumberOf.getInt(procedure))) {
-                	final SDGNode[] inSameSccLocal2Node = procLocalNodeId2Node.get(inSameScc);
-                	for (SDGNode n : inSameSccLocal2Node) {
-                		if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
-                			final Integer nrOfoutgoingSummaryEdges = (Integer) n.customData;
-                			n.customData = new ActualInInformation(new SDGEdge[nrOfoutgoingSummaryEdges]);
-                			// will be filled in the upcoming loop by the corresponding ACTUAL_OUTs
-                		}
-                	}
+    /**
+     * Adds the summary edge from the actual-in source to the actual-out target, and the path edges it induces in the
+     * procedure of the call site.
+     * @return true iff the summary edge is new
+     */
+    final boolean addSummaryEdge(SccWork work, SDGNode source, SDGNode target) {
+    	final int procLocalIdOfSource = nodeId2ProcLocalNodeId.getInt(source.getId());
+    	final ActualOutInformation aoInformation = (ActualOutInformation) target.customData;
+
+    	if (!aoInformation.incomingSummaryEdgesFrom.setWithResult(procLocalIdOfSource)) {
+    		return false;
+    	}
 
-                	for (SDGNode n : inSameSccLocal2Node) {
-                		if (n.getKind() == SDGNode.Kind.FORMAL_OUT || n.getKind() == SDGNode.Kind.EXIT) {
-                			if (relevantProcs != null && !relevantProcs.contains(n.getProc())) {
-                				continue;
-                			}
-
-                			if (fullyConnected != null && fullyConnected.contains(n.getId())) {
-                				continue;
-                			}
-
-                			assert n.customData instanceof PathEdgeReachedNodesBitvector;
-                			n.customData = null;
-                		}
-
-                		if (n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
-                			final ActualOutInformation aoInformation = (ActualOutInformation) n.customData;
-                			final IncomingSummaryEdgesFromBitVector incomingSummaryEdgesFrom = aoInformation.incomingSummaryEdgesFrom;
-                			
-                			final int nrOfSummaryEdges = incomingSummaryEdgesFrom.populationCount();
-                			final SDGEdge[] summaryEdges = new SDGEdge[nrOfSummaryEdges];
-                			
-                			int i = 0;
-                			for (IntIterator it = incomingSummaryEdgesFrom.intIterator(); it.hasNext(); ) {
-                				final int procLocalId = it.next();
-                				final SDGNode source = inSameSccLocal2Node[procLocalId];
-
-                				final SDGEdge sum;
-                				if (annotate != null && !annotate.isEmpty()) {
-                					sum =  new LabeledSDGEdge(source, n, sumEdgeKind, annotate);
-                				} else {
-                					sum = sumEdgeKind.newEdge(source, n);
-                				}
-
-                				summaryEdges[i++] = sum;
-                				
-                				final ActualInInformation actualInInformation = (ActualInInformation) source.customData;
-                				actualInInformation.summaryEdges[actualInInformation.next++] = sum;
-                			}
-
-                			Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
-
-                			final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
-
-                			graph.addIncomingEdgesAtUNSAFE(n, summaryEdgesSet);
-
-                			n.customData = null;
-                		}
-                	}
-                	
-                	for (SDGNode n : inSameSccLocal2Node) {
-                		if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
-                			final ActualInInformation actualInInformation = (ActualInInformation) n.customData;
-                			
-                			final SDGEdge[] summaryEdges = actualInInformation.summaryEdges;
-                			assert summaryEdges.length == 0 || summaryEdges[summaryEdges.length - 1] != null;
-                    		
-                			Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
+    	final Integer nrOfoutgoingSummaryEdgesInto = (Integer) source.customData;
+    	source.customData = nrOfoutgoingSummaryEdgesInto + 1;
 
-                			final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
+    	final AoPathsNodesBitvector aoPaths = aoInformation.aoPaths;
 
-                			graph.addOutgoingEdgesAtUNSAFE(n, summaryEdgesSet);
+    	if (!aoPaths.isZero()) {
+    		final int caller = source.getProc();
+    		work.procedureWorkSet.add(caller);
+    		final IntrusiveList<Edge> workListInCaller = worklists.get(caller);
+    		final SDGNode[] callerLocal2Node = procLocalNodeId2Node[caller];
 
-                			n.customData = null;
-                			
-                		}
+    		for (IntIterator it = aoPaths.intIterator(); it.hasNext(); ) {
+    			final int procLocalId = it.next();
 
-                	}
+    			SDGNode aoPathTarget = callerLocal2Node[procLocalId];
+    			propagate(work, workListInCaller, source, aoPathTarget);
+    		}
+    	}
 
-                	procLocalNodeId2Node.remove(inSameScc);
-                }
-            }
-            
-            assert workListsConsistent();
-        }
+    	return true;
+    }
+
+    /**
+     * Adds the summary edges found at the call sites of the given procedure to the graph.
+     */
+    final void addSummaryEdgesToGraph(int procedure) {
+    	final SDGNode[] procLocal2Node = procLocalNodeId2Node[procedure];
+    	for (SDGNode n : procLocal2Node) {
+    		if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
+    			final Integer nrOfoutgoingSummaryEdges = (Integer) n.customData;
+    			n.customData = new ActualInInformation(new SDGEdge[nrOfoutgoingSummaryEdges]);
+    			// will be filled in the upcoming loop by the corresponding ACTUAL_OUTs
+    		}
+    	}
+
+    	for (SDGNode n : procLocal2Node) {
+    		if (n.getKind() == SDGNode.Kind.FORMAL_OUT || n.getKind() == SDGNode.Kind.EXIT) {
+    			if (relevantProcs != null && !relevantProcs.contains(n.getProc())) {
+    				continue;
+    			}
+
+    			if (fullyConnected != null && fullyConnected.contains(n.getId())) {
+    				continue;
+    			}
 
-        return formInOutSummaryEdge;
+    			assert n.customData instanceof PathEdgeReachedNodesBitvector;
+    			n.customData = null;
+    		}
+
+    		if (n.getKind() == SDGNode.Kind.ACTUAL_OUT) {
+    			final ActualOutInformation aoInformation = (ActualOutInformation) n.customData;
+    			final IncomingSummaryEdgesFromBitVector incomingSummaryEdgesFrom = aoInformation.incomingSummaryEdgesFrom;
+
+    			final int nrOfSummaryEdges = incomingSummaryEdgesFrom.populationCount();
+    			final SDGEdge[] summaryEdges = new SDGEdge[nrOfSummaryEdges];
+
+    			int i = 0;
+    			for (IntIterator it = incomingSummaryEdgesFrom.intIterator(); it.hasNext(); ) {
+    				final int procLocalId = it.next();
+    				final SDGNode source = procLocal2Node[procLocalId];
+
+    				final SDGEdge sum = newSummaryEdge(source, n);
+
+    				summaryEdges[i++] = sum;
+
+    				final ActualInInformation actualInInformation = (ActualInInformation) source.customData;
+    				actualInInformation.summaryEdges[actualInInformation.next++] = sum;
+    			}
+
+    			Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
+
+    			final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
+
+    			graph.addIncomingEdgesAtUNSAFE(n, summaryEdgesSet);
+
+    			n.customData = null;
+    		}
+    	}
+
+    	for (SDGNode n : procLocal2Node) {
+    		if (n.getKind() == SDGNode.Kind.ACTUAL_IN) {
+    			final ActualInInformation actualInInformation = (ActualInInformation) n.customData;
+
+    			final SDGEdge[] summaryEdges = actualInInformation.summaryEdges;
+    			assert summaryEdges.length == 0 || summaryEdges[summaryEdges.length - 1] != null;
+
+    			Arrays.sort(summaryEdges, ArraySet.COMPARATOR);
+
+    			final ArraySet<SDGEdge> summaryEdgesSet = ArraySet.own(summaryEdges);
+
+    			graph.addOutgoingEdgesAtUNSAFE(n, summaryEdgesSet);
+
+    			n.customData = null;
+
+    		}
+
+    	}
+    }
+
+    private SDGEdge newSummaryEdge(SDGNode source, SDGNode target) {
+    	if (annotate != null && !annotate.isEmpty()) {
+    		return new LabeledSDGEdge(source, target, sumEdgeKind, annotate);
+    	} else {
+    		return sumEdgeKind.newEdge(source, target);
+    	}
     }
     
     private boolean workListsConsistent() {
         for (Entry<Integer, IntrusiveList<Edge>> entry : worklists.entrySet()) {
         	final Integer proc = entry.getKey(); 
         	final IntrusiveList<Edge> workList = entry.getValue();
-        	if (!workList.isEmpty() &&  !procedureWorkSet.contains(proc)) {
+        	if (!workList.isEmpty() &&  !work.procedureWorkSet.contains(proc)) {
         		return false;
         	}
         }
         return true;
     }
 
-    private void propagateAllActIns(IntrusiveList<Edge> worklist, SDGNode outNode, SDGNode target) {
+    private void propagateAllActIns(SccWork work, IntrusiveList<Edge> worklist, SDGNode outNode, SDGNode target) {
     	for (SDGNode inNode : out2in.get(outNode.getId())) {
-    		propagate(worklist, inNode, target);
+    		propagate(work, worklist, inNode, target);
     	}
     }
 
-    private void propagate(IntrusiveList<Edge> worklist, SDGNode source, SDGNode target) {
+    private void propagate(SccWork work, IntrusiveList<Edge> worklist, SDGNode source, SDGNode target) {
     	assert source.getProc() == target.getProc();
     	assert worklist == worklists.get(source.getProc());
         if (relevantProcs != null && !(relevantProcs.contains(source.getProc())
@@ -722,7 +832,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         	final Edge e = new Edge(source, target);
         	assert pathEdge.add(e);
             worklist.add(e);
-            assert procedureWorkSet.contains(source.getProc()) || worklist == current;
+            assert work.procedureWorkSet.contains(source.getProc()) || worklist == work.current;
             if (source.getKind() == SDGNode.Kind.ACTUAL_OUT) {
             	final ActualOutInformation aoInformation = (ActualOutInformation) source.customData;
             	final AoPathsNodesBitvector aoPaths = aoInformation.aoPaths;
@@ -753,7 +863,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
 
 
 
-    private Collection<AcutalInActualOutPair> aiaoPairs(Edge e) {
+    Collection<AcutalInActualOutPair> aiaoPairs(Edge e) {
         final IntrusiveList<AcutalInActualOutPair> result = new IntrusiveList<>();
         
         assert e.source.getKind() == SDGNode.Kind.FORMAL_IN;
@@ -834,7 +944,7 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
         return null;
     }
     
-    private SDGNode getCallSiteFor(SDGNode node){
+    final SDGNode getCallSiteFor(SDGNode node){
     	assert node.getKind() == SDGNode.Kind.ACTUAL_IN || node.getKind() == SDGNode.Kind.ACTUAL_OUT;
 
     	final SDGEdge[] es = graph.incomingEdgesOfUnsafe(node);
@@ -847,9 +957,9 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
     	return e.getSource();
     }
 
-    private static class Edge implements Intrusable<Edge> {
-        private SDGNode source;
-        private SDGNode target;
+    static final class Edge implements Intrusable<Edge> {
+        final SDGNode source;
+        final SDGNode target;
         
         private Edge next;
 
@@ -895,47 +1005,47 @@ public class SummaryComputation3< G extends DirectedGraph<SDGNode, SDGEdge> & Ef
             return source.getId()+" -> "+target.getId();
         }
     }
-}
 
-class AcutalInActualOutPair implements Intrusable<AcutalInActualOutPair> {
-	private final SDGNode actualIn;
-	private SDGNode actualOut;
+	static final class AcutalInActualOutPair implements Intrusable<AcutalInActualOutPair> {
+		private final SDGNode actualIn;
+		private SDGNode actualOut;
 	
-	private AcutalInActualOutPair next;
+		private AcutalInActualOutPair next;
 
-	AcutalInActualOutPair(SDGNode ai) {
-		assert ai.getKind() == SDGNode.Kind.ACTUAL_IN;
-		actualIn = ai;
-	}
+		AcutalInActualOutPair(SDGNode ai) {
+			assert ai.getKind() == SDGNode.Kind.ACTUAL_IN;
+			actualIn = ai;
+		}
 	
-    @Override
-    public void setNext(AcutalInActualOutPair next) {
-    	this.next = next;
-    }
+	    @Override
+	    public void setNext(AcutalInActualOutPair next) {
+	    	this.next = next;
+	    }
     
-    @Override
-    public AcutalInActualOutPair getNext() {
-    	return next;
-    }
+	    @Override
+	    public AcutalInActualOutPair getNext() {
+	    	return next;
+	    }
     
 
-	final void setActualOut(SDGNode ao) {
-		assert ao.getKind() == SDGNode.Kind.ACTUAL_OUT;
-		assert ao.getProc() == actualIn.getProc();
-		actualOut = ao;
-	}
+		final void setActualOut(SDGNode ao) {
+			assert ao.getKind() == SDGNode.Kind.ACTUAL_OUT;
+			assert ao.getProc() == actualIn.getProc();
+			actualOut = ao;
+		}
 
-	public SDGNode getActualIn() {
-		return actualIn;
-	}
+		public SDGNode getActualIn() {
+			return actualIn;
+		}
 
-	public SDGNode getActualOut() {
-		return actualOut;
-	}
+		public SDGNode getActualOut() {
+			return actualOut;
+		}
 	
-	@Override
-	public String toString() {
-		return "(" + actualIn + ", " + actualOut + ")";
+		@Override
+		public String toString() {
+			return "(" + actualIn + ", " + actualOut + ")";
+		}
 	}
 }
 
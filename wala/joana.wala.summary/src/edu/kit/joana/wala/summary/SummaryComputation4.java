@@ -0,0 +1,366 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.summary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.collections.IntrusiveList;
+import edu.kit.joana.util.graph.EfficientGraph;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Parallel variant of {@link SummaryComputation3}.
+ * <p>
+ * {@link SummaryComputation3} processes the strongly connected components of the call graph one after another, callees
+ * first. Here, each component is a task on a {@link ForkJoinPool}, which is started as soon as the tasks of all
+ * components it calls are done. Hence components that do not depend on each other are processed in parallel.
+ * <p>
+ * All state of the path edge computation (the worklists and the path edges reaching the formal-outs) belongs to the
+ * nodes of a single component, so it is only accessed by the task of this component. The only information that crosses
+ * components are the summary edges of a callee, which are needed at the call sites in its callers. The task of the callee
+ * appends them to a lock-free queue of each calling component, where they are picked up when the caller starts. As in
+ * {@link SummaryComputation3}, the summary edges of the call sites of a component are added to the SDG when the
+ * component is done. Each task only adds edges to nodes of its own component, which no other running task reads.
+ * <p>
+ * The computed summary edges are the same as the ones of {@link SummaryComputation3}.
+ */
+public class SummaryComputation4< G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGraph<SDGNode, SDGEdge>>
+		extends SummaryComputation3<G> {
+
+	/** for each component, the other components that call it */
+	private final int[][] callerSccs;
+	/** for each component, the number of other components it calls */
+	private final int[] calleeSccCount;
+	private final List<SccTask> tasks = new ArrayList<>();
+
+	private SummaryComputation4(G graph, TIntSet relevantFormalIns,
+			TIntSet relevantProcs, TIntSet fullyConnected, TIntObjectMap<List<SDGNode>> out2in,
+			boolean rememberReached, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
+			String annotate, boolean followExistingSummaries, DirectedGraph<Integer, DefaultEdge> callGraph) {
+		super(graph, relevantFormalIns, relevantProcs, fullyConnected, out2in, rememberReached, sumEdgeKind,
+				relevantEdges, annotate, followExistingSummaries, callGraph);
+
+		final int nrOfSccs = procSccs.size();
+		final TIntHashSet[] callers = new TIntHashSet[nrOfSccs];
+		this.calleeSccCount = new int[nrOfSccs];
+		for (int scc = 0; scc < nrOfSccs; scc++) {
+			final TIntHashSet callees = new TIntHashSet();
+			for (Integer proc : procSccs.get(scc)) {
+				for (DefaultEdge call : callGraph.outgoingEdgesOf(proc)) {
+					final int calleeScc = indexNumberOf.getInt(callGraph.getEdgeTarget(call));
+					if (calleeScc != scc && callees.add(calleeScc)) {
+						if (callers[calleeScc] == null) {
+							callers[calleeScc] = new TIntHashSet();
+						}
+						callers[calleeScc].add(scc);
+					}
+				}
+			}
+			calleeSccCount[scc] = callees.size();
+		}
+		this.callerSccs = new int[nrOfSccs][];
+		for (int scc = 0; scc < nrOfSccs; scc++) {
+			callerSccs[scc] = callers[scc] == null ? new int[0] : callers[scc].toArray();
+		}
+	}
+
+	public static int compute(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY, defaultRelevantEdges(), pool, progress);
+	}
+
+	public static int computeAdjustedAliasDep(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, adjustedAliasDepRelevantEdges(), pool, progress);
+	}
+
+	public static int computePureDataDep(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, pureDataDepRelevantEdges(), pool, progress);
+	}
+
+	public static int computeFullAliasDataDep(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		return compute(pack, pool, progress);
+	}
+
+	public static int computeNoAliasDataDep(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_NO_ALIAS, noAliasDataDepRelevantEdges(), pool, progress);
+	}
+
+	public static int computeHeapDataDep(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY_DATA, heapDataDepRelevantEdges(), pool, progress);
+	}
+
+	private static int compute(WorkPackage<SDG> pack, SDGEdge.Kind sumEdgeKind, Set<SDGEdge.Kind> relevantEdges,
+			ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		// the call graph is needed for the components and for the calls between them, so it is only extracted once
+		final DirectedGraph<Integer, DefaultEdge> callGraph = extractCallGraph(pack.getGraph(), pack.getRelevantProcIds());
+		SummaryComputation4<SDG> comp = new SummaryComputation4<SDG>(pack.getGraph(), pack.getAllFormalInIds(),
+				pack.getRelevantProcIds(), pack.getFullyConnected(), pack.getOut2In(),
+				pack.getRememberReached(), sumEdgeKind, relevantEdges, null, pack.getFollowExistingSummaries(),
+				callGraph);
+		Collection<SDGEdge> formInOutSummaryEdge = comp.computeSummaryEdges(pool, progress);
+
+		return addSummaryDeps(pack, formInOutSummaryEdge);
+	}
+
+	@Override
+	SccWork workOf(int procedure) {
+		return tasks.get(indexNumberOf.getInt(procedure)).work;
+	}
+
+	private Collection<SDGEdge> computeSummaryEdges(ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		final Scheduler scheduler = new Scheduler(progress);
+		for (int scc = 0; scc < procSccs.size(); scc++) {
+			tasks.add(new SccTask(scheduler, scc));
+		}
+
+		initialize();
+
+		pool.invoke(scheduler);
+
+		if (scheduler.canceled.get()) {
+			throw CancelException.make("summary computation canceled");
+		}
+
+		final HashSet<SDGEdge> formInOutSummaryEdge = new HashSet<SDGEdge>();
+		for (SccTask task : tasks) {
+			formInOutSummaryEdge.addAll(task.work.formInOutSummaryEdge);
+		}
+
+		return formInOutSummaryEdge;
+	}
+
+	/**
+	 * Root of all component tasks. Completes when the tasks of all components are done.
+	 */
+	@SuppressWarnings("serial")
+	private final class Scheduler extends CountedCompleter<Void> {
+		private final IProgressMonitor progress;
+		private final AtomicBoolean canceled = new AtomicBoolean(false);
+
+		private Scheduler(IProgressMonitor progress) {
+			this.progress = progress;
+		}
+
+		@Override
+		public void compute() {
+			// the component tasks complete this task, it does not complete itself
+			setPendingCount(tasks.size());
+			// the roots are chosen by the initial number of callees: tasks forked earlier may already have counted down
+			// the callees of other tasks, which are then forked by the last of their callees
+			for (SccTask task : tasks) {
+				if (calleeSccCount[task.scc] == 0) {
+					task.fork();
+				}
+			}
+			tryComplete();
+		}
+	}
+
+	/**
+	 * Computes the summary edges of the procedures of a single component.
+	 */
+	@SuppressWarnings("serial")
+	private final class SccTask extends CountedCompleter<Void> {
+		private final Scheduler scheduler;
+		private final int scc;
+		/** number of called components that are not done yet */
+		private final AtomicInteger pendingCallees;
+		/** summary edges (pairs of actual-in and actual-out) at call sites of this component, published by its callees */
+		private final ConcurrentLinkedQueue<SDGNode[]> publishedSummaries = new ConcurrentLinkedQueue<>();
+
+		/* only accessed by the task itself */
+		/** summary edges at call sites in other components, as pairs of actual-in and actual-out */
+		private final Map<Integer, List<SDGNode>> summariesForCallers = new HashMap<>();
+		private final SccWork work = new SccWork(new TreeSet<>(), new ArrayList<>()) {
+			@Override
+			boolean defer(SDGNode actualIn, SDGNode actualOut) {
+				final int callerScc = indexNumberOf.getInt(actualIn.getProc());
+				if (callerScc == scc) {
+					return false;
+				}
+				final List<SDGNode> summaries = summariesForCallers.computeIfAbsent(callerScc, c -> new ArrayList<>());
+				summaries.add(actualIn);
+				summaries.add(actualOut);
+				return true;
+			}
+		};
+
+		private SccTask(Scheduler scheduler, int scc) {
+			super(scheduler);
+			this.scheduler = scheduler;
+			this.scc = scc;
+			this.pendingCallees = new AtomicInteger(calleeSccCount[scc]);
+		}
+
+		@Override
+		public void compute() {
+			if (scheduler.progress != null && scheduler.progress.isCanceled()) {
+				scheduler.canceled.set(true);
+			}
+
+			if (!scheduler.canceled.get()) {
+				// the procedures of this component have not been processed yet, so no path edges reach the actual-outs
+				for (SDGNode[] summary : publishedSummaries) {
+					addSummaryEdge(work, summary[0], summary[1]);
+				}
+				publishedSummaries.clear();
+
+				if (!work.procedureWorkSet.isEmpty()) {
+					while (!work.procedureWorkSet.isEmpty()) {
+						final int procedure; {
+							final Iterator<Integer> iterator = work.procedureWorkSet.iterator();
+							procedure = iterator.next();
+							iterator.remove();
+						}
+						processWorklist(work, procedure);
+					}
+
+					for (Integer inSameScc : procSccs.get(scc)) {
+						addSummaryEdgesToGraph(inSameScc);
+					}
+				}
+			}
+
+			// the callers of this component only need its summary edges, which are published below
+			for (Integer inSameScc : procSccs.get(scc)) {
+				dropProcLocalNodes(inSameScc);
+			}
+
+			for (int caller : callerSccs[scc]) {
+				final SccTask callerTask = tasks.get(caller);
+				final List<SDGNode> summaries = summariesForCallers.get(caller);
+				if (summaries != null) {
+					for (int i = 0; i < summaries.size(); i += 2) {
+						callerTask.publishedSummaries.add(new SDGNode[] { summaries.get(i), summaries.get(i + 1) });
+					}
+				}
+				if (callerTask.pendingCallees.decrementAndGet() == 0) {
+					callerTask.fork();
+				}
+			}
+			summariesForCallers.clear();
+
+			tryComplete();
+		}
+	}
+
+	/**
+	 * In contrast to {@link SummaryComputation3}, the pairs are not stored at the call nodes, since the call nodes
+	 * may be shared with the tasks of other callees.
+	 */
+	@Override
+	Collection<AcutalInActualOutPair> aiaoPairs(Edge e) {
+		final IntrusiveList<AcutalInActualOutPair> result = new IntrusiveList<>();
+		final Map<SDGNode, AcutalInActualOutPair> pairAtCall = new HashMap<>();
+
+		assert e.source.getKind() == SDGNode.Kind.FORMAL_IN;
+		assert e.target.getKind() == SDGNode.Kind.FORMAL_OUT || e.target.getKind() == SDGNode.Kind.EXIT;
+
+		for (SDGEdge pi : graph.incomingEdgesOfUnsafe(e.source)) {
+			if (pi == null) continue;
+			if (pi.getKind() == SDGEdge.Kind.PARAMETER_IN) {
+				final SDGNode ai = pi.getSource();
+				final AcutalInActualOutPair pair = new AcutalInActualOutPair(ai);
+				pairAtCall.put(getCallSiteFor(ai), pair);
+				result.add(pair);
+			}
+		}
+
+		for (SDGEdge po : graph.outgoingEdgesOfUnsafe(e.target)) {
+			if (po == null) continue;
+			if (po.getKind() == SDGEdge.Kind.PARAMETER_OUT) {
+				final SDGNode ao = po.getTarget();
+				final AcutalInActualOutPair pair = pairAtCall.remove(getCallSiteFor(ao));
+				assert pair != null;
+
+				pair.setActualOut(ao);
+			}
+		}
+
+		return result;
+	}
+
+	static class Computer implements ISummaryComputer {
+
+		private interface Computation {
+			int compute(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException;
+		}
+
+		private static int compute(Computation computation, WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
+				throws CancelException {
+			if (parallel) {
+				return computation.compute(pack, ForkJoinPool.commonPool(), progress);
+			}
+
+			final ForkJoinPool pool = new ForkJoinPool(1);
+			try {
+				return computation.compute(pack, pool, progress);
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		@Override
+		public int compute(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
+			return compute(SummaryComputation4::compute, pack, parallel, progress);
+		}
+
+		@Override
+		public int computeAdjustedAliasDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
+				throws CancelException {
+			return compute(SummaryComputation4::computeAdjustedAliasDep, pack, parallel, progress);
+		}
+
+		@Override
+		public int computePureDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
+				throws CancelException {
+			return compute(SummaryComputation4::computePureDataDep, pack, parallel, progress);
+		}
+
+		@Override
+		public int computeFullAliasDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
+				throws CancelException {
+			return compute(SummaryComputation4::computeFullAliasDataDep, pack, parallel, progress);
+		}
+
+		@Override
+		public int computeNoAliasDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
+				throws CancelException {
+			return compute(SummaryComputation4::computeNoAliasDataDep, pack, parallel, progress);
+		}
+
+		@Override
+		public int computeHeapDataDep(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress)
+				throws CancelException {
+			return compute(SummaryComputation4::computeHeapDataDep, pack, parallel, progress);
+		}
+	}
+}
@@ -17,7 +17,9 @@ public enum SummaryComputationType {
 	JOANA_CLASSIC_SCC(new SummaryComputer3()),
 	SIMON_SCC(new SummaryComputer2()),
 	@Deprecated
-	SIMON_PARALLEL_SCC(new AlwaysParallel(new SummaryComputer2()));
+	SIMON_PARALLEL_SCC(new AlwaysParallel(new SummaryComputer2())),
+	/** {@link SummaryComputation4}: processes independent call graph SCCs of {@link #JOANA_CLASSIC_SCC} in parallel */
+	JOANA_PARALLEL_SCC(new AlwaysParallel(new SummaryComputation4.Computer()));
 	
 	
 	public static final SummaryComputationType DEFAULT = JOANA_CLASSIC_SCC;
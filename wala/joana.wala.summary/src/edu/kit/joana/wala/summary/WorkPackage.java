@@ -262,6 +262,8 @@ public class WorkPackage<G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGr
 	private final TIntObjectMap<List<SDGNode>> out2in;
 	private boolean immutable = false;
 	private final boolean rememberReached;
+	/** whether summary edges already in the graph are followed, see {@link IncrementalSummaryComputation} */
+	private boolean followExistingSummaries = false;
 
 	private WorkPackage(G subgraph, Set<EntryPoint> entries, String name,
 			TIntSet relevantProcs, TIntSet fullyConnected, TIntObjectMap<List<SDGNode>> out2in,
@@ -331,6 +333,14 @@ public class WorkPackage<G extends DirectedGraph<SDGNode, SDGEdge> & EfficientGr
 		return rememberReached;
 	}
 
+	boolean getFollowExistingSummaries() {
+		return followExistingSummaries;
+	}
+
+	void setFollowExistingSummaries(boolean followExistingSummaries) {
+		this.followExistingSummaries = followExistingSummaries;
+	}
+
 	public void workIsDone() {
 		if (!immutable) {
 			immutable = true;
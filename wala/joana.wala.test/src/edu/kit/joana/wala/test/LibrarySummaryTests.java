@@ -0,0 +1,280 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.util.BytecodeLocation;
+import edu.kit.joana.util.SourceLocation;
+import edu.kit.joana.wala.dictionary.Dictionary;
+import edu.kit.joana.wala.dictionary.Dictionary.SDGSummaryReference;
+import edu.kit.joana.wala.dictionary.LibrarySummaryCheck;
+import edu.kit.joana.wala.dictionary.LibrarySummaryStore;
+import edu.kit.joana.wala.flowless.pointsto.AliasGraph.MayAliasGraph;
+import edu.kit.joana.wala.summary.SummaryComputation3;
+import edu.kit.joana.wala.summary.WorkPackage;
+import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Checks that the summary edges {@link LibrarySummaryCheck} adds at a call of a library method from the summary in a
+ * {@link LibrarySummaryStore} are the ones that are computed if the library method is analyzed as part of the sdg.
+ */
+public class LibrarySummaryTests {
+
+	private static final String JAR = "lib";
+	private static final String METHOD = "lib.Lib.m(Llib/A;I)I";
+	/** the signature of the method as used by the store, see {@link Dictionary#extractSignature} */
+	private static final String METHOD_SIG = "lib.Lib.m(Llib.A#I)I";
+	private static final String FIELD_F = "lib.A.f";
+	private static final String FIELD_G = "lib.A.g";
+	private static final String FIELD_H = "lib.A.h";
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	/**
+	 * The call of the library method Lib.m(A a, int i) in the procedure 0 with the parameters of its actual nodes.
+	 */
+	private static final class Caller {
+		private final SDG sdg = new SDG("caller");
+		private final SDGNode entry;
+		private final SDGNode call;
+		private final SDGNode a;
+		private final SDGNode af;
+		private final SDGNode i;
+		private final SDGNode ret;
+		private final SDGNode ag;
+		private final SDGNode exc;
+		private int nextId = 1;
+
+		private Caller() {
+			entry = add(SDGNode.Operation.ENTRY, "main", 0, "main()V", BytecodeLocation.UNDEFINED_POS_IN_BYTECODE);
+			final SDGNode exit = add(SDGNode.Operation.EXIT, "main exit", 0, BytecodeLocation.RETURN_PARAM,
+					BytecodeLocation.ROOT_PARAMETER);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(entry, exit));
+			sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(entry, exit));
+			call = add(SDGNode.Operation.CALL, "call m", 0, "main()V", 3);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(entry, call));
+			a = actual(SDGNode.Operation.ACTUAL_IN, "a", null, BytecodeLocation.ROOT_PARAMETER, param(0));
+			af = actual(SDGNode.Operation.ACTUAL_IN, "a.f", a, BytecodeLocation.OBJECT_FIELD, FIELD_F);
+			i = actual(SDGNode.Operation.ACTUAL_IN, "i", null, BytecodeLocation.ROOT_PARAMETER, param(1));
+			ret = actual(SDGNode.Operation.ACTUAL_OUT, "ret", null, BytecodeLocation.ROOT_PARAMETER,
+					BytecodeLocation.RETURN_PARAM);
+			ag = actual(SDGNode.Operation.ACTUAL_OUT, "a.g", a, BytecodeLocation.OBJECT_FIELD, FIELD_G);
+			exc = actual(SDGNode.Operation.ACTUAL_OUT, "exc", null, BytecodeLocation.ROOT_PARAMETER,
+					BytecodeLocation.EXCEPTION_PARAM);
+		}
+
+		private SDGNode add(SDGNode.Operation op, String label, int proc, String bcName, int bcIndex) {
+			final SDGNode n = new SDGNode(nextId++, op, label, proc, null, SourceLocation.UNKNOWN, bcName, bcIndex,
+					null, null, null, null, null);
+			sdg.addVertex(n);
+			return n;
+		}
+
+		private SDGNode actual(SDGNode.Operation op, String label, SDGNode parent, int bcIndex, String bcName) {
+			final SDGNode n = add(op, label, 0, bcName, bcIndex);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(call, n));
+			if (parent != null) {
+				sdg.addEdge(SDGEdge.Kind.PARAMETER_STRUCTURE.newEdge(parent, n));
+			}
+			return n;
+		}
+
+		/**
+		 * Adds the library method, which reads a.f and passes it to a helper method whose result it returns, and
+		 * which writes i to a.g, and connects the call to it.
+		 */
+		private SDGNode addLibraryMethod() {
+			final SDGNode lib = add(SDGNode.Operation.ENTRY, "m", 1, METHOD, BytecodeLocation.UNDEFINED_POS_IN_BYTECODE);
+			final SDGNode fa = formal(lib, SDGNode.Operation.FORMAL_IN, "a", null, BytecodeLocation.ROOT_PARAMETER, param(0));
+			final SDGNode faf = formal(lib, SDGNode.Operation.FORMAL_IN, "a.f", fa, BytecodeLocation.OBJECT_FIELD, FIELD_F);
+			final SDGNode fi = formal(lib, SDGNode.Operation.FORMAL_IN, "i", null, BytecodeLocation.ROOT_PARAMETER, param(1));
+			final SDGNode fret = formal(lib, SDGNode.Operation.EXIT, "ret", null, BytecodeLocation.ROOT_PARAMETER,
+					BytecodeLocation.RETURN_PARAM);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(lib, fret));
+			final SDGNode fag = formal(lib, SDGNode.Operation.FORMAL_OUT, "a.g", fa, BytecodeLocation.OBJECT_FIELD, FIELD_G);
+			final SDGNode fexc = formal(lib, SDGNode.Operation.FORMAL_OUT, "exc", null, BytecodeLocation.ROOT_PARAMETER,
+					BytecodeLocation.EXCEPTION_PARAM);
+
+			// int m(A a, int i) { a.g = i; return id(a.f); }
+			final SDGNode read = add(SDGNode.Operation.ASSIGN, "v = a.f", 1, METHOD, 1);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(lib, read));
+			sdg.addEdge(SDGEdge.Kind.DATA_HEAP.newEdge(faf, read));
+			sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(fa, read));
+			final SDGNode write = add(SDGNode.Operation.ASSIGN, "a.g = i", 1, METHOD, 2);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(lib, write));
+			sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(fi, write));
+			sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(write, fag));
+
+			final SDGNode id = add(SDGNode.Operation.ENTRY, "id", 2, "lib.Lib.id(I)I",
+					BytecodeLocation.UNDEFINED_POS_IN_BYTECODE);
+			final SDGNode fx = formal(id, SDGNode.Operation.FORMAL_IN, "x", null, BytecodeLocation.ROOT_PARAMETER, param(0));
+			final SDGNode fidret = formal(id, SDGNode.Operation.EXIT, "ret", null, BytecodeLocation.ROOT_PARAMETER,
+					BytecodeLocation.RETURN_PARAM);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(id, fidret));
+			sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(fx, fidret));
+
+			final SDGNode callId = add(SDGNode.Operation.CALL, "call id", 1, METHOD, 3);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_UNCOND.newEdge(lib, callId));
+			sdg.addEdge(SDGEdge.Kind.CALL.newEdge(callId, id));
+			final SDGNode x = add(SDGNode.Operation.ACTUAL_IN, "x", 1, param(0), BytecodeLocation.ROOT_PARAMETER);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(callId, x));
+			sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(read, x));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_IN.newEdge(x, fx));
+			final SDGNode idret = add(SDGNode.Operation.ACTUAL_OUT, "id ret", 1, BytecodeLocation.RETURN_PARAM,
+					BytecodeLocation.ROOT_PARAMETER);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(callId, idret));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_OUT.newEdge(fidret, idret));
+			sdg.addEdge(SDGEdge.Kind.DATA_DEP.newEdge(idret, fret));
+
+			sdg.addEdge(SDGEdge.Kind.CALL.newEdge(call, lib));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_IN.newEdge(a, fa));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_IN.newEdge(af, faf));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_IN.newEdge(i, fi));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_OUT.newEdge(fret, ret));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_OUT.newEdge(fag, ag));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_OUT.newEdge(fexc, exc));
+
+			return lib;
+		}
+
+		private SDGNode formal(SDGNode entry, SDGNode.Operation op, String label, SDGNode parent, int bcIndex,
+				String bcName) {
+			final SDGNode n = add(op, label, entry.getProc(), bcName, bcIndex);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_DEP_EXPR.newEdge(entry, n));
+			sdg.addEdge(SDGEdge.Kind.PARAMETER_STRUCTURE.newEdge(parent == null ? entry : parent, n));
+			return n;
+		}
+
+		private void computeSummaryEdges() throws Exception {
+			final Set<EntryPoint> entries = new TreeSet<EntryPoint>();
+			for (final SDGNode n : sdg.vertexSet()) {
+				if (n.getKind() == SDGNode.Kind.ENTRY) {
+					final TIntHashSet formIns = new TIntHashSet();
+					for (final SDGNode fIn : sdg.getFormalInsOfProcedure(n)) {
+						formIns.add(fIn.getId());
+					}
+					final TIntHashSet formOuts = new TIntHashSet();
+					for (final SDGNode fOut : sdg.getFormalOutsOfProcedure(n)) {
+						formOuts.add(fOut.getId());
+					}
+					entries.add(new EntryPoint(n.getId(), formIns, formOuts));
+				}
+			}
+			SummaryComputation3.compute(WorkPackage.create(sdg, entries, sdg.getName()), null);
+		}
+
+		private Set<String> summaryEdges() {
+			final Set<String> edges = new TreeSet<String>();
+			for (final SDGEdge e : sdg.outgoingEdgesOf(call)) {
+				if (e.getKind() == SDGEdge.Kind.CONTROL_DEP_EXPR) {
+					for (final SDGEdge sum : sdg.getOutgoingEdgesOfKind(e.getTarget(), SDGEdge.Kind.SUMMARY)) {
+						edges.add(sum.getSource().getLabel() + " -> " + sum.getTarget().getLabel());
+					}
+				}
+			}
+			return edges;
+		}
+	}
+
+	private static String param(int num) {
+		return BytecodeLocation.ROOT_PARAM_PREFIX + num;
+	}
+
+	/**
+	 * Stores the summary of the library method analyzed as part of the given sdg and loads it again.
+	 */
+	private SDG storeAndLoad(Caller analyzed, SDGNode lib) throws IOException {
+		final SDG summary = LibrarySummaryCheck.createSummary(analyzed.sdg, lib);
+		final MayAliasGraph context = new MayAliasGraph(false);
+		final LibrarySummaryStore store = new LibrarySummaryStore(tmp.getRoot());
+		assertFalse(store.containsMethod(JAR, METHOD_SIG));
+		store.put(JAR, METHOD_SIG, context, summary);
+
+		// a new store reads the summary from the disk
+		final LibrarySummaryStore reread = new LibrarySummaryStore(tmp.getRoot());
+		assertTrue(reread.containsMethod(JAR, METHOD_SIG));
+		final SDGSummaryReference sumref = reread.lookup(JAR, METHOD_SIG, context);
+		assertNotNull(sumref);
+		assertNull(reread.lookup(JAR, "lib.Lib.other()V", context));
+
+		return sumref.load();
+	}
+
+	private static SDGNode entryOf(SDG summary) {
+		for (final SDGNode n : summary.vertexSet()) {
+			if (n.getKind() == SDGNode.Kind.ENTRY && METHOD.equals(n.getBytecodeName())) {
+				return n;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testSummarizedCallHasSameSummaryEdges() throws Exception {
+		final Caller analyzed = new Caller();
+		final SDGNode lib = analyzed.addLibraryMethod();
+		analyzed.computeSummaryEdges();
+		final Set<String> expected = analyzed.summaryEdges();
+		// the dependencies through the fields of the parameter a
+		assertTrue(expected.contains("a.f -> ret"));
+		assertTrue(expected.contains("i -> a.g"));
+		assertFalse(expected.contains("i -> ret"));
+		assertFalse(expected.contains("a.f -> a.g"));
+
+		final SDG summary = storeAndLoad(analyzed, lib);
+		final SDGNode sumEntry = entryOf(summary);
+		assertNotNull(sumEntry);
+
+		final Caller summarized = new Caller();
+		LibrarySummaryCheck.addSummaryEdges(summarized.sdg, summarized.call, summary, sumEntry);
+		assertEquals(expected, summarized.summaryEdges());
+	}
+
+	@Test
+	public void testUnknownParametersAreConnectedToAll() throws Exception {
+		final Caller analyzed = new Caller();
+		final SDGNode lib = analyzed.addLibraryMethod();
+		analyzed.computeSummaryEdges();
+		final Set<String> expected = analyzed.summaryEdges();
+		final SDG summary = storeAndLoad(analyzed, lib);
+
+		// the summary knows nothing about the field h of the parameter a
+		final Caller summarized = new Caller();
+		final SDGNode ah = summarized.actual(SDGNode.Operation.ACTUAL_IN, "a.h", summarized.a,
+				BytecodeLocation.OBJECT_FIELD, FIELD_H);
+		final SDGNode ahOut = summarized.actual(SDGNode.Operation.ACTUAL_OUT, "a.h'", summarized.a,
+				BytecodeLocation.OBJECT_FIELD, FIELD_H);
+		for (final SDGNode actOut : new SDGNode[] { summarized.ret, summarized.ag, summarized.exc, ahOut }) {
+			expected.add(ah.getLabel() + " -> " + actOut.getLabel());
+		}
+		for (final SDGNode actIn : new SDGNode[] { summarized.a, summarized.af, summarized.i }) {
+			expected.add(actIn.getLabel() + " -> " + ahOut.getLabel());
+		}
+
+		LibrarySummaryCheck.addSummaryEdges(summarized.sdg, summarized.call, summary, entryOf(summary));
+		assertEquals(expected, summarized.summaryEdges());
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.ibm.wala.classLoader.CallSiteReference;
+import com.ibm.wala.ipa.callgraph.CGNode;
+import com.ibm.wala.types.TypeReference;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.collections.Pair;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.dominators.Dominators;
+import com.ibm.wala.util.graph.impl.SlowSparseNumberedGraph;
+
+import edu.kit.joana.wala.core.ParameterField;
+import edu.kit.joana.wala.core.ParameterFieldFactory;
+import edu.kit.joana.wala.core.killdef.Access;
+import edu.kit.joana.wala.core.killdef.AccessManager;
+import edu.kit.joana.wala.core.killdef.BitVectorKillingDefs;
+import edu.kit.joana.wala.core.killdef.FieldAccess;
+import edu.kit.joana.wala.core.killdef.IFieldsMayMod;
+import edu.kit.joana.wala.core.killdef.LocalKillingDefs;
+
+/**
+ * Checks that {@link BitVectorKillingDefs} computes the same killed reads as
+ * {@link LocalKillingDefs#computeKilledReads} on random flow graphs with random field, static and array accesses and
+ * calls.
+ */
+public class LocalKillingDefsTest {
+
+	private static final long SEED = 42;
+	private static final int RUNS = 500;
+	private static final int MAX_NODES = 80;
+
+	private static final ParameterFieldFactory FIELDS = new ParameterFieldFactory();
+	/* the accesses only compare their fields, so any distinct fields will do */
+	private static final ParameterField F = FIELDS.getArrayField(TypeReference.Int);
+	private static final ParameterField G = FIELDS.getArrayField(TypeReference.Char);
+	private static final ParameterField ARRAY = FIELDS.getArrayField(TypeReference.JavaLangObject);
+
+	/** calls may modify G, but never F */
+	private static final IFieldsMayMod MAY_MOD_G = new IFieldsMayMod() {
+
+		@Override
+		public boolean mayCallModField(final CGNode method, final CallSiteReference csr, final ParameterField field) {
+			return field == G;
+		}
+
+		@Override
+		public IFieldsMayModMethod getFieldsModFor(final CGNode method) {
+			return null;
+		}
+	};
+
+	/**
+	 * A flow graph with the entry 0 and the exit n - 1. Every node is reachable from the entry, loops and
+	 * unreachable exits are possible.
+	 */
+	private static NumberedGraph<Integer> randomFlow(final Random random, final int n) {
+		final SlowSparseNumberedGraph<Integer> flow = SlowSparseNumberedGraph.make();
+		for (int i = 0; i < n; i++) {
+			flow.addNode(i);
+		}
+
+		for (int i = 0; i < n - 1; i++) {
+			if (i == 0 || random.nextInt(5) != 0) {
+				flow.addEdge(i, i + 1);
+			}
+		}
+
+		for (int i = 1; i < n - 1; i++) {
+			final int edges = random.nextInt(3);
+			for (int e = 0; e < edges; e++) {
+				flow.addEdge(i, 1 + random.nextInt(n - 1));
+			}
+		}
+
+		for (int i = 1; i < n; i++) {
+			if (flow.getPredNodeCount(i) == 0) {
+				flow.addEdge(i - 1, i);
+			}
+		}
+
+		return flow;
+	}
+
+	/**
+	 * Adds a random access to each inner node of the flow graph and the additional initial writes to the entry.
+	 * Values, bases and indices are drawn from a small range, so that many of them are equal.
+	 */
+	private static AccessManager<Integer> randomAccesses(final long seed, final int n) {
+		final Random random = new Random(seed);
+		final AccessManager<Integer> accesses = new AccessManager<Integer>(null);
+		for (int i = 1; i < n - 1; i++) {
+			final int value = 1 + random.nextInt(5);
+			final int base = 1 + random.nextInt(3);
+			final int index = 1 + random.nextInt(3);
+			final ParameterField field = (random.nextBoolean() ? F : G);
+
+			final Access<Integer> acc;
+			switch (random.nextInt(8)) {
+			case 0:
+				acc = accesses.addFieldRead(i, field, base, value);
+				break;
+			case 1:
+				acc = accesses.addFieldWrite(i, field, base, value);
+				break;
+			case 2:
+				acc = accesses.addStaticRead(i, field, value);
+				break;
+			case 3:
+				acc = accesses.addStaticWrite(i, field, value);
+				break;
+			case 4:
+				acc = accesses.addArrayRead(i, ARRAY, base, index, value);
+				break;
+			case 5:
+				acc = accesses.addArrayWrite(i, ARRAY, base, index, value);
+				break;
+			case 6:
+				acc = accesses.addCall(i, null);
+				break;
+			default:
+				acc = accesses.addDummy(i);
+			}
+
+			accesses.mapNodeToAccess(i, acc);
+		}
+
+		for (final FieldAccess<Integer> fa : accesses.createAdditionalInitialWrites()) {
+			accesses.mapNodeToAccess(0, fa);
+		}
+
+		return accesses;
+	}
+
+	private static Set<String> toIds(final List<Pair<FieldAccess<Integer>, FieldAccess<Integer>>> killed) {
+		final Set<String> ids = new TreeSet<String>();
+		for (final Pair<FieldAccess<Integer>, FieldAccess<Integer>> p : killed) {
+			ids.add(p.fst.id + "->" + p.snd.id);
+		}
+
+		return ids;
+	}
+
+	@Test
+	public void testSameKilledReads() throws CancelException {
+		final Random random = new Random(SEED);
+		int withKilledReads = 0;
+		for (int run = 0; run < RUNS; run++) {
+			final int n = 3 + random.nextInt(MAX_NODES);
+			final NumberedGraph<Integer> flow = randomFlow(random, n);
+			final Dominators<Integer> dom = Dominators.make(flow, 0);
+			final long seed = random.nextLong();
+
+			// the original computation merges the values of its accesses, so each computation gets its own copy
+			final Set<String> expected = toIds(LocalKillingDefs.computeKilledReads(null, MAY_MOD_G,
+					randomAccesses(seed, n), flow, 0, dom, null));
+			final Set<String> actual = toIds(new BitVectorKillingDefs<Integer>(null, MAY_MOD_G,
+					randomAccesses(seed, n), flow, 0, dom).computeKilledReads(null));
+
+			assertEquals("run " + run + " with " + n + " nodes", expected, actual);
+			if (!expected.isEmpty()) {
+				withKilledReads++;
+			}
+		}
+
+		// make sure the random graphs are not trivial
+		assertTrue(withKilledReads > RUNS / 4);
+	}
+}